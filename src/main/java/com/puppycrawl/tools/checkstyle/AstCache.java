@@ -0,0 +1,697 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.Token;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.TextBlock;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.grammar.java.JavaLanguageLexer;
+import com.puppycrawl.tools.checkstyle.grammar.java.JavaLanguageParser;
+
+/**
+ * A directory of parsed ASTs with their comments, addressed by the digest of the text
+ * of a file together with the version of the grammar, so runs with other configurations
+ * over the same sources load the ASTs instead of parsing the files again.
+ *
+ * <p>Every entry holds the distinct texts of the nodes and comments, followed by the nodes
+ * in pre-order, each one being its token type, line number, column number, the index of its
+ * text and the index of its parent. Then come the hidden comment tokens of the nodes and the
+ * comments the lexer reports to the {@link FileContents} of the file, so a cached file
+ * looks like a parsed one to comment checks and filters. Entries are written to a temporary
+ * file first and then moved in place, so concurrent readers see either no entry or a complete
+ * one. Failures to access the directory are ignored, the files are parsed as if they were
+ * not cached.</p>
+ */
+final class AstCache {
+
+    /** The magic number which starts an entry, "CSA2" in ASCII. */
+    private static final int MAGIC = 0x43534132;
+
+    /** Index of a missing parent, text or node. */
+    private static final int NONE = -1;
+
+    /** Number of ints describing a node in an entry. */
+    private static final int NODE_INTS = 5;
+
+    /** Number of ints describing a hidden comment token in an entry. */
+    private static final int TOKEN_INTS = 5;
+
+    /** Number of ints describing a single-line comment of the file contents. */
+    private static final int SINGLE_LINE_COMMENT_INTS = 2;
+
+    /** Number of ints describing a block comment of the file contents. */
+    private static final int BLOCK_COMMENT_INTS = 4;
+
+    /** Suffix of the temporary files entries are written to. */
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    /** Number of hex digits of the digest naming the subdirectory of an entry. */
+    private static final int SUBDIRECTORY_LENGTH = 2;
+
+    /** The digest algorithm which addresses the entries. */
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /** Digest of the grammar and the version of Checkstyle which build the ASTs. */
+    private static final byte[] GRAMMAR_DIGEST = getGrammarDigest();
+
+    /** The directory of the entries. */
+    private final Path directory;
+
+    /**
+     * Creates a new {@code AstCache} instance.
+     *
+     * @param directory the directory of the entries
+     */
+    AstCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Retrieves the AST of a file text.
+     *
+     * @param text the text of the file
+     * @return the cached AST, or {@code null} if there is no valid entry
+     */
+    CachedAst get(FileText text) {
+        CachedAst result = null;
+        try {
+            result = CachedAst.read(ByteBuffer.wrap(Files.readAllBytes(getEntry(text))), text);
+        }
+        catch (IOException ignored) {
+            // there is no entry, the file is parsed
+        }
+        return result;
+    }
+
+    /**
+     * Records the AST of a file text. The entry is written to a temporary file, which
+     * atomically replaces the existing entry, if any.
+     *
+     * @param text the text of the file
+     * @param rootAST the root of the parsed AST, with its hidden comment tokens
+     * @param contents the contents of the file, with the comments reported by the lexer
+     */
+    void put(FileText text, DetailAST rootAST, FileContents contents) {
+        final Path entry = getEntry(text);
+        try {
+            final Path parent = entry.getParent();
+            Files.createDirectories(parent);
+            final Path temporary = Files.createTempFile(parent,
+                    entry.getFileName().toString(), TEMPORARY_SUFFIX);
+            try {
+                final EntryWriter writer = new EntryWriter();
+                writer.addTree(rootAST);
+                writer.addFileComments(contents);
+                Files.write(temporary, writer.toBytes());
+                move(temporary, entry);
+            }
+            finally {
+                Files.deleteIfExists(temporary);
+            }
+        }
+        catch (IOException ignored) {
+            // the AST is not cached, the file is parsed again next time
+        }
+    }
+
+    /**
+     * Returns the entry of a file text, named after the digest of the grammar and the text.
+     *
+     * @param text the text of the file
+     * @return the entry of the file text
+     */
+    private Path getEntry(FileText text) {
+        final MessageDigest digest = createDigest();
+        digest.update(GRAMMAR_DIGEST);
+        digest.update(text.getFullText().toString().getBytes(StandardCharsets.UTF_8));
+        final String name = toHex(digest.digest());
+        return directory.resolve(name.substring(0, SUBDIRECTORY_LENGTH))
+                .resolve(name.substring(SUBDIRECTORY_LENGTH));
+    }
+
+    /**
+     * Moves a temporary file in place of an entry, atomically if the file system
+     * supports it.
+     *
+     * @param temporary the temporary file
+     * @param entry the entry
+     * @throws IOException if the file can not be moved
+     */
+    private static void move(Path temporary, Path entry) throws IOException {
+        try {
+            Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException ignored) {
+            Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Calculates the digest of the grammar, as serialized by ANTLR, and the version of
+     * Checkstyle, which also covers changes of how ASTs are built from the parse trees.
+     *
+     * @return the digest
+     */
+    private static byte[] getGrammarDigest() {
+        final MessageDigest digest = createDigest();
+        digest.update(String.valueOf(AstCache.class.getPackage().getImplementationVersion())
+                .getBytes(StandardCharsets.UTF_8));
+        digest.update(JavaLanguageLexer._serializedATN.getBytes(StandardCharsets.UTF_8));
+        digest.update(JavaLanguageParser._serializedATN.getBytes(StandardCharsets.UTF_8));
+        return digest.digest();
+    }
+
+    /**
+     * Creates the digest which addresses the entries.
+     *
+     * @return the digest
+     * @throws IllegalStateException if the digest algorithm is not available
+     */
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Unable to calculate digest.", ex);
+        }
+    }
+
+    /**
+     * Encodes bytes in hex, with leading zeros.
+     *
+     * @param value the bytes
+     * @return the hex digits
+     */
+    private static String toHex(byte[] value) {
+        return String.format(Locale.ROOT, "%0" + value.length * 2 + "x",
+                new BigInteger(1, value));
+    }
+
+    /**
+     * Writes an entry.
+     */
+    private static final class EntryWriter {
+
+        /** Indexes of the distinct texts, by text. */
+        private final Map<String, Integer> textIndexes = new HashMap<>();
+
+        /** The distinct texts of the nodes and comment tokens. */
+        private final List<String> texts = new ArrayList<>();
+
+        /** The nodes in pre-order. */
+        private final List<int[]> nodes = new ArrayList<>();
+
+        /** The hidden comment tokens, each with the index of the node it precedes. */
+        private final List<int[]> tokens = new ArrayList<>();
+
+        /** The single-line comments of the file contents. */
+        private final List<int[]> singleLineComments = new ArrayList<>();
+
+        /** The block comments of the file contents. */
+        private final List<int[]> blockComments = new ArrayList<>();
+
+        /**
+         * Adds a tree, which is the given node with its following siblings and all their
+         * descendants, with the comment tokens preceding its nodes and following its last
+         * node.
+         *
+         * @param root the root of the tree
+         */
+        private void addTree(DetailAST root) {
+            final Deque<Integer> ancestors = new ArrayDeque<>();
+            DetailAST current = root;
+            DetailAST lastNode = root;
+            while (current != null) {
+                int parentIndex = NONE;
+                if (!ancestors.isEmpty()) {
+                    parentIndex = ancestors.peek();
+                }
+                nodes.add(new int[] {current.getType(), current.getLineNo(),
+                    current.getColumnNo(), getTextIndex(current.getText()), parentIndex});
+                addTokens(nodes.size() - 1, ((DetailAstImpl) current).getHiddenBefore());
+                lastNode = current;
+                DetailAST next = current.getFirstChild();
+                if (next == null) {
+                    next = current.getNextSibling();
+                    while (next == null && !ancestors.isEmpty()) {
+                        ancestors.pop();
+                        current = current.getParent();
+                        next = current.getNextSibling();
+                    }
+                }
+                else {
+                    ancestors.push(nodes.size() - 1);
+                }
+                current = next;
+            }
+            addTokens(NONE, ((DetailAstImpl) lastNode).getHiddenAfter());
+        }
+
+        /**
+         * Adds hidden comment tokens.
+         *
+         * @param nodeIndex the index of the node the tokens precede, {@link #NONE} for
+         *     the tokens following the last node
+         * @param hiddenTokens the tokens, may be {@code null}
+         */
+        private void addTokens(int nodeIndex, List<Token> hiddenTokens) {
+            if (hiddenTokens != null) {
+                for (Token token : hiddenTokens) {
+                    tokens.add(new int[] {nodeIndex, token.getType(), token.getLine(),
+                        token.getCharPositionInLine(), getTextIndex(token.getText())});
+                }
+            }
+        }
+
+        /**
+         * Adds the comments the lexer reported to the contents of the file, by line.
+         *
+         * @param contents the contents of the file
+         */
+        private void addFileComments(FileContents contents) {
+            for (TextBlock comment : new TreeMap<>(contents.getSingleLineComments()).values()) {
+                singleLineComments.add(new int[] {comment.getStartLineNo(),
+                    comment.getStartColNo()});
+            }
+            for (List<TextBlock> lineComments
+                    : new TreeMap<>(contents.getBlockComments()).values()) {
+                for (TextBlock comment : lineComments) {
+                    blockComments.add(new int[] {comment.getStartLineNo(),
+                        comment.getStartColNo(), comment.getEndLineNo(),
+                        comment.getEndColNo()});
+                }
+            }
+        }
+
+        /**
+         * Returns the index of a text in the text table, adding it if it is new.
+         *
+         * @param text the text, may be {@code null}
+         * @return the index of the text, {@link #NONE} for {@code null}
+         */
+        private int getTextIndex(String text) {
+            int result = NONE;
+            if (text != null) {
+                result = textIndexes.computeIfAbsent(text, key -> {
+                    texts.add(key);
+                    return texts.size() - 1;
+                });
+            }
+            return result;
+        }
+
+        /**
+         * Encodes the entry.
+         *
+         * @return the content of the entry
+         * @throws IOException if the entry can not be encoded
+         */
+        private byte[] toBytes() throws IOException {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream output = new DataOutputStream(bytes)) {
+                output.writeInt(MAGIC);
+                output.writeInt(texts.size());
+                for (String text : texts) {
+                    final byte[] encodedText = text.getBytes(StandardCharsets.UTF_8);
+                    output.writeInt(encodedText.length);
+                    output.write(encodedText);
+                }
+                writeRecords(output, nodes);
+                writeRecords(output, tokens);
+                writeRecords(output, singleLineComments);
+                writeRecords(output, blockComments);
+            }
+            return bytes.toByteArray();
+        }
+
+        /**
+         * Writes the number of records followed by the records.
+         *
+         * @param output the output
+         * @param records the records
+         * @throws IOException if the records can not be written
+         */
+        private static void writeRecords(DataOutputStream output, List<int[]> records)
+                throws IOException {
+            output.writeInt(records.size());
+            for (int[] record : records) {
+                for (int value : record) {
+                    output.writeInt(value);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * An AST loaded from the cache, which builds trees with the hidden comment tokens of a
+     * parsed tree and reports the comments of the file to its contents.
+     */
+    static final class CachedAst {
+
+        /** Index of the token type of a node or comment token. */
+        private static final int TYPE = 0;
+
+        /** Index of the line number of a node. */
+        private static final int NODE_LINE = 1;
+
+        /** Index of the column number of a node. */
+        private static final int NODE_COLUMN = 2;
+
+        /** Index of the text of a node. */
+        private static final int NODE_TEXT = 3;
+
+        /** Index of the parent of a node. */
+        private static final int NODE_PARENT = 4;
+
+        /** Index of the node a comment token precedes. */
+        private static final int TOKEN_NODE = 0;
+
+        /** Index of the token type of a comment token. */
+        private static final int TOKEN_TYPE = 1;
+
+        /** Index of the line number of a comment token. */
+        private static final int TOKEN_LINE = 2;
+
+        /** Index of the column number of a comment token. */
+        private static final int TOKEN_COLUMN = 3;
+
+        /** Index of the text of a comment token. */
+        private static final int TOKEN_TEXT = 4;
+
+        /** Index of the start line number of a comment. */
+        private static final int START_LINE = 0;
+
+        /** Index of the start column number of a comment. */
+        private static final int START_COLUMN = 1;
+
+        /** Index of the end line number of a block comment. */
+        private static final int END_LINE = 2;
+
+        /** Index of the end column number of a block comment. */
+        private static final int END_COLUMN = 3;
+
+        /** Distinct texts of the nodes and comment tokens. */
+        private final String[] texts;
+
+        /** The nodes in pre-order. */
+        private final int[][] nodes;
+
+        /** The hidden comment tokens. */
+        private final int[][] tokens;
+
+        /** The single-line comments of the file contents. */
+        private final int[][] singleLineComments;
+
+        /** The block comments of the file contents. */
+        private final int[][] blockComments;
+
+        /**
+         * Creates a new {@code CachedAst} instance.
+         *
+         * @param texts the distinct texts of the nodes and comment tokens
+         * @param nodes the nodes in pre-order
+         * @param tokens the hidden comment tokens
+         * @param singleLineComments the single-line comments of the file contents
+         * @param blockComments the block comments of the file contents
+         */
+        private CachedAst(String[] texts, int[][] nodes, int[][] tokens,
+                int[][] singleLineComments, int[][] blockComments) {
+            this.texts = texts;
+            this.nodes = nodes;
+            this.tokens = tokens;
+            this.singleLineComments = singleLineComments;
+            this.blockComments = blockComments;
+        }
+
+        /**
+         * Decodes an entry.
+         *
+         * @param buffer the content of the entry
+         * @param text the text of the file the entry belongs to
+         * @return the AST, or {@code null} if the entry is corrupted
+         */
+        private static CachedAst read(ByteBuffer buffer, FileText text) {
+            CachedAst result = null;
+            try {
+                if (buffer.getInt() == MAGIC) {
+                    final String[] texts = readTexts(buffer);
+                    final int[][] nodes = readRecords(buffer, NODE_INTS);
+                    final int[][] tokens = readRecords(buffer, TOKEN_INTS);
+                    final int[][] singleLineComments =
+                            readRecords(buffer, SINGLE_LINE_COMMENT_INTS);
+                    final int[][] blockComments = readRecords(buffer, BLOCK_COMMENT_INTS);
+                    if (texts != null && nodes != null && tokens != null
+                            && singleLineComments != null && blockComments != null) {
+                        result = new CachedAst(texts, nodes, tokens, singleLineComments,
+                                blockComments);
+                    }
+                }
+            }
+            catch (BufferUnderflowException ignored) {
+                // the entry is truncated, so the file is parsed again
+            }
+            if (result != null && !result.isValid(text)) {
+                result = null;
+            }
+            return result;
+        }
+
+        /**
+         * Reads the distinct texts of an entry.
+         *
+         * @param buffer the content of the entry, positioned at the number of texts
+         * @return the texts, or {@code null} if their lengths are corrupted
+         */
+        private static String[] readTexts(ByteBuffer buffer) {
+            final int count = buffer.getInt();
+            String[] result = null;
+            if (count >= 0 && count <= buffer.remaining() / Integer.BYTES) {
+                result = new String[count];
+                for (int index = 0; result != null && index < count; index++) {
+                    final int length = buffer.getInt();
+                    if (length < 0 || length > buffer.remaining()) {
+                        result = null;
+                    }
+                    else {
+                        final byte[] text = new byte[length];
+                        buffer.get(text);
+                        result[index] = new String(text, StandardCharsets.UTF_8);
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Reads records of ints of an entry.
+         *
+         * @param buffer the content of the entry, positioned at the number of records
+         * @param width the number of ints of a record
+         * @return the records, or {@code null} if their number is corrupted
+         */
+        private static int[][] readRecords(ByteBuffer buffer, int width) {
+            final int count = buffer.getInt();
+            int[][] result = null;
+            if (count >= 0 && count <= buffer.remaining() / (width * Integer.BYTES)) {
+                result = new int[count][width];
+                for (int[] record : result) {
+                    for (int index = 0; index < width; index++) {
+                        record[index] = buffer.getInt();
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Checks that the nodes and comments refer to existing nodes, texts and positions
+         * of the file.
+         *
+         * @param text the text of the file
+         * @return true if the entry is valid
+         */
+        private boolean isValid(FileText text) {
+            boolean valid = nodes.length > 0;
+            for (int index = 0; valid && index < nodes.length; index++) {
+                final int[] node = nodes[index];
+                valid = isTextIndex(node[NODE_TEXT], true)
+                        && node[NODE_PARENT] >= NONE && node[NODE_PARENT] < index;
+            }
+            for (int index = 0; valid && index < tokens.length; index++) {
+                final int[] token = tokens[index];
+                valid = token[TOKEN_NODE] >= NONE && token[TOKEN_NODE] < nodes.length
+                        && isTextIndex(token[TOKEN_TEXT], false)
+                        && (token[TOKEN_TYPE] == TokenTypes.SINGLE_LINE_COMMENT
+                            || token[TOKEN_TYPE] == TokenTypes.BLOCK_COMMENT_BEGIN);
+            }
+            for (int index = 0; valid && index < singleLineComments.length; index++) {
+                final int[] comment = singleLineComments[index];
+                valid = isPosition(text, comment[START_LINE], comment[START_COLUMN]);
+            }
+            for (int index = 0; valid && index < blockComments.length; index++) {
+                final int[] comment = blockComments[index];
+                valid = isPosition(text, comment[START_LINE], comment[START_COLUMN])
+                        && isPosition(text, comment[END_LINE], comment[END_COLUMN])
+                        && comment[START_LINE] <= comment[END_LINE];
+            }
+            return valid;
+        }
+
+        /**
+         * Checks whether an index refers to a text.
+         *
+         * @param textIndex the index
+         * @param optional whether the index may be {@link #NONE}
+         * @return true if the index is valid
+         */
+        private boolean isTextIndex(int textIndex, boolean optional) {
+            return textIndex >= 0 && textIndex < texts.length
+                    || optional && textIndex == NONE;
+        }
+
+        /**
+         * Checks whether a line and column are inside a file.
+         *
+         * @param text the text of the file
+         * @param lineNo the line number, starting at 1
+         * @param columnNo the column number, starting at 0
+         * @return true if the position is inside the file
+         */
+        private static boolean isPosition(FileText text, int lineNo, int columnNo) {
+            return lineNo >= 1 && lineNo <= text.size()
+                    && columnNo >= 0 && columnNo <= text.get(lineNo - 1).length();
+        }
+
+        /**
+         * Builds the tree, which is made of {@link DetailAstImpl} nodes with the hidden
+         * comment tokens like a parsed tree.
+         *
+         * @return the root of the tree
+         */
+        DetailAST build() {
+            final DetailAstImpl[] built = new DetailAstImpl[nodes.length];
+            final DetailAstImpl[] lastChildren = new DetailAstImpl[nodes.length];
+            DetailAstImpl lastTopLevel = null;
+            for (int index = 0; index < nodes.length; index++) {
+                final int[] node = nodes[index];
+                final DetailAstImpl ast = new DetailAstImpl();
+                String text = null;
+                if (node[NODE_TEXT] != NONE) {
+                    text = texts[node[NODE_TEXT]];
+                }
+                ast.initialize(node[TYPE], text);
+                ast.setLineNo(node[NODE_LINE]);
+                ast.setColumnNo(node[NODE_COLUMN]);
+                built[index] = ast;
+                final int parent = node[NODE_PARENT];
+                if (parent == NONE) {
+                    if (lastTopLevel != null) {
+                        lastTopLevel.setNextSibling(ast);
+                    }
+                    lastTopLevel = ast;
+                }
+                else {
+                    if (lastChildren[parent] == null) {
+                        built[parent].setFirstChild(ast);
+                    }
+                    else {
+                        lastChildren[parent].setNextSibling(ast);
+                    }
+                    lastChildren[parent] = ast;
+                }
+            }
+            addHiddenTokens(built);
+            return built[0];
+        }
+
+        /**
+         * Sets the hidden comment tokens of the built nodes, the tokens which follow the
+         * last node are set as its hidden tokens after it.
+         *
+         * @param built the built nodes
+         */
+        private void addHiddenTokens(DetailAstImpl[] built) {
+            final Map<Integer, List<Token>> nodeTokens = new HashMap<>();
+            for (int[] token : tokens) {
+                final CommonToken hiddenToken =
+                        new CommonToken(token[TOKEN_TYPE], texts[token[TOKEN_TEXT]]);
+                hiddenToken.setLine(token[TOKEN_LINE]);
+                hiddenToken.setCharPositionInLine(token[TOKEN_COLUMN]);
+                nodeTokens.computeIfAbsent(token[TOKEN_NODE], key -> new ArrayList<>())
+                        .add(hiddenToken);
+            }
+            nodeTokens.forEach((nodeIndex, hiddenTokens) -> {
+                if (nodeIndex == NONE) {
+                    built[built.length - 1].setHiddenAfter(hiddenTokens);
+                }
+                else {
+                    built[nodeIndex].setHiddenBefore(hiddenTokens);
+                }
+            });
+        }
+
+        /**
+         * Reports the comments of the file to its contents, as the lexer does when the
+         * file is parsed.
+         *
+         * @param contents the contents of the file
+         */
+        void reportComments(FileContents contents) {
+            for (int[] comment : singleLineComments) {
+                contents.reportSingleLineComment(comment[START_LINE], comment[START_COLUMN]);
+            }
+            for (int[] comment : blockComments) {
+                contents.reportBlockComment(comment[START_LINE], comment[START_COLUMN],
+                        comment[END_LINE], comment[END_COLUMN]);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,479 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.antlr.v4.runtime.Token;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
+
+/**
+ * A read-only view of a parsed AST with its comment nodes, which is the tree
+ * {@link JavaParser#appendHiddenCommentNodes(DetailAST)} makes of the parsed AST without
+ * modifying it. Nodes of the view are created when they are reached, the comment nodes
+ * from the hidden tokens of the parsed node they precede. The view may be navigated by
+ * several threads at once.
+ */
+final class AstWithComments {
+
+    /** The root of the parsed AST. */
+    private final DetailAST root;
+
+    /** The last node of the parsed AST in pre-order, the trailing comments follow it. */
+    private final DetailAST lastNode;
+
+    /** Nodes of the view, by the node they show. */
+    private final Map<DetailAST, Node> nodes = new IdentityHashMap<>();
+
+    /** Comment nodes of the view, by the parsed node they precede. */
+    private final Map<DetailAST, List<DetailAST>> commentsBefore = new IdentityHashMap<>();
+
+    /** Comment nodes following the last node, {@code null} until they are reached. */
+    private List<DetailAST> trailingComments;
+
+    /**
+     * Creates a new {@code AstWithComments} instance.
+     *
+     * @param root the root of the parsed AST
+     */
+    AstWithComments(DetailAST root) {
+        this.root = root;
+        lastNode = findLastNode(root);
+    }
+
+    /**
+     * Returns the root of the view.
+     *
+     * @return the node showing the root of the parsed AST
+     */
+    DetailAST getRoot() {
+        return getNode(root);
+    }
+
+    /**
+     * Returns the last node of the parsed AST in pre-order, which the trailing comments
+     * follow.
+     *
+     * @return the last parsed node
+     */
+    DetailAST getLastNode() {
+        return lastNode;
+    }
+
+    /**
+     * Returns the node of the view showing a node of the parsed AST or a comment node.
+     *
+     * @param ast the shown node
+     * @return the node of the view
+     */
+    synchronized DetailAST getNode(DetailAST ast) {
+        return nodes.computeIfAbsent(ast, Node::new);
+    }
+
+    /**
+     * Returns the comment nodes preceding a node of the parsed AST.
+     *
+     * @param ast the parsed node
+     * @return the comment nodes of the view, in the order of the comments
+     */
+    List<DetailAST> getCommentsBefore(DetailAST ast) {
+        List<DetailAST> result = Collections.emptyList();
+        final List<Token> hiddenBefore = ((DetailAstImpl) ast).getHiddenBefore();
+        if (hiddenBefore != null) {
+            result = getComments(ast, hiddenBefore);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the comment nodes following the last node of the parsed AST.
+     *
+     * @return the comment nodes of the view, in the order of the comments
+     */
+    synchronized List<DetailAST> getTrailingComments() {
+        if (trailingComments == null) {
+            trailingComments = Collections.emptyList();
+            final List<Token> hiddenAfter = ((DetailAstImpl) lastNode).getHiddenAfter();
+            if (hiddenAfter != null) {
+                trailingComments = createComments(null, hiddenAfter);
+            }
+        }
+        return trailingComments;
+    }
+
+    /**
+     * Returns the comment nodes preceding a node of the parsed AST, creating them on
+     * first use.
+     *
+     * @param anchor the parsed node
+     * @param tokens the hidden comment tokens of the parsed node
+     * @return the comment nodes of the view
+     */
+    private synchronized List<DetailAST> getComments(DetailAST anchor, List<Token> tokens) {
+        return commentsBefore.computeIfAbsent(anchor, key -> createComments(key, tokens));
+    }
+
+    /**
+     * Creates the comment nodes of hidden comment tokens.
+     *
+     * @param anchor the parsed node the comments precede, {@code null} for trailing comments
+     * @param tokens the hidden comment tokens
+     * @return the comment nodes of the view
+     */
+    private List<DetailAST> createComments(DetailAST anchor, List<Token> tokens) {
+        final List<DetailAST> result = new ArrayList<>(tokens.size());
+        for (DetailAST comment : JavaParser.createCommentNodes(tokens)) {
+            final Node node = new Node(comment, result, result.size(), anchor);
+            nodes.put(comment, node);
+            result.add(node);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Returns the node of the view showing a node, if any.
+     *
+     * @param ast the shown node, may be {@code null}
+     * @return the node of the view, {@code null} if the shown node is {@code null}
+     */
+    private DetailAST wrap(DetailAST ast) {
+        DetailAST result = null;
+        if (ast != null) {
+            result = getNode(ast);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the first node of the view at the position of a parsed node, which is its
+     * first preceding comment if it has comments.
+     *
+     * @param ast the parsed node, may be {@code null}
+     * @return the first node at the position of the parsed node
+     */
+    private DetailAST getFirstAt(DetailAST ast) {
+        DetailAST result = null;
+        if (ast != null) {
+            final List<DetailAST> comments = getCommentsBefore(ast);
+            if (comments.isEmpty()) {
+                result = getNode(ast);
+            }
+            else {
+                result = comments.get(0);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the last node of a tree in pre-order.
+     *
+     * @param root the root of the tree
+     * @return the last node
+     */
+    private static DetailAST findLastNode(DetailAST root) {
+        DetailAST result = root;
+        while (result.getNextSibling() != null || result.getFirstChild() != null) {
+            if (result.getNextSibling() == null) {
+                result = result.getFirstChild();
+            }
+            else {
+                result = result.getNextSibling();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a comment node of a list contains a token type.
+     *
+     * @param comments the comment nodes
+     * @param type the token type
+     * @return true if a branch of the comment nodes contains the token type
+     */
+    private static boolean containsType(List<DetailAST> comments, int type) {
+        return comments.stream().anyMatch(comment -> comment.branchContains(type));
+    }
+
+    /**
+     * A node of the view, showing a parsed node or a comment node.
+     */
+    private final class Node implements DetailAST {
+
+        /** The shown node. */
+        private final DetailAST original;
+
+        /** The comments this comment belongs to, {@code null} if it is no comment root. */
+        private final List<DetailAST> comments;
+
+        /** Index of this comment in its comments. */
+        private final int index;
+
+        /** The parsed node the comments precede, {@code null} for trailing comments. */
+        private final DetailAST anchor;
+
+        /**
+         * Creates a node showing a parsed node or a node inside a comment.
+         *
+         * @param original the shown node
+         */
+        private Node(DetailAST original) {
+            this(original, null, 0, null);
+        }
+
+        /**
+         * Creates a node.
+         *
+         * @param original the shown node
+         * @param comments the comments this comment belongs to, {@code null} if none
+         * @param index index of this comment in its comments
+         * @param anchor the parsed node the comments precede, {@code null} if none
+         */
+        private Node(DetailAST original, List<DetailAST> comments, int index,
+                DetailAST anchor) {
+            this.original = original;
+            this.comments = comments;
+            this.index = index;
+            this.anchor = anchor;
+        }
+
+        /**
+         * Checks whether the shown node belongs to the parsed AST.
+         *
+         * @return true if the shown node is not a comment node
+         */
+        private boolean isParsed() {
+            return !TokenUtil.isCommentType(original.getType());
+        }
+
+        @Override
+        public int getChildCount() {
+            int count = 0;
+            for (DetailAST child = getFirstChild(); child != null;
+                    child = child.getNextSibling()) {
+                count++;
+            }
+            return count;
+        }
+
+        @Override
+        public int getChildCount(int type) {
+            int count = 0;
+            for (DetailAST child = getFirstChild(); child != null;
+                    child = child.getNextSibling()) {
+                if (child.getType() == type) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public DetailAST getParent() {
+            DetailAST parent = original.getParent();
+            if (comments != null) {
+                if (anchor == null) {
+                    parent = lastNode.getParent();
+                }
+                else {
+                    parent = anchor.getParent();
+                }
+            }
+            return wrap(parent);
+        }
+
+        @Override
+        public String getText() {
+            return original.getText();
+        }
+
+        @Override
+        public int getType() {
+            return original.getType();
+        }
+
+        @Override
+        public int getLineNo() {
+            return original.getLineNo();
+        }
+
+        @Override
+        public int getColumnNo() {
+            return original.getColumnNo();
+        }
+
+        @Override
+        public DetailAST getLastChild() {
+            final DetailAST lastChild = original.getLastChild();
+            DetailAST result = wrap(lastChild);
+            if (lastChild == lastNode && isParsed()) {
+                final List<DetailAST> trailing = getTrailingComments();
+                if (!trailing.isEmpty()) {
+                    result = trailing.get(trailing.size() - 1);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public boolean branchContains(int type) {
+            final boolean result;
+            if (isParsed() && TokenUtil.isCommentType(type)) {
+                result = commentsContain(type);
+            }
+            else {
+                result = original.branchContains(type);
+            }
+            return result;
+        }
+
+        /**
+         * Checks whether a comment node in the branch of the shown parsed node contains
+         * a token type.
+         *
+         * @param type the comment token type
+         * @return true if the branch of this node contains the token type
+         */
+        private boolean commentsContain(int type) {
+            boolean result = false;
+            DetailAST current = original.getFirstChild();
+            while (current != null && !result) {
+                result = containsType(getCommentsBefore(current), type)
+                        || current == lastNode && containsType(getTrailingComments(), type);
+                DetailAST toVisit = current.getFirstChild();
+                while (toVisit == null && current != original) {
+                    toVisit = current.getNextSibling();
+                    current = current.getParent();
+                }
+                current = toVisit;
+            }
+            return result;
+        }
+
+        @Override
+        public DetailAST getPreviousSibling() {
+            DetailAST result = wrap(original.getPreviousSibling());
+            if (comments != null) {
+                result = getPreviousComment();
+            }
+            else if (isParsed()) {
+                final List<DetailAST> before = getCommentsBefore(original);
+                if (!before.isEmpty()) {
+                    result = before.get(before.size() - 1);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Returns the previous sibling of a comment root.
+         *
+         * @return the previous comment, or the node before the comments
+         */
+        private DetailAST getPreviousComment() {
+            final DetailAST result;
+            if (index > 0) {
+                result = comments.get(index - 1);
+            }
+            else if (anchor == null) {
+                result = getNode(lastNode);
+            }
+            else {
+                result = wrap(anchor.getPreviousSibling());
+            }
+            return result;
+        }
+
+        @Override
+        public DetailAST findFirstToken(int type) {
+            DetailAST result = null;
+            if (isParsed() && TokenUtil.isCommentType(type)) {
+                for (DetailAST child = getFirstChild(); child != null && result == null;
+                        child = child.getNextSibling()) {
+                    if (child.getType() == type) {
+                        result = child;
+                    }
+                }
+            }
+            else {
+                result = wrap(original.findFirstToken(type));
+            }
+            return result;
+        }
+
+        @Override
+        public DetailAST getNextSibling() {
+            final DetailAST result;
+            if (comments != null) {
+                if (index + 1 < comments.size()) {
+                    result = comments.get(index + 1);
+                }
+                else {
+                    result = wrap(anchor);
+                }
+            }
+            else if (original == lastNode) {
+                result = getTrailingComments().stream().findFirst().orElse(null);
+            }
+            else if (isParsed()) {
+                result = getFirstAt(original.getNextSibling());
+            }
+            else {
+                result = wrap(original.getNextSibling());
+            }
+            return result;
+        }
+
+        @Override
+        public DetailAST getFirstChild() {
+            final DetailAST result;
+            if (isParsed()) {
+                result = getFirstAt(original.getFirstChild());
+            }
+            else {
+                result = wrap(original.getFirstChild());
+            }
+            return result;
+        }
+
+        @Override
+        public int getNumberOfChildren() {
+            return getChildCount();
+        }
+
+        @Override
+        public boolean hasChildren() {
+            return original.hasChildren();
+        }
+
+        @Override
+        public String toString() {
+            return original.toString();
+        }
+
+    }
+
+}
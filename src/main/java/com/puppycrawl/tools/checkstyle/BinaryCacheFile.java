@@ -0,0 +1,567 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * The entries of a cache file in binary format. The file starts with the entries sorted by
+ * key, which are memory mapped and looked up by binary search, so loading does not depend
+ * on the number of entries. Changes are appended to the end of the file when persisted, and
+ * the file is rewritten sorted once the appended changes become too many.
+ *
+ * <p>The file consists of:</p>
+ * <ul>
+ * <li>the header: the magic number, the number of sorted entries and the offset of the
+ * appended changes,</li>
+ * <li>the offsets of the sorted entries,</li>
+ * <li>the sorted entries, each one being its key and its value,</li>
+ * <li>the appended changes, each one being the kind of change, the key and, for
+ * a put, the value.</li>
+ * </ul>
+ *
+ * <p>Strings are written as their length followed by their bytes in UTF-8.</p>
+ *
+ * <p>The file is only read through its mapping and appended to, never changed in place. A
+ * rewritten file gets a new name and is then moved over the previous one, so the mapping
+ * of the previous file keeps its content until the entries loaded from it are dropped.
+ * A file with garbage content is treated as an empty cache.</p>
+ */
+final class BinaryCacheFile {
+
+    /** The magic number which starts a cache file in binary format, "CSC1" in ASCII. */
+    private static final int MAGIC = 0x43534331;
+
+    /** Size of the header, in bytes. */
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+    /** Kind of an appended change which removes an entry. */
+    private static final byte REMOVE = 0;
+
+    /** Kind of an appended change which puts an entry. */
+    private static final byte PUT = 1;
+
+    /** Minimum number of appended changes which trigger rewriting the file. */
+    private static final int MIN_CHANGES_TO_COMPACT = 1024;
+
+    /**
+     * The mapped content of the file, or {@code null} if there is no file or it was
+     * replaced by a rewritten one.
+     */
+    private ByteBuffer content;
+
+    /** Number of sorted entries in the file. */
+    private final int sortedSize;
+
+    /**
+     * Changes of the entries which are not sorted in the file, in order, by key. The
+     * value of a removed entry is {@code null}.
+     */
+    private final Map<String, String> changes = new LinkedHashMap<>();
+
+    /** Changes which have not been appended to the file yet, in the same form. */
+    private final Map<String, String> unsavedChanges = new LinkedHashMap<>();
+
+    /** Number of changes appended to the file. */
+    private int appendedChanges;
+
+    /** Whether the sorted entries of the file were removed. */
+    private boolean cleared;
+
+    /** Whether the file has to be rewritten, as it was cleared or its end is corrupted. */
+    private boolean compactionRequired;
+
+    /**
+     * Creates empty entries, which are not backed by a file yet.
+     */
+    BinaryCacheFile() {
+        content = null;
+        sortedSize = 0;
+        compactionRequired = true;
+    }
+
+    /**
+     * Creates entries backed by the mapped content of a file.
+     *
+     * @param content the mapped content of the file
+     * @param sortedSize the number of sorted entries in the file
+     */
+    private BinaryCacheFile(ByteBuffer content, int sortedSize) {
+        this.content = content;
+        this.sortedSize = sortedSize;
+    }
+
+    /**
+     * Creates entries which are a copy of the given properties, not backed by a file yet.
+     *
+     * @param properties the properties to copy
+     * @return the entries
+     */
+    static BinaryCacheFile copyOf(Properties properties) {
+        final BinaryCacheFile result = new BinaryCacheFile();
+        for (String key : properties.stringPropertyNames()) {
+            result.put(key, properties.getProperty(key));
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a file is a cache file in binary format.
+     *
+     * @param path the file
+     * @return whether the file starts with the magic number of the binary format
+     * @throws IOException if the file can not be read
+     */
+    static boolean isBinary(Path path) throws IOException {
+        final byte[] start;
+        try (InputStream input = Files.newInputStream(path)) {
+            start = input.readNBytes(Integer.BYTES);
+        }
+        return start.length == Integer.BYTES && ByteBuffer.wrap(start).getInt() == MAGIC;
+    }
+
+    /**
+     * Maps a cache file in binary format. The changes appended to it are read, and a
+     * truncated last change is ignored.
+     *
+     * @param path the file
+     * @return the entries of the file, which are empty if the file is corrupted
+     * @throws IOException if the file can not be read
+     */
+    static BinaryCacheFile load(Path path) throws IOException {
+        ByteBuffer content = null;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() <= Integer.MAX_VALUE) {
+                content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        BinaryCacheFile result = new BinaryCacheFile();
+        if (content != null && content.limit() >= HEADER_SIZE && content.getInt(0) == MAGIC) {
+            final int sortedSize = content.getInt(Integer.BYTES);
+            final int changesOffset = content.getInt(2 * Integer.BYTES);
+            if (sortedSize >= 0
+                    && changesOffset >= HEADER_SIZE + (long) sortedSize * Integer.BYTES
+                    && changesOffset <= content.limit()) {
+                result = new BinaryCacheFile(content, sortedSize);
+                result.readChanges(changesOffset);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the value of an entry.
+     *
+     * @param key the key of the entry
+     * @return the value, or {@code null} if there is no such entry
+     */
+    synchronized String get(String key) {
+        final String value;
+        if (changes.containsKey(key)) {
+            value = changes.get(key);
+        }
+        else if (cleared) {
+            value = null;
+        }
+        else {
+            value = getSorted(key);
+        }
+        return value;
+    }
+
+    /**
+     * Puts an entry.
+     *
+     * @param key the key of the entry
+     * @param value the value of the entry
+     */
+    synchronized void put(String key, String value) {
+        changes.put(key, value);
+        unsavedChanges.remove(key);
+        unsavedChanges.put(key, value);
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param key the key of the entry
+     */
+    synchronized void remove(String key) {
+        if (get(key) != null) {
+            changes.put(key, null);
+            unsavedChanges.remove(key);
+            unsavedChanges.put(key, null);
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    synchronized void clear() {
+        changes.clear();
+        unsavedChanges.clear();
+        cleared = true;
+        compactionRequired = true;
+    }
+
+    /**
+     * Performs an action for each entry, in no particular order.
+     *
+     * @param action the action to perform
+     */
+    synchronized void forEach(BiConsumer<String, String> action) {
+        if (!cleared) {
+            final Map<String, String> sortedEntries = new LinkedHashMap<>();
+            try {
+                for (int index = 0; index < sortedSize; index++) {
+                    final int offset = getSortedOffset(index);
+                    sortedEntries.put(readString(content, offset), readString(content,
+                            offset + Integer.BYTES + getLength(offset)));
+                }
+            }
+            catch (IndexOutOfBoundsException | BufferUnderflowException
+                    | IllegalArgumentException ignored) {
+                discardSorted();
+                sortedEntries.clear();
+            }
+            sortedEntries.forEach((key, value) -> {
+                if (!changes.containsKey(key)) {
+                    action.accept(key, value);
+                }
+            });
+        }
+        changes.forEach((key, value) -> {
+            if (value != null) {
+                action.accept(key, value);
+            }
+        });
+    }
+
+    /**
+     * Writes the changes to the file. They are appended to the file it was loaded from, unless
+     * they become too many compared to the sorted entries, in which case all the entries are
+     * written sorted to a new file which replaces the previous one.
+     *
+     * @param path the file
+     * @return the entries to use from now on, which are the ones of the file if it was rewritten
+     * @throws IOException if the file can not be written
+     */
+    synchronized BinaryCacheFile persist(Path path) throws IOException {
+        BinaryCacheFile result = this;
+        if (compactionRequired || content == null
+                || isCompactionDue(appendedChanges + unsavedChanges.size())) {
+            writeSorted(path);
+            result = load(path);
+        }
+        else if (!unsavedChanges.isEmpty()) {
+            appendChanges(path);
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the given number of appended changes is too many compared to the
+     * sorted entries, so the file should be rewritten.
+     *
+     * @param changeCount the number of appended changes
+     * @return whether the file should be rewritten
+     */
+    private boolean isCompactionDue(int changeCount) {
+        return changeCount > Math.max(MIN_CHANGES_TO_COMPACT, sortedSize / 2);
+    }
+
+    /**
+     * Reads the changes appended to the file. Only the last change of each key is kept,
+     * removals of keys which have no sorted entry are dropped, and the file is rewritten
+     * on the next persist if the changes are too many.
+     *
+     * @param offset the offset of the first change
+     */
+    private void readChanges(int offset) {
+        final ByteBuffer buffer = content.duplicate();
+        buffer.position(offset);
+        try {
+            while (buffer.hasRemaining()) {
+                final byte kind = buffer.get();
+                final String key = readString(buffer);
+                changes.remove(key);
+                if (kind == PUT) {
+                    changes.put(key, readString(buffer));
+                }
+                else if (!cleared && getSorted(key) != null) {
+                    changes.put(key, null);
+                }
+                appendedChanges++;
+            }
+        }
+        catch (BufferUnderflowException | IllegalArgumentException ignored) {
+            // the last change was not written completely, so it is dropped on rewrite
+            compactionRequired = true;
+        }
+        compactionRequired |= isCompactionDue(appendedChanges);
+    }
+
+    /**
+     * Appends the unsaved changes to the file.
+     *
+     * @param path the file
+     * @throws IOException if the file can not be written
+     */
+    private void appendChanges(Path path) throws IOException {
+        // the key and the value of each change, the value is null for a removal
+        final List<byte[]> encodedChanges = new ArrayList<>(2 * unsavedChanges.size());
+        int size = 0;
+        for (Map.Entry<String, String> change : unsavedChanges.entrySet()) {
+            final byte[] key = change.getKey().getBytes(StandardCharsets.UTF_8);
+            byte[] value = null;
+            size += Byte.BYTES + Integer.BYTES + key.length;
+            if (change.getValue() != null) {
+                value = change.getValue().getBytes(StandardCharsets.UTF_8);
+                size += Integer.BYTES + value.length;
+            }
+            encodedChanges.add(key);
+            encodedChanges.add(value);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (int index = 0; index < encodedChanges.size(); index += 2) {
+            final byte[] value = encodedChanges.get(index + 1);
+            if (value == null) {
+                buffer.put(REMOVE);
+                putString(buffer, encodedChanges.get(index));
+            }
+            else {
+                buffer.put(PUT);
+                putString(buffer, encodedChanges.get(index));
+                putString(buffer, value);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.APPEND)) {
+            write(channel, buffer);
+        }
+        appendedChanges += unsavedChanges.size();
+        unsavedChanges.clear();
+    }
+
+    /**
+     * Writes all the entries sorted to a file with a new name, which is then moved over the
+     * given file. The entries are not read from the previous file afterwards.
+     *
+     * @param path the file
+     * @throws IOException if the file can not be written
+     */
+    private void writeSorted(Path path) throws IOException {
+        final SortedMap<String, String> entries = new TreeMap<>();
+        forEach(entries::put);
+        final List<byte[]> encodedEntries = new ArrayList<>(2 * entries.size());
+        int size = HEADER_SIZE + entries.size() * Integer.BYTES;
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            final byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            final byte[] value = entry.getValue().getBytes(StandardCharsets.UTF_8);
+            encodedEntries.add(key);
+            encodedEntries.add(value);
+            size += 2 * Integer.BYTES + key.length + value.length;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.putInt(entries.size());
+        buffer.putInt(size);
+        int offset = HEADER_SIZE + entries.size() * Integer.BYTES;
+        for (int index = 0; index < encodedEntries.size(); index += 2) {
+            buffer.putInt(offset);
+            offset += 2 * Integer.BYTES + encodedEntries.get(index).length
+                + encodedEntries.get(index + 1).length;
+        }
+        encodedEntries.forEach(bytes -> putString(buffer, bytes));
+
+        final Path temporaryFile = Files.createTempFile(path.toAbsolutePath().getParent(),
+                path.getFileName().toString(), null);
+        try {
+            try (FileChannel channel =
+                    FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+                write(channel, buffer);
+            }
+            move(temporaryFile, path);
+        }
+        finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+        content = null;
+        cleared = true;
+        changes.putAll(entries);
+    }
+
+    /**
+     * Moves a file over another one, atomically if the file system supports it.
+     *
+     * @param source the file to move
+     * @param target the file to replace
+     * @throws IOException if the file can not be moved
+     */
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException ignored) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Looks up a sorted entry by binary search.
+     *
+     * @param key the key of the entry
+     * @return the value, or {@code null} if there is no such entry
+     */
+    private String getSorted(String key) {
+        String value = null;
+        int low = 0;
+        int high = sortedSize - 1;
+        try {
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                final int offset = getSortedOffset(middle);
+                final int comparison = readString(content, offset).compareTo(key);
+                if (comparison < 0) {
+                    low = middle + 1;
+                }
+                else if (comparison > 0) {
+                    high = middle - 1;
+                }
+                else {
+                    value = readString(content, offset + Integer.BYTES + getLength(offset));
+                    break;
+                }
+            }
+        }
+        catch (IndexOutOfBoundsException | BufferUnderflowException
+                | IllegalArgumentException ignored) {
+            discardSorted();
+        }
+        return value;
+    }
+
+    /**
+     * Drops the sorted entries of a file with garbage content, so the cache continues
+     * empty and the file is rewritten on the next persist.
+     */
+    private void discardSorted() {
+        cleared = true;
+        compactionRequired = true;
+    }
+
+    /**
+     * Gets the offset of a sorted entry.
+     *
+     * @param index the index of the entry
+     * @return the offset of the entry in the file
+     */
+    private int getSortedOffset(int index) {
+        return content.getInt(HEADER_SIZE + index * Integer.BYTES);
+    }
+
+    /**
+     * Gets the length of the string at an offset.
+     *
+     * @param offset the offset of the string
+     * @return the length of the string in bytes
+     */
+    private int getLength(int offset) {
+        return content.getInt(offset);
+    }
+
+    /**
+     * Writes the whole content of a buffer from its start to a channel.
+     *
+     * @param channel the channel to write to
+     * @param buffer the buffer to write
+     * @throws IOException if the buffer can not be written
+     */
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Puts a string encoded in UTF-8 to a buffer, preceded by its length.
+     *
+     * @param buffer the buffer to put to
+     * @param bytes the encoded string
+     */
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Reads the string at an offset.
+     *
+     * @param buffer the buffer to read from
+     * @param offset the offset of the string
+     * @return the string
+     */
+    private static String readString(ByteBuffer buffer, int offset) {
+        final ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        return readString(view);
+    }
+
+    /**
+     * Reads the string at the position of a buffer, and advances the position after it.
+     *
+     * @param buffer the buffer to read from
+     * @return the string
+     * @throws BufferUnderflowException if the buffer ends before the string
+     * @throws IllegalArgumentException if the length of the string is invalid
+     */
+    private static String readString(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0) {
+            throw new IllegalArgumentException("Invalid length " + length);
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
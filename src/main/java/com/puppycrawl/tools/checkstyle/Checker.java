@@ -26,13 +26,20 @@ import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.apache.commons.logging.Log;
@@ -55,6 +62,7 @@ import com.puppycrawl.tools.checkstyle.api.RootModule;
 import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
 import com.puppycrawl.tools.checkstyle.api.SeverityLevelCounter;
 import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.checks.SuppressWarningsHolder;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 /**
@@ -68,6 +76,9 @@ public class Checker extends AbstractAutomaticBean implements MessageDispatcher,
     /** The extension separator. */
     private static final String EXTENSION_SEPARATOR = ".";
 
+    /** Default maximum size of the shared cache directory, 256 MiB. */
+    private static final long DEFAULT_CACHE_DIRECTORY_MAX_SIZE = 256L * 1024 * 1024;
+
     /** Logger for Checker. */
     private final Log log;
 
@@ -81,6 +92,12 @@ public class Checker extends AbstractAutomaticBean implements MessageDispatcher,
     /** Vector of fileset checks. */
     private final List<FileSetCheck> fileSetChecks = new ArrayList<>();
 
+    /** Configurations of configurable fileset checks, used to create their copies. */
+    private final Map<FileSetCheck, Configuration> fileSetCheckConfigurations = new HashMap<>();
+
+    /** Configurations of the filters created from configuration, to create copies from. */
+    private final Map<Filter, Configuration> filterConfigurations = new HashMap<>();
+
     /** The audit event before execution file filters. */
     private final BeforeExecutionFileFilterSet beforeExecutionFileFilters =
             new BeforeExecutionFileFilterSet();
@@ -88,6 +105,9 @@ public class Checker extends AbstractAutomaticBean implements MessageDispatcher,
     /** The audit event filters. */
     private final FilterSet filters = new FilterSet();
 
+    /** The filters of reported audit events, which are applied after caching. */
+    private final FilterSet reportFilters = new FilterSet();
+
     /** The basedir to strip off in file names. */
     private String basedir;
 
@@ -129,6 +149,34 @@ public class Checker extends AbstractAutomaticBean implements MessageDispatcher,
     @XdocsPropertyType(PropertyType.FILE)
     private PropertyCacheFile cacheFile;
 
+    /** Whether the cache identifies files by the digest of their content. */
+    private boolean cacheByContent;
+
+    /** Whether the cache file is persisted in binary format. */
+    private boolean binaryCache;
+
+    /** Directory of violations shared with other processes. **/
+    @XdocsPropertyType(PropertyType.FILE)
+    private SharedCacheDirectory cacheDirectory;
+
+    /** Maximum size of the shared cache directory, in bytes. */
+    private long cacheDirectoryMaxSize = DEFAULT_CACHE_DIRECTORY_MAX_SIZE;
+
+    /** Fingerprints of the configurations of the modules, set when the cache is used. */
+    private ModuleFingerprints moduleFingerprints;
+
+    /** Keys of the global stateful modules, which process cached files too. */
+    private Set<String> globalStatefulModules = Collections.emptySet();
+
+    /** Whether files with identical content reuse the violations of the first one. */
+    private boolean deduplicateContent;
+
+    /** Violations of the files processed in the current run, set when content is deduplicated. */
+    private DuplicateContents duplicateContents;
+
+    /** Texts of the files checked without reading them, keyed by absolute path. */
+    private Map<String, FileText> fileTexts = Collections.emptyMap();
+
     /** Controls whether exceptions should halt execution or not. */
     private boolean haltOnException = true;
 
@@ -156,6 +204,58 @@ public class Checker extends AbstractAutomaticBean implements MessageDispatcher,
         cacheFile.load();
     }
 
+    /**
+     * Sets whether the cache identifies files by their path relative to the base directory
+     * and a digest of their content, instead of their absolute path and timestamp.
+     *
+     * @param cacheByContent whether the cache identifies files by their content.
+     */
+    public void setCacheByContent(boolean cacheByContent) {
+        this.cacheByContent = cacheByContent;
+    }
+
+    /**
+     * Sets whether the cache file is persisted in a binary format, which is memory mapped
+     * when loaded and updated by appending changes, instead of as properties.
+     *
+     * @param binaryCache whether the cache file is persisted in binary format.
+     */
+    public void setBinaryCache(boolean binaryCache) {
+        this.binaryCache = binaryCache;
+    }
+
+    /**
+     * Sets the cache directory, which holds the violations of files by the digest of their
+     * content, their path relative to the base directory and the configuration. It can be
+     * shared by several processes, working copies and machines.
+     *
+     * @param directory the cache directory.
+     */
+    public void setCacheDirectory(String directory) {
+        cacheDirectory = new SharedCacheDirectory(Path.of(directory));
+    }
+
+    /**
+     * Sets the maximum size of the cache directory, in bytes. The least recently used
+     * entries are evicted when a run finishes.
+     *
+     * @param cacheDirectoryMaxSize the maximum size of the cache directory.
+     */
+    public void setCacheDirectoryMaxSize(long cacheDirectoryMaxSize) {
+        this.cacheDirectoryMaxSize = cacheDirectoryMaxSize;
+    }
+
+    /**
+     * Sets whether files with identical content and extension are processed once in a run,
+     * the others reuse their violations. Modules annotated with {@link PathDependentCheck}
+     * still process every file.
+     *
+     * @param deduplicateContent whether files with identical content are processed once.
+     */
+    public void setDeduplicateContent(boolean deduplicateContent) {
+        this.deduplicateContent = deduplicateContent;
+    }
+
     /**
      * Removes before execution file filter.
      *
@@ -172,16 +272,21 @@ public class Checker extends AbstractAutomaticBean implements MessageDispatcher,
      */
     public void removeFilter(Filter filter) {
         filters.removeFilter(filter);
+        filterConfigurations.remove(filter);
     }
 
     @Override
     public void destroy() {
         listeners.clear();
         fileSetChecks.clear();
+        fileSetCheckConfigurations.clear();
         beforeExecutionFileFilters.clear();
         filters.clear();
+        reportFilters.clear();
+        filterConfigurations.clear();
         if (cacheFile != null) {
             try {
+                cacheFile.setBinaryFormat(binaryCache);
                 cacheFile.persist();
             }
             catch (IOException ex) {
@@ -210,7 +315,21 @@ public class Checker extends AbstractAutomaticBean implements MessageDispatcher,
 
     @Override
     public int process(List<File> files) throws CheckstyleException {
+        if (cacheFile != null || cacheDirectory != null || deduplicateContent) {
+            moduleFingerprints = createModuleFingerprints();
+            globalStatefulModules = getGlobalStatefulModules();
+        }
+        if (deduplicateContent) {
+            duplicateContents = createDuplicateContents();
+        }
+        if (cacheDirectory != null) {
+            cacheDirectory.setConfigurationFingerprint(moduleFingerprints.encode());
+            cacheDirectory.setExternalResources(getExternalResourceLocations());
+        }
         if (cacheFile != null) {
+            cacheFile.setContentHashMode(cacheByContent);
+            cacheFile.setBasedir(basedir);
+            cacheFile.setModuleFingerprints(moduleFingerprints);
             cacheFile.putExternalResources(getExternalResourceLocations());
         }
 
@@ -224,6 +343,10 @@ public class Checker extends AbstractAutomaticBean implements MessageDispatcher,
                 .filter(file -> CommonUtil.matchesFileExtension(file, fileExtensions))
                 .collect(Collectors.toUnmodifiableList());
         processFiles(targetFiles);
+        duplicateContents = null;
+        if (cacheDirectory != null) {
+            cacheDirectory.evict(cacheDirectoryMaxSize);
+        }
 
         // Finish up
         // It may also log!!!
@@ -244,7 +367,7 @@ public class Checker extends AbstractAutomaticBean implements MessageDispatcher,
      * @return a set of external configuration resource locations which are used by all file set
      *         checks and filters.
      */
-    private Set<String> getExternalResourceLocations() {
+    Set<String> getExternalResourceLocations() {
         return Stream.concat(fileSetChecks.stream(), filters.getFilters().stream())
             .filter(ExternalResourceHolder.class::isInstance)
             .flatMap(resource -> {
@@ -254,6 +377,35 @@ public class Checker extends AbstractAutomaticBean implements MessageDispatcher,
             .collect(Collectors.toUnmodifiableSet());
     }
 
+    /**
+     * Processes the given texts instead of the content of their files, so tools which
+     * embed Checkstyle can check content which is not saved. The files of the texts
+     * need not exist, their paths name the texts in audit events. Violations of the
+     * texts are neither cached nor reused for files with identical content. Modules which
+     * read files themselves use the content of {@link FileText#isInMemory() texts which
+     * are not read from their files}, or skip them.
+     *
+     * @param texts the texts to process.
+     * @return the number of errors found.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     */
+    public int processFileTexts(List<FileText> texts) throws CheckstyleException {
+        final Map<String, FileText> textsByPath = new HashMap<>();
+        final List<File> files = new ArrayList<>();
+        for (final FileText text : texts) {
+            final File file = text.getFile();
+            textsByPath.put(file.getAbsolutePath(), text);
+            files.add(file);
+        }
+        fileTexts = textsByPath;
+        try {
+            return process(files);
+        }
+        finally {
+            fileTexts = Collections.emptyMap();
+        }
+    }
+
     /** Notify all listeners about the audit start. */
     private void fireAuditStarted() {
         final AuditEvent event = new AuditEvent(this);
@@ -282,62 +434,470 @@ public class Checker extends AbstractAutomaticBean implements MessageDispatcher,
      */
     // -@cs[CyclomaticComplexity] no easy way to split this logic of processing the file
     private void processFiles(List<File> files) throws CheckstyleException {
-        for (final File file : files) {
-            String fileName = null;
-            final String filePath = file.getPath();
-            try {
-                fileName = file.getAbsolutePath();
-                final long timestamp = file.lastModified();
-                if (cacheFile != null && cacheFile.isInCache(fileName, timestamp)
-                        || !acceptFileStarted(fileName)) {
-                    continue;
+        final ConcurrentFileProcessor fileProcessor = createFileProcessor(files);
+        try {
+            for (int index = 0; index < files.size(); index++) {
+                final File file = files.get(index);
+                String fileName = null;
+                final String filePath = file.getPath();
+                try {
+                    fileName = file.getAbsolutePath();
+                    if (!acceptFileStarted(fileName)) {
+                        continue;
+                    }
+                    final SortedSet<Violation> cachedMessages = getCachedViolations(file);
+                    if (cachedMessages != null && cachedMessages.isEmpty()) {
+                        continue;
+                    }
+                    fireFileStarted(fileName);
+                    final SortedSet<Violation> fileMessages;
+                    if (cachedMessages == null) {
+                        final SortedSet<Violation> duplicateMessages = getDuplicateViolations(file);
+                        if (duplicateMessages == null) {
+                            fileMessages = fileProcessor.process(index, file);
+                        }
+                        else {
+                            fileMessages = duplicateMessages;
+                        }
+                        putCachedViolations(file, fileMessages);
+                    }
+                    else {
+                        fileMessages = cachedMessages;
+                    }
+                    dispatchErrors(fileName, fileMessages);
+                    fireFileFinished(fileName);
                 }
-                if (cacheFile != null) {
-                    cacheFile.put(fileName, timestamp);
+                // -@cs[IllegalCatch] There is no other way to deliver filename that was under
+                // processing. See https://github.com/checkstyle/checkstyle/issues/2285
+                catch (Exception ex) {
+                    if (fileName != null && cacheFile != null) {
+                        cacheFile.remove(file);
+                    }
+
+                    // We need to catch all exceptions to put a reason failure (file name)
+                    // in exception
+                    throw new CheckstyleException(
+                            getLocalizedMessage("Checker.processFilesException", filePath), ex);
                 }
-                fireFileStarted(fileName);
-                final SortedSet<Violation> fileMessages = processFile(file);
-                fireErrors(fileName, fileMessages);
-                fireFileFinished(fileName);
-            }
-            // -@cs[IllegalCatch] There is no other way to deliver filename that was under
-            // processing. See https://github.com/checkstyle/checkstyle/issues/2285
-            catch (Exception ex) {
-                if (fileName != null && cacheFile != null) {
-                    cacheFile.remove(fileName);
+                catch (Error error) {
+                    if (fileName != null && cacheFile != null) {
+                        cacheFile.remove(file);
+                    }
+
+                    // We need to catch all errors to put a reason failure (file name) in error
+                    throw new Error("Error was thrown while processing " + filePath, error);
                 }
+            }
+            fileProcessor.finishProcessing();
+        }
+        finally {
+            fileProcessor.destroy();
+        }
+    }
+
+    /**
+     * Check if all before execution file filters accept starting the file.
+     *
+     * @param fileName
+     *            the file to be audited
+     * @return {@code true} if the file is accepted.
+     */
+    private boolean acceptFileStarted(String fileName) {
+        final String stripped = CommonUtil.relativizePath(basedir, fileName);
+        return beforeExecutionFileFilters.accept(stripped);
+    }
 
-                // We need to catch all exceptions to put a reason failure (file name) in exception
-                throw new CheckstyleException(
-                        getLocalizedMessage("Checker.processFilesException", filePath), ex);
+    /**
+     * Returns the violations recorded in cache for an unchanged file. Files which checked ok
+     * have no violations and are skipped, the violations of others are replayed.
+     * If the configuration of some modules changed since the file was recorded, only
+     * these modules process the file. Global stateful modules always process it.
+     *
+     * @param file the file to check
+     * @return the cached violations, or {@code null} if the file has to be processed
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     */
+    private SortedSet<Violation> getCachedViolations(File file) throws CheckstyleException {
+        SortedSet<Violation> result = null;
+        if (cacheFile != null && !isInMemory(file)) {
+            result = cacheFile.getViolations(file, moduleClassLoader);
+            final Map<String, String> cachedFingerprints = cacheFile.getModuleFingerprints(file);
+            if (result != null && cachedFingerprints != null
+                    && !moduleFingerprints.matches(cachedFingerprints)) {
+                result = processChangedModules(file, result, cachedFingerprints);
+            }
+        }
+        if (result == null && cacheDirectory != null && !isInMemory(file)) {
+            result = cacheDirectory.get(file, getSharedPath(file), moduleClassLoader);
+            if (result != null && cacheFile != null) {
+                cacheFile.put(file, result);
             }
-            catch (Error error) {
-                if (fileName != null && cacheFile != null) {
-                    cacheFile.remove(fileName);
+        }
+        if (result != null && !globalStatefulModules.isEmpty()) {
+            result = processGlobalStatefulModules(file, result);
+        }
+        return result;
+    }
+
+    /**
+     * Processes a cached file with the global stateful modules, which have to see every
+     * file, like a check which reports a directory once. Their cached violations are
+     * replaced by the violations they report now.
+     *
+     * @param file the cached file
+     * @param cachedViolations the cached violations of the file
+     * @return the cached violations of the other modules and the new violations
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     */
+    private SortedSet<Violation> processGlobalStatefulModules(File file,
+            SortedSet<Violation> cachedViolations) throws CheckstyleException {
+        final SortedSet<Violation> result = cachedViolations.stream()
+                .filter(violation -> {
+                    return !globalStatefulModules.contains(
+                            ModuleFingerprints.getModuleKey(violation));
+                })
+                .collect(Collectors.toCollection(TreeSet::new));
+        result.addAll(filterErrors(file.getAbsolutePath(),
+                processFile(file, fileSetChecks, globalStatefulModules)));
+        return result;
+    }
+
+    /**
+     * Returns the violations of an earlier file of the run with identical content. Modules
+     * which depend on the path of the file process it, and filters which depend on the path
+     * are applied to the reused violations.
+     *
+     * @param file the file to check
+     * @return the violations of the file, or {@code null} if it has to be processed
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     */
+    private SortedSet<Violation> getDuplicateViolations(File file) throws CheckstyleException {
+        SortedSet<Violation> result = null;
+        if (duplicateContents != null && !isInMemory(file)) {
+            final SortedSet<Violation> sharedViolations = duplicateContents.get(file);
+            if (sharedViolations != null) {
+                final String fileName = file.getAbsolutePath();
+                result = filterErrors(fileName, sharedViolations,
+                        duplicateContents.getPathDependentFilters());
+                final Set<String> pathDependentModules =
+                        duplicateContents.getPathDependentModules();
+                if (!pathDependentModules.isEmpty()) {
+                    result.addAll(filterErrors(fileName,
+                            processFile(file, fileSetChecks, pathDependentModules)));
                 }
+            }
+        }
+        return result;
+    }
 
-                // We need to catch all errors to put a reason failure (file name) in error
-                throw new Error("Error was thrown while processing " + filePath, error);
+    /**
+     * Records the violations of a processed file in the cache file and the cache directory.
+     *
+     * @param file the processed file
+     * @param violations the violations accepted by all filters
+     */
+    private void putCachedViolations(File file, SortedSet<Violation> violations) {
+        if (cacheFile != null && !isInMemory(file)) {
+            cacheFile.put(file, violations);
+        }
+        if (cacheDirectory != null && !isInMemory(file)) {
+            cacheDirectory.put(file, getSharedPath(file), violations);
+        }
+    }
+
+    /**
+     * Checks whether the violations of a file are in the cache file or the cache directory.
+     *
+     * @param file the file
+     * @return whether the violations of the file are cached
+     */
+    private boolean isCached(File file) {
+        return !isInMemory(file)
+                && (cacheFile != null && cacheFile.isInCache(file)
+                    || cacheDirectory != null
+                        && cacheDirectory.contains(file, getSharedPath(file)));
+    }
+
+    /**
+     * Checks whether the text of a file is given instead of read from the file system.
+     *
+     * @param file the file
+     * @return whether the text of the file is given
+     */
+    private boolean isInMemory(File file) {
+        return fileTexts.containsKey(file.getAbsolutePath());
+    }
+
+    /**
+     * Returns the path of a file in the cache directory, which is relative to the base
+     * directory, so working copies in other directories share the violations.
+     *
+     * @param file the file
+     * @return the path of the file
+     */
+    private String getSharedPath(File file) {
+        return CommonUtil.relativizePath(basedir, file.getAbsolutePath());
+    }
+
+    /**
+     * Processes an unchanged file with the modules whose configuration changed since it
+     * was recorded in cache, and records their violations together with the cached
+     * violations of the other modules.
+     *
+     * @param file the file to process
+     * @param cachedViolations the violations recorded in cache
+     * @param cachedFingerprints the fingerprints of the modules the file was recorded with
+     * @return the violations of the file, or {@code null} if it has to be processed by all
+     *     modules
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     */
+    private SortedSet<Violation> processChangedModules(File file,
+            SortedSet<Violation> cachedViolations, Map<String, String> cachedFingerprints)
+            throws CheckstyleException {
+        final SortedSet<Violation> result =
+                moduleFingerprints.getUnchangedViolations(cachedViolations, cachedFingerprints);
+        if (result != null) {
+            final Set<String> changedModules =
+                    new HashSet<>(moduleFingerprints.getChangedModules(cachedFingerprints));
+            // global stateful modules process the file anyway
+            changedModules.removeAll(globalStatefulModules);
+            if (!changedModules.isEmpty()) {
+                result.addAll(filterErrors(file.getAbsolutePath(),
+                        processFile(file, fileSetChecks, changedModules)));
             }
+            cacheFile.put(file, result);
         }
+        return result;
     }
 
     /**
-     * Processes a file with all FileSetChecks.
+     * Creates the fingerprints of the configurations of the modules which report
+     * violations, the checks of TreeWalkers and other FileSetChecks.
+     *
+     * @return the fingerprints of the modules.
+     */
+    private ModuleFingerprints createModuleFingerprints() {
+        final Map<Object, Configuration> moduleConfigurations = new HashMap<>();
+        for (final FileSetCheck fsc : fileSetChecks) {
+            if (fsc instanceof TreeWalker) {
+                ((TreeWalker) fsc).getCheckConfigurations().forEach((check, conf) -> {
+                    // the suppressions it holds are used by filters for all modules
+                    if (!(check instanceof SuppressWarningsHolder)) {
+                        moduleConfigurations.put(check, conf);
+                    }
+                });
+            }
+            else {
+                moduleConfigurations.put(fsc, fileSetCheckConfigurations.get(fsc));
+            }
+        }
+        return new ModuleFingerprints(getConfiguration(), moduleConfigurations);
+    }
+
+    /**
+     * Returns the keys of the global stateful modules, the checks of TreeWalkers and other
+     * FileSetChecks.
+     *
+     * @return the keys of the global stateful modules.
+     */
+    private Set<String> getGlobalStatefulModules() {
+        final Set<String> result = new HashSet<>();
+        for (final FileSetCheck fsc : fileSetChecks) {
+            Stream<Object> modules = Stream.of(fsc);
+            if (fsc instanceof TreeWalker) {
+                modules = ((TreeWalker) fsc).getCheckConfigurations().keySet().stream()
+                        .map(Object.class::cast);
+            }
+            modules
+                .filter(module -> module.getClass().isAnnotationPresent(GlobalStatefulCheck.class))
+                .map(ModuleFingerprints::getModuleKey)
+                .forEach(result::add);
+        }
+        return result;
+    }
+
+    /**
+     * Creates the violations of the run by content, with the keys of the modules and the
+     * filters which depend on the path of files. Global stateful checks count as such, as
+     * they have to see every file. Filters of a TreeWalker apply to all its checks.
+     *
+     * @return the violations of the run by content.
+     */
+    private DuplicateContents createDuplicateContents() {
+        final Set<String> pathDependentModules = new HashSet<>();
+        for (final FileSetCheck fsc : fileSetChecks) {
+            if (fsc instanceof TreeWalker) {
+                final TreeWalker treeWalker = (TreeWalker) fsc;
+                final boolean pathDependentFilters = treeWalker.hasPathDependentFilters();
+                treeWalker.getCheckConfigurations().keySet().stream()
+                        .filter(check -> pathDependentFilters || isPathDependent(check))
+                        .map(ModuleFingerprints::getModuleKey)
+                        .forEach(pathDependentModules::add);
+            }
+            else if (isPathDependent(fsc)) {
+                pathDependentModules.add(ModuleFingerprints.getModuleKey(fsc));
+            }
+        }
+        return new DuplicateContents(pathDependentModules, selectFilters(filters, true));
+    }
+
+    /**
+     * Selects the filters which depend, or do not depend, on the path of files.
+     *
+     * @param filterSet the filters to select from
+     * @param pathDependent whether to select the filters which depend on the path
+     * @return the selected filters
+     */
+    private static FilterSet selectFilters(FilterSet filterSet, boolean pathDependent) {
+        final FilterSet result = new FilterSet();
+        for (final Filter filter : filterSet.getFilters()) {
+            if (isPathDependent(filter) == pathDependent) {
+                result.addFilter(filter);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the results of a module depend on the path of files.
+     *
+     * @param module the module
+     * @return true if the module depends on the path of files or sees every file
+     */
+    private static boolean isPathDependent(Object module) {
+        final Class<?> moduleClass = module.getClass();
+        return moduleClass.isAnnotationPresent(PathDependentCheck.class)
+                || moduleClass.isAnnotationPresent(GlobalStatefulCheck.class);
+    }
+
+    /**
+     * Processes a file with the given FileSetChecks and filters its violations. When content
+     * is deduplicated, the violations accepted by the filters which do not depend on the path
+     * are recorded for the later files with identical content.
+     *
+     * @param file a file to process.
+     * @param checks the FileSetChecks to process the file with.
+     * @param filterSet the filters to apply, either the original filters or copies
+     *     owned by a worker thread.
+     * @return the violations accepted by all filters.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     */
+    private SortedSet<Violation> processAndRecord(File file, List<FileSetCheck> checks,
+            FilterSet filterSet) throws CheckstyleException {
+        final String fileName = file.getAbsolutePath();
+        final SortedSet<Violation> violations = processFile(file, checks, null);
+        final SortedSet<Violation> result;
+        if (duplicateContents == null || isInMemory(file)) {
+            result = filterErrors(fileName, violations, filterSet);
+        }
+        else {
+            final SortedSet<Violation> sharedViolations = filterErrors(fileName, violations,
+                    selectFilters(filterSet, false));
+            duplicateContents.put(file, sharedViolations);
+            result = filterErrors(fileName, sharedViolations,
+                    selectFilters(filterSet, true));
+        }
+        return result;
+    }
+
+    /**
+     * Processes a file with the given FileSetChecks and filters its violations, without
+     * recording them for files with identical content.
      *
      * @param file a file to process.
+     * @param checks the FileSetChecks to process the file with.
+     * @param filterSet the filters to apply.
+     * @return the violations accepted by the filters.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     */
+    private SortedSet<Violation> processAndFilter(File file, List<FileSetCheck> checks,
+            FilterSet filterSet) throws CheckstyleException {
+        return filterErrors(file.getAbsolutePath(), processFile(file, checks, null), filterSet);
+    }
+
+    /**
+     * Creates the processor of the given files. In multi thread mode, the files which
+     * are going to be audited are processed ahead by worker threads, each with its own
+     * copies of file stateful FileSetChecks and of the filters.
+     *
+     * @param files the files to process.
+     * @return the file processor.
+     * @throws CheckstyleException if copies of FileSetChecks can not be created.
+     */
+    private ConcurrentFileProcessor createFileProcessor(List<File> files)
+            throws CheckstyleException {
+        final ConcurrentFileProcessor fileProcessor =
+                new ConcurrentFileProcessor(this::processAndRecord, this::processAndFilter,
+                        fileSetChecks, filters);
+        final Configuration configuration = getConfiguration();
+        if (configuration instanceof DefaultConfiguration) {
+            final int threadsNumber = ((DefaultConfiguration) configuration)
+                    .getThreadModeSettings().getCheckerThreadsNumber();
+            if (threadsNumber > 1) {
+                final int[] auditedIndexes = IntStream.range(0, files.size())
+                        .filter(index -> {
+                            final File file = files.get(index);
+                            return !isCached(file)
+                                    && acceptFileStarted(file.getAbsolutePath())
+                                    && (duplicateContents == null || isInMemory(file)
+                                            || duplicateContents.claim(file));
+                        })
+                        .toArray();
+                final Map<Object, Configuration> configurations =
+                        new HashMap<>(fileSetCheckConfigurations);
+                configurations.putAll(filterConfigurations);
+                fileProcessor.start(threadsNumber, files, auditedIndexes, charset,
+                        configurations, this::createModuleCopy);
+            }
+        }
+        return fileProcessor;
+    }
+
+    /**
+     * Creates a copy of a FileSetCheck or filter from its configuration for a worker thread.
+     *
+     * @param conf the configuration of the module.
+     * @return the initialized module.
+     * @throws CheckstyleException if the module can not be created.
+     */
+    private Object createModuleCopy(Configuration conf) throws CheckstyleException {
+        final AbstractAutomaticBean bean =
+                (AbstractAutomaticBean) moduleFactory.createModule(conf.getName());
+        bean.contextualize(childContext);
+        bean.configure(conf);
+        if (bean instanceof FileSetCheck) {
+            final FileSetCheck fsc = (FileSetCheck) bean;
+            fsc.init();
+            fsc.setMessageDispatcher(this);
+        }
+        return bean;
+    }
+
+    /**
+     * Processes a file with the given FileSetChecks, possibly restricted to some modules.
+     *
+     * @param file a file to process.
+     * @param checks the FileSetChecks to process the file with.
+     * @param modules the keys of the modules to process the file with, all modules do
+     *     if {@code null}.
      * @return a sorted set of violations to be logged.
      * @throws CheckstyleException if error condition within Checkstyle occurs.
      * @noinspection ProhibitedExceptionThrown
      * @noinspectionreason ProhibitedExceptionThrown - there is no other way to obey
      *      haltOnException field
      */
-    private SortedSet<Violation> processFile(File file) throws CheckstyleException {
+    private SortedSet<Violation> processFile(File file, List<FileSetCheck> checks,
+            Set<String> modules) throws CheckstyleException {
         final SortedSet<Violation> fileMessages = new TreeSet<>();
         try {
-            final FileText theText = new FileText(file.getAbsoluteFile(), charset);
-            for (final FileSetCheck fsc : fileSetChecks) {
-                fileMessages.addAll(fsc.process(file, theText));
+            final FileText theText = getFileText(file);
+            for (final FileSetCheck fsc : checks) {
+                if (modules == null) {
+                    fileMessages.addAll(fsc.process(file, theText));
+                }
+                else {
+                    fileMessages.addAll(processSelectedModules(fsc, file, theText, modules));
+                }
             }
         }
         catch (final IOException ioe) {
@@ -368,15 +928,55 @@ public class Checker extends AbstractAutomaticBean implements MessageDispatcher,
     }
 
     /**
-     * Check if all before execution file filters accept starting the file.
+     * Returns the text of a file, which is either given or read from the file system.
      *
-     * @param fileName
-     *            the file to be audited
-     * @return {@code true} if the file is accepted.
+     * @param file the file.
+     * @return the text of the file.
+     * @throws IOException if the file can not be read.
      */
-    private boolean acceptFileStarted(String fileName) {
-        final String stripped = CommonUtil.relativizePath(basedir, fileName);
-        return beforeExecutionFileFilters.accept(stripped);
+    private FileText getFileText(File file) throws IOException {
+        FileText result = fileTexts.get(file.getAbsolutePath());
+        if (result == null) {
+            result = new FileText(file.getAbsoluteFile(), charset);
+        }
+        return result;
+    }
+
+    /**
+     * Processes a file with the selected modules of a FileSetCheck. A TreeWalker runs
+     * its selected checks and the checks which are not modules, like the holder of
+     * suppressions, if any check is selected.
+     *
+     * @param fsc the FileSetCheck to process the file with.
+     * @param file a file to process.
+     * @param fileText the text of the file.
+     * @param modules the keys of the selected modules.
+     * @return a sorted set of violations found by the selected modules.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     */
+    private SortedSet<Violation> processSelectedModules(FileSetCheck fsc, File file,
+            FileText fileText, Set<String> modules) throws CheckstyleException {
+        final Predicate<Object> selected = module -> {
+            return !moduleFingerprints.isModule(module)
+                    || modules.contains(ModuleFingerprints.getModuleKey(module));
+        };
+        SortedSet<Violation> result = Collections.emptySortedSet();
+        if (fsc instanceof TreeWalker) {
+            final TreeWalker treeWalker = (TreeWalker) fsc;
+            if (treeWalker.getCheckConfigurations().keySet().stream().anyMatch(selected)) {
+                treeWalker.setCheckFilter(selected::test);
+                try {
+                    result = fsc.process(file, fileText);
+                }
+                finally {
+                    treeWalker.setCheckFilter(null);
+                }
+            }
+        }
+        else if (selected.test(fsc)) {
+            result = fsc.process(file, fileText);
+        }
+        return result;
     }
 
     /**
@@ -395,27 +995,80 @@ public class Checker extends AbstractAutomaticBean implements MessageDispatcher,
     }
 
     /**
-     * Notify all listeners about the errors in a file.
+     * Notify all listeners about the errors in a file. As these errors are not found
+     * when the file itself is processed, the file is removed from the caches.
      *
      * @param fileName the audited file
      * @param errors the audit errors from the file
      */
     @Override
     public void fireErrors(String fileName, SortedSet<Violation> errors) {
+        final SortedSet<Violation> acceptedErrors = filterErrors(fileName, errors);
+        dispatchErrors(fileName, acceptedErrors);
+        if (!acceptedErrors.isEmpty()) {
+            final File file = new File(fileName);
+            if (cacheFile != null) {
+                cacheFile.remove(file);
+            }
+            if (cacheDirectory != null) {
+                cacheDirectory.remove(file, getSharedPath(file));
+            }
+        }
+    }
+
+    /**
+     * Filters the errors in a file with the original filters.
+     *
+     * @param fileName the audited file
+     * @param errors the audit errors from the file
+     * @return the errors accepted by all filters
+     */
+    private SortedSet<Violation> filterErrors(String fileName, SortedSet<Violation> errors) {
+        return filterErrors(fileName, errors, filters);
+    }
+
+    /**
+     * Filters the errors in a file with some of the filters. Filters are applied on
+     * the thread which processed the file, as some of them depend on thread bound state
+     * of checks, so every worker thread applies its own copies of the filters.
+     *
+     * @param fileName the audited file
+     * @param errors the audit errors from the file
+     * @param filterSet the filters to apply, all or some of the original filters
+     *     or of the copies owned by the current thread
+     * @return the errors accepted by the given filters
+     */
+    private SortedSet<Violation> filterErrors(String fileName, SortedSet<Violation> errors,
+            FilterSet filterSet) {
         final String stripped = CommonUtil.relativizePath(basedir, fileName);
-        boolean hasNonFilteredViolations = false;
+        final FileText fileText = fileTexts.get(fileName);
+        final SortedSet<Violation> acceptedErrors = new TreeSet<>();
         for (final Violation element : errors) {
-            final AuditEvent event = new AuditEvent(this, stripped, element);
-            if (filters.accept(event)) {
-                hasNonFilteredViolations = true;
+            if (filterSet.accept(new AuditEvent(this, stripped, element, fileText))) {
+                acceptedErrors.add(element);
+            }
+        }
+        return acceptedErrors;
+    }
+
+    /**
+     * Notify all listeners about the filtered errors in a file which are accepted by the
+     * report filters.
+     *
+     * @param fileName the audited file
+     * @param errors the audit errors from the file accepted by all filters
+     */
+    private void dispatchErrors(String fileName, SortedSet<Violation> errors) {
+        final String stripped = CommonUtil.relativizePath(basedir, fileName);
+        final FileText fileText = fileTexts.get(fileName);
+        for (final Violation element : errors) {
+            final AuditEvent event = new AuditEvent(this, stripped, element, fileText);
+            if (reportFilters.accept(event)) {
                 for (final AuditListener listener : listeners) {
                     listener.addError(event);
                 }
             }
         }
-        if (hasNonFilteredViolations && cacheFile != null) {
-            cacheFile.remove(fileName);
-        }
     }
 
     /**
@@ -487,6 +1140,9 @@ public class Checker extends AbstractAutomaticBean implements MessageDispatcher,
             final FileSetCheck fsc = (FileSetCheck) child;
             fsc.init();
             addFileSetCheck(fsc);
+            if (child instanceof AbstractAutomaticBean) {
+                fileSetCheckConfigurations.put(fsc, childConf);
+            }
         }
         else if (child instanceof BeforeExecutionFileFilter) {
             final BeforeExecutionFileFilter filter = (BeforeExecutionFileFilter) child;
@@ -495,6 +1151,9 @@ public class Checker extends AbstractAutomaticBean implements MessageDispatcher,
         else if (child instanceof Filter) {
             final Filter filter = (Filter) child;
             addFilter(filter);
+            if (child instanceof AbstractAutomaticBean) {
+                filterConfigurations.put(filter, childConf);
+            }
         }
         else if (child instanceof AuditListener) {
             final AuditListener listener = (AuditListener) child;
@@ -535,6 +1194,17 @@ public class Checker extends AbstractAutomaticBean implements MessageDispatcher,
         filters.addFilter(filter);
     }
 
+    /**
+     * Adds a filter of the violations reported to the listeners. Unlike the filters of the
+     * audit event filter chain, it is applied after the violations are cached, so it may
+     * depend on state which is not part of the configuration, like changed lines.
+     *
+     * @param filter the additional filter
+     */
+    public void addReportFilter(Filter filter) {
+        reportFilters.addFilter(filter);
+    }
+
     @Override
     public final void addListener(AuditListener listener) {
         listeners.add(listener);
@@ -0,0 +1,258 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * A pool of {@link Checker} instances configured with the same configuration, so files can
+ * be checked from several threads at the same time without configuring all modules for
+ * every check.
+ *
+ * <p>Modules keep state while they process files, so a Checker of the pool is used by one
+ * call at a time. A call takes an idle Checker, or configures a new one if all of them are
+ * busy and the pool is not full, or waits until one is returned otherwise. The listeners
+ * of a call are attached to its Checker only for the duration of the call. A Checker
+ * which fails is destroyed instead of being returned to the pool.</p>
+ *
+ * <p>Listeners and the cache file of the configuration belong to every Checker of the
+ * pool. A cache file is written when the pool is closed, by each Checker in turn, so a
+ * cache directory should be used to share violations between the Checkers.</p>
+ */
+public final class CheckerPool implements Closeable {
+
+    /** The configuration of the Checkers. */
+    private final Configuration configuration;
+
+    /** The class loader of the modules. */
+    private final ClassLoader moduleClassLoader;
+
+    /** The factory of the modules, shared by all Checkers. */
+    private final ModuleFactory moduleFactory;
+
+    /** Permits to use a Checker, one for every Checker the pool may hold. */
+    private final Semaphore permits;
+
+    /** The Checkers which are not in use, the most recently used first. */
+    private final Deque<Checker> idleCheckers = new ArrayDeque<>();
+
+    /** Whether the pool is closed. */
+    private boolean closed;
+
+    /**
+     * Creates a new {@code CheckerPool} instance. Checkers are configured when they are
+     * needed for the first time.
+     *
+     * @param configuration the configuration of the Checkers
+     * @param moduleClassLoader the class loader of the modules
+     * @param maxSize the maximum number of Checkers, and of calls processed at the same time
+     * @throws CheckstyleException if the package names of the modules can not be loaded
+     * @throws IllegalArgumentException if the maximum number of Checkers is not positive
+     */
+    public CheckerPool(Configuration configuration, ClassLoader moduleClassLoader, int maxSize)
+            throws CheckstyleException {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Invalid size of pool: " + maxSize);
+        }
+        this.configuration = configuration;
+        this.moduleClassLoader = moduleClassLoader;
+        moduleFactory = new PackageObjectFactory(
+                PackageNamesLoader.getPackageNames(moduleClassLoader), moduleClassLoader);
+        permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Processes files with a Checker of the pool.
+     *
+     * @param files the files to process
+     * @param listeners the listeners to notify about the audit
+     * @return the number of errors found
+     * @throws CheckstyleException if the files can not be processed, or the calling thread
+     *     is interrupted while it waits for a Checker
+     * @throws IllegalStateException if the pool is closed
+     * @see Checker#process(List)
+     */
+    public int process(List<File> files, List<AuditListener> listeners)
+            throws CheckstyleException {
+        return run(checker -> checker.process(files), listeners);
+    }
+
+    /**
+     * Processes texts which are not read from the file system with a Checker of the pool.
+     *
+     * @param texts the texts to process
+     * @param listeners the listeners to notify about the audit
+     * @return the number of errors found
+     * @throws CheckstyleException if the texts can not be processed, or the calling thread
+     *     is interrupted while it waits for a Checker
+     * @throws IllegalStateException if the pool is closed
+     * @see Checker#processFileTexts(List)
+     */
+    public int processFileTexts(List<FileText> texts, List<AuditListener> listeners)
+            throws CheckstyleException {
+        return run(checker -> checker.processFileTexts(texts), listeners);
+    }
+
+    /**
+     * Returns the locations of the external resources of the modules, like suppression
+     * files, which the modules load when a Checker is configured.
+     *
+     * @return the locations of the external resources
+     * @throws CheckstyleException if a Checker can not be configured, or the calling thread
+     *     is interrupted while it waits for a Checker
+     * @throws IllegalStateException if the pool is closed
+     */
+    public Set<String> getExternalResourceLocations() throws CheckstyleException {
+        final Set<String> result = new HashSet<>();
+        run(checker -> {
+            result.addAll(checker.getExternalResourceLocations());
+            return 0;
+        }, Collections.emptyList());
+        return result;
+    }
+
+    /**
+     * Destroys the idle Checkers. Checkers which are in use are destroyed once their
+     * calls finish.
+     */
+    @Override
+    public void close() {
+        final List<Checker> checkers;
+        synchronized (idleCheckers) {
+            closed = true;
+            checkers = new ArrayList<>(idleCheckers);
+            idleCheckers.clear();
+        }
+        checkers.forEach(Checker::destroy);
+    }
+
+    /**
+     * Runs a task with a Checker of the pool and the given listeners attached to it.
+     *
+     * @param task the task
+     * @param listeners the listeners to attach
+     * @return the number of errors found
+     * @throws CheckstyleException if the task fails, or the calling thread is interrupted
+     *     while it waits for a Checker
+     */
+    private int run(CheckerTask task, List<AuditListener> listeners)
+            throws CheckstyleException {
+        try {
+            permits.acquire();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CheckstyleException("Interrupted while waiting for a checker", ex);
+        }
+        final int errorCount;
+        try {
+            final Checker checker = takeChecker();
+            boolean reusable = false;
+            listeners.forEach(checker::addListener);
+            try {
+                errorCount = task.run(checker);
+                reusable = true;
+            }
+            finally {
+                listeners.forEach(checker::removeListener);
+                returnChecker(checker, reusable);
+            }
+        }
+        finally {
+            permits.release();
+        }
+        return errorCount;
+    }
+
+    /**
+     * Takes an idle Checker, or configures a new one if there is none.
+     *
+     * @return the Checker
+     * @throws CheckstyleException if a new Checker can not be configured
+     * @throws IllegalStateException if the pool is closed
+     */
+    private Checker takeChecker() throws CheckstyleException {
+        Checker checker;
+        synchronized (idleCheckers) {
+            if (closed) {
+                throw new IllegalStateException("Checker pool is closed");
+            }
+            checker = idleCheckers.pollFirst();
+        }
+        if (checker == null) {
+            checker = new Checker();
+            checker.setModuleClassLoader(moduleClassLoader);
+            checker.setModuleFactory(moduleFactory);
+            checker.configure(configuration);
+        }
+        return checker;
+    }
+
+    /**
+     * Returns a Checker to the pool, or destroys it if it can not be used again.
+     *
+     * @param checker the Checker
+     * @param reusable whether the Checker can be used again
+     */
+    private void returnChecker(Checker checker, boolean reusable) {
+        boolean returned = false;
+        synchronized (idleCheckers) {
+            if (reusable && !closed) {
+                idleCheckers.addFirst(checker);
+                returned = true;
+            }
+        }
+        if (!returned) {
+            checker.destroy();
+        }
+    }
+
+    /**
+     * A task which runs with a Checker of the pool.
+     */
+    @FunctionalInterface
+    private interface CheckerTask {
+
+        /**
+         * Runs the task.
+         *
+         * @param checker the Checker
+         * @return the number of errors found
+         * @throws CheckstyleException if the task fails
+         */
+        int run(Checker checker) throws CheckstyleException;
+
+    }
+
+}
@@ -0,0 +1,885 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import com.puppycrawl.tools.checkstyle.AbstractAutomaticBean.OutputStreamOptions;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.RootModule;
+
+/**
+ * A long-running process which checks files on request of clients, so configurations are
+ * loaded and modules are looked up once rather than on every run of the command line
+ * program. Clients connect to a port of the loopback address, send a {@link Request} and
+ * receive a {@link Response} with the report in the requested format.
+ *
+ * <p>The port is open to every local user, so the daemon writes a random token to a file
+ * which only its owner can read, named by the port in the token directory, and serves only
+ * clients which send the token. A client which does not send a complete request within the
+ * read timeout is disconnected, so it can not block the daemon.</p>
+ *
+ * <p>Loaded configurations are kept by the location of the configuration file and the
+ * properties and options they were loaded with, and are loaded again once the file or
+ * one of the external resources of its modules, like a suppressions file, is
+ * modified. Each configuration keeps a {@link CheckerPool} with one configured Checker,
+ * which is kept warm between requests and replaced only when the fingerprint of the
+ * reloaded configuration changes. Configurations with another root module configure it
+ * for every request. Requests are processed one at a time, in the order clients
+ * connect. The Checkers are destroyed, and their cache files written, when the daemon
+ * stops serving clients.</p>
+ */
+public final class CheckstyleDaemon implements Closeable {
+
+    /** The version of the protocol, which the client and the daemon must agree on. */
+    private static final int PROTOCOL_VERSION = 2;
+
+    /** The default time in milliseconds to wait for the request of a client. */
+    private static final int DEFAULT_READ_TIMEOUT = 10_000;
+
+    /** The number of random bytes of a token. */
+    private static final int TOKEN_LENGTH = 32;
+
+    /** The permissions of a token file on file systems with POSIX permissions. */
+    private static final String TOKEN_FILE_PERMISSIONS = "rw-------";
+
+    /** The extension of token files. */
+    private static final String TOKEN_FILE_EXTENSION = ".token";
+
+    /** The key of the properties when the system properties of the daemon are used. */
+    private static final String SYSTEM_PROPERTIES_KEY = "<system>";
+
+    /** The socket clients connect to. */
+    private final ServerSocket serverSocket;
+
+    /** The time in milliseconds to wait for the request of a client. */
+    private final int readTimeout;
+
+    /** The file the token is written to. */
+    private final File tokenFile;
+
+    /** The token clients must send. */
+    private final String token;
+
+    /** The class loader of the modules. */
+    private final ClassLoader moduleClassLoader;
+
+    /** The factory of the modules, shared by all requests. */
+    private final ModuleFactory moduleFactory;
+
+    /** The loaded configurations, by the key of the request they were loaded for. */
+    private final Map<String, LoadedConfiguration> configurations = new HashMap<>();
+
+    /**
+     * Creates a daemon listening on a port of the loopback address, which writes its
+     * token to the default token directory.
+     *
+     * @param port the port, or 0 to use any free port
+     * @throws IOException if the port can not be listened on, or the token file can not
+     *     be written
+     * @throws CheckstyleException if the packages of the modules can not be loaded
+     * @see #getDefaultTokenDirectory()
+     */
+    public CheckstyleDaemon(int port) throws IOException, CheckstyleException {
+        this(port, getDefaultTokenDirectory());
+    }
+
+    /**
+     * Creates a daemon listening on a port of the loopback address.
+     *
+     * @param port the port, or 0 to use any free port
+     * @param tokenDirectory the directory to write the token file to
+     * @throws IOException if the port can not be listened on, or the token file can not
+     *     be written
+     * @throws CheckstyleException if the packages of the modules can not be loaded
+     */
+    public CheckstyleDaemon(int port, File tokenDirectory)
+            throws IOException, CheckstyleException {
+        this(port, tokenDirectory, DEFAULT_READ_TIMEOUT);
+    }
+
+    /**
+     * Creates a daemon listening on a port of the loopback address.
+     *
+     * @param port the port, or 0 to use any free port
+     * @param tokenDirectory the directory to write the token file to
+     * @param readTimeout the time in milliseconds to wait for the request of a client
+     * @throws IOException if the port can not be listened on, or the token file can not
+     *     be written
+     * @throws CheckstyleException if the packages of the modules can not be loaded
+     */
+    CheckstyleDaemon(int port, File tokenDirectory, int readTimeout)
+            throws IOException, CheckstyleException {
+        this.readTimeout = readTimeout;
+        moduleClassLoader = Checker.class.getClassLoader();
+        moduleFactory = new PackageObjectFactory(
+                PackageNamesLoader.getPackageNames(moduleClassLoader), moduleClassLoader);
+        serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        tokenFile = getTokenFile(tokenDirectory, getPort());
+        token = createToken();
+        try {
+            writeToken(tokenFile.toPath(), token);
+        }
+        catch (IOException ex) {
+            serverSocket.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Starts a daemon and serves clients until the process is stopped. The only optional
+     * argument is the port to listen on, any free port is used by default.
+     *
+     * @param args the command line arguments
+     * @throws IOException if the port can not be listened on
+     * @throws CheckstyleException if the packages of the modules can not be loaded
+     * @noinspection UseOfSystemOutOrSystemErr
+     * @noinspectionreason UseOfSystemOutOrSystemErr - driver class for Checkstyle requires
+     *      usage of System.out and System.err
+     */
+    public static void main(String... args) throws IOException, CheckstyleException {
+        int port = 0;
+        if (args.length > 0) {
+            port = Integer.parseInt(args[0]);
+        }
+        try (CheckstyleDaemon daemon = new CheckstyleDaemon(port)) {
+            final Thread mainThread = Thread.currentThread();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                stop(daemon, mainThread);
+            }));
+            System.out.println("Checkstyle daemon is listening on port " + daemon.getPort());
+            daemon.run();
+        }
+    }
+
+    /**
+     * Closes a daemon when the process is stopped and waits until its thread has
+     * destroyed the Checkers, so their cache files are written.
+     *
+     * @param daemon the daemon
+     * @param thread the thread which runs the daemon
+     */
+    private static void stop(CheckstyleDaemon daemon, Thread thread) {
+        try {
+            daemon.close();
+            thread.join();
+        }
+        catch (IOException ignored) {
+            // the process stops anyway
+        }
+        catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the port the daemon is listening on.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the directory token files are written to by default, which is in the home
+     * directory of the user.
+     *
+     * @return the default token directory
+     */
+    public static File getDefaultTokenDirectory() {
+        return new File(System.getProperty("user.home"), ".checkstyle" + File.separator + "daemon");
+    }
+
+    /**
+     * Serves clients until the daemon is closed, then destroys the Checkers of the loaded
+     * configurations.
+     *
+     * @throws IOException if clients can not be accepted
+     */
+    public void run() throws IOException {
+        try {
+            while (!serverSocket.isClosed()) {
+                try (Socket socket = accept()) {
+                    if (socket != null) {
+                        socket.setSoTimeout(readTimeout);
+                        serve(socket);
+                    }
+                }
+            }
+        }
+        finally {
+            configurations.values().forEach(LoadedConfiguration::close);
+            configurations.clear();
+        }
+    }
+
+    /**
+     * Stops listening and deletes the token file.
+     *
+     * @throws IOException if the socket can not be closed, or the token file can not be
+     *     deleted
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        Files.deleteIfExists(tokenFile.toPath());
+    }
+
+    /**
+     * Sends a request to the daemon listening on a port of the loopback address and
+     * waits for its response, with the token of the default token directory.
+     *
+     * @param port the port of the daemon
+     * @param request the request
+     * @return the response
+     * @throws IOException if the token can not be read, or the daemon can not be
+     *     connected to or communicated with
+     */
+    public static Response send(int port, Request request) throws IOException {
+        return send(port, getDefaultTokenDirectory(), request);
+    }
+
+    /**
+     * Sends a request to the daemon listening on a port of the loopback address and
+     * waits for its response.
+     *
+     * @param port the port of the daemon
+     * @param tokenDirectory the directory the daemon wrote its token file to
+     * @param request the request
+     * @return the response
+     * @throws IOException if the token can not be read, or the daemon can not be
+     *     connected to or communicated with
+     */
+    public static Response send(int port, File tokenDirectory, Request request)
+            throws IOException {
+        final String token = Files.readString(getTokenFile(tokenDirectory, port).toPath(),
+                StandardCharsets.UTF_8);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            final DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(socket.getOutputStream()));
+            output.writeInt(PROTOCOL_VERSION);
+            output.writeUTF(token);
+            request.writeTo(output);
+            output.flush();
+            return Response.readFrom(new DataInputStream(
+                    new BufferedInputStream(socket.getInputStream())));
+        }
+    }
+
+    /**
+     * Returns the token file of the daemon listening on a port.
+     *
+     * @param tokenDirectory the directory of the token file
+     * @param port the port of the daemon
+     * @return the token file
+     */
+    private static File getTokenFile(File tokenDirectory, int port) {
+        return new File(tokenDirectory, port + TOKEN_FILE_EXTENSION);
+    }
+
+    /**
+     * Creates a random token.
+     *
+     * @return the token in hexadecimal notation
+     */
+    private static String createToken() {
+        final byte[] bytes = new byte[TOKEN_LENGTH];
+        new SecureRandom().nextBytes(bytes);
+        final StringBuilder result = new StringBuilder(bytes.length * 2);
+        for (byte value : bytes) {
+            result.append(String.format(Locale.ROOT, "%02x", value));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Writes a token to a new file which only the owner can read and write. The file is
+     * created with these permissions on file systems with POSIX permissions, so the token
+     * can not be read before the permissions are set.
+     *
+     * @param file the token file
+     * @param value the token
+     * @throws IOException if the file can not be written
+     */
+    private static void writeToken(Path file, String value) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.deleteIfExists(file);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(
+                    PosixFilePermissions.fromString(TOKEN_FILE_PERMISSIONS)));
+        }
+        else {
+            final File created = Files.createFile(file).toFile();
+            if (!created.setReadable(false, false) || !created.setReadable(true, true)
+                    || !created.setWritable(false, false) || !created.setWritable(true, true)) {
+                throw new IOException("Unable to restrict access to token file " + file);
+            }
+        }
+        Files.writeString(file, value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Accepts the next client.
+     *
+     * @return the socket of the client, or {@code null} if the daemon was closed meanwhile
+     * @throws IOException if the client can not be accepted
+     */
+    private Socket accept() throws IOException {
+        Socket result = null;
+        try {
+            result = serverSocket.accept();
+        }
+        catch (SocketException ex) {
+            if (!serverSocket.isClosed()) {
+                throw ex;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Processes the request of a client and sends back the response. A client which goes
+     * away, does not send its request in time or does not send the token does not stop
+     * the daemon.
+     *
+     * @param socket the socket of the client
+     */
+    private void serve(Socket socket) {
+        try {
+            final DataInputStream input = new DataInputStream(
+                    new BufferedInputStream(socket.getInputStream()));
+            readToken(input);
+            final Request request = Request.readFrom(input);
+            final DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(socket.getOutputStream()));
+            process(request).writeTo(output);
+            output.flush();
+        }
+        catch (IOException ignored) {
+            // the client went away or is not allowed, the next one is served
+        }
+    }
+
+    /**
+     * Reads the version of the protocol and the token sent by a client.
+     *
+     * @param input the stream of the client
+     * @throws IOException if the stream can not be read, the version is not supported or
+     *     the token is not the token of the daemon
+     */
+    private void readToken(DataInputStream input) throws IOException {
+        final int version = input.readInt();
+        if (version != PROTOCOL_VERSION) {
+            throw new IOException("Unsupported protocol version " + version);
+        }
+        final byte[] clientToken = input.readUTF().getBytes(StandardCharsets.UTF_8);
+        if (!MessageDigest.isEqual(clientToken, token.getBytes(StandardCharsets.UTF_8))) {
+            throw new IOException("Invalid token");
+        }
+    }
+
+    /**
+     * Processes a request.
+     *
+     * @param request the request
+     * @return the response
+     */
+    private Response process(Request request) {
+        final ByteArrayOutputStream report = new ByteArrayOutputStream();
+        Response result;
+        try {
+            final int errorCount = check(getConfiguration(request), request, report);
+            result = new Response(report.toByteArray(), errorCount, null);
+        }
+        // -@cs[IllegalCatch] any failure is sent back, so it does not stop the daemon
+        catch (CheckstyleException | IOException | RuntimeException ex) {
+            final StringWriter failure = new StringWriter();
+            ex.printStackTrace(new PrintWriter(failure));
+            result = new Response(report.toByteArray(), 0, failure.toString());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the configuration of a request, loading it if it was not loaded yet or its
+     * file or one of its external resources was modified since. A reloaded configuration
+     * keeps the Checkers of the previous one if its fingerprint did not change.
+     *
+     * @param request the request
+     * @return the configuration
+     * @throws CheckstyleException if the configuration can not be loaded
+     */
+    private LoadedConfiguration getConfiguration(Request request) throws CheckstyleException {
+        final String key = request.getConfigurationKey();
+        final long lastModified = new File(request.configurationLocation).lastModified();
+        LoadedConfiguration loaded = configurations.get(key);
+        if (loaded != null && loaded.isExternalResourceChanged()) {
+            loaded.close();
+            configurations.remove(key);
+            loaded = null;
+        }
+        if (loaded == null || loaded.lastModified != lastModified) {
+            final Properties properties;
+            if (request.properties == null) {
+                properties = System.getProperties();
+            }
+            else {
+                properties = new Properties();
+                properties.putAll(request.properties);
+            }
+            final ConfigurationLoader.IgnoredModulesOptions ignoredModulesOptions;
+            if (request.executeIgnoredModules) {
+                ignoredModulesOptions = ConfigurationLoader.IgnoredModulesOptions.EXECUTE;
+            }
+            else {
+                ignoredModulesOptions = ConfigurationLoader.IgnoredModulesOptions.OMIT;
+            }
+            final Configuration configuration = ConfigurationLoader.loadConfiguration(
+                    request.configurationLocation, new PropertiesExpander(properties),
+                    ignoredModulesOptions, new ThreadModeSettings(request.checkerThreadsNumber,
+                            request.treeWalkerThreadsNumber));
+            loaded = reload(loaded, configuration, lastModified);
+            configurations.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Creates the loaded configuration of a configuration which was loaded again. The
+     * Checkers of the previous configuration are kept if the fingerprint of the
+     * configuration did not change, and destroyed otherwise.
+     *
+     * @param previous the previous loaded configuration, or {@code null} if there is none
+     * @param configuration the loaded configuration
+     * @param lastModified the modification time of the configuration file
+     * @return the loaded configuration
+     * @throws CheckstyleException if the package names of the modules can not be loaded,
+     *     or the Checker can not be configured
+     */
+    private LoadedConfiguration reload(LoadedConfiguration previous,
+            Configuration configuration, long lastModified) throws CheckstyleException {
+        final String fingerprint = Fingerprints.getFingerprint(configuration);
+        final LoadedConfiguration result;
+        if (previous != null && previous.fingerprint.equals(fingerprint)) {
+            result = new LoadedConfiguration(previous.configuration, fingerprint,
+                    lastModified, previous.pool, previous.externalResources);
+        }
+        else {
+            if (previous != null) {
+                previous.close();
+            }
+            CheckerPool pool = null;
+            Map<String, String> externalResources = Collections.emptyMap();
+            if (moduleFactory.createModule(configuration.getName()) instanceof Checker) {
+                pool = new CheckerPool(configuration, moduleClassLoader, 1);
+                externalResources = PropertyCacheFile.loadExternalResourceHashSums(
+                        pool.getExternalResourceLocations());
+            }
+            result = new LoadedConfiguration(configuration, fingerprint, lastModified, pool,
+                    externalResources);
+        }
+        return result;
+    }
+
+    /**
+     * Processes the files of a request with the Checker of a loaded configuration, or with
+     * a newly configured root module if the root module is not a Checker.
+     *
+     * @param loaded the loaded configuration
+     * @param request the request
+     * @param report the stream to write the report to
+     * @return the number of errors
+     * @throws CheckstyleException if the files can not be processed
+     * @throws IOException if the report can not be written
+     */
+    private int check(LoadedConfiguration loaded, Request request,
+            ByteArrayOutputStream report) throws CheckstyleException, IOException {
+        final AuditListener listener = Main.OutputFormat.valueOf(request.format)
+                .createListener(report, OutputStreamOptions.NONE);
+        final List<File> files = request.files.stream()
+                .map(File::new)
+                .collect(Collectors.toUnmodifiableList());
+        final int result;
+        if (loaded.pool == null) {
+            result = runRootModule(loaded.configuration, listener, files);
+        }
+        else {
+            result = loaded.pool.process(files, List.of(listener));
+        }
+        return result;
+    }
+
+    /**
+     * Configures a root module and processes files with it.
+     *
+     * @param configuration the configuration of the root module
+     * @param listener the listener of the report
+     * @param files the files to process
+     * @return the number of errors
+     * @throws CheckstyleException if the files can not be processed
+     */
+    private int runRootModule(Configuration configuration, AuditListener listener,
+            List<File> files) throws CheckstyleException {
+        final RootModule rootModule =
+                (RootModule) moduleFactory.createModule(configuration.getName());
+        try {
+            rootModule.setModuleClassLoader(moduleClassLoader);
+            rootModule.configure(configuration);
+            rootModule.addListener(listener);
+            return rootModule.process(files);
+        }
+        finally {
+            rootModule.destroy();
+        }
+    }
+
+    /**
+     * A request to check files.
+     */
+    public static final class Request {
+
+        /** The location of the configuration file. */
+        private final String configurationLocation;
+
+        /** The properties, or {@code null} to use the system properties of the daemon. */
+        private final Map<String, String> properties;
+
+        /** Whether to execute ignored modules. */
+        private final boolean executeIgnoredModules;
+
+        /** The number of threads of the checker. */
+        private final int checkerThreadsNumber;
+
+        /** The number of threads of the tree walker. */
+        private final int treeWalkerThreadsNumber;
+
+        /** The name of the output format. */
+        private final String format;
+
+        /** The absolute paths of the files to check. */
+        private final List<String> files;
+
+        /**
+         * Creates a new {@code Request} instance.
+         *
+         * @param configurationLocation the location of the configuration file, which is
+         *     a filesystem location or a name passed to the ClassLoader.getResource() method
+         * @param properties the properties to expand the configuration with, or
+         *     {@code null} to use the system properties of the daemon
+         * @param executeIgnoredModules whether to execute ignored modules
+         * @param checkerThreadsNumber the number of threads of the checker
+         * @param treeWalkerThreadsNumber the number of threads of the tree walker
+         * @param format the name of the output format, one of {@code XML}, {@code SARIF}
+         *     and {@code PLAIN}
+         * @param files the absolute paths of the files to check
+         */
+        public Request(String configurationLocation, Map<String, String> properties,
+                boolean executeIgnoredModules, int checkerThreadsNumber,
+                int treeWalkerThreadsNumber, String format, List<String> files) {
+            this.configurationLocation = configurationLocation;
+            if (properties == null) {
+                this.properties = null;
+            }
+            else {
+                this.properties = Collections.unmodifiableMap(new TreeMap<>(properties));
+            }
+            this.executeIgnoredModules = executeIgnoredModules;
+            this.checkerThreadsNumber = checkerThreadsNumber;
+            this.treeWalkerThreadsNumber = treeWalkerThreadsNumber;
+            this.format = format;
+            this.files = List.copyOf(files);
+        }
+
+        /**
+         * Returns the key of the configuration of the request, which identifies the
+         * configuration file together with everything it is loaded with.
+         *
+         * @return the key
+         */
+        private String getConfigurationKey() {
+            final StringBuilder result = new StringBuilder(configurationLocation)
+                    .append('\n').append(executeIgnoredModules)
+                    .append('\n').append(checkerThreadsNumber)
+                    .append('\n').append(treeWalkerThreadsNumber);
+            if (properties == null) {
+                result.append('\n').append(SYSTEM_PROPERTIES_KEY);
+            }
+            else {
+                properties.forEach((name, value) -> {
+                    result.append('\n').append(name).append('=').append(value);
+                });
+            }
+            return result.toString();
+        }
+
+        /**
+         * Writes the request to a stream.
+         *
+         * @param output the stream
+         * @throws IOException if the stream can not be written
+         */
+        private void writeTo(DataOutputStream output) throws IOException {
+            output.writeUTF(configurationLocation);
+            output.writeBoolean(properties != null);
+            if (properties != null) {
+                output.writeInt(properties.size());
+                for (Map.Entry<String, String> property : properties.entrySet()) {
+                    output.writeUTF(property.getKey());
+                    output.writeUTF(property.getValue());
+                }
+            }
+            output.writeBoolean(executeIgnoredModules);
+            output.writeInt(checkerThreadsNumber);
+            output.writeInt(treeWalkerThreadsNumber);
+            output.writeUTF(format);
+            output.writeInt(files.size());
+            for (String file : files) {
+                output.writeUTF(file);
+            }
+        }
+
+        /**
+         * Reads a request from a stream.
+         *
+         * @param input the stream
+         * @return the request
+         * @throws IOException if the stream can not be read or is not a valid request
+         */
+        private static Request readFrom(DataInputStream input) throws IOException {
+            final String configurationLocation = input.readUTF();
+            Map<String, String> properties = null;
+            if (input.readBoolean()) {
+                properties = new TreeMap<>();
+                final int size = input.readInt();
+                for (int index = 0; index < size; index++) {
+                    properties.put(input.readUTF(), input.readUTF());
+                }
+            }
+            final boolean executeIgnoredModules = input.readBoolean();
+            final int checkerThreadsNumber = input.readInt();
+            final int treeWalkerThreadsNumber = input.readInt();
+            final String format = input.readUTF();
+            if (Arrays.stream(Main.OutputFormat.values())
+                    .noneMatch(outputFormat -> outputFormat.name().equals(format))) {
+                throw new IOException("Unsupported output format " + format);
+            }
+            final int size = input.readInt();
+            final List<String> files = new ArrayList<>();
+            for (int index = 0; index < size; index++) {
+                files.add(input.readUTF());
+            }
+            return new Request(configurationLocation, properties, executeIgnoredModules,
+                    checkerThreadsNumber, treeWalkerThreadsNumber, format, files);
+        }
+
+    }
+
+    /**
+     * The response to a request.
+     */
+    public static final class Response {
+
+        /** The report in the requested format. */
+        private final byte[] report;
+
+        /** The number of errors. */
+        private final int errorCount;
+
+        /** The stack trace of the failure, or {@code null} if the files were checked. */
+        private final String failure;
+
+        /**
+         * Creates a new {@code Response} instance.
+         *
+         * @param report the report in the requested format
+         * @param errorCount the number of errors
+         * @param failure the stack trace of the failure, or {@code null} if the files
+         *     were checked
+         */
+        private Response(byte[] report, int errorCount, String failure) {
+            this.report = report.clone();
+            this.errorCount = errorCount;
+            this.failure = failure;
+        }
+
+        /**
+         * Returns the report in the requested format.
+         *
+         * @return the report
+         */
+        public byte[] getReport() {
+            return report.clone();
+        }
+
+        /**
+         * Returns the number of errors.
+         *
+         * @return the number of errors
+         */
+        public int getErrorCount() {
+            return errorCount;
+        }
+
+        /**
+         * Returns the stack trace of the failure to check the files.
+         *
+         * @return the stack trace, or {@code null} if the files were checked
+         */
+        public String getFailure() {
+            return failure;
+        }
+
+        /**
+         * Writes the response to a stream.
+         *
+         * @param output the stream
+         * @throws IOException if the stream can not be written
+         */
+        private void writeTo(DataOutputStream output) throws IOException {
+            output.writeInt(report.length);
+            output.write(report);
+            output.writeInt(errorCount);
+            output.writeBoolean(failure != null);
+            if (failure != null) {
+                final byte[] bytes = failure.getBytes(StandardCharsets.UTF_8);
+                output.writeInt(bytes.length);
+                output.write(bytes);
+            }
+        }
+
+        /**
+         * Reads a response from a stream.
+         *
+         * @param input the stream
+         * @return the response
+         * @throws IOException if the stream can not be read
+         */
+        private static Response readFrom(DataInputStream input) throws IOException {
+            final byte[] report = new byte[input.readInt()];
+            input.readFully(report);
+            final int errorCount = input.readInt();
+            String failure = null;
+            if (input.readBoolean()) {
+                final byte[] bytes = new byte[input.readInt()];
+                input.readFully(bytes);
+                failure = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return new Response(report, errorCount, failure);
+        }
+
+    }
+
+    /**
+     * A loaded configuration with the modification time of its file, the hash sums of its
+     * external resources and its Checkers.
+     */
+    private static final class LoadedConfiguration {
+
+        /** The configuration. */
+        private final Configuration configuration;
+
+        /** The fingerprint of the configuration. */
+        private final String fingerprint;
+
+        /** The modification time of the file, or 0 if it is not a file. */
+        private final long lastModified;
+
+        /** The pool of Checkers, or {@code null} if the root module is not a Checker. */
+        private final CheckerPool pool;
+
+        /** The hash sums of the external resources of the modules, by location. */
+        private final Map<String, String> externalResources;
+
+        /**
+         * Creates a new {@code LoadedConfiguration} instance.
+         *
+         * @param configuration the configuration
+         * @param fingerprint the fingerprint of the configuration
+         * @param lastModified the modification time of the file, or 0 if it is not a file
+         * @param pool the pool of Checkers, or {@code null} if the root module is not
+         *     a Checker
+         * @param externalResources the hash sums of the external resources of the modules,
+         *     by location
+         */
+        private LoadedConfiguration(Configuration configuration, String fingerprint,
+                long lastModified, CheckerPool pool, Map<String, String> externalResources) {
+            this.configuration = configuration;
+            this.fingerprint = fingerprint;
+            this.lastModified = lastModified;
+            this.pool = pool;
+            this.externalResources = externalResources;
+        }
+
+        /**
+         * Checks whether the contents of an external resource of the modules changed
+         * since the configuration was loaded.
+         *
+         * @return {@code true} if an external resource changed
+         */
+        private boolean isExternalResourceChanged() {
+            return !PropertyCacheFile.loadExternalResourceHashSums(externalResources.keySet())
+                    .equals(externalResources);
+        }
+
+        /**
+         * Destroys the Checkers of the configuration.
+         */
+        private void close() {
+            if (pool != null) {
+                pool.close();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,551 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.FileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.Filter;
+import com.puppycrawl.tools.checkstyle.api.FilterSet;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+/**
+ * Processes files with FileSetChecks and filters, optionally on several worker threads.
+ *
+ * <p>Every worker owns its own copies of the file stateful FileSetChecks and of all
+ * filters, while stateless FileSetChecks are shared by all threads. Global stateful
+ * FileSetChecks depend on the order of the files, so they process every file on the
+ * requesting thread, in the original order, once the workers finished it.
+ * Results are handed back in the original order of the files. Only a limited window
+ * of files ahead of the file that is currently requested is scheduled, which bounds
+ * the number of results buffered for reordering. Inside this window the largest files
+ * are scheduled first and every idle worker takes the next file from the shared queue,
+ * so a single huge file does not dominate the tail of the run.</p>
+ *
+ * <p>Without workers, or for files which were not scheduled, files are processed on
+ * the requesting thread with the original FileSetChecks and filters.</p>
+ */
+final class ConcurrentFileProcessor {
+
+    /**
+     * Number of files each worker may process ahead of the file which
+     * is requested next.
+     */
+    private static final int FILES_AHEAD_PER_THREAD = 16;
+
+    /** Name prefix of the worker threads. */
+    private static final String THREAD_NAME_PREFIX = "checkstyle-worker-";
+
+    /** Initial capacity of the queue of scheduled files. */
+    private static final int INITIAL_QUEUE_CAPACITY = 64;
+
+    /** Processes a file with the given FileSetChecks and filters. */
+    private final ChecksProcessor checksProcessor;
+
+    /**
+     * Processes a file with the given FileSetChecks and filters, without recording
+     * the violations.
+     */
+    private final ChecksProcessor filteringProcessor;
+
+    /** The original FileSetChecks. */
+    private final List<FileSetCheck> fileSetChecks;
+
+    /** The original filters. */
+    private final FilterSet filters;
+
+    /** Global stateful FileSetChecks, which process scheduled files on the requesting thread. */
+    private final List<FileSetCheck> requestingThreadChecks = new ArrayList<>();
+
+    /** Copies of FileSetChecks created for the workers. */
+    private final List<FileSetCheck> copies = new ArrayList<>();
+
+    /** Scheduled files waiting for a worker, largest first. */
+    private final BlockingQueue<Task> pendingTasks = new PriorityBlockingQueue<>(
+            INITIAL_QUEUE_CAPACITY, Comparator.comparingLong(Task::getSize).reversed()
+                    .thenComparingInt(Task::getIndex));
+
+    /** Results handed over by the workers, in completion order. */
+    private final BlockingQueue<Result> completedTasks = new LinkedBlockingQueue<>();
+
+    /** Results which are completed but not yet requested, by file index. */
+    private final Map<Integer, Result> reorderBuffer = new HashMap<>();
+
+    /** All files, in the order results are requested. */
+    private List<File> files = Collections.emptyList();
+
+    /** Ascending indexes of the files processed by the workers. */
+    private int[] scheduledIndexes = new int[0];
+
+    /** Maximal number of files scheduled but not yet requested. */
+    private int windowSize;
+
+    /** Executor running the workers. */
+    private ExecutorService executor;
+
+    /** Position in the scheduled indexes of the next file which result is requested. */
+    private int nextPosition;
+
+    /** Number of files scheduled so far. */
+    private int scheduledCount;
+
+    /**
+     * Creates a new {@code ConcurrentFileProcessor} without workers.
+     *
+     * @param checksProcessor processes a file with the given FileSetChecks and filters
+     * @param filteringProcessor processes a file with the given FileSetChecks and filters
+     *     without recording the violations
+     * @param fileSetChecks the original FileSetChecks
+     * @param filters the original filters
+     */
+    ConcurrentFileProcessor(ChecksProcessor checksProcessor, ChecksProcessor filteringProcessor,
+            List<FileSetCheck> fileSetChecks, FilterSet filters) {
+        this.checksProcessor = checksProcessor;
+        this.filteringProcessor = filteringProcessor;
+        this.fileSetChecks = fileSetChecks;
+        this.filters = filters;
+    }
+
+    /**
+     * Creates copies of the FileSetChecks and filters for each worker and starts
+     * the workers. Global stateful FileSetChecks are not copied, they process the files
+     * of the workers on the requesting thread. If some filter, or some file stateful
+     * FileSetCheck, has no configuration to create a copy from, no workers are started.
+     *
+     * @param threadsNumber the number of worker threads
+     * @param allFiles all files, in the order their results are requested
+     * @param indexes the ascending indexes of the files to process ahead
+     * @param charset the name of the charset to begin processing the copies with
+     * @param configurations the configurations of the FileSetChecks and filters
+     * @param moduleCreator creates an initialized module from its configuration
+     * @throws CheckstyleException if a copy of a module can not be created
+     */
+    public void start(int threadsNumber, List<File> allFiles, int[] indexes, String charset,
+            Map<Object, Configuration> configurations, ModuleCreator moduleCreator)
+            throws CheckstyleException {
+        final boolean copyable = fileSetChecks.stream()
+                .allMatch(fsc -> isStateless(fsc) || isGlobalStateful(fsc)
+                        || configurations.containsKey(fsc))
+                && configurations.keySet().containsAll(filters.getFilters());
+        if (copyable) {
+            fileSetChecks.stream()
+                    .filter(ConcurrentFileProcessor::isGlobalStateful)
+                    .forEach(requestingThreadChecks::add);
+            final List<Worker> workers = new ArrayList<>();
+            for (int thread = 0; thread < threadsNumber; thread++) {
+                final List<FileSetCheck> checks = new ArrayList<>();
+                for (final FileSetCheck fsc : fileSetChecks) {
+                    if (isStateless(fsc)) {
+                        checks.add(fsc);
+                    }
+                    else if (!isGlobalStateful(fsc)) {
+                        final FileSetCheck copy =
+                                (FileSetCheck) moduleCreator.create(configurations.get(fsc));
+                        copy.beginProcessing(charset);
+                        copies.add(copy);
+                        checks.add(copy);
+                    }
+                }
+                final FilterSet filterCopies = new FilterSet();
+                for (final Filter filter : filters.getFilters()) {
+                    filterCopies.addFilter(
+                            (Filter) moduleCreator.create(configurations.get(filter)));
+                }
+                workers.add(new Worker(checks, filterCopies));
+            }
+
+            files = allFiles;
+            scheduledIndexes = indexes.clone();
+            windowSize = threadsNumber * FILES_AHEAD_PER_THREAD;
+            scheduleTasks();
+            executor = Executors.newFixedThreadPool(threadsNumber, runnable -> {
+                final Thread thread = new Thread(runnable);
+                thread.setName(THREAD_NAME_PREFIX + thread.getId());
+                thread.setDaemon(true);
+                return thread;
+            });
+            for (final Worker worker : workers) {
+                executor.execute(() -> runWorker(worker));
+            }
+        }
+    }
+
+    /**
+     * Returns the violations of the given file accepted by the filters. If the file
+     * was scheduled, waits for a worker to finish it, skipping all scheduled files
+     * before it which were not requested, and then processes it with the global
+     * stateful FileSetChecks. Otherwise, the file is processed on the calling thread.
+     *
+     * @param index the index of the file in all files
+     * @param file the file to process
+     * @return the violations found in the file and accepted by the filters
+     * @throws CheckstyleException if the processing of the file failed
+     */
+    public SortedSet<Violation> process(int index, File file) throws CheckstyleException {
+        final int position = Arrays.binarySearch(scheduledIndexes, nextPosition,
+                scheduledIndexes.length, index);
+        final SortedSet<Violation> violations;
+        if (position >= 0) {
+            nextPosition = position;
+            reorderBuffer.keySet().removeIf(key -> key < index);
+            scheduleTasks();
+            final Result result = awaitResult(index);
+            nextPosition++;
+            scheduleTasks();
+            violations = new TreeSet<>(result.getViolations());
+            if (!requestingThreadChecks.isEmpty()) {
+                violations.addAll(
+                        filteringProcessor.process(file, requestingThreadChecks, filters));
+            }
+        }
+        else {
+            violations = checksProcessor.process(file, fileSetChecks, filters);
+        }
+        return violations;
+    }
+
+    /**
+     * Stops the workers and notifies the copies of FileSetChecks that processing is done.
+     */
+    public void finishProcessing() {
+        stopWorkers();
+        // It may also log!!!
+        copies.forEach(FileSetCheck::finishProcessing);
+    }
+
+    /**
+     * Stops the workers and destroys the copies of FileSetChecks.
+     */
+    public void destroy() {
+        stopWorkers();
+        copies.forEach(FileSetCheck::destroy);
+        copies.clear();
+    }
+
+    /**
+     * Checks whether the module is stateless, so a single instance serves all threads.
+     *
+     * @param module the module to check
+     * @return {@code true} if the module is stateless
+     */
+    private static boolean isStateless(Object module) {
+        return module.getClass().isAnnotationPresent(StatelessCheck.class);
+    }
+
+    /**
+     * Checks whether the module has global state, so it has to process the files
+     * in their original order.
+     *
+     * @param module the module to check
+     * @return {@code true} if the module has global state
+     */
+    private static boolean isGlobalStateful(Object module) {
+        return module.getClass().isAnnotationPresent(GlobalStatefulCheck.class);
+    }
+
+    /**
+     * Stops all workers and waits for them to leave the FileSetChecks they are using.
+     */
+    private void stopWorkers() {
+        if (executor != null) {
+            executor.shutdownNow();
+            try {
+                while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            }
+            catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Waits for the result of the given file index.
+     *
+     * @param index the index of the file in all files
+     * @return the result
+     * @throws CheckstyleException if interrupted while waiting
+     */
+    private Result awaitResult(int index) throws CheckstyleException {
+        Result result = reorderBuffer.remove(index);
+        while (result == null) {
+            final Result completed;
+            try {
+                completed = completedTasks.take();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new CheckstyleException("Interrupted while waiting for "
+                        + files.get(index).getPath(), ex);
+            }
+            if (completed.index == index) {
+                result = completed;
+            }
+            else if (completed.index > index) {
+                reorderBuffer.put(completed.index, completed);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Schedules files up to the end of the current window.
+     */
+    private void scheduleTasks() {
+        final int windowEnd = Math.min(scheduledIndexes.length, nextPosition + windowSize);
+        while (scheduledCount < windowEnd) {
+            final int index = scheduledIndexes[scheduledCount];
+            pendingTasks.add(new Task(index, files.get(index)));
+            scheduledCount++;
+        }
+    }
+
+    /**
+     * Takes scheduled files one by one and processes them until interrupted.
+     *
+     * @param worker the FileSetChecks and filters owned by this worker
+     */
+    private void runWorker(Worker worker) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                final Task task = pendingTasks.take();
+                completedTasks.add(task.execute(file -> {
+                    return checksProcessor.process(file, worker.checks, worker.filters);
+                }));
+            }
+        }
+        catch (InterruptedException ignored) {
+            // workers are stopped by interruption
+        }
+    }
+
+    /**
+     * Processes a file with the given FileSetChecks and filters.
+     */
+    @FunctionalInterface
+    interface ChecksProcessor {
+
+        /**
+         * Processes the file.
+         *
+         * @param file the file to process
+         * @param checks the FileSetChecks to process the file with
+         * @param filterSet the filters to apply to the violations
+         * @return the violations found in the file and accepted by the filters
+         * @throws CheckstyleException if the processing failed
+         */
+        SortedSet<Violation> process(File file, List<FileSetCheck> checks, FilterSet filterSet)
+                throws CheckstyleException;
+
+    }
+
+    /**
+     * Creates an initialized FileSetCheck or filter.
+     */
+    @FunctionalInterface
+    interface ModuleCreator {
+
+        /**
+         * Creates the module.
+         *
+         * @param configuration the configuration of the module
+         * @return the module
+         * @throws CheckstyleException if the module can not be created
+         */
+        Object create(Configuration configuration) throws CheckstyleException;
+
+    }
+
+    /**
+     * Processes a single file.
+     */
+    @FunctionalInterface
+    private interface FileProcessor {
+
+        /**
+         * Processes the file.
+         *
+         * @param file the file to process
+         * @return the violations found in the file
+         * @throws CheckstyleException if the processing failed
+         */
+        SortedSet<Violation> process(File file) throws CheckstyleException;
+
+    }
+
+    /**
+     * The modules owned by a single worker.
+     */
+    private static final class Worker {
+
+        /** The FileSetChecks of the worker, either copies or shared ones. */
+        private final List<FileSetCheck> checks;
+
+        /** Copies of the filters. */
+        private final FilterSet filters;
+
+        /**
+         * Creates a new worker.
+         *
+         * @param checks the FileSetChecks of the worker
+         * @param filters copies of the filters
+         */
+        private Worker(List<FileSetCheck> checks, FilterSet filters) {
+            this.checks = checks;
+            this.filters = filters;
+        }
+
+    }
+
+    /**
+     * A file scheduled for processing.
+     */
+    private static final class Task {
+
+        /** Index of the file in all files. */
+        private final int index;
+
+        /** The file. */
+        private final File file;
+
+        /** Size of the file, used to process large files first. */
+        private final long size;
+
+        /**
+         * Creates a new task.
+         *
+         * @param index index of the file
+         * @param file the file
+         */
+        private Task(int index, File file) {
+            this.index = index;
+            this.file = file;
+            size = file.length();
+        }
+
+        /**
+         * Returns the index of the file.
+         *
+         * @return the index of the file
+         */
+        private int getIndex() {
+            return index;
+        }
+
+        /**
+         * Returns the size of the file.
+         *
+         * @return the size of the file
+         */
+        private long getSize() {
+            return size;
+        }
+
+        /**
+         * Processes the file, capturing any failure in the result.
+         *
+         * @param processor the processor to use
+         * @return the result
+         */
+        private Result execute(FileProcessor processor) {
+            SortedSet<Violation> violations = null;
+            Throwable failure = null;
+            try {
+                violations = processor.process(file);
+            }
+            // -@cs[IllegalCatch] failure is rethrown on the requesting thread
+            catch (CheckstyleException | RuntimeException | Error ex) {
+                failure = ex;
+            }
+            return new Result(index, violations, failure);
+        }
+
+    }
+
+    /**
+     * Outcome of processing a single file.
+     */
+    private static final class Result {
+
+        /** Index of the file. */
+        private final int index;
+
+        /** Violations found in the file. */
+        private final SortedSet<Violation> violations;
+
+        /** Failure thrown while processing the file. */
+        private final Throwable failure;
+
+        /**
+         * Creates a new result.
+         *
+         * @param index index of the file
+         * @param violations violations found in the file
+         * @param failure failure thrown while processing the file
+         */
+        private Result(int index, SortedSet<Violation> violations, Throwable failure) {
+            this.index = index;
+            this.violations = violations;
+            this.failure = failure;
+        }
+
+        /**
+         * Returns the violations, or rethrows the failure of the file.
+         *
+         * @return the violations found in the file
+         * @throws CheckstyleException if the processing failed with it
+         * @noinspection ProhibitedExceptionThrown
+         * @noinspectionreason ProhibitedExceptionThrown - failures of workers are
+         *      rethrown as is, so they are reported the same way as in single thread mode
+         */
+        private SortedSet<Violation> getViolations() throws CheckstyleException {
+            if (failure instanceof CheckstyleException) {
+                throw (CheckstyleException) failure;
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            return violations;
+        }
+
+    }
+
+}
@@ -0,0 +1,373 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.stream.Stream;
+
+import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.checks.SuppressWarningsHolder;
+
+/**
+ * Walks an abstract syntax tree and notifies interested checks at each node.
+ *
+ * <p>The checks are split into groups and every group walks the same tree on its own
+ * thread. The first group is walked on the calling thread, the other groups on the threads
+ * of an executor owned by this walker. The tree must not be modified while it is walked.
+ * Walks on a single thread are done by {@link TreeWalker} itself.</p>
+ */
+final class ConcurrentTreeWalker {
+
+    /** Name prefix of the worker threads. */
+    private static final String THREAD_NAME_PREFIX = "checkstyle-tree-walker-";
+
+    /** Groups of checks, by the sets of ordinary and comment checks they were split from. */
+    private final Map<Set<AbstractCheck>, Map<Set<AbstractCheck>, List<CheckGroup>>>
+            checkGroups = new IdentityHashMap<>();
+
+    /** The number of threads walking a single tree. */
+    private final int threadsNumber;
+
+    /** Executor walking the groups of checks which are not walked on the calling thread. */
+    private ExecutorService executor;
+
+    /**
+     * Creates a new {@code ConcurrentTreeWalker} instance.
+     *
+     * @param threadsNumber the number of threads walking a single tree, more than one
+     */
+    ConcurrentTreeWalker(int threadsNumber) {
+        this.threadsNumber = threadsNumber;
+    }
+
+    /**
+     * Walks the tree with the given checks.
+     *
+     * @param ast the root AST
+     * @param view the view of the AST with comments, {@code null} if there are no comment
+     *     checks
+     * @param contents the contents of the file the AST was generated from.
+     * @param ordinary the ordinary checks with the checks interested in every token.
+     * @param comment the comment checks with the checks interested in every token.
+     * @return the violations found by the checks.
+     * @throws CheckstyleException if interrupted while waiting for the groups of checks
+     */
+    public SortedSet<Violation> walk(DetailAST ast, AstWithComments view,
+            FileContents contents,
+            Map.Entry<Set<AbstractCheck>, Map<Integer, Set<AbstractCheck>>> ordinary,
+            Map.Entry<Set<AbstractCheck>, Map<Integer, Set<AbstractCheck>>> comment)
+            throws CheckstyleException {
+        final List<CheckGroup> groups = checkGroups
+                .computeIfAbsent(ordinary.getKey(), key -> new IdentityHashMap<>())
+                .computeIfAbsent(comment.getKey(), key -> {
+                    return new CheckGroup(ordinary.getKey(), ordinary.getValue(),
+                            comment.getKey(), comment.getValue()).split(threadsNumber);
+                });
+        return walkInParallel(ast, view, contents, groups);
+    }
+
+    /**
+     * Stops the threads of the executor.
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        checkGroups.clear();
+    }
+
+    /**
+     * Walks the tree with all groups of checks at the same time.
+     *
+     * @param ast the root AST
+     * @param view the view of the AST with comments, {@code null} if there are no comment
+     *     checks
+     * @param contents the contents of the file the AST was generated from.
+     * @param groups the groups of checks, the first of them is walked on the calling thread.
+     * @return the violations found by the checks.
+     * @throws CheckstyleException if interrupted while waiting for the groups of checks
+     * @noinspection ProhibitedExceptionThrown
+     * @noinspectionreason ProhibitedExceptionThrown - failures of checks are rethrown
+     *      as is, so they are reported the same way as in single thread mode
+     */
+    private SortedSet<Violation> walkInParallel(DetailAST ast, AstWithComments view,
+            FileContents contents, List<CheckGroup> groups) throws CheckstyleException {
+        if (executor == null && groups.size() > 1) {
+            executor = Executors.newFixedThreadPool(threadsNumber - 1, runnable -> {
+                final Thread thread = new Thread(runnable);
+                thread.setName(THREAD_NAME_PREFIX + thread.getId());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        final List<Future<SortedSet<Violation>>> results = new ArrayList<>();
+        for (CheckGroup group : groups.subList(1, groups.size())) {
+            results.add(executor.submit(() -> group.walk(ast, view, contents)));
+        }
+        final FutureTask<SortedSet<Violation>> callerResult =
+                new FutureTask<>(() -> groups.get(0).walk(ast, view, contents));
+        callerResult.run();
+        results.add(0, callerResult);
+
+        final SortedSet<Violation> violations = new TreeSet<>();
+        Throwable failure = null;
+        try {
+            for (Future<SortedSet<Violation>> result : results) {
+                try {
+                    violations.addAll(result.get());
+                }
+                catch (ExecutionException ex) {
+                    if (failure == null) {
+                        failure = ex.getCause();
+                    }
+                }
+            }
+        }
+        catch (InterruptedException ex) {
+            results.forEach(result -> result.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new CheckstyleException("Interrupted while walking " + contents.getFileName(),
+                    ex);
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        return violations;
+    }
+
+    /**
+     * Checks walking a tree together, with the checks interested in each token. Ordinary
+     * checks and comment checks of a group are notified in the same walk.
+     */
+    private static final class CheckGroup {
+
+        /** The ordinary checks of the group. */
+        private final Set<AbstractCheck> ordinaryChecks;
+
+        /** Maps from token id to the ordinary checks of the group interested in it. */
+        private final Map<Integer, Set<AbstractCheck>> tokenToOrdinaryChecks;
+
+        /** The comment checks of the group. */
+        private final Set<AbstractCheck> commentChecks;
+
+        /** Maps from token id to the comment checks of the group interested in it. */
+        private final Map<Integer, Set<AbstractCheck>> tokenToCommentChecks;
+
+        /**
+         * Creates a new group.
+         *
+         * @param ordinaryChecks the ordinary checks of the group
+         * @param tokenToOrdinaryChecks maps from token id to the ordinary checks of the group
+         * @param commentChecks the comment checks of the group
+         * @param tokenToCommentChecks maps from token id to the comment checks of the group
+         */
+        private CheckGroup(Set<AbstractCheck> ordinaryChecks,
+                Map<Integer, Set<AbstractCheck>> tokenToOrdinaryChecks,
+                Set<AbstractCheck> commentChecks,
+                Map<Integer, Set<AbstractCheck>> tokenToCommentChecks) {
+            this.ordinaryChecks = ordinaryChecks;
+            this.tokenToOrdinaryChecks = tokenToOrdinaryChecks;
+            this.commentChecks = commentChecks;
+            this.tokenToCommentChecks = tokenToCommentChecks;
+        }
+
+        /**
+         * Splits the checks of this group into at most the given number of groups.
+         * Checks keep their file context in thread locals and every check is walked by a
+         * single group, so stateless and stateful checks are balanced between the groups
+         * by the number of tokens they visit. SuppressWarningsHolder hands its state over to
+         * the filters of the calling thread, and checks without a statefulness annotation
+         * may do the same, so they stay in the first group, which is walked on the calling
+         * thread.
+         *
+         * @param groupsNumber the maximal number of groups
+         * @return non-empty groups, the first of them to be walked on the calling thread
+         */
+        private List<CheckGroup> split(int groupsNumber) {
+            final Map<AbstractCheck, Integer> weights = new HashMap<>();
+            Stream.concat(tokenToOrdinaryChecks.values().stream(),
+                    tokenToCommentChecks.values().stream())
+                .forEach(interested -> {
+                    interested.forEach(check -> weights.merge(check, 1, Integer::sum));
+                });
+
+            final List<Set<AbstractCheck>> groupChecks = new ArrayList<>();
+            for (int index = 0; index < groupsNumber; index++) {
+                groupChecks.add(TreeWalker.createNewCheckSortedSet());
+            }
+            final int[] groupWeights = new int[groupsNumber];
+            final List<AbstractCheck> balancedChecks = new ArrayList<>();
+            Stream.concat(ordinaryChecks.stream(), commentChecks.stream()).forEach(check -> {
+                if (isBoundToCallingThread(check)) {
+                    groupChecks.get(0).add(check);
+                    groupWeights[0] += weights.getOrDefault(check, 0);
+                }
+                else {
+                    balancedChecks.add(check);
+                }
+            });
+            for (AbstractCheck check : balancedChecks) {
+                int target = 0;
+                for (int index = 1; index < groupsNumber; index++) {
+                    if (groupWeights[index] < groupWeights[target]) {
+                        target = index;
+                    }
+                }
+                groupChecks.get(target).add(check);
+                groupWeights[target] += weights.getOrDefault(check, 0);
+            }
+
+            final List<CheckGroup> groups = new ArrayList<>();
+            for (Set<AbstractCheck> group : groupChecks) {
+                if (!group.isEmpty()) {
+                    groups.add(createGroup(group));
+                }
+            }
+            return groups;
+        }
+
+        /**
+         * Checks whether a check has to be walked on the calling thread.
+         *
+         * @param check the check
+         * @return true if the check is SuppressWarningsHolder or has no statefulness
+         *     annotation
+         */
+        private static boolean isBoundToCallingThread(AbstractCheck check) {
+            final Class<?> checkClass = check.getClass();
+            return check instanceof SuppressWarningsHolder
+                    || !checkClass.isAnnotationPresent(StatelessCheck.class)
+                        && !checkClass.isAnnotationPresent(FileStatefulCheck.class)
+                        && !checkClass.isAnnotationPresent(GlobalStatefulCheck.class);
+        }
+
+        /**
+         * Creates a group of some of the checks of this group.
+         *
+         * @param group the checks of the new group
+         * @return the new group
+         */
+        private CheckGroup createGroup(Set<AbstractCheck> group) {
+            final Set<AbstractCheck> groupOrdinaryChecks = TreeWalker.createNewCheckSortedSet();
+            final Set<AbstractCheck> groupCommentChecks = TreeWalker.createNewCheckSortedSet();
+            for (AbstractCheck check : group) {
+                if (ordinaryChecks.contains(check)) {
+                    groupOrdinaryChecks.add(check);
+                }
+                else {
+                    groupCommentChecks.add(check);
+                }
+            }
+            return new CheckGroup(groupOrdinaryChecks,
+                    createTokenToChecks(group, tokenToOrdinaryChecks),
+                    groupCommentChecks, createTokenToChecks(group, tokenToCommentChecks));
+        }
+
+        /**
+         * Maps from token id to the given checks interested in it.
+         *
+         * @param group the checks of a new group
+         * @param tokenToChecks maps from token id to the checks of this group
+         * @return the checks of the new group interested in each token
+         */
+        private static Map<Integer, Set<AbstractCheck>> createTokenToChecks(
+                Set<AbstractCheck> group, Map<Integer, Set<AbstractCheck>> tokenToChecks) {
+            final Map<Integer, Set<AbstractCheck>> result = new HashMap<>();
+            for (Map.Entry<Integer, Set<AbstractCheck>> entry : tokenToChecks.entrySet()) {
+                final Set<AbstractCheck> groupInterested = TreeWalker.createNewCheckSortedSet();
+                for (AbstractCheck check : entry.getValue()) {
+                    if (group.contains(check)) {
+                        groupInterested.add(check);
+                    }
+                }
+                if (!groupInterested.isEmpty()) {
+                    result.put(entry.getKey(), groupInterested);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Walks the tree with the checks of the group.
+         *
+         * @param ast the root AST
+         * @param view the view of the AST with comments, {@code null} if there are no
+         *     comment checks
+         * @param contents the contents of the file the AST was generated from.
+         * @return the violations found by the checks of the group.
+         */
+        private SortedSet<Violation> walk(DetailAST ast, AstWithComments view,
+                FileContents contents) {
+            AstWithComments groupView = null;
+            if (!commentChecks.isEmpty()) {
+                groupView = view;
+            }
+            TreeWalker.notifyBegin(ast, contents, ordinaryChecks);
+            if (groupView != null) {
+                TreeWalker.notifyBegin(groupView.getRoot(), contents, commentChecks);
+            }
+            TreeWalker.processIter(ast, groupView, tokenToOrdinaryChecks,
+                    tokenToCommentChecks);
+            final SortedSet<Violation> violations = new TreeSet<>();
+            notifyEnd(ast, ordinaryChecks, violations);
+            if (groupView != null) {
+                notifyEnd(groupView.getRoot(), commentChecks, violations);
+            }
+            return violations;
+        }
+
+        /**
+         * Notify checks that we have finished walking a tree.
+         *
+         * @param rootAST the root of the tree.
+         * @param checks the checks to notify.
+         * @param violations the violations found by the checks.
+         */
+        private static void notifyEnd(DetailAST rootAST, Set<AbstractCheck> checks,
+                SortedSet<Violation> violations) {
+            for (AbstractCheck check : checks) {
+                check.finishTree(rootAST);
+                violations.addAll(check.getViolations());
+            }
+        }
+
+    }
+
+}
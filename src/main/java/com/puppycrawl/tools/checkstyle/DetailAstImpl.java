@@ -82,7 +82,7 @@ public final class DetailAstImpl implements DetailAST {
      * Token 'x' (where x is an int) is in this branch
      * if branchTokenTypes.get(x) is true.
      */
-    private BitSet branchTokenTypes;
+    private volatile BitSet branchTokenTypes;
 
     /**
      * Initializes this DetailAstImpl.
@@ -177,15 +177,17 @@ public final class DetailAstImpl implements DetailAST {
 
     @Override
     public int getChildCount() {
-        // lazy init
+        // lazy init, the value is published only when complete,
+        // as the tree may be walked by several threads at once
         if (childCount == NOT_INITIALIZED) {
-            childCount = 0;
+            int count = 0;
             DetailAST child = firstChild;
 
             while (child != null) {
-                childCount += 1;
+                count += 1;
                 child = child.getNextSibling();
             }
+            childCount = count;
         }
         return childCount;
     }
@@ -365,21 +367,24 @@ public final class DetailAstImpl implements DetailAST {
      * @return the token types that occur in the branch as a sorted set.
      */
     private BitSet getBranchTokenTypes() {
-        // lazy init
-        if (branchTokenTypes == null) {
-            branchTokenTypes = new BitSet();
-            branchTokenTypes.set(type);
+        // lazy init, the complete value is published through the volatile field,
+        // as the tree may be walked by several threads at once
+        BitSet tokenTypes = branchTokenTypes;
+        if (tokenTypes == null) {
+            tokenTypes = new BitSet();
+            tokenTypes.set(type);
 
             // add union of all children
             DetailAstImpl child = firstChild;
             while (child != null) {
                 final BitSet childTypes = child.getBranchTokenTypes();
-                branchTokenTypes.or(childTypes);
+                tokenTypes.or(childTypes);
 
                 child = child.nextSibling;
             }
+            branchTokenTypes = tokenTypes;
         }
-        return branchTokenTypes;
+        return tokenTypes;
     }
 
     @Override
@@ -0,0 +1,181 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.dfa.DFA;
+
+/**
+ * Policy of clearing the DFA cache of {@link JavaParser}. The cache is shared by all
+ * parsers and grows with every parsed file. A warm cache makes parsing faster, clearing
+ * it lowers the memory usage.
+ */
+public final class DfaCachePolicy {
+
+    /** Limit which is never reached. */
+    private static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    /** Format of a policy with a limit, which is the kind of limit and the limit. */
+    private static final Pattern LIMIT_FORMAT = Pattern.compile("(files|states):(\\d{1,9})");
+
+    /** Name of the policy which never clears the cache. */
+    private static final String NEVER = "never";
+
+    /** The number of files to parse before the cache is cleared. */
+    private final int filesLimit;
+
+    /** The number of DFA states above which the cache is cleared. */
+    private final int statesLimit;
+
+    /**
+     * The number of files parsed since the cache was cleared, not counting the file
+     * it was cleared before, as the counter of {@code JavaLanguageParser} did.
+     */
+    private final AtomicInteger filesCounter = new AtomicInteger();
+
+    /** The number of times the cache was cleared. */
+    private final AtomicInteger clearsCounter = new AtomicInteger();
+
+    /**
+     * Creates a new {@code DfaCachePolicy} instance.
+     *
+     * @param filesLimit the number of files to parse before the cache is cleared
+     * @param statesLimit the number of DFA states above which the cache is cleared
+     */
+    private DfaCachePolicy(int filesLimit, int statesLimit) {
+        this.filesLimit = filesLimit;
+        this.statesLimit = statesLimit;
+    }
+
+    /**
+     * Creates a policy which never clears the cache, so it stays warm for the whole run.
+     *
+     * @return the policy
+     */
+    public static DfaCachePolicy neverClear() {
+        return new DfaCachePolicy(NO_LIMIT, NO_LIMIT);
+    }
+
+    /**
+     * Creates a policy which clears the cache once more than the given number of files
+     * were parsed since it was last cleared, so the file parsed after a clear is not
+     * counted.
+     *
+     * @param filesNumber the number of files to parse before the cache is cleared
+     * @return the policy
+     * @throws IllegalArgumentException if the number of files is not positive
+     */
+    public static DfaCachePolicy clearAfterFiles(int filesNumber) {
+        if (filesNumber <= 0) {
+            throw new IllegalArgumentException("Files number must be greater than zero.");
+        }
+        return new DfaCachePolicy(filesNumber, NO_LIMIT);
+    }
+
+    /**
+     * Creates a policy which clears the cache when it holds more than the given number
+     * of DFA states. The states are what the cache memory is spent on, so the number
+     * of states bounds the memory used by the cache.
+     *
+     * @param statesNumber the number of DFA states above which the cache is cleared
+     * @return the policy
+     * @throws IllegalArgumentException if the number of states is not positive
+     */
+    public static DfaCachePolicy clearAboveStates(int statesNumber) {
+        if (statesNumber <= 0) {
+            throw new IllegalArgumentException("States number must be greater than zero.");
+        }
+        return new DfaCachePolicy(NO_LIMIT, statesNumber);
+    }
+
+    /**
+     * Parses a policy from its textual form, which is {@code never},
+     * {@code files:<number>} for {@link #clearAfterFiles(int)} or
+     * {@code states:<number>} for {@link #clearAboveStates(int)}.
+     *
+     * @param value the policy to parse
+     * @return the parsed policy
+     * @throws IllegalArgumentException if the value is not a valid policy
+     */
+    public static DfaCachePolicy parse(String value) {
+        final DfaCachePolicy result;
+        final Matcher matcher = LIMIT_FORMAT.matcher(value);
+        if (NEVER.equals(value)) {
+            result = neverClear();
+        }
+        else if (!matcher.matches()) {
+            throw new IllegalArgumentException("Invalid DFA cache policy '" + value
+                    + "', expected never, files:<number> or states:<number>.");
+        }
+        else if ("files".equals(matcher.group(1))) {
+            result = clearAfterFiles(Integer.parseInt(matcher.group(2)));
+        }
+        else {
+            result = clearAboveStates(Integer.parseInt(matcher.group(2)));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of times the cache was cleared by this policy.
+     *
+     * @return the number of clears
+     */
+    public int getClearsNumber() {
+        return clearsCounter.get();
+    }
+
+    /**
+     * Counts the number of states in the DFA cache.
+     *
+     * @param decisionToDfa the DFA cache, one DFA per decision
+     * @return the number of DFA states
+     */
+    static int countStates(DFA... decisionToDfa) {
+        int result = 0;
+        for (DFA dfa : decisionToDfa) {
+            result += dfa.states.size();
+        }
+        return result;
+    }
+
+    /**
+     * Counts a file about to be parsed, and clears the DFA cache of the parser if the
+     * policy requires it.
+     *
+     * @param interpreter the interpreter of the parser about to parse the file
+     */
+    void beforeParse(ParserATNSimulator interpreter) {
+        final boolean filesLimitReached = filesLimit != NO_LIMIT
+                && filesCounter.incrementAndGet() > filesLimit;
+        if (filesLimitReached
+                || statesLimit != NO_LIMIT
+                    && countStates(interpreter.decisionToDFA) > statesLimit) {
+            interpreter.clearDFA();
+            filesCounter.set(0);
+            clearsCounter.incrementAndGet();
+        }
+    }
+
+}
@@ -0,0 +1,199 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.puppycrawl.tools.checkstyle.api.FilterSet;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+/**
+ * The violations of the files processed during a run, by the digest of their content and
+ * their extension, so files with identical content reuse the violations of the first one.
+ *
+ * <p>Modules and filters which depend on the path of files, or which accumulate state over
+ * all files, do not share their results: such modules process every file, and such filters
+ * are applied to the reused violations of every file. The violations are recorded after
+ * the other filters are applied.</p>
+ *
+ * <p>Files whose violations come from an exception or a parse error are not recorded,
+ * as the messages of such violations may contain the path of the file.</p>
+ */
+final class DuplicateContents {
+
+    /** Key of files which can not be read, which are never duplicates. */
+    private static final String UNREADABLE = "";
+
+    /** The extension separator. */
+    private static final char EXTENSION_SEPARATOR = '.';
+
+    /** Default number for base 16 encoding. */
+    private static final int BASE_16 = 16;
+
+    /** Names of the modules whose violations may contain the path of the file. */
+    private static final Set<String> UNSHAREABLE_SOURCES =
+            Set.of(Checker.class.getName(), TreeWalker.class.getName());
+
+    /** Keys of the modules which process every file. */
+    private final Set<String> pathDependentModules;
+
+    /** Filters which depend on the path of files. */
+    private final FilterSet pathDependentFilters;
+
+    /** Keys of the files, by absolute path. */
+    private final Map<String, String> keys = new ConcurrentHashMap<>();
+
+    /** Keys of the files which were claimed to be processed. */
+    private final Set<String> claimedKeys = ConcurrentHashMap.newKeySet();
+
+    /** Violations of the first processed file with each key, after the shared filters. */
+    private final Map<String, SortedSet<Violation>> violations = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new {@code DuplicateContents} instance.
+     *
+     * @param pathDependentModules the keys of the modules which process every file
+     * @param pathDependentFilters the filters which depend on the path of files
+     */
+    DuplicateContents(Set<String> pathDependentModules, FilterSet pathDependentFilters) {
+        this.pathDependentModules = pathDependentModules;
+        this.pathDependentFilters = pathDependentFilters;
+    }
+
+    /**
+     * Returns the keys of the modules which process every file.
+     *
+     * @return the keys of the modules
+     */
+    Set<String> getPathDependentModules() {
+        return Collections.unmodifiableSet(pathDependentModules);
+    }
+
+    /**
+     * Returns the filters which depend on the path of files, which are applied to the
+     * violations of every file.
+     *
+     * @return the filters
+     */
+    FilterSet getPathDependentFilters() {
+        return pathDependentFilters;
+    }
+
+    /**
+     * Claims that a file is going to be processed, unless an earlier file with identical
+     * content is.
+     *
+     * @param file the file
+     * @return true if the file is the first one with its content, or can not be read
+     */
+    boolean claim(File file) {
+        final String key = getKey(file);
+        return UNREADABLE.equals(key) || claimedKeys.add(key);
+    }
+
+    /**
+     * Records the violations of a processed file, if it is the first one with its content.
+     *
+     * @param file the processed file
+     * @param fileViolations the violations of the file accepted by the shared filters
+     */
+    void put(File file, SortedSet<Violation> fileViolations) {
+        final String key = getKey(file);
+        if (!UNREADABLE.equals(key) && fileViolations.stream()
+                .noneMatch(violation -> UNSHAREABLE_SOURCES.contains(violation.getSourceName()))) {
+            violations.putIfAbsent(key, Collections.unmodifiableSortedSet(
+                    new TreeSet<>(fileViolations)));
+        }
+    }
+
+    /**
+     * Retrieves the violations of an earlier file with identical content, except the
+     * violations of the modules which process every file.
+     *
+     * @param file the file
+     * @return the violations accepted by the shared filters, or {@code null} if no such
+     *     file was processed
+     */
+    SortedSet<Violation> get(File file) {
+        SortedSet<Violation> result = null;
+        final SortedSet<Violation> recorded = violations.get(getKey(file));
+        if (recorded != null) {
+            result = new TreeSet<>();
+            for (Violation violation : recorded) {
+                if (!pathDependentModules.contains(ModuleFingerprints.getModuleKey(violation))) {
+                    result.add(violation);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the key of a file, which is its extension and the digest of its content.
+     *
+     * @param file the file
+     * @return the key of the file, or {@link #UNREADABLE} if it can not be read
+     */
+    private String getKey(File file) {
+        return keys.computeIfAbsent(file.getAbsolutePath(), path -> calculateKey(file));
+    }
+
+    /**
+     * Calculates the key of a file.
+     *
+     * @param file the file
+     * @return the key of the file, or {@link #UNREADABLE} if it can not be read
+     * @throws IllegalStateException if the digest algorithm is not available
+     */
+    private static String calculateKey(File file) {
+        String result = UNREADABLE;
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final byte[] content = Files.readAllBytes(file.toPath());
+            final String name = file.getName();
+            final int extensionIndex = name.lastIndexOf(EXTENSION_SEPARATOR);
+            String extension = "";
+            if (extensionIndex >= 0) {
+                extension = name.substring(extensionIndex);
+            }
+            result = extension + ':' + new BigInteger(1, digest.digest(content))
+                    .toString(BASE_16);
+        }
+        catch (IOException ignored) {
+            // the file is processed, which reports the problem
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Unable to calculate digest.", ex);
+        }
+        return result;
+    }
+
+}
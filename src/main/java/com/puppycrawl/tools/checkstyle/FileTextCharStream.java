@@ -0,0 +1,160 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.misc.Interval;
+
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * Character stream reading the text of a file without copying it. ANTLR streams are
+ * indexed by code points, so this stream is used only for texts without supplementary
+ * characters, where code points and chars are the same. That is nearly all Java sources,
+ * the other texts are copied into a code point buffer as usual.
+ */
+final class FileTextCharStream implements CharStream {
+
+    /** The text of the file. */
+    private final CharSequence text;
+
+    /** The index of the next character to read. */
+    private int position;
+
+    /**
+     * Creates a new {@code FileTextCharStream} instance.
+     *
+     * @param text the text of the file
+     */
+    private FileTextCharStream(CharSequence text) {
+        this.text = text;
+    }
+
+    /**
+     * Creates a character stream of the given file text.
+     *
+     * @param fileText the text of the file
+     * @return the character stream reading the text
+     */
+    static CharStream of(FileText fileText) {
+        final CharSequence text = fileText.getFullText();
+        final CharStream result;
+        if (hasSurrogates(text)) {
+            result = CharStreams.fromString(text.toString());
+        }
+        else {
+            result = new FileTextCharStream(text);
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the text has surrogate chars, which encode supplementary characters.
+     *
+     * @param text the text to check
+     * @return true if the text has surrogate chars
+     */
+    private static boolean hasSurrogates(CharSequence text) {
+        boolean result = false;
+        final int length = text.length();
+        for (int index = 0; index < length; index++) {
+            if (Character.isSurrogate(text.charAt(index))) {
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void consume() {
+        if (position == text.length()) {
+            throw new IllegalStateException("cannot consume EOF");
+        }
+        position++;
+    }
+
+    @Override
+    public int LA(int offset) {
+        final int index;
+        if (offset > 0) {
+            index = position + offset - 1;
+        }
+        else {
+            index = position + offset;
+        }
+
+        final int result;
+        if (offset == 0) {
+            result = 0;
+        }
+        else if (index < 0 || index >= text.length()) {
+            result = EOF;
+        }
+        else {
+            result = text.charAt(index);
+        }
+        return result;
+    }
+
+    @Override
+    public int mark() {
+        return -1;
+    }
+
+    @Override
+    public void release(int marker) {
+        // no resources to release, the whole text is always available
+    }
+
+    @Override
+    public int index() {
+        return position;
+    }
+
+    @Override
+    public void seek(int index) {
+        position = index;
+    }
+
+    @Override
+    public int size() {
+        return text.length();
+    }
+
+    @Override
+    public String getSourceName() {
+        return UNKNOWN_SOURCE_NAME;
+    }
+
+    @Override
+    public String getText(Interval interval) {
+        final int start = Math.min(interval.a, text.length());
+        final int length = Math.min(interval.b - interval.a + 1, text.length() - start);
+        return text.subSequence(start, start + length).toString();
+    }
+
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+
+}
@@ -0,0 +1,604 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.RootModule;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+
+/**
+ * Checks files whenever they change, until closed. The directories of the files are
+ * watched, and the files changed in a burst of changes, like the ones of saving several
+ * files in an IDE, are checked together once no change follows for a moment.
+ *
+ * <p>The violations of every file are kept in memory, so the summary printed after every
+ * check covers all files although only the changed ones are checked. The root module is
+ * configured once and processes every check. If the configuration file or a local
+ * external resource of the modules, like a suppressions file, changes, the configuration
+ * is loaded again, a new root module is configured from it and all files are checked
+ * again. A configuration which can not be loaded is reported, and the
+ * previous root module is kept.</p>
+ */
+final class FileWatcher implements Closeable {
+
+    /** The time without changes which ends a burst of changes, in milliseconds. */
+    private static final long DEBOUNCE_MILLIS = 300;
+
+    /** Name of the property of the root module which sets the base directory. */
+    private static final String BASEDIR_PROPERTY = "basedir";
+
+    /** Loads the configuration of the root module. */
+    private final ConfigurationSupplier configurationSupplier;
+
+    /** The configuration file, or {@code null} if it is not watched. */
+    private final Path configurationFile;
+
+    /** The class loader of the modules. */
+    private final ClassLoader moduleClassLoader;
+
+    /** The factory of the modules, shared by all checks. */
+    private final ModuleFactory moduleFactory;
+
+    /** The watched files and directories, as absolute normalized paths. */
+    private final List<Path> roots;
+
+    /** The patterns of paths which are not checked. */
+    private final List<Pattern> exclusions;
+
+    /** The stream to print violations and summaries to. */
+    private final PrintStream output;
+
+    /** The service notifying about changes. */
+    private final WatchService watchService;
+
+    /** The violations of the checked files, by absolute normalized path. */
+    private final Map<String, List<AuditEvent>> violations = new ConcurrentHashMap<>();
+
+    /** The base directory the names of files in audit events are relative to. */
+    private String basedir;
+
+    /** The configured root module. */
+    private RootModule rootModule;
+
+    /** The local external resources of the root module, as absolute normalized paths. */
+    private Set<Path> externalResourceFiles = Collections.emptySet();
+
+    /** Whether changes were lost since the last check, so all files are checked again. */
+    private boolean overflowed;
+
+    /**
+     * Creates a new {@code FileWatcher} instance with a configuration which is not
+     * loaded again.
+     *
+     * @param configuration the configuration of the root module
+     * @param roots the files and directories to watch
+     * @param exclusions the patterns of paths which are not checked
+     * @param output the stream to print violations and summaries to
+     * @throws IOException if the file system can not be watched
+     * @throws CheckstyleException if the packages of the modules can not be loaded
+     */
+    FileWatcher(Configuration configuration, List<File> roots, List<Pattern> exclusions,
+            PrintStream output) throws IOException, CheckstyleException {
+        this(() -> configuration, null, roots, exclusions, output);
+    }
+
+    /**
+     * Creates a new {@code FileWatcher} instance which loads the configuration again
+     * whenever the configuration file changes.
+     *
+     * @param configurationSupplier loads the configuration of the root module
+     * @param configurationFile the configuration file, or {@code null} if the
+     *     configuration is not loaded again
+     * @param roots the files and directories to watch
+     * @param exclusions the patterns of paths which are not checked
+     * @param output the stream to print violations and summaries to
+     * @throws IOException if the file system can not be watched
+     * @throws CheckstyleException if the packages of the modules can not be loaded
+     */
+    FileWatcher(ConfigurationSupplier configurationSupplier, File configurationFile,
+            List<File> roots, List<Pattern> exclusions, PrintStream output)
+            throws IOException, CheckstyleException {
+        this.configurationSupplier = configurationSupplier;
+        if (configurationFile == null) {
+            this.configurationFile = null;
+        }
+        else {
+            this.configurationFile = normalize(configurationFile);
+        }
+        this.roots = roots.stream()
+                .map(FileWatcher::normalize)
+                .collect(Collectors.toUnmodifiableList());
+        this.exclusions = List.copyOf(exclusions);
+        this.output = output;
+        moduleClassLoader = Checker.class.getClassLoader();
+        moduleFactory = new PackageObjectFactory(
+                PackageNamesLoader.getPackageNames(moduleClassLoader), moduleClassLoader);
+        watchService = FileSystems.getDefault().newWatchService();
+    }
+
+    /**
+     * Checks the given files, and then the changed files whenever files change, until
+     * the watcher is closed or the thread is interrupted.
+     *
+     * @param files the files to check first
+     * @throws IOException if directories can not be watched
+     * @throws CheckstyleException if the configuration can not be loaded, or the root
+     *     module can not be configured
+     */
+    void run(Collection<File> files) throws IOException, CheckstyleException {
+        configure(configurationSupplier.load());
+        try {
+            for (Path root : roots) {
+                if (Files.isDirectory(root)) {
+                    registerAll(root);
+                }
+                else if (root.getParent() != null) {
+                    register(root.getParent());
+                }
+            }
+            if (configurationFile != null && configurationFile.getParent() != null) {
+                register(configurationFile.getParent());
+            }
+            registerExternalResources();
+            check(files, false);
+            Set<Path> changedPaths = takeChangedPaths();
+            while (changedPaths != null) {
+                processChanges(changedPaths);
+                changedPaths = takeChangedPaths();
+            }
+        }
+        finally {
+            rootModule.destroy();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    /**
+     * Waits for a burst of changes and returns the changed paths.
+     *
+     * @return the changed paths, or {@code null} if the watcher was closed or the thread
+     *     was interrupted
+     */
+    private Set<Path> takeChangedPaths() {
+        Set<Path> result = new TreeSet<>();
+        try {
+            WatchKey key = watchService.take();
+            while (key != null) {
+                collectChangedPaths(key, result);
+                key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+        catch (ClosedWatchServiceException ignored) {
+            result = null;
+        }
+        catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+            result = null;
+        }
+        return result;
+    }
+
+    /**
+     * Collects the paths changed in a watched directory.
+     *
+     * @param key the key of the directory
+     * @param changedPaths the changed paths to add to
+     */
+    private void collectChangedPaths(WatchKey key, Set<Path> changedPaths) {
+        final Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflowed = true;
+            }
+            else {
+                changedPaths.add(directory.resolve((Path) event.context()));
+            }
+        }
+        key.reset();
+    }
+
+    /**
+     * Checks the changed files, including the files of new directories, and forgets
+     * the deleted files.
+     *
+     * @param changedPaths the changed paths
+     * @throws IOException if new directories or the directories of new external
+     *     resources can not be watched
+     */
+    private void processChanges(Set<Path> changedPaths) throws IOException {
+        final Set<File> changedFiles = new TreeSet<>();
+        boolean deleted = false;
+        final boolean configurationChanged =
+                configurationFile != null && changedPaths.contains(configurationFile)
+                || externalResourceFiles.stream().anyMatch(changedPaths::contains);
+        if (configurationChanged && reconfigure()) {
+            registerExternalResources();
+            violations.keySet().forEach(path -> changedFiles.add(new File(path)));
+        }
+        if (overflowed) {
+            deleted = violations.keySet().removeIf(path -> !new File(path).isFile());
+            violations.keySet().forEach(path -> changedFiles.add(new File(path)));
+            overflowed = false;
+        }
+        final List<Path> includedPaths = changedPaths.stream()
+                .filter(this::isIncluded)
+                .collect(Collectors.toUnmodifiableList());
+        for (Path path : includedPaths) {
+            if (Files.isDirectory(path)) {
+                changedFiles.addAll(registerAll(path));
+            }
+            else if (Files.isRegularFile(path)) {
+                changedFiles.add(path.toFile());
+            }
+            else {
+                // a deleted file, or a deleted directory with all its files
+                deleted |= violations.keySet().removeIf(file -> Path.of(file).startsWith(path));
+            }
+        }
+        if (!changedFiles.isEmpty() || deleted) {
+            check(changedFiles, true);
+        }
+    }
+
+    /**
+     * Loads the changed configuration and replaces the root module with one configured
+     * from it. Failures are printed, and the previous root module is kept.
+     *
+     * @return true if the root module was replaced
+     */
+    private boolean reconfigure() {
+        final RootModule previous = rootModule;
+        boolean result = false;
+        try {
+            configure(configurationSupplier.load());
+            previous.destroy();
+            result = true;
+        }
+        catch (CheckstyleException ex) {
+            ex.printStackTrace(output);
+        }
+        return result;
+    }
+
+    /**
+     * Configures a root module and keeps it for the following checks.
+     *
+     * @param configuration the configuration of the root module
+     * @throws CheckstyleException if the root module can not be configured
+     */
+    private void configure(Configuration configuration) throws CheckstyleException {
+        final RootModule module =
+                (RootModule) moduleFactory.createModule(configuration.getName());
+        try {
+            module.setModuleClassLoader(moduleClassLoader);
+            if (module instanceof Checker) {
+                ((Checker) module).setModuleFactory(moduleFactory);
+            }
+            module.configure(configuration);
+            module.addListener(new ViolationsListener());
+            basedir = getBasedir(configuration);
+        }
+        catch (CheckstyleException ex) {
+            module.destroy();
+            throw ex;
+        }
+        rootModule = module;
+        externalResourceFiles = getExternalResourceFiles(module);
+    }
+
+    /**
+     * Watches the directories of the local external resources of the root module.
+     *
+     * @throws IOException if a directory can not be watched
+     */
+    private void registerExternalResources() throws IOException {
+        for (Path file : externalResourceFiles) {
+            if (file.getParent() != null && Files.isDirectory(file.getParent())) {
+                register(file.getParent());
+            }
+        }
+    }
+
+    /**
+     * Watches a directory and its subdirectories which are not excluded.
+     *
+     * @param directory the directory
+     * @return the files in the directories
+     * @throws IOException if the directories can not be watched
+     */
+    private List<File> registerAll(Path directory) throws IOException {
+        final List<File> result = new ArrayList<>();
+        final List<Path> paths;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            paths = walk.filter(this::isIncluded).collect(Collectors.toUnmodifiableList());
+        }
+        for (Path path : paths) {
+            if (Files.isDirectory(path)) {
+                register(path);
+            }
+            else if (Files.isRegularFile(path)) {
+                result.add(path.toFile());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Watches a directory for created, modified and deleted entries.
+     *
+     * @param directory the directory
+     * @throws IOException if the directory can not be watched
+     */
+    private void register(Path directory) throws IOException {
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    /**
+     * Checks files and prints their violations and the summary of all files.
+     *
+     * @param files the files to check
+     * @param printClean whether to print the files without violations too
+     */
+    private void check(Collection<File> files, boolean printClean) {
+        files.forEach(file -> violations.remove(normalize(file).toString()));
+        if (!files.isEmpty()) {
+            process(files);
+        }
+
+        final AuditEventDefaultFormatter formatter = new AuditEventDefaultFormatter();
+        for (File file : new TreeSet<>(files)) {
+            final List<AuditEvent> fileViolations = violations.get(normalize(file).toString());
+            if (fileViolations != null) {
+                if (fileViolations.isEmpty() && printClean) {
+                    output.println(file.getPath() + ": OK");
+                }
+                fileViolations.forEach(event -> output.println(formatter.format(event)));
+            }
+        }
+        printSummary(files.size());
+    }
+
+    /**
+     * Processes files with the root module. Failures to process the files are printed,
+     * so the next change is checked again.
+     *
+     * @param files the files to check
+     */
+    private void process(Collection<File> files) {
+        try {
+            rootModule.process(new ArrayList<>(files));
+        }
+        catch (CheckstyleException ex) {
+            ex.printStackTrace(output);
+        }
+    }
+
+    /**
+     * Prints the summary of the violations of all files.
+     *
+     * @param checkedCount the number of files just checked
+     */
+    private void printSummary(int checkedCount) {
+        int violationCount = 0;
+        int violatingFileCount = 0;
+        for (List<AuditEvent> fileViolations : violations.values()) {
+            violationCount += fileViolations.size();
+            if (!fileViolations.isEmpty()) {
+                violatingFileCount++;
+            }
+        }
+        output.println(String.format(Locale.ROOT,
+                "Checked %d files, found %d violations in %d of %d files.",
+                checkedCount, violationCount, violatingFileCount, violations.size()));
+        output.flush();
+    }
+
+    /**
+     * Checks whether a path is in a watched file or directory, and it or none of its
+     * directories up to the watched one is excluded.
+     *
+     * @param path the absolute normalized path
+     * @return true if the path is included
+     */
+    private boolean isIncluded(Path path) {
+        return roots.stream()
+                .anyMatch(root -> path.startsWith(root) && !isExcluded(root, path));
+    }
+
+    /**
+     * Checks whether a path or one of its directories up to a root is excluded.
+     *
+     * @param root the watched file or directory the path is in
+     * @param path the absolute normalized path
+     * @return true if the path is excluded
+     */
+    private boolean isExcluded(Path root, Path path) {
+        boolean result = false;
+        Path current = path;
+        while (!result && current != null && current.startsWith(root)) {
+            final String currentPath = current.toString();
+            result = exclusions.stream()
+                    .anyMatch(pattern -> pattern.matcher(currentPath).find());
+            current = current.getParent();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the absolute normalized path of a file.
+     *
+     * @param file the file
+     * @return the absolute normalized path
+     */
+    private static Path normalize(File file) {
+        return file.toPath().toAbsolutePath().normalize();
+    }
+
+    /**
+     * Returns the local files of the external resources of a root module. Resources
+     * which are not files, like URLs, are not watched.
+     *
+     * @param module the root module
+     * @return the files, as absolute normalized paths
+     */
+    private static Set<Path> getExternalResourceFiles(RootModule module) {
+        final Set<Path> result = new TreeSet<>();
+        if (module instanceof Checker) {
+            for (String location : ((Checker) module).getExternalResourceLocations()) {
+                try {
+                    final URI uri = CommonUtil.getUriByFilename(location);
+                    if ("file".equals(uri.getScheme())) {
+                        result.add(Path.of(uri).normalize());
+                    }
+                }
+                catch (CheckstyleException ignored) {
+                    // a resource which can not be found is not watched
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the base directory of the root module.
+     *
+     * @param configuration the configuration of the root module
+     * @return the base directory, or {@code null} if the names of files are absolute
+     * @throws CheckstyleException if the base directory can not be read
+     */
+    private static String getBasedir(Configuration configuration) throws CheckstyleException {
+        String result = null;
+        if (Arrays.asList(configuration.getPropertyNames()).contains(BASEDIR_PROPERTY)) {
+            result = configuration.getProperty(BASEDIR_PROPERTY);
+        }
+        return result;
+    }
+
+    /**
+     * Loads the configuration of the root module.
+     */
+    @FunctionalInterface
+    interface ConfigurationSupplier {
+
+        /**
+         * Loads the configuration.
+         *
+         * @return the configuration
+         * @throws CheckstyleException if the configuration can not be loaded
+         */
+        Configuration load() throws CheckstyleException;
+
+    }
+
+    /**
+     * Records the violations of the checked files.
+     */
+    private final class ViolationsListener implements AuditListener {
+
+        @Override
+        public void auditStarted(AuditEvent event) {
+            // No code needed
+        }
+
+        @Override
+        public void auditFinished(AuditEvent event) {
+            // No code needed
+        }
+
+        @Override
+        public void fileStarted(AuditEvent event) {
+            violations.put(getPath(event), Collections.synchronizedList(new ArrayList<>()));
+        }
+
+        @Override
+        public void fileFinished(AuditEvent event) {
+            // No code needed
+        }
+
+        @Override
+        public void addError(AuditEvent event) {
+            if (event.getSeverityLevel() != SeverityLevel.IGNORE) {
+                violations.computeIfAbsent(getPath(event),
+                    path -> Collections.synchronizedList(new ArrayList<>())).add(event);
+            }
+        }
+
+        @Override
+        public void addException(AuditEvent event, Throwable throwable) {
+            synchronized (output) {
+                output.println("Exception was thrown while processing " + event.getFileName());
+                throwable.printStackTrace(output);
+            }
+        }
+
+        /**
+         * Returns the absolute normalized path of the file of an event.
+         *
+         * @param event the event
+         * @return the path of the file
+         */
+        private String getPath(AuditEvent event) {
+            File file = new File(event.getFileName());
+            if (!file.isAbsolute() && basedir != null) {
+                file = new File(basedir, event.getFileName());
+            }
+            return normalize(file).toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,197 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+
+/**
+ * Fingerprints of configurations and descriptions, which are streamed into a message digest
+ * instead of being serialized first.
+ *
+ * <p>A configuration is hashed with its name, its properties and messages in the order of
+ * their names and its children in their order, so the fingerprint does not depend on the
+ * implementation of the configuration or the order its properties were added in. Every
+ * string is preceded by its length, so the end of the string is known.</p>
+ */
+final class Fingerprints {
+
+    /** The algorithm of the digest. */
+    private static final String ALGORITHM = "SHA-1";
+
+    /** Size of an int in bytes. */
+    private static final int INT_SIZE = 4;
+
+    /** Number of bits in a byte. */
+    private static final int BYTE_SIZE = 8;
+
+    /** Base of the hexadecimal notation of fingerprints. */
+    private static final int BASE_16 = 16;
+
+    /** Prevent instances. */
+    private Fingerprints() {
+    }
+
+    /**
+     * Returns a fingerprint of a configuration and its children, which changes when the
+     * name, a property or a message of any of them changes.
+     *
+     * @param configuration the configuration
+     * @return the fingerprint as an uppercase hexadecimal string
+     * @throws IllegalStateException if a property can not be read
+     */
+    static String getFingerprint(Configuration configuration) {
+        return getFingerprint(configuration, Collections.emptySet(), Collections.emptySet());
+    }
+
+    /**
+     * Returns a fingerprint of a configuration and its children, which leaves out some
+     * properties of the configuration and some of its descendants.
+     *
+     * @param configuration the configuration
+     * @param excludedProperties the names of the properties of the configuration which are
+     *     left out, the properties of its children are never left out
+     * @param excluded the descendants which are left out with their children
+     * @return the fingerprint as an uppercase hexadecimal string
+     * @throws IllegalStateException if a property can not be read
+     */
+    static String getFingerprint(Configuration configuration, Set<String> excludedProperties,
+            Set<Configuration> excluded) {
+        final MessageDigest digest = createDigest();
+        update(digest, configuration, excludedProperties, excluded);
+        return toHex(digest);
+    }
+
+    /**
+     * Returns a fingerprint of a description.
+     *
+     * @param description the description
+     * @return the fingerprint as an uppercase hexadecimal string
+     */
+    static String getFingerprint(String description) {
+        final MessageDigest digest = createDigest();
+        update(digest, description);
+        return toHex(digest);
+    }
+
+    /**
+     * Creates the message digest of fingerprints.
+     *
+     * @return the message digest
+     * @throws IllegalStateException if the algorithm is not supported
+     */
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Unable to create digest " + ALGORITHM, ex);
+        }
+    }
+
+    /**
+     * Updates a digest with a configuration and its children, except the left out
+     * properties and descendants.
+     *
+     * @param digest the digest
+     * @param configuration the configuration
+     * @param excludedProperties the names of the properties of the configuration which are
+     *     left out
+     * @param excluded the descendants which are left out with their children
+     * @throws IllegalStateException if a property can not be read
+     */
+    private static void update(MessageDigest digest, Configuration configuration,
+            Set<String> excludedProperties, Set<Configuration> excluded) {
+        update(digest, configuration.getName());
+        final String[] propertyNames = Arrays.stream(configuration.getPropertyNames())
+                .filter(propertyName -> !excludedProperties.contains(propertyName))
+                .sorted()
+                .toArray(String[]::new);
+        update(digest, propertyNames.length);
+        for (final String propertyName : propertyNames) {
+            update(digest, propertyName);
+            try {
+                update(digest, configuration.getProperty(propertyName));
+            }
+            catch (CheckstyleException ex) {
+                throw new IllegalStateException("Unable to read property " + propertyName, ex);
+            }
+        }
+        final Map<String, String> messages = new TreeMap<>(configuration.getMessages());
+        update(digest, messages.size());
+        messages.forEach((key, message) -> {
+            update(digest, key);
+            update(digest, message);
+        });
+        final Configuration[] children = Arrays.stream(configuration.getChildren())
+                .filter(child -> !excluded.contains(child))
+                .toArray(Configuration[]::new);
+        update(digest, children.length);
+        for (final Configuration child : children) {
+            update(digest, child, Collections.emptySet(), excluded);
+        }
+    }
+
+    /**
+     * Updates a digest with a string preceded by its length in bytes.
+     *
+     * @param digest the digest
+     * @param value the string
+     */
+    private static void update(MessageDigest digest, String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        update(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    /**
+     * Updates a digest with the bytes of an int, the most significant byte first.
+     *
+     * @param digest the digest
+     * @param value the int
+     */
+    private static void update(MessageDigest digest, int value) {
+        for (int index = INT_SIZE - 1; index >= 0; index--) {
+            digest.update((byte) (value >>> index * BYTE_SIZE));
+        }
+    }
+
+    /**
+     * Completes a digest and returns it in hexadecimal notation.
+     *
+     * @param digest the digest
+     * @return the digest as an uppercase hexadecimal string
+     */
+    private static String toHex(MessageDigest digest) {
+        return new BigInteger(1, digest.digest()).toString(BASE_16).toUpperCase(Locale.ROOT);
+    }
+
+}
@@ -0,0 +1,308 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.Filter;
+
+/**
+ * The files and lines changed in a git working tree since a base revision, so only
+ * the files touched by a branch are checked. Changes are taken since the merge base of
+ * the base revision and {@code HEAD}, so changes made on the base branch meanwhile are
+ * ignored. Uncommitted changes count too, untracked files are changed as a whole, and
+ * renamed files are changed even if their content is not.
+ */
+public final class GitChanges {
+
+    /** The header of a hunk of a unified diff without context lines. */
+    private static final Pattern HUNK_HEADER =
+            Pattern.compile("^@@ -\\d+(?:,(\\d+))? \\+(\\d+)(?:,(\\d+))? @@");
+
+    /** Name of the property of the root module which sets the base directory. */
+    private static final String BASEDIR_PROPERTY = "basedir";
+
+    /** The prefix of the path of the changed file in a diff. */
+    private static final String NEW_FILE_PREFIX = "+++ ";
+
+    /** The prefix of the new path of a renamed file in a diff. */
+    private static final String RENAME_TO_PREFIX = "rename to ";
+
+    /** The prefix of a hunk header in a diff. */
+    private static final String HUNK_PREFIX = "@@ ";
+
+    /** The prefix of a line which is not in a file, but notes its end in a diff. */
+    private static final char NO_NEWLINE_PREFIX = '\\';
+
+    /** The path a deleted file is changed to in a diff. */
+    private static final String DEV_NULL = "/dev/null";
+
+    /** The separator of file names in the output of git with the {@code -z} option. */
+    private static final String NUL = "\0";
+
+    /** The end of the line range of a file which is changed as a whole. */
+    private static final int LAST_LINE = Integer.MAX_VALUE;
+
+    /** The changed line ranges, by the start and end lines, by canonical path. */
+    private final Map<String, NavigableMap<Integer, Integer>> changedLines = new HashMap<>();
+
+    /** Prevents instantiation from outside, use {@link #load(File, String)}. */
+    private GitChanges() {
+    }
+
+    /**
+     * Asks git for the changes of the working tree the given directory is in since the
+     * merge base of the given revision and {@code HEAD}.
+     *
+     * @param directory a directory in the working tree
+     * @param baseRevision the base revision, like the branch a pull request targets
+     * @return the changes
+     * @throws CheckstyleException if git fails or can not be run
+     */
+    public static GitChanges load(File directory, String baseRevision)
+            throws CheckstyleException {
+        final File root = new File(runGit(directory, "rev-parse", "--show-toplevel").trim());
+        final String mergeBase = runGit(root, "merge-base", baseRevision, "HEAD").trim();
+        final GitChanges result = new GitChanges();
+        result.parseDiff(root, runGit(root, "-c", "core.quotePath=false", "diff",
+                "--no-color", "--no-ext-diff", "--no-prefix", "--unified=0",
+                "--find-renames", "--diff-filter=d", mergeBase));
+        final String untrackedFiles =
+                runGit(root, "ls-files", "--others", "--exclude-standard", "-z");
+        for (String path : untrackedFiles.split(NUL)) {
+            if (!path.isEmpty()) {
+                result.getLines(new File(root, path)).put(1, LAST_LINE);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a file was changed.
+     *
+     * @param file the file
+     * @return true if the file was changed, added or renamed
+     */
+    public boolean isChanged(File file) {
+        return changedLines.containsKey(getCanonicalPath(file));
+    }
+
+    /**
+     * Checks whether a line of a file was changed.
+     *
+     * @param file the file
+     * @param line the line number, starting with 1
+     * @return true if the line was changed or added
+     */
+    public boolean isChangedLine(File file, int line) {
+        final NavigableMap<Integer, Integer> lines = changedLines.get(getCanonicalPath(file));
+        boolean result = false;
+        if (lines != null) {
+            final Map.Entry<Integer, Integer> range = lines.floorEntry(line);
+            result = range != null && range.getValue() >= line;
+        }
+        return result;
+    }
+
+    /**
+     * Creates a filter which accepts only the violations on changed lines. Violations of
+     * the whole file, without a line, are accepted if the file was changed.
+     *
+     * @param rootConfiguration the configuration of the root module, the names of files
+     *     in audit events are relative to its base directory
+     * @return the filter
+     * @throws CheckstyleException if the base directory can not be read
+     */
+    public Filter createChangedLinesFilter(Configuration rootConfiguration)
+            throws CheckstyleException {
+        String basedir = null;
+        if (Arrays.asList(rootConfiguration.getPropertyNames()).contains(BASEDIR_PROPERTY)) {
+            basedir = rootConfiguration.getProperty(BASEDIR_PROPERTY);
+        }
+        return createChangedLinesFilter(basedir);
+    }
+
+    /**
+     * Creates a filter which accepts only the violations on changed lines.
+     *
+     * @param basedir the base directory the names of files in audit events are relative
+     *     to, or {@code null} if the names are absolute
+     * @return the filter
+     */
+    private Filter createChangedLinesFilter(String basedir) {
+        return event -> {
+            File file = new File(event.getFileName());
+            if (!file.isAbsolute() && basedir != null) {
+                file = new File(basedir, event.getFileName());
+            }
+            final int line = event.getLine();
+            return isChanged(file) && (line == 0 || isChangedLine(file, line));
+        };
+    }
+
+    /**
+     * Parses a unified diff without context lines and records its changed lines.
+     * The removed and added lines of hunks are skipped, as they may look like headers.
+     *
+     * @param root the root of the working tree the paths in the diff are relative to
+     * @param diff the diff
+     */
+    private void parseDiff(File root, String diff) {
+        NavigableMap<Integer, Integer> lines = null;
+        int hunkLines = 0;
+        for (String line : diff.split("\n")) {
+            if (hunkLines > 0) {
+                if (line.isEmpty() || line.charAt(0) != NO_NEWLINE_PREFIX) {
+                    hunkLines--;
+                }
+            }
+            else if (line.startsWith(NEW_FILE_PREFIX)) {
+                final String path = line.substring(NEW_FILE_PREFIX.length());
+                lines = null;
+                if (!DEV_NULL.equals(path)) {
+                    lines = getLines(new File(root, path));
+                }
+            }
+            else if (line.startsWith(RENAME_TO_PREFIX)) {
+                getLines(new File(root, line.substring(RENAME_TO_PREFIX.length())));
+            }
+            else if (lines != null && line.startsWith(HUNK_PREFIX)) {
+                hunkLines = addHunk(lines, line);
+            }
+        }
+    }
+
+    /**
+     * Returns the changed line ranges of a file, which is recorded as changed.
+     *
+     * @param file the file
+     * @return the changed line ranges of the file
+     */
+    private NavigableMap<Integer, Integer> getLines(File file) {
+        return changedLines.computeIfAbsent(getCanonicalPath(file), path -> new TreeMap<>());
+    }
+
+    /**
+     * Records the lines added by a hunk.
+     *
+     * @param lines the changed line ranges of the file
+     * @param header the header of the hunk
+     * @return the number of removed and added lines which follow the header
+     */
+    private static int addHunk(NavigableMap<Integer, Integer> lines, String header) {
+        final Matcher matcher = HUNK_HEADER.matcher(header);
+        int result = 0;
+        if (matcher.find()) {
+            final int removedCount = getCount(matcher.group(1));
+            final int start = Integer.parseInt(matcher.group(2));
+            final int addedCount = getCount(matcher.group(3));
+            if (addedCount > 0) {
+                lines.put(start, start + addedCount - 1);
+            }
+            result = removedCount + addedCount;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of lines of a range in a hunk header, which is omitted if one.
+     *
+     * @param count the number of lines, or {@code null} if omitted
+     * @return the number of lines
+     */
+    private static int getCount(String count) {
+        int result = 1;
+        if (count != null) {
+            result = Integer.parseInt(count);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the canonical path of a file, which identifies it whatever path it was
+     * given with.
+     *
+     * @param file the file
+     * @return the canonical path, or the absolute path if it can not be resolved
+     */
+    private static String getCanonicalPath(File file) {
+        String result;
+        try {
+            result = file.getCanonicalPath();
+        }
+        catch (IOException ignored) {
+            result = file.getAbsolutePath();
+        }
+        return result;
+    }
+
+    /**
+     * Runs git and returns its output. Errors of git are shown on the standard error.
+     *
+     * @param directory the directory to run git in
+     * @param arguments the arguments of git
+     * @return the standard output of git
+     * @throws CheckstyleException if git fails or can not be run
+     */
+    private static String runGit(File directory, String... arguments)
+            throws CheckstyleException {
+        final List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(arguments));
+        try {
+            final Process process = new ProcessBuilder(command)
+                    .directory(directory)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            final String output;
+            try (InputStream inputStream = process.getInputStream()) {
+                output = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            final int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new CheckstyleException("Command '" + String.join(" ", command)
+                        + "' failed with exit code " + exitCode);
+            }
+            return output;
+        }
+        catch (IOException ex) {
+            throw new CheckstyleException("Unable to run git", ex);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CheckstyleException("Interrupted while waiting for git", ex);
+        }
+    }
+
+}
@@ -21,8 +21,10 @@ package com.puppycrawl.tools.checkstyle;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -116,13 +118,30 @@ public final class JavaAstVisitor extends JavaLanguageParserBaseVisitor<DetailAs
     /** Token stream to check for hidden tokens. */
     private final BufferedTokenStream tokens;
 
+    /** Pool of the texts of tokens. */
+    private final TokenTextPool textPool;
+
+    /** ASTs built ahead of the visit, by their parse trees. */
+    private final Map<ParseTree, DetailAstImpl> prebuiltAsts = new IdentityHashMap<>();
+
     /**
      * Constructs a JavaAstVisitor with given token stream.
      *
      * @param tokenStream the token stream to check for hidden tokens
      */
     public JavaAstVisitor(CommonTokenStream tokenStream) {
+        this(tokenStream, new TokenTextPool());
+    }
+
+    /**
+     * Constructs a JavaAstVisitor with given token stream and pool of token texts.
+     *
+     * @param tokenStream the token stream to check for hidden tokens
+     * @param textPool the pool of the texts of tokens
+     */
+    public JavaAstVisitor(CommonTokenStream tokenStream, TokenTextPool textPool) {
         tokens = tokenStream;
+        this.textPool = textPool;
     }
 
     @Override
@@ -2139,7 +2158,9 @@ public final class JavaAstVisitor extends JavaLanguageParserBaseVisitor<DetailAs
                 tokens.getHiddenTokensToRight(tokenIndex, JavaLanguageLexer.COMMENTS);
 
         final DetailAstImpl detailAst = new DetailAstImpl();
-        detailAst.initialize(token);
+        detailAst.initialize(token.getType(), textPool.getText(token));
+        detailAst.setLineNo(token.getLine());
+        detailAst.setColumnNo(token.getCharPositionInLine());
         if (tokensToLeft != null) {
             detailAst.setHiddenBefore(tokensToLeft);
         }
@@ -2208,11 +2229,27 @@ public final class JavaAstVisitor extends JavaLanguageParserBaseVisitor<DetailAs
     public DetailAstImpl visit(ParseTree tree) {
         DetailAstImpl ast = null;
         if (tree != null) {
-            ast = tree.accept(this);
+            if (!prebuiltAsts.isEmpty()) {
+                ast = prebuiltAsts.remove(tree);
+            }
+            if (ast == null) {
+                ast = tree.accept(this);
+            }
         }
         return ast;
     }
 
+    /**
+     * Builds the AST of the given parse tree before the parse tree is visited,
+     * so the children of the parse tree can be released. The visit of the parse tree
+     * returns the AST built here.
+     *
+     * @param tree the parse tree to build the AST of
+     */
+    void buildAhead(ParseTree tree) {
+        prebuiltAsts.put(tree, tree.accept(this));
+    }
+
     /**
      * Builds an expression node. This is used to build the root of an expression with
      * an imaginary {@code EXPR} node.
@@ -22,18 +22,21 @@ package com.puppycrawl.tools.checkstyle;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Locale;
 
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.BaseErrorListener;
 import org.antlr.v4.runtime.CharStream;
-import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonToken;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.RecognitionException;
 import org.antlr.v4.runtime.Recognizer;
 import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
@@ -68,10 +71,45 @@ public final class JavaParser {
 
     }
 
+    /**
+     * Policy of clearing the DFA cache shared by all parsers. It is volatile, as files may
+     * be parsed on several threads while the policy is set.
+     */
+    private static volatile DfaCachePolicy dfaCachePolicy =
+            DfaCachePolicy.clearAfterFiles(JavaLanguageParser.CLEAR_DFA_LIMIT);
+
     /** Stop instances being created. **/
     private JavaParser() {
     }
 
+    /**
+     * Sets the policy of clearing the DFA cache shared by all parsers. By default,
+     * the cache is cleared every {@link JavaLanguageParser#CLEAR_DFA_LIMIT} files.
+     *
+     * @param policy the policy to use for the next parsed files
+     */
+    public static void setDfaCachePolicy(DfaCachePolicy policy) {
+        dfaCachePolicy = policy;
+    }
+
+    /**
+     * Returns the policy of clearing the DFA cache shared by all parsers.
+     *
+     * @return the policy used for the next parsed files
+     */
+    public static DfaCachePolicy getDfaCachePolicy() {
+        return dfaCachePolicy;
+    }
+
+    /**
+     * Returns the number of states in the DFA cache shared by all parsers.
+     *
+     * @return the number of DFA states
+     */
+    public static int getDfaStatesNumber() {
+        return DfaCachePolicy.countStates(JavaLanguageParser.getDecisionToDfa());
+    }
+
     /**
      * Static helper method to parses a Java source file.
      *
@@ -81,21 +119,28 @@ public final class JavaParser {
      */
     public static DetailAST parse(FileContents contents)
             throws CheckstyleException {
-        final String fullText = contents.getText().getFullText().toString();
-        final CharStream codePointCharStream = CharStreams.fromString(fullText);
-        final JavaLanguageLexer lexer = new JavaLanguageLexer(codePointCharStream, true);
+        return parse(contents, new TokenTextPool());
+    }
+
+    /**
+     * Static helper method to parses a Java source file, sharing the texts of tokens
+     * with the other ASTs built with the same pool.
+     *
+     * @param contents contains the contents of the file
+     * @param textPool the pool of the texts of tokens
+     * @return the root of the AST
+     * @throws CheckstyleException if the contents is not a valid Java source
+     */
+    public static DetailAST parse(FileContents contents, TokenTextPool textPool)
+            throws CheckstyleException {
+        final CharStream charStream = FileTextCharStream.of(contents.getText());
+        final JavaLanguageLexer lexer = new JavaLanguageLexer(charStream, true);
         lexer.setCommentListener(contents);
 
         final CommonTokenStream tokenStream = new CommonTokenStream(lexer);
-        final JavaLanguageParser parser =
-                new JavaLanguageParser(tokenStream, JavaLanguageParser.CLEAR_DFA_LIMIT);
-        parser.setErrorHandler(new CheckstyleParserErrorStrategy());
-        parser.removeErrorListeners();
-        parser.addErrorListener(new CheckstyleErrorListener());
 
-        final JavaLanguageParser.CompilationUnitContext compilationUnit;
         try {
-            compilationUnit = parser.compilationUnit();
+            return parseCompilationUnit(tokenStream, textPool);
         }
         catch (IllegalStateException ex) {
             final String exceptionMsg = String.format(Locale.ROOT,
@@ -103,8 +148,46 @@ public final class JavaParser {
                 ex.getClass().getSimpleName(), contents.getFileName());
             throw new CheckstyleException(exceptionMsg, ex);
         }
+    }
 
-        return new JavaAstVisitor(tokenStream).visit(compilationUnit);
+    /**
+     * Parses the tokens in two stages. The first stage uses the faster SLL prediction
+     * mode and gives up on the first syntax error, which most valid sources never hit.
+     * Only if it fails, the tokens are parsed again with full LL prediction, which
+     * also reports the syntax errors of invalid sources.
+     * In both stages the AST of each statement is built as soon as the statement is parsed,
+     * see {@link StatementAstBuilder}; the ASTs built by a failed first stage are dropped.
+     *
+     * @param tokenStream the tokens to parse
+     * @param textPool the pool of the texts of tokens
+     * @return the root of the AST
+     * @throws IllegalStateException if the tokens are not a valid compilation unit
+     */
+    private static DetailAST parseCompilationUnit(CommonTokenStream tokenStream,
+            TokenTextPool textPool) {
+        JavaAstVisitor visitor = new JavaAstVisitor(tokenStream, textPool);
+        final JavaLanguageParser sllParser = new JavaLanguageParser(tokenStream);
+        sllParser.addParseListener(new StatementAstBuilder(visitor));
+        dfaCachePolicy.beforeParse(sllParser.getInterpreter());
+        sllParser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        sllParser.setErrorHandler(new BailErrorStrategy());
+        sllParser.removeErrorListeners();
+
+        JavaLanguageParser.CompilationUnitContext compilationUnit;
+        try {
+            compilationUnit = sllParser.compilationUnit();
+        }
+        catch (ParseCancellationException ignored) {
+            tokenStream.seek(0);
+            visitor = new JavaAstVisitor(tokenStream, textPool);
+            final JavaLanguageParser parser = new JavaLanguageParser(tokenStream);
+            parser.addParseListener(new StatementAstBuilder(visitor));
+            parser.setErrorHandler(new CheckstyleParserErrorStrategy());
+            parser.removeErrorListeners();
+            parser.addErrorListener(new CheckstyleErrorListener());
+            compilationUnit = parser.compilationUnit();
+        }
+        return visitor.visit(compilationUnit);
     }
 
     /**
@@ -197,6 +280,20 @@ public final class JavaParser {
         return root;
     }
 
+    /**
+     * Creates comment nodes from hidden comment tokens.
+     *
+     * @param tokens the comment tokens
+     * @return the comment nodes, in the order of the tokens
+     */
+    static List<DetailAST> createCommentNodes(List<Token> tokens) {
+        final List<DetailAST> result = new ArrayList<>(tokens.size());
+        for (Token token : tokens) {
+            result.add(createCommentAstFromToken((CommonToken) token));
+        }
+        return result;
+    }
+
     /**
      * Create comment AST from token. Depending on token type
      * SINGLE_LINE_COMMENT or BLOCK_COMMENT_BEGIN is created.
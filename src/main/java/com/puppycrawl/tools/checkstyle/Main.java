@@ -26,9 +26,11 @@ import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.logging.ConsoleHandler;
@@ -48,6 +50,7 @@ import com.puppycrawl.tools.checkstyle.api.AuditListener;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
 import com.puppycrawl.tools.checkstyle.api.RootModule;
+import com.puppycrawl.tools.checkstyle.grammar.java.JavaLanguageParser;
 import com.puppycrawl.tools.checkstyle.utils.ChainedPropertyUtil;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 import com.puppycrawl.tools.checkstyle.utils.XpathUtil;
@@ -184,7 +187,14 @@ public final class Main {
         final int exitStatus;
 
         // return error if something is wrong in arguments
-        final List<File> filesToProcess = getFilesToProcess(options);
+        final List<File> filesToProcess;
+        if (options.stdin) {
+            // the specified file only names the sources read from standard input
+            filesToProcess = options.files;
+        }
+        else {
+            filesToProcess = getFilesToProcess(options);
+        }
         final List<String> messages = options.validateCli(parseResult, filesToProcess);
         final boolean hasMessages = !messages.isEmpty();
         if (hasMessages) {
@@ -334,13 +344,52 @@ public final class Main {
                         + Main.class.getPackage().getImplementationVersion());
             }
 
-            // run Checker
-            result = runCheckstyle(options, filesToProcess);
+            result = runChecks(options, filesToProcess);
         }
 
         return result;
     }
 
+    /**
+     * Checks the files in the way selected by the command line options.
+     *
+     * @param options user-specified options
+     * @param filesToProcess the list of files whose style to check
+     * @return number of violations of ERROR level
+     * @throws IOException if a file could not be read.
+     * @throws CheckstyleException if something happens processing the files.
+     */
+    private static int runChecks(CliOptions options, List<File> filesToProcess)
+            throws IOException, CheckstyleException {
+        List<File> files = filesToProcess;
+        if (options.dfaCachePolicy != null) {
+            JavaParser.setDfaCachePolicy(DfaCachePolicy.parse(options.dfaCachePolicy));
+        }
+        if (options.shard != null) {
+            files = Shard.parse(options.shard)
+                    .select(filesToProcess, new File("").getAbsoluteFile());
+        }
+        final int result;
+        if (options.watch) {
+            result = runWatch(options, files);
+        }
+        else if (options.stdin) {
+            result = runStdin(options, files);
+        }
+        else if (options.daemonPort == null) {
+            // run Checker
+            result = runCheckstyle(options, files);
+        }
+        else {
+            result = runWithDaemon(options, files);
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("DFA cache of the Java parser was cleared "
+                    + JavaParser.getDfaCachePolicy().getClearsNumber() + " times");
+        }
+        return result;
+    }
+
     /**
      * Executes required Checkstyle actions based on passed parameters.
      *
@@ -354,32 +403,14 @@ public final class Main {
      */
     private static int runCheckstyle(CliOptions options, List<File> filesToProcess)
             throws CheckstyleException, IOException {
-        // setup the properties
-        final Properties props;
-
-        if (options.propertiesFile == null) {
-            props = System.getProperties();
-        }
-        else {
-            props = loadProperties(options.propertiesFile);
-        }
-
-        // create a configuration
-        final ThreadModeSettings multiThreadModeSettings =
-                new ThreadModeSettings(CliOptions.CHECKER_THREADS_NUMBER,
-                        CliOptions.TREE_WALKER_THREADS_NUMBER);
-
-        final ConfigurationLoader.IgnoredModulesOptions ignoredModulesOptions;
-        if (options.executeIgnoredModules) {
-            ignoredModulesOptions = ConfigurationLoader.IgnoredModulesOptions.EXECUTE;
-        }
-        else {
-            ignoredModulesOptions = ConfigurationLoader.IgnoredModulesOptions.OMIT;
+        // take only the files changed in git
+        GitChanges gitChanges = null;
+        if (options.gitBase != null) {
+            gitChanges = GitChanges.load(new File("").getAbsoluteFile(), options.gitBase);
         }
+        final List<File> changedFiles = getChangedFiles(gitChanges, filesToProcess);
 
-        final Configuration config = ConfigurationLoader.loadConfiguration(
-                options.configurationFile, new PropertiesExpander(props),
-                ignoredModulesOptions, multiThreadModeSettings);
+        final Configuration config = loadConfiguration(options);
 
         // create RootModule object and run it
         final int errorCounter;
@@ -410,9 +441,13 @@ public final class Main {
             rootModule.setModuleClassLoader(moduleClassLoader);
             rootModule.configure(config);
             rootModule.addListener(listener);
+            if (options.changedLinesOnly && rootModule instanceof Checker) {
+                ((Checker) rootModule).addReportFilter(
+                        gitChanges.createChangedLinesFilter(config));
+            }
 
             // run RootModule
-            errorCounter = rootModule.process(filesToProcess);
+            errorCounter = rootModule.process(changedFiles);
         }
         finally {
             rootModule.destroy();
@@ -421,6 +456,179 @@ public final class Main {
         return errorCounter;
     }
 
+    /**
+     * Loads the configuration with the properties and options specified on the command line.
+     *
+     * @param options user-specified options
+     * @return the configuration
+     * @throws CheckstyleException
+     *         when properties file or configuration could not be loaded
+     */
+    private static Configuration loadConfiguration(CliOptions options)
+            throws CheckstyleException {
+        // setup the properties
+        final Properties props;
+
+        if (options.propertiesFile == null) {
+            props = System.getProperties();
+        }
+        else {
+            props = loadProperties(options.propertiesFile);
+        }
+
+        // create a configuration
+        final ThreadModeSettings multiThreadModeSettings =
+                new ThreadModeSettings(options.checkerThreadsNumber,
+                        options.treeWalkerThreadsNumber);
+
+        final ConfigurationLoader.IgnoredModulesOptions ignoredModulesOptions;
+        if (options.executeIgnoredModules) {
+            ignoredModulesOptions = ConfigurationLoader.IgnoredModulesOptions.EXECUTE;
+        }
+        else {
+            ignoredModulesOptions = ConfigurationLoader.IgnoredModulesOptions.OMIT;
+        }
+
+        return ConfigurationLoader.loadConfiguration(
+                options.configurationFile, new PropertiesExpander(props),
+                ignoredModulesOptions, multiThreadModeSettings);
+    }
+
+    /**
+     * Checks the files, and then checks the changed files whenever files change, until
+     * the process is stopped. The configuration is loaded again whenever its file changes.
+     *
+     * @param options user-specified options
+     * @param filesToProcess the list of files whose style to check first
+     * @return 0, as the violations are printed after every check
+     * @throws IOException
+     *         when the files could not be watched
+     * @throws CheckstyleException
+     *         when properties file or configuration could not be loaded
+     * @noinspection UseOfSystemOutOrSystemErr
+     * @noinspectionreason UseOfSystemOutOrSystemErr - driver class for Checkstyle requires
+     *      usage of System.out and System.err
+     */
+    private static int runWatch(CliOptions options, List<File> filesToProcess)
+            throws CheckstyleException, IOException {
+        File configurationFile = new File(options.configurationFile);
+        if (!configurationFile.isFile()) {
+            // a resource or URL, which is not watched
+            configurationFile = null;
+        }
+        try (FileWatcher watcher = new FileWatcher(() -> loadConfiguration(options),
+                configurationFile, options.files, options.getExclusions(), System.out)) {
+            watcher.run(filesToProcess);
+        }
+        return 0;
+    }
+
+    /**
+     * Checks the sources read from standard input and writes their violations to standard
+     * output once each source is checked, until standard input ends.
+     *
+     * @param options user-specified options
+     * @param filesToProcess the file which names the sources without a name of their own
+     * @return number of violations of ERROR level in all sources
+     * @throws IOException if standard input or output fails
+     * @throws CheckstyleException if the configuration can not be loaded, or the input
+     *     is invalid
+     * @noinspection UseOfSystemOutOrSystemErr
+     * @noinspectionreason UseOfSystemOutOrSystemErr - sources are read from System.in and
+     *      violations are written to System.out
+     */
+    private static int runStdin(CliOptions options, List<File> filesToProcess)
+            throws CheckstyleException, IOException {
+        final Configuration config = loadConfiguration(options);
+        return new StreamingChecker(config, filesToProcess.get(0)).run(System.in, System.out);
+    }
+
+    /**
+     * Sends the files to check to a daemon and writes the report it sends back.
+     *
+     * @param options user-specified options
+     * @param filesToProcess the list of files whose style to check
+     * @return number of violations of ERROR level
+     * @throws IOException
+     *         when output file could not be written
+     * @throws CheckstyleException
+     *         when properties file could not be loaded, the daemon could not be connected
+     *         to or failed to check the files
+     * @noinspection UseOfSystemOutOrSystemErr
+     * @noinspectionreason UseOfSystemOutOrSystemErr - driver class for Checkstyle requires
+     *      usage of System.out and System.err
+     */
+    private static int runWithDaemon(CliOptions options, List<File> filesToProcess)
+            throws CheckstyleException, IOException {
+        GitChanges gitChanges = null;
+        if (options.gitBase != null) {
+            gitChanges = GitChanges.load(new File("").getAbsoluteFile(), options.gitBase);
+        }
+        final List<String> files = getChangedFiles(gitChanges, filesToProcess).stream()
+                .map(File::getAbsolutePath)
+                .collect(Collectors.toUnmodifiableList());
+
+        // the daemon uses its own system properties if no properties file is given
+        Map<String, String> properties = null;
+        if (options.propertiesFile != null) {
+            final Properties loaded = loadProperties(options.propertiesFile);
+            properties = new HashMap<>();
+            for (String name : loaded.stringPropertyNames()) {
+                properties.put(name, loaded.getProperty(name));
+            }
+        }
+
+        // the daemon runs in another directory
+        String configurationLocation = options.configurationFile;
+        final File configurationFile = new File(configurationLocation);
+        if (configurationFile.exists()) {
+            configurationLocation = configurationFile.getAbsolutePath();
+        }
+
+        final CheckstyleDaemon.Request request = new CheckstyleDaemon.Request(
+                configurationLocation, properties, options.executeIgnoredModules,
+                options.checkerThreadsNumber, options.treeWalkerThreadsNumber,
+                options.format.name(), files);
+        final CheckstyleDaemon.Response response;
+        try {
+            response = CheckstyleDaemon.send(options.daemonPort, request);
+        }
+        catch (IOException ex) {
+            throw new CheckstyleException("Unable to communicate with the daemon on port "
+                    + options.daemonPort, ex);
+        }
+        if (response.getFailure() != null) {
+            throw new CheckstyleException("Daemon failed to check the files: "
+                    + response.getFailure());
+        }
+
+        if (options.outputPath == null) {
+            System.out.write(response.getReport());
+            System.out.flush();
+        }
+        else {
+            Files.write(options.outputPath, response.getReport());
+        }
+        return response.getErrorCount();
+    }
+
+    /**
+     * Returns the files changed in git among the files to check.
+     *
+     * @param gitChanges the changes in git, or {@code null} to take all files
+     * @param filesToProcess the list of files whose style to check
+     * @return the changed files
+     */
+    private static List<File> getChangedFiles(GitChanges gitChanges, List<File> filesToProcess) {
+        List<File> result = filesToProcess;
+        if (gitChanges != null) {
+            result = filesToProcess.stream()
+                    .filter(gitChanges::isChanged)
+                    .collect(Collectors.toUnmodifiableList());
+        }
+        return result;
+    }
+
     /**
      * Loads properties from a File.
      *
@@ -643,19 +851,6 @@ public final class Main {
         /** Option name for output format. */
         private static final String OUTPUT_FORMAT_OPTION = "-f";
 
-        /**
-         * The checker threads number.
-         * This option has been skipped for CLI options intentionally.
-         *
-         */
-        private static final int CHECKER_THREADS_NUMBER = DEFAULT_THREAD_COUNT;
-
-        /**
-         * The tree walker threads number.
-         *
-         */
-        private static final int TREE_WALKER_THREADS_NUMBER = DEFAULT_THREAD_COUNT;
-
         /** List of file to validate. */
         @Parameters(arity = "1..*", description = "One or more source files to verify")
         private List<File> files;
@@ -786,6 +981,84 @@ public final class Main {
                 description = "Allows ignored modules to be run.")
         private boolean executeIgnoredModules;
 
+        /**
+         * The checker threads number.
+         *
+         * @noinspection CanBeFinal
+         * @noinspectionreason CanBeFinal - we use picocli, and it uses
+         *      reflection to manage such fields
+         */
+        @Option(names = {"-C", "--checker-threads-number"},
+                description = "Sets the number of threads used to check files in parallel. "
+                        + "Default value is ${DEFAULT-VALUE}.")
+        private int checkerThreadsNumber = DEFAULT_THREAD_COUNT;
+
+        /**
+         * The tree walker threads number.
+         *
+         * @noinspection CanBeFinal
+         * @noinspectionreason CanBeFinal - we use picocli, and it uses
+         *      reflection to manage such fields
+         */
+        @Option(names = {"-W", "--tree-walker-threads-number"},
+                description = "Sets the number of threads used to run the checks of TreeWalker "
+                        + "on a single file in parallel. Default value is ${DEFAULT-VALUE}.")
+        private int treeWalkerThreadsNumber = DEFAULT_THREAD_COUNT;
+
+        /** Base revision in git to check only the changes since. */
+        @Option(names = {"-G", "--git-base"}, paramLabel = "<rev>",
+                description = "Checks only the files changed in git since the merge base of "
+                        + "the given revision and HEAD, including uncommitted changes.")
+        private String gitBase;
+
+        /** Switch whether to report only the violations on changed lines. */
+        @Option(names = {"-l", "--changed-lines"},
+                description = "Reports only the violations on the lines changed in git. "
+                        + "Used only with -G option.")
+        private boolean changedLinesOnly;
+
+        /** Port of the daemon to check the files with. */
+        @Option(names = {"-P", "--daemon-port"}, paramLabel = "<port>",
+                description = "Checks the files with the daemon listening on the given port "
+                        + "of localhost instead of in this process. Cannot be used with -g "
+                        + "and -l options.")
+        private Integer daemonPort;
+
+        /** Switch whether to check the changed files whenever files change. */
+        @Option(names = {"-k", "--watch"},
+                description = "Keeps running and checks the changed files again whenever the "
+                        + "specified files change. Violations are printed in plain format, "
+                        + "followed by a summary of all files. Cannot be used with -g, -G, -o "
+                        + "and -P options.")
+        private boolean watch;
+
+        /** Switch whether to read the sources from standard input. */
+        @Option(names = {"-i", "--stdin"},
+                description = "Reads the sources to check from standard input instead of the "
+                        + "specified file, which names the sources without a name of their "
+                        + "own. Each source is preceded by a line with the length of its "
+                        + "content in bytes, optionally followed by a space and its name. "
+                        + "Violations of a source are printed as JSON objects, one per line, "
+                        + "once the source is checked. Cannot be used with -g, -G, -k, -o and "
+                        + "-P options.")
+        private boolean stdin;
+
+        /** Shard of the files to check, given as index and number of shards. */
+        @Option(names = {"-S", "--shard"}, paramLabel = "<i/n>",
+                description = "Checks only the files of shard i of n, so the files can be split "
+                        + "between processes or machines. Files are assigned to shards by the "
+                        + "MurmurHash3 of their path relative to the current directory, so every "
+                        + "process makes the same split. Cannot be used with -i and -k options.")
+        private String shard;
+
+        /** Policy of clearing the DFA cache of the Java parser. */
+        @Option(names = {"-R", "--dfa-cache-policy"}, paramLabel = "<policy>",
+                description = "Sets when the DFA cache of the Java parser is cleared: never, "
+                        + "files:n after every n parsed files, or states:n above n DFA states. "
+                        + "A warm cache makes parsing faster, clearing it lowers the memory "
+                        + "usage. Defaults to files:" + JavaLanguageParser.CLEAR_DFA_LIMIT + ".")
+        private String dfaCachePolicy;
+
         /** Show AST branches that match xpath. */
         @Option(names = {"-b", "--branch-matching-xpath"},
             description = "Shows Abstract Syntax Tree(AST) branches that match given XPath query.")
@@ -873,6 +1146,94 @@ public final class Main {
                 result.add(String.format(Locale.ROOT,
                         "Could not find file '%s'.", propertiesFile));
             }
+            if (checkerThreadsNumber < 1) {
+                result.add("Checker threads number must be greater than zero.");
+            }
+            if (treeWalkerThreadsNumber < 1) {
+                result.add("TreeWalker threads number must be greater than zero.");
+            }
+            if (changedLinesOnly && gitBase == null) {
+                result.add("Option '-l' requires option '-G'.");
+            }
+            result.addAll(validateRunModeOptions());
+            result.addAll(validateStdinOptions());
+            result.addAll(validateShardOptions());
+            result.addAll(validateDfaCachePolicyOption());
+            return result;
+        }
+
+        /**
+         * Validates the options which change how the files are checked, as they can not be
+         * combined with every other option.
+         *
+         * @return list of violations
+         */
+        private List<String> validateRunModeOptions() {
+            final List<String> result = new ArrayList<>();
+            if (daemonPort != null && (generateXpathSuppressionsFile || changedLinesOnly)) {
+                result.add("Option '-P' cannot be used with -g and -l options.");
+            }
+            if (watch && (generateXpathSuppressionsFile || gitBase != null
+                    || outputPath != null || daemonPort != null)) {
+                result.add("Option '-k' cannot be used with -g, -G, -o and -P options.");
+            }
+            return result;
+        }
+
+        /**
+         * Validates the options which can be used to check the sources read from standard
+         * input.
+         *
+         * @return list of violations
+         */
+        private List<String> validateStdinOptions() {
+            final List<String> result = new ArrayList<>();
+            if (stdin && (generateXpathSuppressionsFile || gitBase != null || watch
+                    || outputPath != null || daemonPort != null)) {
+                result.add("Option '-i' cannot be used with -g, -G, -k, -o and -P options.");
+            }
+            if (stdin && files.size() > 1) {
+                result.add("Option '-i' is allowed for only one file.");
+            }
+            return result;
+        }
+
+        /**
+         * Validates the shard of the files to check.
+         *
+         * @return list of violations
+         */
+        private List<String> validateShardOptions() {
+            final List<String> result = new ArrayList<>();
+            if (shard != null) {
+                try {
+                    Shard.parse(shard);
+                }
+                catch (IllegalArgumentException ex) {
+                    result.add(ex.getMessage());
+                }
+                if (stdin || watch) {
+                    result.add("Option '-S' cannot be used with -i and -k options.");
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Validates the policy of clearing the DFA cache of the Java parser.
+         *
+         * @return list of violations
+         */
+        private List<String> validateDfaCachePolicyOption() {
+            final List<String> result = new ArrayList<>();
+            if (dfaCachePolicy != null) {
+                try {
+                    DfaCachePolicy.parse(dfaCachePolicy);
+                }
+                catch (IllegalArgumentException ex) {
+                    result.add(ex.getMessage());
+                }
+            }
             return result;
         }
     }
@@ -0,0 +1,255 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.puppycrawl.tools.checkstyle.api.AbstractViolationReporter;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+/**
+ * Fingerprints of the configurations of the modules which report violations, so the
+ * cached violations of a file are invalidated only for the modules whose configuration
+ * changed.
+ *
+ * <p>Modules are identified by their class name and id, as violations are. Modules which
+ * share both have a single fingerprint of all their configurations. The rest of the
+ * configuration, like filters and the properties of the Checker, affects the violations
+ * of all modules and has a fingerprint of its own, which leaves out the properties of the
+ * Checker that only control caching.</p>
+ */
+final class ModuleFingerprints {
+
+    /** Separator of a fingerprint and the key of its module in the encoded fingerprints. */
+    private static final char FINGERPRINT_SEPARATOR = ':';
+
+    /** Separator of the modules in the encoded fingerprints. */
+    private static final String MODULE_SEPARATOR = "\n";
+
+    /** Properties of the Checker which do not affect the violations of files. */
+    private static final Set<String> CACHE_PROPERTIES = Set.of("basedir", "binaryCache",
+            "cacheByContent", "cacheDirectory", "cacheDirectoryMaxSize", "cacheFile",
+            "deduplicateContent");
+
+    /** Key of the fingerprint of the shared configuration in the encoded fingerprints. */
+    private static final String SHARED_KEY = "";
+
+    /** Modules which have a fingerprint. */
+    private final Set<Object> modules = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /** Fingerprints of the configurations of the modules, by module key. */
+    private final Map<String, String> fingerprints = new TreeMap<>();
+
+    /** Fingerprint of the configuration without the configurations of the modules. */
+    private final String sharedFingerprint;
+
+    /**
+     * Creates the fingerprints of the given modules.
+     *
+     * @param configuration the whole configuration
+     * @param moduleConfigurations the configurations of the modules, by module, a module
+     *     can have a {@code null} configuration if it was not configured
+     */
+    ModuleFingerprints(Configuration configuration,
+            Map<Object, Configuration> moduleConfigurations) {
+        final Set<Configuration> excluded = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Map<String, List<String>> moduleFingerprints = new HashMap<>();
+        moduleConfigurations.forEach((module, moduleConfiguration) -> {
+            modules.add(module);
+            String moduleFingerprint = "";
+            if (moduleConfiguration != null) {
+                excluded.add(moduleConfiguration);
+                moduleFingerprint = Fingerprints.getFingerprint(moduleConfiguration);
+            }
+            moduleFingerprints.computeIfAbsent(getModuleKey(module), key -> new ArrayList<>())
+                    .add(moduleFingerprint);
+        });
+        moduleFingerprints.forEach((key, keyFingerprints) -> {
+            Collections.sort(keyFingerprints);
+            fingerprints.put(key, Fingerprints.getFingerprint(String.join(MODULE_SEPARATOR,
+                    keyFingerprints)));
+        });
+        sharedFingerprint = Fingerprints.getFingerprint(configuration, CACHE_PROPERTIES,
+                excluded);
+    }
+
+    /**
+     * Checks whether the given fingerprints were taken with the same configuration
+     * shared by all modules, so the violations of unchanged modules are still valid.
+     *
+     * @param cachedFingerprints earlier fingerprints, by module key
+     * @return whether the shared configuration is the same
+     */
+    boolean isSharedWith(Map<String, String> cachedFingerprints) {
+        return sharedFingerprint.equals(cachedFingerprints.get(SHARED_KEY));
+    }
+
+    /**
+     * Checks whether the configuration of a module has a fingerprint. Other modules are
+     * part of the shared configuration and always run.
+     *
+     * @param module the module
+     * @return whether the module has a fingerprint
+     */
+    boolean isModule(Object module) {
+        return modules.contains(module);
+    }
+
+    /**
+     * Checks whether the given fingerprints are the fingerprints of the same modules,
+     * with the same configurations.
+     *
+     * @param cachedFingerprints earlier fingerprints, by module key
+     * @return whether the fingerprints are the same
+     */
+    boolean matches(Map<String, String> cachedFingerprints) {
+        return isSharedWith(cachedFingerprints)
+                && cachedFingerprints.size() == fingerprints.size() + 1
+                && getChangedModules(cachedFingerprints).isEmpty();
+    }
+
+    /**
+     * Encodes the fingerprints of the shared configuration and of all modules in a string.
+     *
+     * @return the encoded fingerprints
+     */
+    String encode() {
+        return Stream.concat(Stream.of(sharedFingerprint + FINGERPRINT_SEPARATOR + SHARED_KEY),
+                fingerprints.entrySet().stream()
+                    .map(entry -> entry.getValue() + FINGERPRINT_SEPARATOR + entry.getKey()))
+                .collect(Collectors.joining(MODULE_SEPARATOR));
+    }
+
+    /**
+     * Decodes fingerprints encoded by {@link #encode()}.
+     *
+     * @param encodedFingerprints the encoded fingerprints
+     * @return the fingerprints, by module key
+     */
+    static Map<String, String> decode(String encodedFingerprints) {
+        final Map<String, String> result = new HashMap<>();
+        Arrays.stream(encodedFingerprints.split(MODULE_SEPARATOR))
+                .filter(line -> line.indexOf(FINGERPRINT_SEPARATOR) > 0)
+                .forEach(line -> {
+                    final int separator = line.indexOf(FINGERPRINT_SEPARATOR);
+                    result.put(line.substring(separator + 1), line.substring(0, separator));
+                });
+        return result;
+    }
+
+    /**
+     * Returns the keys of the modules which are new or whose configuration changed
+     * since the given fingerprints were taken.
+     *
+     * @param cachedFingerprints earlier fingerprints, by module key
+     * @return the keys of the changed modules
+     */
+    Set<String> getChangedModules(Map<String, String> cachedFingerprints) {
+        return fingerprints.entrySet().stream()
+                .filter(entry -> !entry.getValue().equals(cachedFingerprints.get(entry.getKey())))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Retains the violations of the modules whose configuration did not change since the
+     * given fingerprints were taken. Violations of removed or changed modules are dropped.
+     *
+     * @param violations the violations found with the earlier configuration
+     * @param cachedFingerprints the fingerprints of the earlier configuration, by module key
+     * @return the violations which are still valid, or {@code null} if the shared
+     *     configuration changed or some violation is not reported by a module, like
+     *     exceptions and parse errors, so it can not be decided whether it is still valid
+     */
+    SortedSet<Violation> getUnchangedViolations(SortedSet<Violation> violations,
+            Map<String, String> cachedFingerprints) {
+        SortedSet<Violation> result = null;
+        if (isSharedWith(cachedFingerprints)) {
+            result = new TreeSet<>();
+        }
+        final Iterator<Violation> iterator = violations.iterator();
+        while (result != null && iterator.hasNext()) {
+            final Violation violation = iterator.next();
+            final String key = getModuleKey(violation);
+            final String cachedFingerprint = cachedFingerprints.get(key);
+            if (cachedFingerprint == null) {
+                result = null;
+            }
+            else if (cachedFingerprint.equals(fingerprints.get(key))) {
+                result.add(violation);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the key of a module, which is its class name and its id, if it has one.
+     *
+     * @param module the module
+     * @return the key of the module
+     */
+    static String getModuleKey(Object module) {
+        String id = null;
+        if (module instanceof AbstractViolationReporter) {
+            id = ((AbstractViolationReporter) module).getId();
+        }
+        return getModuleKey(module.getClass().getName(), id);
+    }
+
+    /**
+     * Returns the key of the module which reported a violation.
+     *
+     * @param violation the violation
+     * @return the key of the module
+     */
+    static String getModuleKey(Violation violation) {
+        return getModuleKey(violation.getSourceName(), violation.getModuleId());
+    }
+
+    /**
+     * Returns the key of a module from its class name and id.
+     *
+     * @param className the class name of the module
+     * @param id the id of the module, may be {@code null}
+     * @return the key of the module
+     */
+    private static String getModuleKey(String className, String id) {
+        String key = className;
+        if (id != null) {
+            key = className + '#' + id;
+        }
+        return key;
+    }
+
+}
@@ -20,39 +20,71 @@
 package com.puppycrawl.tools.checkstyle;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
 import java.math.BigInteger;
+import java.net.HttpURLConnection;
 import java.net.URI;
+import java.net.URL;
+import java.net.URLConnection;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
 
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.Violation;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 import com.puppycrawl.tools.checkstyle.utils.OsSpecificUtil;
 
 /**
  * This class maintains a persistent(on file-system) store of the files
- * that have checked ok(no validation events) and their associated
- * timestamp. It is used to optimize Checkstyle between few launches.
+ * that have been checked, their associated timestamp and the violations
+ * found in them, so unchanged files are not checked again. It is used to
+ * optimize Checkstyle between few launches.
  * It is mostly useful for plugin and extensions of Checkstyle.
  * It uses a property file
  * for storage.  A hashcode of the Configuration is stored in the
  * cache file to ensure the cache is invalidated when the
  * configuration has changed.
  *
+ * <p>The cache can also be persisted in a binary format, which is memory mapped when it
+ * is loaded and updated by appending the changes.</p>
+ *
+ * <p>In content hash mode, files are identified by their path relative to the base
+ * directory and a digest of their content instead of their absolute path and timestamp,
+ * so the cache stays valid in a fresh checkout of the same sources, even in another
+ * directory or on another machine.</p>
+ *
+ * <p>When files are recorded with the fingerprints of the configurations of the modules
+ * which checked them, a change of the configuration of some modules does not clear the
+ * cache. Only the changed modules check these files again.</p>
+ *
+ * <p>External resources are recorded with validators, which are the last modification
+ * time and size of local files, or the last modification time and entity tag sent over
+ * HTTP, so they are loaded again only when they changed.</p>
+ *
  */
 public final class PropertyCacheFile {
 
@@ -72,11 +104,44 @@ public final class PropertyCacheFile {
      */
     public static final String EXTERNAL_RESOURCE_KEY_PREFIX = "module-resource*?:";
 
-    /** Size of default byte array for buffer. */
-    private static final int BUFFER_SIZE = 1024;
+    /**
+     * The property prefix to use for storing the violations of a file
+     * which did not check ok. To avoid name clashes with the files that
+     * are checked the prefix is chosen in such a way that it cannot be a
+     * valid file name.
+     */
+    public static final String VIOLATIONS_KEY_PREFIX = "violations*?:";
+
+    /**
+     * The property prefix to use for storing the id of the fingerprints of the
+     * modules which checked a file.
+     */
+    public static final String MODULES_KEY_PREFIX = "modules*?:";
+
+    /**
+     * The property prefix to use for storing the fingerprints of the modules
+     * by their id.
+     */
+    public static final String FINGERPRINTS_KEY_PREFIX = "module-fingerprints*?:";
+
+    /**
+     * The property prefix to use for storing the validator of an external
+     * resource, which tells whether the resource changed without loading it.
+     */
+    public static final String EXTERNAL_RESOURCE_VALIDATOR_KEY_PREFIX =
+        "module-resource-validator*?:";
+
+    /** The scheme of URIs of local files. */
+    private static final String FILE_SCHEME = "file";
+
+    /** Separator of the parts of validators of external resources. */
+    private static final String VALIDATOR_SEPARATOR = ":";
 
-    /** Default buffer for reading from streams. */
-    private static final byte[] BUFFER = new byte[BUFFER_SIZE];
+    /** Prefix of validators of external resources loaded over HTTP. */
+    private static final String HTTP_VALIDATOR_PREFIX = "http" + VALIDATOR_SEPARATOR;
+
+    /** Number of parts of validators of external resources loaded over HTTP. */
+    private static final int HTTP_VALIDATOR_PARTS = 3;
 
     /** Default number for base 16 encoding. */
     private static final int BASE_16 = 16;
@@ -90,9 +155,39 @@ public final class PropertyCacheFile {
     /** File name of cache. **/
     private final String fileName;
 
+    /** Digests of the contents of the files, by absolute path, computed during the run. */
+    private final Map<String, String> contentHashes = new ConcurrentHashMap<>();
+
+    /** Decoded fingerprints of the modules which checked the cached files, by id. */
+    private final Map<String, Map<String, String>> cachedFingerprints = new HashMap<>();
+
+    /** The details on files when the cache is in binary format, {@code null} otherwise. */
+    private BinaryCacheFile binaryDetails;
+
+    /** Whether the cache is persisted in binary format. */
+    private boolean binaryFormat;
+
     /** Generated configuration hash. **/
     private String configHash;
 
+    /** Whether files are identified by the digest of their content. */
+    private boolean contentHashMode;
+
+    /** Base directory the paths of files are relative to in content hash mode. */
+    private String basedir;
+
+    /** Fingerprints of the configurations of the modules, {@code null} if not set. */
+    private ModuleFingerprints moduleFingerprints;
+
+    /** Id of the fingerprints of the configurations of the modules. */
+    private String moduleFingerprintsId;
+
+    /**
+     * The details on files before the cache was reset on a configuration change,
+     * {@code null} if they are not retained.
+     */
+    private Map<String, String> retainedDetails;
+
     /**
      * Creates a new {@code PropertyCacheFile} instance.
      *
@@ -119,17 +214,31 @@ public final class PropertyCacheFile {
     public void load() throws IOException {
         // get the current config so if the file isn't found
         // the first time the hash will be added to output file
-        configHash = getHashCodeBasedOnObjectContent(config);
+        configHash = Fingerprints.getFingerprint(config);
         final Path path = Path.of(fileName);
         if (Files.exists(path)) {
-            try (InputStream inStream = Files.newInputStream(path)) {
-                details.load(inStream);
-                final String cachedConfigHash = details.getProperty(CONFIG_HASH_KEY);
-                if (!configHash.equals(cachedConfigHash)) {
-                    // Detected configuration change - clear cache
-                    reset();
+            if (BinaryCacheFile.isBinary(path)) {
+                binaryDetails = BinaryCacheFile.load(path);
+            }
+            else {
+                try (InputStream inStream = Files.newInputStream(path)) {
+                    details.load(inStream);
                 }
             }
+            final String cachedConfigHash = getDetail(CONFIG_HASH_KEY);
+            if (!configHash.equals(cachedConfigHash)) {
+                // Detected configuration change - clear cache, the results of modules whose
+                // configuration did not change are restored with the fingerprints of modules
+                retainedDetails = new HashMap<>();
+                if (binaryDetails == null) {
+                    details.stringPropertyNames().forEach(
+                        key -> retainedDetails.put(key, details.getProperty(key)));
+                }
+                else {
+                    binaryDetails.forEach(retainedDetails::put);
+                }
+                reset();
+            }
         }
         else {
             // put the hash in the file if the file is going to be created
@@ -137,20 +246,116 @@ public final class PropertyCacheFile {
         }
     }
 
+    /**
+     * Sets whether files are identified by their path relative to the base directory and
+     * a digest of their content, instead of their absolute path and timestamp.
+     * Digests calculated before are discarded, so files changed since are read again.
+     *
+     * @param contentHashMode whether to identify files by the digest of their content
+     */
+    public void setContentHashMode(boolean contentHashMode) {
+        this.contentHashMode = contentHashMode;
+        contentHashes.clear();
+    }
+
+    /**
+     * Sets the fingerprints of the configurations of the modules. Files are recorded with
+     * them, so later their violations are invalidated only for modules whose configuration
+     * changed. If the configuration changed since the cache was persisted, but not the
+     * configuration shared by all modules, the files cleared on load are restored.
+     *
+     * @param fingerprints the fingerprints of the modules
+     */
+    void setModuleFingerprints(ModuleFingerprints fingerprints) {
+        moduleFingerprints = fingerprints;
+        moduleFingerprintsId = getHashCodeBasedOnObjectContent(fingerprints.encode());
+        if (retainedDetails != null) {
+            restoreRetainedDetails();
+            retainedDetails = null;
+        }
+    }
+
+    /**
+     * Restores the retained external resources and the files which were recorded with
+     * fingerprints of the same configuration shared by all modules.
+     */
+    private void restoreRetainedDetails() {
+        final Map<String, Boolean> sharedFingerprints = new HashMap<>();
+        for (Map.Entry<String, String> entry : retainedDetails.entrySet()) {
+            final String key = entry.getKey();
+            final String value = entry.getValue();
+            if (key.startsWith(EXTERNAL_RESOURCE_KEY_PREFIX)
+                    || key.startsWith(EXTERNAL_RESOURCE_VALIDATOR_KEY_PREFIX)) {
+                setDetail(key, value);
+            }
+            else if (key.startsWith(MODULES_KEY_PREFIX)) {
+                final String fingerprintsKey = FINGERPRINTS_KEY_PREFIX + value;
+                final String encodedFingerprints = retainedDetails.get(fingerprintsKey);
+                if (encodedFingerprints != null && sharedFingerprints.computeIfAbsent(value, id -> {
+                    return moduleFingerprints.isSharedWith(
+                            ModuleFingerprints.decode(encodedFingerprints));
+                })) {
+                    final String fileKey = key.substring(MODULES_KEY_PREFIX.length());
+                    setDetail(key, value);
+                    setDetail(fingerprintsKey, encodedFingerprints);
+                    setDetail(fileKey, retainedDetails.get(fileKey));
+                    final String violations = retainedDetails.get(VIOLATIONS_KEY_PREFIX + fileKey);
+                    if (violations != null) {
+                        setDetail(VIOLATIONS_KEY_PREFIX + fileKey, violations);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets whether the cache is persisted in binary format instead of as properties.
+     * The format of an existing cache file is detected when it is loaded.
+     *
+     * @param binaryFormat whether to persist the cache in binary format
+     */
+    public void setBinaryFormat(boolean binaryFormat) {
+        this.binaryFormat = binaryFormat;
+    }
+
+    /**
+     * Sets the base directory the paths of files are relative to in content hash mode.
+     *
+     * @param basedir the base directory, or {@code null} to use absolute paths
+     */
+    public void setBasedir(String basedir) {
+        this.basedir = basedir;
+    }
+
     /**
      * Cleans up the object and updates the cache file.
      *
      * @throws IOException  when there is a problems with file save
      */
     public void persist() throws IOException {
+        contentHashes.clear();
+        cachedFingerprints.clear();
         final Path path = Paths.get(fileName);
         final Path directory = path.getParent();
 
         if (directory != null) {
             OsSpecificUtil.updateDirectory(directory);
         }
-        try (OutputStream out = Files.newOutputStream(path)) {
-            details.store(out, null);
+        if (binaryFormat) {
+            if (binaryDetails == null) {
+                binaryDetails = BinaryCacheFile.copyOf(details);
+                details.clear();
+            }
+            binaryDetails = binaryDetails.persist(path);
+        }
+        else {
+            if (binaryDetails != null) {
+                binaryDetails.forEach(details::setProperty);
+                binaryDetails = null;
+            }
+            try (OutputStream out = Files.newOutputStream(path)) {
+                details.store(out, null);
+            }
         }
     }
 
@@ -158,8 +363,13 @@ public final class PropertyCacheFile {
      * Resets the cache to be empty except for the configuration hash.
      */
     public void reset() {
-        details.clear();
-        details.setProperty(CONFIG_HASH_KEY, configHash);
+        if (binaryDetails == null) {
+            details.clear();
+        }
+        else {
+            binaryDetails.clear();
+        }
+        setDetail(CONFIG_HASH_KEY, configHash);
     }
 
     /**
@@ -170,10 +380,22 @@ public final class PropertyCacheFile {
      * @return whether the specified file has already been checked ok
      */
     public boolean isInCache(String uncheckedFileName, long timestamp) {
-        final String lastChecked = details.getProperty(uncheckedFileName);
+        final String lastChecked = getDetail(uncheckedFileName);
         return Objects.equals(lastChecked, Long.toString(timestamp));
     }
 
+    /**
+     * Checks that file is in cache, by its timestamp or, in content hash mode,
+     * by the digest of its content.
+     *
+     * @param file the file to check
+     * @return whether the specified file has already been checked ok
+     */
+    public boolean isInCache(File file) {
+        final String state = getState(file);
+        return state != null && state.equals(getDetail(getKey(file)));
+    }
+
     /**
      * Records that a file checked ok.
      *
@@ -181,7 +403,97 @@ public final class PropertyCacheFile {
      * @param timestamp the timestamp of the file
      */
     public void put(String checkedFileName, long timestamp) {
-        details.setProperty(checkedFileName, Long.toString(timestamp));
+        setDetail(checkedFileName, Long.toString(timestamp));
+    }
+
+    /**
+     * Records that a file checked ok, with its timestamp or, in content hash mode,
+     * with the digest of its content.
+     *
+     * @param file the file that checked ok
+     */
+    public void put(File file) {
+        put(file, Collections.emptySortedSet());
+    }
+
+    /**
+     * Records that a file was checked, with its timestamp or, in content hash mode,
+     * with the digest of its content, and the violations found in it. The file is
+     * not recorded if its violations can not be stored.
+     *
+     * @param file the file that was checked
+     * @param violations the violations accepted by all filters
+     */
+    public void put(File file, SortedSet<Violation> violations) {
+        final String state = getState(file);
+        final String encodedViolations = ViolationCodec.encode(violations);
+        if (state == null || encodedViolations == null) {
+            remove(file);
+        }
+        else {
+            final String key = getKey(file);
+            setDetail(key, state);
+            if (violations.isEmpty()) {
+                removeDetail(VIOLATIONS_KEY_PREFIX + key);
+            }
+            else {
+                setDetail(VIOLATIONS_KEY_PREFIX + key, encodedViolations);
+            }
+            if (moduleFingerprints == null) {
+                removeDetail(MODULES_KEY_PREFIX + key);
+            }
+            else {
+                setDetail(MODULES_KEY_PREFIX + key, moduleFingerprintsId);
+                final String fingerprintsKey = FINGERPRINTS_KEY_PREFIX + moduleFingerprintsId;
+                if (getDetail(fingerprintsKey) == null) {
+                    setDetail(fingerprintsKey, moduleFingerprints.encode());
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves the violations recorded for a file, if it has not changed since.
+     *
+     * @param file the file to retrieve the violations of
+     * @param classLoader the class loader of the modules which are the sources of violations
+     * @return the violations of the file, or {@code null} if it is not in cache or its
+     *     violations can not be restored
+     */
+    public SortedSet<Violation> getViolations(File file, ClassLoader classLoader) {
+        SortedSet<Violation> violations = null;
+        if (isInCache(file)) {
+            final String encodedViolations =
+                getDetail(VIOLATIONS_KEY_PREFIX + getKey(file));
+            if (encodedViolations == null) {
+                violations = new TreeSet<>();
+            }
+            else {
+                violations = ViolationCodec.decode(encodedViolations, classLoader);
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Retrieves the fingerprints of the modules which checked a file.
+     *
+     * @param file the file to retrieve the fingerprints of
+     * @return the fingerprints of the modules by module key, or {@code null} if the file
+     *     was not recorded with them
+     */
+    Map<String, String> getModuleFingerprints(File file) {
+        Map<String, String> fingerprints = null;
+        final String fingerprintsId = getDetail(MODULES_KEY_PREFIX + getKey(file));
+        if (fingerprintsId != null) {
+            final String encodedFingerprints = getDetail(FINGERPRINTS_KEY_PREFIX + fingerprintsId);
+            if (encodedFingerprints != null) {
+                // fingerprints are shared by many files, so they are decoded only once
+                fingerprints = cachedFingerprints.computeIfAbsent(fingerprintsId,
+                    id -> ModuleFingerprints.decode(encodedFingerprints));
+            }
+        }
+        return fingerprints;
     }
 
     /**
@@ -191,7 +503,66 @@ public final class PropertyCacheFile {
      * @return The has of the file or {@code null}.
      */
     public String get(String name) {
-        return details.getProperty(name);
+        return getDetail(name);
+    }
+
+    /**
+     * Returns the key of a file in cache, which is its absolute path or, in content hash
+     * mode, its path relative to the base directory with forward slashes.
+     *
+     * @param file the file
+     * @return the key of the file
+     */
+    private String getKey(File file) {
+        String key = file.getAbsolutePath();
+        if (contentHashMode) {
+            key = CommonUtil.relativizePath(basedir, key).replace(File.separatorChar, '/');
+        }
+        return key;
+    }
+
+    /**
+     * Returns the state of a file to compare with the cache, which is its timestamp or,
+     * in content hash mode, the digest of its content.
+     *
+     * @param file the file
+     * @return the state of the file, or {@code null} if it does not exist or its content
+     *     can not be read
+     */
+    private String getState(File file) {
+        String state = null;
+        if (contentHashMode) {
+            state = contentHashes.computeIfAbsent(file.getAbsolutePath(),
+                path -> getContentHash(Path.of(path)));
+        }
+        else {
+            final long timestamp = file.lastModified();
+            if (timestamp != 0) {
+                state = Long.toString(timestamp);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Calculates a fast, non cryptographic digest of the content of a file, which is
+     * its length followed by the CRC-32C checksum of its bytes.
+     *
+     * @param path the file
+     * @return the digest, or {@code null} if the file can not be read
+     */
+    private static String getContentHash(Path path) {
+        String result = null;
+        try {
+            final byte[] content = Files.readAllBytes(path);
+            final CRC32C checksum = new CRC32C();
+            checksum.update(content);
+            result = content.length + ":" + Long.toHexString(checksum.getValue());
+        }
+        catch (IOException ignored) {
+            // the file is checked, which reports the problem
+        }
+        return result;
     }
 
     /**
@@ -200,7 +571,64 @@ public final class PropertyCacheFile {
      * @param checkedFileName The name of the file to remove.
      */
     public void remove(String checkedFileName) {
-        details.remove(checkedFileName);
+        removeDetail(checkedFileName);
+        removeDetail(VIOLATIONS_KEY_PREFIX + checkedFileName);
+        removeDetail(MODULES_KEY_PREFIX + checkedFileName);
+    }
+
+    /**
+     * Removes a specific file from the cache.
+     *
+     * @param file the file to remove
+     */
+    public void remove(File file) {
+        remove(getKey(file));
+    }
+
+    /**
+     * Gets the value of an entry of the cache.
+     *
+     * @param key the key of the entry
+     * @return the value, or {@code null} if there is no such entry
+     */
+    private String getDetail(String key) {
+        final String value;
+        if (binaryDetails == null) {
+            value = details.getProperty(key);
+        }
+        else {
+            value = binaryDetails.get(key);
+        }
+        return value;
+    }
+
+    /**
+     * Sets the value of an entry of the cache.
+     *
+     * @param key the key of the entry
+     * @param value the value
+     */
+    private void setDetail(String key, String value) {
+        if (binaryDetails == null) {
+            details.setProperty(key, value);
+        }
+        else {
+            binaryDetails.put(key, value);
+        }
+    }
+
+    /**
+     * Removes an entry of the cache.
+     *
+     * @param key the key of the entry
+     */
+    private void removeDetail(String key) {
+        if (binaryDetails == null) {
+            details.remove(key);
+        }
+        else {
+            binaryDetails.remove(key);
+        }
     }
 
     /**
@@ -210,7 +638,7 @@ public final class PropertyCacheFile {
      * @return the hashcode for serializable object.
      * @throws IllegalStateException when some unexpected happened.
      */
-    private static String getHashCodeBasedOnObjectContent(Serializable object) {
+    static String getHashCodeBasedOnObjectContent(Serializable object) {
         try {
             final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             // in-memory serialization of Configuration
@@ -247,6 +675,10 @@ public final class PropertyCacheFile {
     /**
      * Puts external resources in cache.
      * If at least one external resource changed, clears the cache.
+     * Resources whose validators did not change since they were cached are not loaded
+     * again, and several resources are loaded in parallel. In content hash mode, resources
+     * given by absolute paths are cached by their paths relative to the base directory, so
+     * the cache stays valid in another checkout.
      *
      * @param locations locations of external resources.
      */
@@ -254,8 +686,8 @@ public final class PropertyCacheFile {
         final Set<ExternalResource> resources = loadExternalResources(locations);
         if (areExternalResourcesChanged(resources)) {
             reset();
-            fillCacheWithExternalResources(resources);
         }
+        fillCacheWithExternalResources(resources);
     }
 
     /**
@@ -264,65 +696,210 @@ public final class PropertyCacheFile {
      * @param resourceLocations locations of external configuration resources.
      * @return a set of {@link ExternalResource}.
      */
-    private static Set<ExternalResource> loadExternalResources(Set<String> resourceLocations) {
-        final Set<ExternalResource> resources = new HashSet<>();
-        for (String location : resourceLocations) {
-            try {
-                final byte[] content = loadExternalResource(location);
-                final String contentHashSum = getHashCodeBasedOnObjectContent(content);
-                resources.add(new ExternalResource(EXTERNAL_RESOURCE_KEY_PREFIX + location,
-                        contentHashSum));
-            }
-            catch (CheckstyleException | IOException ex) {
-                // if exception happened (configuration resource was not found, connection is not
-                // available, resource is broken, etc.), we need to calculate hash sum based on
-                // exception object content in order to check whether problem is resolved later
-                // and/or the configuration is changed.
-                final String contentHashSum = getHashCodeBasedOnObjectContent(ex);
-                resources.add(new ExternalResource(EXTERNAL_RESOURCE_KEY_PREFIX + location,
-                        contentHashSum));
-            }
+    private Set<ExternalResource> loadExternalResources(Set<String> resourceLocations) {
+        Stream<String> locations = resourceLocations.stream();
+        if (resourceLocations.size() > 1) {
+            locations = locations.parallel();
         }
-        return resources;
+        return locations
+            .map(this::loadExternalResource)
+            .collect(Collectors.toUnmodifiableSet());
     }
 
     /**
-     * Loads the content of external resource.
+     * Loads an external resource with the hash sum and validator cached for it.
      *
      * @param location external resource location.
-     * @return array of bytes which represents the content of external resource in binary form.
-     * @throws IOException if error while loading occurs.
-     * @throws CheckstyleException if error while loading occurs.
+     * @return the {@link ExternalResource}.
      */
-    private static byte[] loadExternalResource(String location)
-            throws IOException, CheckstyleException {
-        final URI uri = CommonUtil.getUriByFilename(location);
+    private ExternalResource loadExternalResource(String location) {
+        final String name = getExternalResourceName(location);
+        final String cachedHashSum = getDetail(EXTERNAL_RESOURCE_KEY_PREFIX + name);
+        String cachedValidator = null;
+        if (cachedHashSum != null) {
+            cachedValidator = getDetail(EXTERNAL_RESOURCE_VALIDATOR_KEY_PREFIX + name);
+        }
+        return loadExternalResource(location, name, cachedHashSum, cachedValidator);
+    }
 
-        try (InputStream is = uri.toURL().openStream()) {
-            return toByteArray(is);
+    /**
+     * Returns the name of an external resource in cache, which is its location or, in
+     * content hash mode, the path of a resource given by its absolute path relative to
+     * the base directory with forward slashes, like the keys of files.
+     *
+     * @param location external resource location.
+     * @return the name of the resource in cache.
+     */
+    private String getExternalResourceName(String location) {
+        String name = location;
+        if (contentHashMode && new File(location).isAbsolute()) {
+            name = CommonUtil.relativizePath(basedir, location)
+                .replace(File.separatorChar, '/');
         }
+        return name;
     }
 
     /**
-     * Reads all the contents of an input stream and returns it as a byte array.
+     * Loads the hash sums of the contents of external resources, without any cached
+     * validators.
      *
-     * @param stream The input stream to read from.
-     * @return The resulting byte array of the stream.
-     * @throws IOException if there is an error reading the input stream.
+     * @param locations locations of external resources.
+     * @return the hash sums of the resources, by location.
      */
-    private static byte[] toByteArray(InputStream stream) throws IOException {
-        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+    static Map<String, String> loadExternalResourceHashSums(Set<String> locations) {
+        return locations.stream()
+            .collect(Collectors.toUnmodifiableMap(Function.identity(),
+                location -> loadExternalResource(location, location, null, null)
+                    .contentHashSum));
+    }
 
-        while (true) {
-            final int size = stream.read(BUFFER);
-            if (size == -1) {
-                break;
+    /**
+     * Loads an external resource, unless its validator shows it did not change since
+     * its hash sum was cached.
+     *
+     * @param location external resource location.
+     * @param name the name of the resource in cache.
+     * @param cachedHashSum the cached hash sum, or {@code null} if there is none.
+     * @param cachedValidator the cached validator, or {@code null} if there is none.
+     * @return the {@link ExternalResource}.
+     */
+    private static ExternalResource loadExternalResource(String location, String name,
+            String cachedHashSum, String cachedValidator) {
+        final String key = EXTERNAL_RESOURCE_KEY_PREFIX + name;
+        ExternalResource resource;
+        try {
+            final URI uri = CommonUtil.getUriByFilename(location);
+            if (FILE_SCHEME.equals(uri.getScheme())) {
+                resource = loadFileResource(key, Path.of(uri), cachedHashSum, cachedValidator);
+            }
+            else {
+                resource = loadUrlResource(key, uri.toURL(), cachedHashSum, cachedValidator);
             }
+        }
+        catch (CheckstyleException | IOException | IllegalArgumentException ex) {
+            // if exception happened (configuration resource was not found, connection is not
+            // available, resource is broken, etc.), we need to calculate hash sum based on
+            // exception object content in order to check whether problem is resolved later
+            // and/or the configuration is changed. The stack trace is left out, as it
+            // depends on the thread which loaded the resource.
+            final String contentHashSum = getHashCodeBasedOnObjectContent(describe(ex));
+            resource = new ExternalResource(key, contentHashSum, null);
+        }
+        return resource;
+    }
 
-            content.write(BUFFER, 0, size);
+    /**
+     * Describes an exception by the classes and messages of the exception and its causes.
+     *
+     * @param exception the exception.
+     * @return the description of the exception.
+     */
+    private static String describe(Exception exception) {
+        final StringBuilder description = new StringBuilder(64);
+        Throwable cause = exception;
+        while (cause != null) {
+            description.append(cause).append('\n');
+            cause = cause.getCause();
         }
+        return description.toString();
+    }
 
-        return content.toByteArray();
+    /**
+     * Loads an external resource which is a local file. Its validator is its last
+     * modification time and its size.
+     *
+     * @param key the key of the resource in cache.
+     * @param path the file.
+     * @param cachedHashSum the cached hash sum, or {@code null} if there is none.
+     * @param cachedValidator the cached validator, or {@code null} if there is none.
+     * @return the {@link ExternalResource}.
+     * @throws IOException if error while loading occurs.
+     */
+    private static ExternalResource loadFileResource(String key, Path path,
+            String cachedHashSum, String cachedValidator) throws IOException {
+        final BasicFileAttributes attributes =
+            Files.readAttributes(path, BasicFileAttributes.class);
+        final String validator = FILE_SCHEME + VALIDATOR_SEPARATOR
+            + attributes.lastModifiedTime().toMillis() + VALIDATOR_SEPARATOR
+            + attributes.size();
+        final String contentHashSum;
+        if (validator.equals(cachedValidator)) {
+            contentHashSum = cachedHashSum;
+        }
+        else {
+            contentHashSum = getHashCodeBasedOnObjectContent(Files.readAllBytes(path));
+        }
+        return new ExternalResource(key, contentHashSum, validator);
+    }
+
+    /**
+     * Loads an external resource from an URL. Over HTTP, the resource is requested on
+     * condition that it was modified since it was cached, and its validator is its
+     * last modification time and its entity tag. Other resources have no validator.
+     *
+     * @param key the key of the resource in cache.
+     * @param url the URL of the resource.
+     * @param cachedHashSum the cached hash sum, or {@code null} if there is none.
+     * @param cachedValidator the cached validator, or {@code null} if there is none.
+     * @return the {@link ExternalResource}.
+     * @throws IOException if error while loading occurs.
+     */
+    private static ExternalResource loadUrlResource(String key, URL url,
+            String cachedHashSum, String cachedValidator) throws IOException {
+        final URLConnection connection = url.openConnection();
+        ExternalResource resource = null;
+        if (connection instanceof HttpURLConnection) {
+            final HttpURLConnection httpConnection = (HttpURLConnection) connection;
+            final String[] parts;
+            if (cachedValidator == null) {
+                parts = CommonUtil.EMPTY_STRING_ARRAY;
+            }
+            else {
+                parts = cachedValidator.split(VALIDATOR_SEPARATOR, HTTP_VALIDATOR_PARTS);
+            }
+            if (parts.length == HTTP_VALIDATOR_PARTS
+                    && cachedValidator.startsWith(HTTP_VALIDATOR_PREFIX)) {
+                httpConnection.setIfModifiedSince(Long.parseLong(parts[1]));
+                if (!parts[2].isEmpty()) {
+                    httpConnection.setRequestProperty("If-None-Match", parts[2]);
+                }
+                if (httpConnection.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                    httpConnection.disconnect();
+                    resource = new ExternalResource(key, cachedHashSum, cachedValidator);
+                }
+            }
+        }
+        if (resource == null) {
+            final byte[] content;
+            try (InputStream is = connection.getInputStream()) {
+                content = is.readAllBytes();
+            }
+            resource = new ExternalResource(key, getHashCodeBasedOnObjectContent(content),
+                getHttpValidator(connection));
+        }
+        return resource;
+    }
+
+    /**
+     * Gets the validator of a resource loaded over HTTP, which is its last modification
+     * time and its entity tag.
+     *
+     * @param connection the connection the resource was loaded with.
+     * @return the validator, or {@code null} if the resource was not loaded over HTTP or
+     *     the server did not send any validator.
+     */
+    private static String getHttpValidator(URLConnection connection) {
+        String validator = null;
+        if (connection instanceof HttpURLConnection) {
+            final long lastModified = connection.getLastModified();
+            final String entityTag = Objects.requireNonNullElse(
+                connection.getHeaderField("ETag"), "");
+            if (lastModified != 0 || !entityTag.isEmpty()) {
+                validator = HTTP_VALIDATOR_PREFIX + lastModified + VALIDATOR_SEPARATOR
+                    + entityTag;
+            }
+        }
+        return validator;
     }
 
     /**
@@ -345,7 +922,7 @@ public final class PropertyCacheFile {
         boolean changed = false;
         if (isResourceLocationInCache(resource.location)) {
             final String contentHashSum = resource.contentHashSum;
-            final String cachedHashSum = details.getProperty(resource.location);
+            final String cachedHashSum = getDetail(resource.location);
             if (!cachedHashSum.equals(contentHashSum)) {
                 changed = true;
             }
@@ -357,14 +934,35 @@ public final class PropertyCacheFile {
     }
 
     /**
-     * Fills cache with a set of {@link ExternalResource}.
-     * If external resource from the set is already in cache, it will be skipped.
+     * Fills cache with a set of {@link ExternalResource} and their validators.
+     * Entries which are already in cache with the same value are skipped.
      *
      * @param externalResources a set of {@link ExternalResource}.
      */
     private void fillCacheWithExternalResources(Set<ExternalResource> externalResources) {
-        externalResources
-            .forEach(resource -> details.setProperty(resource.location, resource.contentHashSum));
+        for (ExternalResource resource : externalResources) {
+            updateDetail(resource.location, resource.contentHashSum);
+            final String validatorKey = EXTERNAL_RESOURCE_VALIDATOR_KEY_PREFIX
+                + resource.location.substring(EXTERNAL_RESOURCE_KEY_PREFIX.length());
+            if (resource.validator == null) {
+                removeDetail(validatorKey);
+            }
+            else {
+                updateDetail(validatorKey, resource.validator);
+            }
+        }
+    }
+
+    /**
+     * Sets the value of an entry of the cache, unless it already has this value.
+     *
+     * @param key the key of the entry
+     * @param value the value
+     */
+    private void updateDetail(String key, String value) {
+        if (!value.equals(getDetail(key))) {
+            setDetail(key, value);
+        }
     }
 
     /**
@@ -374,7 +972,7 @@ public final class PropertyCacheFile {
      * @return true if resource location is in cache.
      */
     private boolean isResourceLocationInCache(String location) {
-        final String cachedHashSum = details.getProperty(location);
+        final String cachedHashSum = getDetail(location);
         return cachedHashSum != null;
     }
 
@@ -387,16 +985,20 @@ public final class PropertyCacheFile {
         private final String location;
         /** Hash sum which is calculated based on resource content. */
         private final String contentHashSum;
+        /** Validator which tells whether resource changed, {@code null} if there is none. */
+        private final String validator;
 
         /**
          * Creates an instance.
          *
          * @param location resource location.
          * @param contentHashSum content hash sum.
+         * @param validator validator of the resource, or {@code null} if there is none.
          */
-        private ExternalResource(String location, String contentHashSum) {
+        private ExternalResource(String location, String contentHashSum, String validator) {
             this.location = location;
             this.contentHashSum = contentHashSum;
+            this.validator = validator;
         }
 
     }
@@ -0,0 +1,240 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * One of several shards of a set of files, so the files can be checked by several processes
+ * or machines which each check the files of one shard.
+ *
+ * <p>
+ * Each file is assigned to a shard by the 32-bit MurmurHash3, with seed 0, of the UTF-8 bytes
+ * of its path relative to a base directory, modulo the number of shards. The split thus
+ * depends only on the relative paths of the files, and not on their content, so every process
+ * computes the same split for the same relative paths, even if the files of one checkout have
+ * other line endings than another. Adding or removing files does not move other files to
+ * another shard. Shards get about the same number of files, but not necessarily the same
+ * total size.
+ * </p>
+ */
+public final class Shard {
+
+    /** Format of a shard, which is the index of the shard and the number of shards. */
+    private static final Pattern FORMAT = Pattern.compile("(\\d{1,9})/(\\d{1,9})");
+
+    /** First multiplier of the blocks of the hash. */
+    private static final int BLOCK_MULTIPLIER_1 = 0xcc9e2d51;
+
+    /** Second multiplier of the blocks of the hash. */
+    private static final int BLOCK_MULTIPLIER_2 = 0x1b873593;
+
+    /** Rotation of the blocks of the hash. */
+    private static final int BLOCK_ROTATION = 15;
+
+    /** Rotation of the hash after each block. */
+    private static final int HASH_ROTATION = 13;
+
+    /** Multiplier of the hash after each block. */
+    private static final int HASH_MULTIPLIER = 5;
+
+    /** Addend of the hash after each block. */
+    private static final int HASH_ADDEND = 0xe6546b64;
+
+    /** First multiplier of the final mix of the hash. */
+    private static final int FINAL_MULTIPLIER_1 = 0x85ebca6b;
+
+    /** Second multiplier of the final mix of the hash. */
+    private static final int FINAL_MULTIPLIER_2 = 0xc2b2ae35;
+
+    /** First and last shift of the final mix of the hash. */
+    private static final int FINAL_SHIFT_1 = 16;
+
+    /** Second shift of the final mix of the hash. */
+    private static final int FINAL_SHIFT_2 = 13;
+
+    /** Mask of the bits of a byte. */
+    private static final int BYTE_MASK = 0xff;
+
+    /** Index of the shard, starting at 1. */
+    private final int index;
+
+    /** Number of shards. */
+    private final int count;
+
+    /**
+     * Creates a new {@code Shard} instance.
+     *
+     * @param index index of the shard, starting at 1
+     * @param count number of shards
+     */
+    private Shard(int index, int count) {
+        this.index = index;
+        this.count = count;
+    }
+
+    /**
+     * Parses a shard given as {@code i/n}, where {@code i} is the index of the shard,
+     * starting at 1, and {@code n} is the number of shards.
+     *
+     * @param value the shard to parse
+     * @return the parsed shard
+     * @throws IllegalArgumentException if the value is not a valid shard
+     */
+    public static Shard parse(String value) {
+        final Matcher matcher = FORMAT.matcher(value);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException(getInvalidShardMessage(value));
+        }
+        final int index = Integer.parseInt(matcher.group(1));
+        final int count = Integer.parseInt(matcher.group(2));
+        if (index < 1 || index > count) {
+            throw new IllegalArgumentException(getInvalidShardMessage(value));
+        }
+        return new Shard(index, count);
+    }
+
+    /**
+     * Gets the index of the shard.
+     *
+     * @return index of the shard, starting at 1
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the number of shards.
+     *
+     * @return number of shards
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Selects the files of this shard.
+     *
+     * @param files the files to split between the shards
+     * @param baseDirectory the directory to compute the relative paths of the files from
+     * @return the files of this shard, in the order of the given files
+     */
+    public List<File> select(List<File> files, File baseDirectory) {
+        final Path basePath = baseDirectory.toPath().toAbsolutePath().normalize();
+        return files.stream()
+                .filter(file -> getShardIndex(toRelativePath(file, basePath)) == index)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + count;
+    }
+
+    /**
+     * Gets the index of the shard a relative path is assigned to.
+     *
+     * @param relativePath the relative path, separated by slashes
+     * @return index of the shard, starting at 1
+     */
+    private int getShardIndex(String relativePath) {
+        return Math.floorMod(murmur3(relativePath.getBytes(StandardCharsets.UTF_8)), count) + 1;
+    }
+
+    /**
+     * Gets the path of a file relative to the base directory, separated by slashes on
+     * every platform. Files on another root than the base directory keep their
+     * absolute path.
+     *
+     * @param file the file
+     * @param basePath the absolute path of the base directory
+     * @return the relative path of the file
+     */
+    private static String toRelativePath(File file, Path basePath) {
+        final Path path = file.toPath().toAbsolutePath().normalize();
+        Path result = path;
+        if (path.getRoot().equals(basePath.getRoot())) {
+            result = basePath.relativize(path);
+        }
+        return result.toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * Computes the 32-bit MurmurHash3 (x86 variant) of bytes with seed 0, which is the same
+     * on every JVM and platform.
+     *
+     * @param data the bytes to hash
+     * @return the hash
+     */
+    static int murmur3(byte[] data) {
+        final int blocksLength = data.length - data.length % Integer.BYTES;
+        int hash = 0;
+        for (int offset = 0; offset < blocksLength; offset += Integer.BYTES) {
+            int block = 0;
+            for (int byteIndex = Integer.BYTES - 1; byteIndex >= 0; byteIndex--) {
+                block = block << Byte.SIZE | data[offset + byteIndex] & BYTE_MASK;
+            }
+            hash ^= mixBlock(block);
+            hash = Integer.rotateLeft(hash, HASH_ROTATION) * HASH_MULTIPLIER + HASH_ADDEND;
+        }
+        int tail = 0;
+        for (int offset = data.length - 1; offset >= blocksLength; offset--) {
+            tail = tail << Byte.SIZE | data[offset] & BYTE_MASK;
+        }
+        hash ^= mixBlock(tail);
+        hash ^= data.length;
+        hash ^= hash >>> FINAL_SHIFT_1;
+        hash *= FINAL_MULTIPLIER_1;
+        hash ^= hash >>> FINAL_SHIFT_2;
+        hash *= FINAL_MULTIPLIER_2;
+        hash ^= hash >>> FINAL_SHIFT_1;
+        return hash;
+    }
+
+    /**
+     * Mixes a block of four bytes, or the remaining bytes, into the form it is combined
+     * with the hash in.
+     *
+     * @param block the block, its first byte as the least significant one
+     * @return the mixed block
+     */
+    private static int mixBlock(int block) {
+        return Integer.rotateLeft(block * BLOCK_MULTIPLIER_1, BLOCK_ROTATION)
+                * BLOCK_MULTIPLIER_2;
+    }
+
+    /**
+     * Gets the message for an invalid shard.
+     *
+     * @param value the invalid shard
+     * @return the message
+     */
+    private static String getInvalidShardMessage(String value) {
+        return "Invalid shard '" + value
+                + "', expected i/n where i is between 1 and the number of shards n.";
+    }
+
+}
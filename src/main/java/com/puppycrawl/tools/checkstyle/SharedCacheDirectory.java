@@ -0,0 +1,335 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+/**
+ * A directory of the violations of files, addressed by the digest of the content and the
+ * path of a file together with the fingerprint of the configuration and the contents of its
+ * external resources, so several processes, working copies and machines sharing the
+ * directory reuse the results of each other.
+ *
+ * <p>Every entry is a file of its own, which is written to a temporary file first and then
+ * moved in place, so concurrent readers see either no entry or a complete one. Entries are
+ * touched when they are read, and the least recently used ones are evicted when the size
+ * of the directory exceeds its limit. Failures to access the directory are ignored, the
+ * files are checked as if they were not cached.</p>
+ */
+final class SharedCacheDirectory {
+
+    /** Suffix of the temporary files entries are written to. */
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    /** Number of hex digits of the digest naming the subdirectory of an entry. */
+    private static final int SUBDIRECTORY_LENGTH = 2;
+
+    /** Mask of a hex digit. */
+    private static final int HEX_DIGIT_MASK = 0xF;
+
+    /** Number of bits of a hex digit. */
+    private static final int HEX_DIGIT_BITS = 4;
+
+    /** Default number for base 16 encoding. */
+    private static final int BASE_16 = 16;
+
+    /** The directory of the entries. */
+    private final Path directory;
+
+    /** Names of the entries of files, by absolute and reported path, computed during the run. */
+    private final Map<String, String> entryNames = new ConcurrentHashMap<>();
+
+    /** Fingerprint of the configuration the entries are valid for. */
+    private String configurationFingerprint = "";
+
+    /** Sorted hash sums of the contents of the external resources of the configuration. */
+    private String externalResourcesFingerprint = "";
+
+    /**
+     * Creates a new {@code SharedCacheDirectory} instance.
+     *
+     * @param directory the directory of the entries
+     */
+    SharedCacheDirectory(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Sets the fingerprint of the configuration, which is part of the address of entries.
+     * Addresses computed before are discarded.
+     *
+     * @param configurationFingerprint the fingerprint of the configuration
+     */
+    void setConfigurationFingerprint(String configurationFingerprint) {
+        this.configurationFingerprint = configurationFingerprint;
+        entryNames.clear();
+    }
+
+    /**
+     * Sets the external resources of the configuration, like suppression files, whose
+     * contents are part of the address of entries. Their locations are not, as they may
+     * differ between working copies. Addresses computed before are discarded.
+     *
+     * @param locations the locations of the external resources
+     */
+    void setExternalResources(Set<String> locations) {
+        externalResourcesFingerprint = PropertyCacheFile.loadExternalResourceHashSums(locations)
+                .values().stream()
+                .sorted()
+                .collect(Collectors.joining("\n"));
+        entryNames.clear();
+    }
+
+    /**
+     * Retrieves the violations of a file and marks its entry as recently used.
+     *
+     * @param file the file
+     * @param path the path of the file as it is reported, relative to the base directory
+     * @param classLoader the class loader of the modules which are the sources of violations
+     * @return the violations of the file, or {@code null} if there is no valid entry
+     */
+    SortedSet<Violation> get(File file, String path, ClassLoader classLoader) {
+        SortedSet<Violation> result = null;
+        final Path entry = getEntry(file, path);
+        if (entry != null) {
+            try {
+                result = ViolationCodec.decode(Files.readString(entry), classLoader);
+                Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            }
+            catch (IOException ignored) {
+                // there is no entry, or it was evicted by another process meanwhile
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether there is an entry for a file.
+     *
+     * @param file the file
+     * @param path the path of the file as it is reported, relative to the base directory
+     * @return whether there is an entry for the file
+     */
+    boolean contains(File file, String path) {
+        final Path entry = getEntry(file, path);
+        return entry != null && Files.exists(entry);
+    }
+
+    /**
+     * Records the violations of a file. The entry is written to a temporary file, which
+     * atomically replaces the existing entry, if any.
+     *
+     * @param file the file
+     * @param path the path of the file as it is reported, relative to the base directory
+     * @param violations the violations accepted by all filters
+     */
+    void put(File file, String path, SortedSet<Violation> violations) {
+        final Path entry = getEntry(file, path);
+        final String encodedViolations = ViolationCodec.encode(violations);
+        if (entry != null && encodedViolations != null) {
+            try {
+                final Path parent = entry.getParent();
+                Files.createDirectories(parent);
+                final Path temporary = Files.createTempFile(parent,
+                        entry.getFileName().toString(), TEMPORARY_SUFFIX);
+                try {
+                    Files.writeString(temporary, encodedViolations);
+                    move(temporary, entry);
+                }
+                finally {
+                    Files.deleteIfExists(temporary);
+                }
+            }
+            catch (IOException ignored) {
+                // the violations are not shared, the file is checked again next time
+            }
+        }
+    }
+
+    /**
+     * Removes the entry of a file.
+     *
+     * @param file the file
+     * @param path the path of the file as it is reported, relative to the base directory
+     */
+    void remove(File file, String path) {
+        final Path entry = getEntry(file, path);
+        if (entry != null) {
+            deleteEntry(entry);
+        }
+    }
+
+    /**
+     * Evicts the least recently used entries until the size of the directory does not exceed
+     * the given limit. Temporary files left by processes which were killed are evicted as
+     * entries.
+     *
+     * @param maxSize the maximum size of the directory, in bytes
+     */
+    void evict(long maxSize) {
+        final Map<Path, BasicFileAttributes> entries = new HashMap<>();
+        try (Stream<Path> paths = Files.find(directory, 2,
+                (path, attributes) -> attributes.isRegularFile())) {
+            paths.forEach(path -> readAttributes(path, entries));
+        }
+        catch (IOException | UncheckedIOException ignored) {
+            // there is nothing to evict, or the directory is changed by another process
+        }
+        long size = entries.values().stream()
+                .mapToLong(BasicFileAttributes::size)
+                .sum();
+        final Iterator<Map.Entry<Path, BasicFileAttributes>> leastRecentlyUsed =
+                entries.entrySet().stream()
+                    .sorted(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()))
+                    .iterator();
+        while (size > maxSize && leastRecentlyUsed.hasNext()) {
+            final Map.Entry<Path, BasicFileAttributes> entry = leastRecentlyUsed.next();
+            size -= entry.getValue().size();
+            deleteEntry(entry.getKey());
+        }
+    }
+
+    /**
+     * Returns the entry of a file, named after the digest of the fingerprint of the
+     * configuration, the contents of its external resources, the path and the content of
+     * the file.
+     *
+     * @param file the file
+     * @param path the path of the file as it is reported, relative to the base directory
+     * @return the entry of the file, or {@code null} if the file can not be read
+     */
+    private Path getEntry(File file, String path) {
+        final String name = entryNames.computeIfAbsent(file.getAbsolutePath() + '\n' + path,
+            key -> getEntryName(file.toPath(), path));
+        Path entry = null;
+        if (!name.isEmpty()) {
+            entry = directory.resolve(name.substring(0, SUBDIRECTORY_LENGTH))
+                    .resolve(name.substring(SUBDIRECTORY_LENGTH));
+        }
+        return entry;
+    }
+
+    /**
+     * Calculates the name of the entry of a file.
+     *
+     * @param file the file
+     * @param path the path of the file as it is reported
+     * @return the name of the entry, or an empty string if the file can not be read
+     * @throws IllegalStateException if the digest algorithm is not available
+     */
+    private String getEntryName(Path file, String path) {
+        String result = "";
+        try {
+            final byte[] content = Files.readAllBytes(file);
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(configurationFingerprint.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(externalResourcesFingerprint.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(path.replace(File.separatorChar, '/')
+                    .getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(content);
+            final StringBuilder name = new StringBuilder(64);
+            for (final byte value : digest.digest()) {
+                name.append(Character.forDigit(value >> HEX_DIGIT_BITS & HEX_DIGIT_MASK, BASE_16))
+                    .append(Character.forDigit(value & HEX_DIGIT_MASK, BASE_16));
+            }
+            result = name.toString();
+        }
+        catch (IOException ignored) {
+            // the file is checked, which reports the problem
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Unable to calculate digest.", ex);
+        }
+        return result;
+    }
+
+    /**
+     * Moves a temporary file in place of an entry, atomically if the file system
+     * supports it.
+     *
+     * @param temporary the temporary file
+     * @param entry the entry
+     * @throws IOException if the file can not be moved
+     */
+    private static void move(Path temporary, Path entry) throws IOException {
+        try {
+            Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException ignored) {
+            Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads the attributes of an entry, unless it was removed meanwhile.
+     *
+     * @param entry the entry
+     * @param attributes the attributes of entries to add to
+     */
+    private static void readAttributes(Path entry, Map<Path, BasicFileAttributes> attributes) {
+        try {
+            attributes.put(entry, Files.readAttributes(entry, BasicFileAttributes.class));
+        }
+        catch (IOException ignored) {
+            // the entry was removed by another process
+        }
+    }
+
+    /**
+     * Deletes an entry, which may have been removed by another process already.
+     *
+     * @param entry the entry
+     */
+    private static void deleteEntry(Path entry) {
+        try {
+            Files.deleteIfExists(entry);
+        }
+        catch (IOException ignored) {
+            // the entry is in use or can not be deleted, it is evicted later
+        }
+    }
+
+}
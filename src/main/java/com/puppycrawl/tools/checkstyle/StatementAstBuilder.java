@@ -0,0 +1,117 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+import com.puppycrawl.tools.checkstyle.grammar.java.JavaLanguageParser;
+
+/**
+ * Parse listener that builds the AST of every block statement as soon as the parser
+ * exits it, instead of waiting for the parse tree of the whole compilation unit.
+ * The parse subtree of a converted statement is released right away, so at any moment
+ * only the parse trees of the statements being parsed and of the declarations around
+ * them are kept in memory, and the full parse tree of a file is never materialized.
+ * The built ASTs are picked up by the {@link JavaAstVisitor} when it visits
+ * the remaining parse tree.
+ *
+ * <p>The parser also exits the rules it is in when it gives up on a syntax error,
+ * so a statement is only converted once the parser moves on to the next token or rule,
+ * which never happens for a statement left incomplete by an error.</p>
+ */
+final class StatementAstBuilder implements ParseTreeListener {
+
+    /** Visitor that builds the ASTs of the statements. */
+    private final JavaAstVisitor visitor;
+
+    /** Statements exited by the parser and not converted yet. */
+    private final Deque<ParserRuleContext> exitedStatements = new ArrayDeque<>();
+
+    /**
+     * Creates a new {@code StatementAstBuilder} instance.
+     *
+     * @param visitor the visitor to build the ASTs of the statements with
+     */
+    /* package */ StatementAstBuilder(JavaAstVisitor visitor) {
+        this.visitor = visitor;
+    }
+
+    @Override
+    public void visitTerminal(TerminalNode node) {
+        buildExitedStatements();
+    }
+
+    @Override
+    public void visitErrorNode(ErrorNode node) {
+        // no code
+    }
+
+    @Override
+    public void enterEveryRule(ParserRuleContext ctx) {
+        buildExitedStatements();
+    }
+
+    @Override
+    public void exitEveryRule(ParserRuleContext ctx) {
+        if (ctx instanceof JavaLanguageParser.BlockStatementContext) {
+            exitedStatements.add(ctx);
+        }
+    }
+
+    /**
+     * Builds the ASTs of the exited statements and releases their parse trees.
+     */
+    private void buildExitedStatements() {
+        while (!exitedStatements.isEmpty()) {
+            final ParserRuleContext statement = exitedStatements.poll();
+            visitor.buildAhead(statement);
+            releaseChildren(statement);
+        }
+    }
+
+    /**
+     * Drops the children of the given parse tree and of all its descendants.
+     * The parse tree must not be visited for anything but its prebuilt AST afterwards.
+     *
+     * @param ctx the root of the parse tree to release
+     */
+    private static void releaseChildren(ParserRuleContext ctx) {
+        final Deque<ParserRuleContext> contexts = new ArrayDeque<>();
+        contexts.push(ctx);
+        while (!contexts.isEmpty()) {
+            final ParserRuleContext context = contexts.pop();
+            if (context.children != null) {
+                for (ParseTree child : context.children) {
+                    if (child instanceof ParserRuleContext) {
+                        contexts.push((ParserRuleContext) child);
+                    }
+                }
+                context.children = null;
+            }
+        }
+    }
+}
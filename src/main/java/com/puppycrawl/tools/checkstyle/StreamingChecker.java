@@ -0,0 +1,289 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+
+/**
+ * Checks sources read from a stream and writes their violations to another stream as JSON
+ * objects, one per line, so editors can check unsaved content with a process which keeps
+ * the configuration loaded.
+ *
+ * <p>Each source is preceded by a header line with the length of its content in bytes,
+ * optionally followed by a space and the name of the source. Sources without a name are
+ * named by the default file. The content is decoded with the charset of the configuration.
+ * For each source, a line is written for every violation once the source is checked,
+ * followed by a line which finishes the source. The checker reports the violations of a
+ * source only after all checks and filters have run on it, so they can not be streamed
+ * while the source is checked; each line is flushed as soon as it is written though:</p>
+ * <pre>
+ * {"type":"violation","file":"Foo.java","line":1,"column":7,"severity":"error",
+ *     "message":"...","source":"..."}
+ * {"type":"finished","file":"Foo.java","errors":1}
+ * </pre>
+ *
+ * <p>If a source can not be checked, a line of type {@code failed} with the message of the
+ * exception is written instead of the finishing line, and the next sources are checked.</p>
+ */
+final class StreamingChecker {
+
+    /** The name of the property of the charset of the checker. */
+    private static final String CHARSET_PROPERTY = "charset";
+
+    /** The separator of the length and the name of a source in its header. */
+    private static final char HEADER_SEPARATOR = ' ';
+
+    /** The end of a header line. */
+    private static final int END_OF_LINE = '\n';
+
+    /** The configuration of the checker. */
+    private final Configuration configuration;
+
+    /** The file which names the sources without a name of their own. */
+    private final File defaultFile;
+
+    /**
+     * Creates a new {@code StreamingChecker} instance.
+     *
+     * @param configuration the configuration of the checker
+     * @param defaultFile the file which names the sources without a name of their own
+     */
+    StreamingChecker(Configuration configuration, File defaultFile) {
+        this.configuration = configuration;
+        this.defaultFile = defaultFile;
+    }
+
+    /**
+     * Checks the sources of a stream until its end.
+     *
+     * @param input the stream to read the sources from
+     * @param output the stream to write the violations to
+     * @return the number of errors found in all sources
+     * @throws CheckstyleException if the checker can not be configured, or a header is invalid
+     * @throws IOException if the streams can not be read or written
+     */
+    int run(InputStream input, OutputStream output)
+            throws CheckstyleException, IOException {
+        final InputStream bufferedInput = new BufferedInputStream(input);
+        final PrintWriter writer = new PrintWriter(
+                new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        final AuditListener listener = new JsonLinesListener(writer);
+        final String charset = getCharset();
+        int errorCount = 0;
+        try (CheckerPool pool =
+                new CheckerPool(configuration, Checker.class.getClassLoader(), 1)) {
+            String header = readHeader(bufferedInput);
+            while (header != null) {
+                final FileText source = readSource(bufferedInput, header, charset);
+                errorCount += check(pool, source, listener, writer);
+                header = readHeader(bufferedInput);
+            }
+        }
+        return errorCount;
+    }
+
+    /**
+     * Returns the charset of the checker.
+     *
+     * @return the name of the charset
+     * @throws CheckstyleException if the charset can not be read from the configuration
+     */
+    private String getCharset() throws CheckstyleException {
+        String result = StandardCharsets.UTF_8.name();
+        if (Arrays.asList(configuration.getPropertyNames()).contains(CHARSET_PROPERTY)) {
+            result = configuration.getProperty(CHARSET_PROPERTY);
+        }
+        return result;
+    }
+
+    /**
+     * Checks a source and writes the line which finishes it.
+     *
+     * @param pool the pool of the checker
+     * @param source the source
+     * @param listener the listener which writes the violations
+     * @param writer the writer of the lines
+     * @return the number of errors found in the source
+     */
+    private static int check(CheckerPool pool, FileText source, AuditListener listener,
+            PrintWriter writer) {
+        final String fileName = SarifLogger.escape(source.getFile().getAbsolutePath());
+        int errorCount = 0;
+        try {
+            errorCount = pool.processFileTexts(List.of(source), List.of(listener));
+            writeLine(writer, "{\"type\":\"finished\",\"file\":\"" + fileName
+                    + "\",\"errors\":" + errorCount + "}");
+        }
+        catch (CheckstyleException ex) {
+            writeLine(writer, "{\"type\":\"failed\",\"file\":\"" + fileName
+                    + "\",\"message\":\"" + SarifLogger.escape(String.valueOf(ex.getMessage()))
+                    + "\"}");
+        }
+        writer.flush();
+        return errorCount;
+    }
+
+    /**
+     * Writes a line which ends with a line feed on every platform.
+     *
+     * @param writer the writer of the lines
+     * @param line the line
+     */
+    private static void writeLine(PrintWriter writer, String line) {
+        writer.print(line);
+        writer.print((char) END_OF_LINE);
+    }
+
+    /**
+     * Reads the header line of the next source.
+     *
+     * @param input the stream to read from
+     * @return the header without the end of line, or {@code null} at the end of the stream
+     * @throws IOException if the stream can not be read
+     */
+    private static String readHeader(InputStream input) throws IOException {
+        final ByteArrayOutputStream header = new ByteArrayOutputStream();
+        int next = input.read();
+        final boolean ended = next == -1;
+        while (next != -1 && next != END_OF_LINE) {
+            header.write(next);
+            next = input.read();
+        }
+        String result = null;
+        if (!ended) {
+            result = header.toString(StandardCharsets.UTF_8).strip();
+        }
+        return result;
+    }
+
+    /**
+     * Reads the content of a source.
+     *
+     * @param input the stream to read from
+     * @param header the header of the source
+     * @param charset the charset of the content
+     * @return the source
+     * @throws CheckstyleException if the header is invalid, or the stream ends before
+     *     the content
+     * @throws IOException if the stream can not be read
+     */
+    private FileText readSource(InputStream input, String header, String charset)
+            throws CheckstyleException, IOException {
+        final int separator = header.indexOf(HEADER_SEPARATOR);
+        String length = header;
+        File file = defaultFile;
+        if (separator >= 0) {
+            length = header.substring(0, separator);
+            file = new File(header.substring(separator + 1));
+        }
+        final int contentLength;
+        try {
+            contentLength = Integer.parseUnsignedInt(length);
+        }
+        catch (NumberFormatException ex) {
+            throw new CheckstyleException("Invalid header of source: " + header, ex);
+        }
+        final byte[] content = input.readNBytes(contentLength);
+        if (content.length < contentLength) {
+            throw new CheckstyleException("Unexpected end of input in source " + file);
+        }
+        return new FileText(file, charset, content);
+    }
+
+    /**
+     * Writes violations as JSON objects, one per line, and flushes every line.
+     */
+    private static final class JsonLinesListener implements AuditListener {
+
+        /** The writer of the lines. */
+        private final PrintWriter writer;
+
+        /**
+         * Creates a new {@code JsonLinesListener} instance.
+         *
+         * @param writer the writer of the lines
+         */
+        private JsonLinesListener(PrintWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void auditStarted(AuditEvent event) {
+            // No code needed
+        }
+
+        @Override
+        public void auditFinished(AuditEvent event) {
+            // No code needed
+        }
+
+        @Override
+        public void fileStarted(AuditEvent event) {
+            // No code needed
+        }
+
+        @Override
+        public void fileFinished(AuditEvent event) {
+            writer.flush();
+        }
+
+        @Override
+        public void addError(AuditEvent event) {
+            if (event.getSeverityLevel() != SeverityLevel.IGNORE) {
+                writeLine(writer, "{\"type\":\"violation\",\"file\":\""
+                        + SarifLogger.escape(event.getFileName())
+                        + "\",\"line\":" + event.getLine()
+                        + ",\"column\":" + event.getColumn()
+                        + ",\"severity\":\"" + event.getSeverityLevel().getName()
+                        + "\",\"message\":\"" + SarifLogger.escape(event.getMessage())
+                        + "\",\"source\":\"" + SarifLogger.escape(event.getSourceName())
+                        + "\"}");
+                writer.flush();
+            }
+        }
+
+        @Override
+        public void addException(AuditEvent event, Throwable throwable) {
+            writeLine(writer, "{\"type\":\"exception\",\"file\":\""
+                    + SarifLogger.escape(event.getFileName())
+                    + "\",\"message\":\"" + SarifLogger.escape(String.valueOf(throwable))
+                    + "\"}");
+        }
+
+    }
+
+}
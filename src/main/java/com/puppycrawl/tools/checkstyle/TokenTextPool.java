@@ -0,0 +1,147 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.Vocabulary;
+
+import com.puppycrawl.tools.checkstyle.grammar.java.JavaLanguageLexer;
+
+/**
+ * Pool of the texts of tokens, shared by the ASTs built during a run. Keywords and
+ * operators get canonical constants, other texts, like identifiers and literals, are kept
+ * once per pool, so equal texts in different files are the same instance. The pool is not
+ * thread safe, every thread building ASTs needs its own pool.
+ */
+public final class TokenTextPool {
+
+    /** Canonical texts of the tokens which always have the same text, by token type. */
+    private static final String[] FIXED_TEXTS = createFixedTexts();
+
+    /** The pooled texts. */
+    private final Map<String, String> texts = new HashMap<>();
+
+    /** The number of texts requested from the pool. */
+    private long lookupsNumber;
+
+    /** The number of texts found in the pool or among the canonical constants. */
+    private long hitsNumber;
+
+    /**
+     * Creates the canonical texts of the tokens, from their literal names in the lexer.
+     *
+     * @return the canonical texts, by token type
+     */
+    private static String[] createFixedTexts() {
+        final Vocabulary vocabulary = JavaLanguageLexer.VOCABULARY;
+        final String[] result = new String[vocabulary.getMaxTokenType() + 1];
+        for (int type = 0; type < result.length; type++) {
+            final String literalName = vocabulary.getLiteralName(type);
+            if (literalName != null) {
+                result[type] = literalName.substring(1, literalName.length() - 1).intern();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the text of the token, the same instance for equal texts. The text of
+     * keywords and operators is returned without reading the token text at all.
+     *
+     * @param token the token
+     * @return the pooled text of the token
+     */
+    public String getText(Token token) {
+        lookupsNumber++;
+        String result = getFixedText(token.getType());
+        if (result == null) {
+            final String text = token.getText();
+            result = texts.putIfAbsent(text, text);
+            if (result == null) {
+                result = text;
+            }
+            else {
+                hitsNumber++;
+            }
+        }
+        else {
+            hitsNumber++;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the canonical text of the tokens of the given type.
+     *
+     * @param type the token type
+     * @return the canonical text, or {@code null} if tokens of the type have various texts
+     */
+    private static String getFixedText(int type) {
+        String result = null;
+        if (type >= 0 && type < FIXED_TEXTS.length) {
+            result = FIXED_TEXTS[type];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of texts requested from the pool.
+     *
+     * @return the number of lookups
+     */
+    public long getLookupsNumber() {
+        return lookupsNumber;
+    }
+
+    /**
+     * Returns the number of texts which were already in the pool, or were canonical.
+     *
+     * @return the number of hits
+     */
+    public long getHitsNumber() {
+        return hitsNumber;
+    }
+
+    /**
+     * Returns the share of lookups which were hits.
+     *
+     * @return the hit rate, between 0 and 1, or 0 if there were no lookups
+     */
+    public double getHitRate() {
+        double result = 0;
+        if (lookupsNumber > 0) {
+            result = (double) hitsNumber / lookupsNumber;
+        }
+        return result;
+    }
+
+    /**
+     * Empties the pool and resets its statistics.
+     */
+    public void clear() {
+        texts.clear();
+        lookupsNumber = 0;
+        hitsNumber = 0;
+    }
+
+}
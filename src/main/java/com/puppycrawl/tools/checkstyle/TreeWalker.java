@@ -20,19 +20,26 @@
 package com.puppycrawl.tools.checkstyle;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
@@ -57,6 +64,12 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
     /** Message to use when an exception occurs and should be printed as a violation. */
     public static final String PARSE_EXCEPTION_MSG = "parse.exception";
 
+    /** Logger for TreeWalker. */
+    private static final Log LOG = LogFactory.getLog(TreeWalker.class);
+
+    /** Multiplier of a rate to get a percentage. */
+    private static final int PERCENT = 100;
+
     /** Maps from token name to ordinary checks. */
     private final Map<Integer, Set<AbstractCheck>> tokenToOrdinaryChecks =
         new HashMap<>();
@@ -71,12 +84,32 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
     /** Registered comment checks. */
     private final Set<AbstractCheck> commentChecks = createNewCheckSortedSet();
 
+    /** Configurations of the registered checks. */
+    private final Map<AbstractCheck, Configuration> checkConfigurations = new HashMap<>();
+
+    /**
+     * Subsets of the checks walked while a check filter is set, each with the checks
+     * interested in every token, by the subset.
+     */
+    private final Map<Set<AbstractCheck>,
+            Map.Entry<Set<AbstractCheck>, Map<Integer, Set<AbstractCheck>>>> selectedChecks =
+                new HashMap<>();
+
     /** The ast filters. */
     private final Set<TreeWalkerFilter> filters = new HashSet<>();
 
     /** The sorted set of violations. */
     private final SortedSet<Violation> violations = new TreeSet<>();
 
+    /** Pool of the texts of tokens, shared by the ASTs of the files of a run. */
+    private final TokenTextPool textPool = new TokenTextPool();
+
+    /**
+     * Walks the AST with groups of the checks on several threads, {@code null} if the AST
+     * is walked on the calling thread only.
+     */
+    private ConcurrentTreeWalker treeWalker;
+
     /** Context of child components. */
     private Context childContext;
 
@@ -89,6 +122,13 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
     /** Specify severity Level to log Java parsing exceptions when they are skipped. */
     private SeverityLevel javaParseExceptionSeverity = SeverityLevel.ERROR;
 
+    /** Specify the directory which caches the parsed ASTs of files by their content. */
+    @XdocsPropertyType(PropertyType.FILE)
+    private AstCache astCacheDirectory;
+
+    /** Selects the checks which process files, all checks do if {@code null}. */
+    private Predicate<AbstractCheck> checkFilter;
+
     /**
      * Creates a new {@code TreeWalker} instance.
      */
@@ -127,8 +167,59 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
         this.javaParseExceptionSeverity = javaParseExceptionSeverity;
     }
 
+    /**
+     * Setter to specify the directory which caches the parsed ASTs of files by their
+     * content, so runs with other configurations over the same files do not parse them.
+     *
+     *  @param astCacheDirectory the directory of the cached ASTs.
+     *  @since 10.19.0
+     */
+    public void setAstCacheDirectory(String astCacheDirectory) {
+        this.astCacheDirectory = new AstCache(Path.of(astCacheDirectory));
+    }
+
+    /**
+     * Restricts the checks which process the next files to the selected ones, until
+     * the filter is reset with {@code null}.
+     *
+     * @param checkFilter selects the checks to run, or {@code null} to run all checks
+     */
+    void setCheckFilter(Predicate<AbstractCheck> checkFilter) {
+        this.checkFilter = checkFilter;
+    }
+
+    /**
+     * Returns the configurations of the checks, by check.
+     *
+     * @return the configurations of the checks
+     */
+    Map<AbstractCheck, Configuration> getCheckConfigurations() {
+        return Collections.unmodifiableMap(checkConfigurations);
+    }
+
+    /**
+     * Checks whether any filter depends on the path of files.
+     *
+     * @return true if a filter is annotated with {@link PathDependentCheck}
+     */
+    boolean hasPathDependentFilters() {
+        return filters.stream().anyMatch(filter -> {
+            return filter.getClass().isAnnotationPresent(PathDependentCheck.class);
+        });
+    }
+
     @Override
     public void finishLocalSetup() {
+        int threadsNumber = 1;
+        final Configuration configuration = getConfiguration();
+        if (configuration instanceof DefaultConfiguration) {
+            threadsNumber = ((DefaultConfiguration) configuration).getThreadModeSettings()
+                    .getTreeWalkerThreadsNumber();
+        }
+        if (threadsNumber > 1) {
+            treeWalker = new ConcurrentTreeWalker(threadsNumber);
+        }
+
         final DefaultContext checkContext = new DefaultContext();
         checkContext.add("severity", getSeverity());
         checkContext.add("tabWidth", String.valueOf(getTabWidth()));
@@ -163,6 +254,7 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
             final AbstractCheck check = (AbstractCheck) module;
             check.init();
             registerCheck(check);
+            checkConfigurations.put(check, childConf);
         }
         else if (module instanceof TreeWalkerFilter) {
             final TreeWalkerFilter filter = (TreeWalkerFilter) module;
@@ -189,10 +281,23 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
         if (!ordinaryChecks.isEmpty() || !commentChecks.isEmpty()) {
             final FileContents contents = getFileContents();
             DetailAST rootAST = null;
+            AstCache.CachedAst cachedAst = null;
+            if (astCacheDirectory != null) {
+                cachedAst = astCacheDirectory.get(fileText);
+            }
             // whether skip the procedure after parsing Java files.
             boolean skip = false;
             try {
-                rootAST = JavaParser.parse(contents);
+                if (cachedAst == null) {
+                    rootAST = JavaParser.parse(contents, textPool);
+                    if (astCacheDirectory != null) {
+                        astCacheDirectory.put(fileText, rootAST, contents);
+                    }
+                }
+                else {
+                    rootAST = cachedAst.build();
+                    cachedAst.reportComments(contents);
+                }
             }
             // -@cs[IllegalCatch] There is no other way to obey skipFileOnJavaParseException field
             catch (Exception ex) {
@@ -207,13 +312,7 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
             }
 
             if (!skip) {
-                if (!ordinaryChecks.isEmpty()) {
-                    walk(rootAST, contents, AstState.ORDINARY);
-                }
-                if (!commentChecks.isEmpty()) {
-                    final DetailAST astWithComments = JavaParser.appendHiddenCommentNodes(rootAST);
-                    walk(astWithComments, contents, AstState.WITH_COMMENTS);
-                }
+                rootAST = walkFused(rootAST, contents);
                 if (filters.isEmpty()) {
                     addViolations(violations);
                 }
@@ -227,6 +326,31 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
         }
     }
 
+    /**
+     * Walks the parsed AST with all checks at once. Comment checks walk a view of the
+     * AST with its comment nodes, which is only made if comment checks are registered.
+     *
+     * @param rootAST the root of the parsed AST
+     * @param contents the contents of the file the AST was generated from
+     * @return the root of the walked AST, with comments if comment checks are registered
+     * @throws CheckstyleException if the walk is interrupted
+     */
+    private DetailAST walkFused(DetailAST rootAST, FileContents contents)
+            throws CheckstyleException {
+        final Map.Entry<Set<AbstractCheck>, Map<Integer, Set<AbstractCheck>>> ordinary =
+                selectChecks(ordinaryChecks, tokenToOrdinaryChecks);
+        final Map.Entry<Set<AbstractCheck>, Map<Integer, Set<AbstractCheck>>> comment =
+                selectChecks(commentChecks, tokenToCommentChecks);
+        DetailAST result = rootAST;
+        AstWithComments view = null;
+        if (!comment.getKey().isEmpty()) {
+            view = new AstWithComments(rootAST);
+            result = view.getRoot();
+        }
+        walk(rootAST, view, contents, ordinary, comment);
+        return result;
+    }
+
     /**
      * Returns filtered set of {@link Violation}.
      *
@@ -319,17 +443,57 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
     }
 
     /**
-     * Initiates the walk of an AST.
+     * Selects the checks which process the file among the given checks.
+     *
+     * @param walkChecks the checks.
+     * @param tokenToWalkChecks maps from token id to the checks interested in it.
+     * @return the selected checks with the selected checks interested in every token.
+     */
+    private Map.Entry<Set<AbstractCheck>, Map<Integer, Set<AbstractCheck>>> selectChecks(
+            Set<AbstractCheck> walkChecks, Map<Integer, Set<AbstractCheck>> tokenToWalkChecks) {
+        Map.Entry<Set<AbstractCheck>, Map<Integer, Set<AbstractCheck>>> result =
+                Map.entry(walkChecks, tokenToWalkChecks);
+        if (checkFilter != null) {
+            final Set<AbstractCheck> selected = walkChecks.stream()
+                    .filter(checkFilter)
+                    .collect(Collectors.toCollection(TreeWalker::createNewCheckSortedSet));
+            result = selectedChecks.computeIfAbsent(selected,
+                key -> Map.entry(key, selectTokenToChecks(key, tokenToWalkChecks)));
+        }
+        return result;
+    }
+
+    /**
+     * Walks an AST with the given checks, on several threads if checks walk in parallel
+     * groups, on the calling thread otherwise.
      *
      * @param ast the root AST
+     * @param view the view of the AST with comments, {@code null} if there are no comment
+     *     checks
      * @param contents the contents of the file the AST was generated from.
-     * @param astState state of AST.
+     * @param ordinary the ordinary checks with the checks interested in every token.
+     * @param comment the comment checks with the checks interested in every token.
+     * @throws CheckstyleException if interrupted while walking the AST
      */
-    private void walk(DetailAST ast, FileContents contents,
-            AstState astState) {
-        notifyBegin(ast, contents, astState);
-        processIter(ast, astState);
-        notifyEnd(ast, astState);
+    private void walk(DetailAST ast, AstWithComments view, FileContents contents,
+            Map.Entry<Set<AbstractCheck>, Map<Integer, Set<AbstractCheck>>> ordinary,
+            Map.Entry<Set<AbstractCheck>, Map<Integer, Set<AbstractCheck>>> comment)
+            throws CheckstyleException {
+        final boolean selected = !ordinary.getKey().isEmpty() || view != null;
+        if (selected && treeWalker == null) {
+            notifyBegin(ast, contents, ordinary.getKey());
+            if (view != null) {
+                notifyBegin(view.getRoot(), contents, comment.getKey());
+            }
+            processIter(ast, view, ordinary.getValue(), comment.getValue());
+            notifyEnd(ast, ordinary.getKey());
+            if (view != null) {
+                notifyEnd(view.getRoot(), comment.getKey());
+            }
+        }
+        else if (selected) {
+            violations.addAll(treeWalker.walk(ast, view, contents, ordinary, comment));
+        }
     }
 
     /**
@@ -337,20 +501,11 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
      *
      * @param rootAST the root of the tree.
      * @param contents the contents of the file the AST was generated from.
-     * @param astState state of AST.
+     * @param walkChecks the checks to notify.
      */
-    private void notifyBegin(DetailAST rootAST, FileContents contents,
-            AstState astState) {
-        final Set<AbstractCheck> checks;
-
-        if (astState == AstState.WITH_COMMENTS) {
-            checks = commentChecks;
-        }
-        else {
-            checks = ordinaryChecks;
-        }
-
-        for (AbstractCheck check : checks) {
+    static void notifyBegin(DetailAST rootAST, FileContents contents,
+            Set<AbstractCheck> walkChecks) {
+        for (AbstractCheck check : walkChecks) {
             check.setFileContents(contents);
             check.clearViolations();
             check.beginTree(rootAST);
@@ -361,19 +516,10 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
      * Notify checks that we have finished walking a tree.
      *
      * @param rootAST the root of the tree.
-     * @param astState state of AST.
+     * @param walkChecks the checks to notify.
      */
-    private void notifyEnd(DetailAST rootAST, AstState astState) {
-        final Set<AbstractCheck> checks;
-
-        if (astState == AstState.WITH_COMMENTS) {
-            checks = commentChecks;
-        }
-        else {
-            checks = ordinaryChecks;
-        }
-
-        for (AbstractCheck check : checks) {
+    private void notifyEnd(DetailAST rootAST, Set<AbstractCheck> walkChecks) {
+        for (AbstractCheck check : walkChecks) {
             check.finishTree(rootAST);
             violations.addAll(check.getViolations());
         }
@@ -383,10 +529,11 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
      * Notify checks that visiting a node.
      *
      * @param ast the node to notify for.
-     * @param astState state of AST.
+     * @param tokenToWalkChecks maps from token id to the checks interested in it.
      */
-    private void notifyVisit(DetailAST ast, AstState astState) {
-        final Collection<AbstractCheck> visitors = getListOfChecks(ast, astState);
+    private static void notifyVisit(DetailAST ast,
+            Map<Integer, Set<AbstractCheck>> tokenToWalkChecks) {
+        final Collection<AbstractCheck> visitors = tokenToWalkChecks.get(ast.getType());
 
         if (visitors != null) {
             for (AbstractCheck check : visitors) {
@@ -400,10 +547,11 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
      *
      * @param ast
      *        the node to notify for
-     * @param astState state of AST.
+     * @param tokenToWalkChecks maps from token id to the checks interested in it.
      */
-    private void notifyLeave(DetailAST ast, AstState astState) {
-        final Collection<AbstractCheck> visitors = getListOfChecks(ast, astState);
+    private static void notifyLeave(DetailAST ast,
+            Map<Integer, Set<AbstractCheck>> tokenToWalkChecks) {
+        final Collection<AbstractCheck> visitors = tokenToWalkChecks.get(ast.getType());
 
         if (visitors != null) {
             for (AbstractCheck check : visitors) {
@@ -413,31 +561,118 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
     }
 
     /**
-     * Method returns list of checks.
+     * Processes a node calling interested checks at each node.
+     * Uses iterative algorithm. Comment checks are notified with the nodes of the view
+     * in the same walk, comment nodes are visited before the parsed node they precede.
      *
-     * @param ast
-     *            the node to notify for
-     * @param astState
-     *            state of AST.
-     * @return list of visitors
+     * @param root the root of tree for process
+     * @param view the view of the tree with comments, {@code null} if there are no comment
+     *     checks
+     * @param tokenToOrdinaryChecks maps from token id to the ordinary checks interested in it.
+     * @param tokenToCommentChecks maps from token id to the comment checks interested in it.
      */
-    private Collection<AbstractCheck> getListOfChecks(DetailAST ast, AstState astState) {
-        final Collection<AbstractCheck> visitors;
-        final int tokenId = ast.getType();
+    static void processIter(DetailAST root, AstWithComments view,
+            Map<Integer, Set<AbstractCheck>> tokenToOrdinaryChecks,
+            Map<Integer, Set<AbstractCheck>> tokenToCommentChecks) {
+        DetailAST curNode = root;
+        while (curNode != null) {
+            if (view != null && curNode != root) {
+                processComments(view.getCommentsBefore(curNode), tokenToCommentChecks);
+            }
+            notifyVisit(curNode, tokenToOrdinaryChecks);
+            if (view != null && tokenToCommentChecks.containsKey(curNode.getType())) {
+                notifyVisit(view.getNode(curNode), tokenToCommentChecks);
+            }
+            DetailAST toVisit = curNode.getFirstChild();
+            while (curNode != null && toVisit == null) {
+                notifyLeave(curNode, tokenToOrdinaryChecks);
+                if (view != null) {
+                    leaveInView(curNode, view, tokenToCommentChecks);
+                }
+                toVisit = curNode.getNextSibling();
+                curNode = curNode.getParent();
+            }
+            curNode = toVisit;
+        }
+    }
 
-        if (astState == AstState.WITH_COMMENTS) {
-            visitors = tokenToCommentChecks.get(tokenId);
+    /**
+     * Notifies comment checks that leaving a parsed node, followed by the trailing comments
+     * if it is the last node.
+     *
+     * @param ast the parsed node.
+     * @param view the view of the tree with comments.
+     * @param tokenToCommentChecks maps from token id to the comment checks interested in it.
+     */
+    private static void leaveInView(DetailAST ast, AstWithComments view,
+            Map<Integer, Set<AbstractCheck>> tokenToCommentChecks) {
+        if (tokenToCommentChecks.containsKey(ast.getType())) {
+            notifyLeave(view.getNode(ast), tokenToCommentChecks);
         }
-        else {
-            visitors = tokenToOrdinaryChecks.get(tokenId);
+        if (ast == view.getLastNode()) {
+            processComments(view.getTrailingComments(), tokenToCommentChecks);
         }
-        return visitors;
+    }
+
+    /**
+     * Processes comment nodes and their children calling interested comment checks.
+     *
+     * @param comments the comment nodes of the view.
+     * @param tokenToCommentChecks maps from token id to the comment checks interested in it.
+     */
+    private static void processComments(List<DetailAST> comments,
+            Map<Integer, Set<AbstractCheck>> tokenToCommentChecks) {
+        for (DetailAST comment : comments) {
+            notifyVisit(comment, tokenToCommentChecks);
+            for (DetailAST child = comment.getFirstChild(); child != null;
+                    child = child.getNextSibling()) {
+                notifyVisit(child, tokenToCommentChecks);
+                notifyLeave(child, tokenToCommentChecks);
+            }
+            notifyLeave(comment, tokenToCommentChecks);
+        }
+    }
+
+    /**
+     * Restricts the checks interested in every token to the selected checks.
+     *
+     * @param selected the selected checks.
+     * @param tokenToWalkChecks maps from token id to the checks interested in it.
+     * @return maps from token id to the selected checks interested in it.
+     */
+    private static Map<Integer, Set<AbstractCheck>> selectTokenToChecks(
+            Set<AbstractCheck> selected, Map<Integer, Set<AbstractCheck>> tokenToWalkChecks) {
+        final Map<Integer, Set<AbstractCheck>> result = new HashMap<>();
+        tokenToWalkChecks.forEach((tokenId, tokenChecks) -> {
+            final Set<AbstractCheck> selectedTokenChecks = tokenChecks.stream()
+                    .filter(selected::contains)
+                    .collect(Collectors.toCollection(TreeWalker::createNewCheckSortedSet));
+            if (!selectedTokenChecks.isEmpty()) {
+                result.put(tokenId, selectedTokenChecks);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void finishProcessing() {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(String.format(Locale.ROOT,
+                    "Token text pool hits: %d of %d lookups (%.1f%%)",
+                    textPool.getHitsNumber(), textPool.getLookupsNumber(),
+                    textPool.getHitRate() * PERCENT));
+        }
+        textPool.clear();
     }
 
     @Override
     public void destroy() {
+        if (treeWalker != null) {
+            treeWalker.shutdown();
+        }
         ordinaryChecks.forEach(AbstractCheck::destroy);
         commentChecks.forEach(AbstractCheck::destroy);
+        selectedChecks.clear();
         super.destroy();
     }
 
@@ -453,34 +688,13 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
             .collect(Collectors.toUnmodifiableSet());
     }
 
-    /**
-     * Processes a node calling interested checks at each node.
-     * Uses iterative algorithm.
-     *
-     * @param root the root of tree for process
-     * @param astState state of AST.
-     */
-    private void processIter(DetailAST root, AstState astState) {
-        DetailAST curNode = root;
-        while (curNode != null) {
-            notifyVisit(curNode, astState);
-            DetailAST toVisit = curNode.getFirstChild();
-            while (curNode != null && toVisit == null) {
-                notifyLeave(curNode, astState);
-                toVisit = curNode.getNextSibling();
-                curNode = curNode.getParent();
-            }
-            curNode = toVisit;
-        }
-    }
-
     /**
      * Creates a new {@link SortedSet} with a deterministic order based on the
      * Check's name before the default ordering.
      *
      * @return The new {@link SortedSet}.
      */
-    private static SortedSet<AbstractCheck> createNewCheckSortedSet() {
+    static SortedSet<AbstractCheck> createNewCheckSortedSet() {
         return new TreeSet<>(
                 Comparator.<AbstractCheck, String>comparing(check -> check.getClass().getName())
                         .thenComparing(AbstractCheck::getId,
@@ -488,22 +702,4 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
                         .thenComparingInt(AbstractCheck::hashCode));
     }
 
-    /**
-     * State of AST.
-     * Indicates whether tree contains certain nodes.
-     */
-    private enum AstState {
-
-        /**
-         * Ordinary tree.
-         */
-        ORDINARY,
-
-        /**
-         * AST contains comment nodes.
-         */
-        WITH_COMMENTS,
-
-    }
-
 }
@@ -0,0 +1,144 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+
+/**
+ * Encodes the violations of a file in a string, so they can be stored in the cache and
+ * replayed when the file has not changed.
+ */
+final class ViolationCodec {
+
+    /** Stop instances being created. **/
+    private ViolationCodec() {
+    }
+
+    /**
+     * Encodes violations in a string. The violation text is stored already translated, as
+     * the locale is part of the configuration and the arguments may not be serializable.
+     *
+     * @param violations the violations to encode
+     * @return the encoded violations, or {@code null} if they can not be encoded
+     */
+    static String encode(SortedSet<Violation> violations) {
+        String result = null;
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(outputStream)) {
+            output.writeInt(violations.size());
+            for (final Violation violation : violations) {
+                output.writeInt(violation.getLineNo());
+                output.writeInt(violation.getColumnNo());
+                output.writeInt(violation.getColumnCharIndex());
+                output.writeInt(violation.getTokenType());
+                output.writeUTF(violation.getSeverityLevel().name());
+                writeNullableString(output, violation.getModuleId());
+                writeNullableString(output, violation.getKey());
+                output.writeUTF(violation.getSourceName());
+                output.writeUTF(violation.getViolation());
+            }
+            output.flush();
+            result = Base64.getEncoder().encodeToString(outputStream.toByteArray());
+        }
+        catch (IOException ignored) {
+            // the text of a violation is too long to be stored
+        }
+        return result;
+    }
+
+    /**
+     * Decodes violations encoded by {@link #encode(SortedSet)}.
+     *
+     * @param encodedViolations the encoded violations
+     * @param classLoader the class loader of the modules which are the sources of violations
+     * @return the violations, or {@code null} if they can not be decoded
+     */
+    static SortedSet<Violation> decode(String encodedViolations, ClassLoader classLoader) {
+        SortedSet<Violation> result = null;
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(
+                Base64.getDecoder().decode(encodedViolations)))) {
+            final SortedSet<Violation> violations = new TreeSet<>();
+            final int size = input.readInt();
+            for (int index = 0; index < size; index++) {
+                final int lineNo = input.readInt();
+                final int columnNo = input.readInt();
+                final int columnCharIndex = input.readInt();
+                final int tokenType = input.readInt();
+                final SeverityLevel severityLevel = SeverityLevel.valueOf(input.readUTF());
+                final String moduleId = readNullableString(input);
+                final String key = readNullableString(input);
+                final Class<?> sourceClass = Class.forName(input.readUTF(), false, classLoader);
+                // quote the translated text, so it is not formatted again
+                final String customMessage = input.readUTF()
+                    .replace("'", "''").replace("{", "'{'");
+                violations.add(new Violation(lineNo, columnNo, columnCharIndex, tokenType,
+                    null, key, CommonUtil.EMPTY_OBJECT_ARRAY, severityLevel, moduleId,
+                    sourceClass, customMessage));
+            }
+            result = violations;
+        }
+        catch (IOException | ClassNotFoundException | IllegalArgumentException ignored) {
+            // the cache is outdated or corrupted, so the file is checked again
+        }
+        return result;
+    }
+
+    /**
+     * Writes a string which may be {@code null}.
+     *
+     * @param output the stream to write to
+     * @param value the string
+     * @throws IOException if the string can not be written
+     */
+    private static void writeNullableString(DataOutputStream output, String value)
+            throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeNullableString(DataOutputStream, String)}.
+     *
+     * @param input the stream to read from
+     * @return the string, or {@code null}
+     * @throws IOException if the string can not be read
+     */
+    private static String readNullableString(DataInputStream input) throws IOException {
+        String result = null;
+        if (input.readBoolean()) {
+            result = input.readUTF();
+        }
+        return result;
+    }
+
+}
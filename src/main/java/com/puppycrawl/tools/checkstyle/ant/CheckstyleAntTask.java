@@ -46,10 +46,12 @@ import com.puppycrawl.tools.checkstyle.AbstractAutomaticBean.OutputStreamOptions
 import com.puppycrawl.tools.checkstyle.Checker;
 import com.puppycrawl.tools.checkstyle.ConfigurationLoader;
 import com.puppycrawl.tools.checkstyle.DefaultLogger;
+import com.puppycrawl.tools.checkstyle.GitChanges;
 import com.puppycrawl.tools.checkstyle.ModuleFactory;
 import com.puppycrawl.tools.checkstyle.PackageObjectFactory;
 import com.puppycrawl.tools.checkstyle.PropertiesExpander;
 import com.puppycrawl.tools.checkstyle.SarifLogger;
+import com.puppycrawl.tools.checkstyle.Shard;
 import com.puppycrawl.tools.checkstyle.ThreadModeSettings;
 import com.puppycrawl.tools.checkstyle.XMLLogger;
 import com.puppycrawl.tools.checkstyle.api.AuditListener;
@@ -115,6 +117,15 @@ public class CheckstyleAntTask extends Task {
      */
     private boolean executeIgnoredModules;
 
+    /** The base revision in git to check only the changes since. */
+    private String gitBase;
+
+    /** Whether to report only the violations on the lines changed in git. */
+    private boolean changedLinesOnly;
+
+    /** The shard of the files to check, or {@code null} to check all files. */
+    private Shard shard;
+
     ////////////////////////////////////////////////////////////////////////////
     // Setters for ANT specific attributes
     ////////////////////////////////////////////////////////////////////////////
@@ -239,6 +250,43 @@ public class CheckstyleAntTask extends Task {
         executeIgnoredModules = omit;
     }
 
+    /**
+     * Sets the base revision in git, so only the files changed since the merge base of
+     * the revision and {@code HEAD} are checked, including uncommitted changes.
+     *
+     * @param gitBase the base revision, like the branch a pull request targets
+     */
+    public void setGitBase(String gitBase) {
+        this.gitBase = gitBase;
+    }
+
+    /**
+     * Sets flag - whether to report only the violations on the lines changed in git.
+     * Used only with the base revision.
+     *
+     * @param changedLinesOnly whether to report only the violations on changed lines
+     */
+    public void setChangedLinesOnly(boolean changedLinesOnly) {
+        this.changedLinesOnly = changedLinesOnly;
+    }
+
+    /**
+     * Sets the shard of the files to check, so the files can be split between several builds.
+     * Files are assigned to shards by the hash of their path relative to the base directory
+     * of the project, so every build makes the same split.
+     *
+     * @param shard the shard given as {@code i/n}, to check shard i of n shards
+     * @throws BuildException if the shard is invalid
+     */
+    public void setShard(String shard) {
+        try {
+            this.shard = Shard.parse(shard);
+        }
+        catch (IllegalArgumentException ex) {
+            throw new BuildException(ex.getMessage(), ex, getLocation());
+        }
+    }
+
     ////////////////////////////////////////////////////////////////////////////
     // Setters for Root Module's configuration attributes
     ////////////////////////////////////////////////////////////////////////////
@@ -277,6 +325,10 @@ public class CheckstyleAntTask extends Task {
             if (config == null) {
                 throw new BuildException("Must specify 'config'.", getLocation());
             }
+            if (changedLinesOnly && gitBase == null) {
+                throw new BuildException("Attribute 'changedLinesOnly' requires 'gitBase'.",
+                        getLocation());
+            }
             realExecute(version);
         }
         finally {
@@ -295,7 +347,8 @@ public class CheckstyleAntTask extends Task {
         // Create the root module
         RootModule rootModule = null;
         try {
-            rootModule = createRootModule();
+            final GitChanges gitChanges = loadGitChanges();
+            rootModule = createRootModule(gitChanges);
 
             // setup the listeners
             final AuditListener[] listeners = getListeners();
@@ -306,7 +359,7 @@ public class CheckstyleAntTask extends Task {
                 new SeverityLevelCounter(SeverityLevel.WARNING);
             rootModule.addListener(warningCounter);
 
-            processFiles(rootModule, warningCounter, checkstyleVersion);
+            processFiles(rootModule, warningCounter, checkstyleVersion, gitChanges);
         }
         finally {
             if (rootModule != null) {
@@ -321,13 +374,28 @@ public class CheckstyleAntTask extends Task {
      * @param rootModule Root module to process files
      * @param warningCounter Root Module's counter of warnings
      * @param checkstyleVersion Checkstyle compile version
+     * @param gitChanges the changes in git to check only, or {@code null} to check all files
      * @throws BuildException if the files could not be processed,
      *     or if the build failed due to violations.
      */
     private void processFiles(RootModule rootModule, final SeverityLevelCounter warningCounter,
-            final String checkstyleVersion) {
+            final String checkstyleVersion, GitChanges gitChanges) {
         final long startTime = System.currentTimeMillis();
-        final List<File> files = getFilesToCheck();
+        List<File> files = getFilesToCheck();
+        if (shard != null) {
+            final int filesCount = files.size();
+            files = shard.select(files, getProject().getBaseDir());
+            log(files.size() + " of " + filesCount + " files in shard " + shard,
+                    Project.MSG_VERBOSE);
+        }
+        if (gitChanges != null) {
+            final int filesCount = files.size();
+            files = files.stream()
+                    .filter(gitChanges::isChanged)
+                    .collect(Collectors.toUnmodifiableList());
+            log(files.size() + " of " + filesCount + " files changed since " + gitBase,
+                    Project.MSG_VERBOSE);
+        }
         final long endTime = System.currentTimeMillis();
         log("To locate the files took " + (endTime - startTime) + TIME_SUFFIX,
             Project.MSG_VERBOSE);
@@ -368,13 +436,34 @@ public class CheckstyleAntTask extends Task {
         }
     }
 
+    /**
+     * Asks git for the changes since the base revision, if it is set.
+     *
+     * @return the changes, or {@code null} if the base revision is not set
+     * @throws BuildException if git fails
+     */
+    private GitChanges loadGitChanges() {
+        GitChanges result = null;
+        if (gitBase != null) {
+            try {
+                result = GitChanges.load(getProject().getBaseDir(), gitBase);
+            }
+            catch (CheckstyleException ex) {
+                throw new BuildException("Unable to find changes since " + gitBase, ex);
+            }
+        }
+        return result;
+    }
+
     /**
      * Creates new instance of the root module.
      *
+     * @param gitChanges the changes in git to report the violations on changed lines only,
+     *     or {@code null}
      * @return new instance of the root module
      * @throws BuildException if the root module could not be created.
      */
-    private RootModule createRootModule() {
+    private RootModule createRootModule(GitChanges gitChanges) {
         final RootModule rootModule;
         try {
             final Properties props = createOverridingProperties();
@@ -400,6 +489,10 @@ public class CheckstyleAntTask extends Task {
             rootModule = (RootModule) factory.createModule(configuration.getName());
             rootModule.setModuleClassLoader(moduleClassLoader);
             rootModule.configure(configuration);
+            if (changedLinesOnly && rootModule instanceof Checker) {
+                ((Checker) rootModule).addReportFilter(
+                        gitChanges.createChangedLinesFilter(configuration));
+            }
         }
         catch (final CheckstyleException ex) {
             throw new BuildException(String.format(Locale.ROOT, "Unable to create Root Module: "
@@ -43,6 +43,8 @@ public final class AuditEvent {
     private final String fileName;
     /** Violation associated with the event. **/
     private final Violation violation;
+    /** Text of the file event associated with, if it is not read from the file system. **/
+    private final FileText fileText;
 
     /**
      * Creates a new instance.
@@ -72,6 +74,19 @@ public final class AuditEvent {
      * @throws IllegalArgumentException if {@code src} is {@code null}.
      */
     public AuditEvent(Object src, String fileName, Violation violation) {
+        this(src, fileName, violation, null);
+    }
+
+    /**
+     * Creates a new {@code AuditEvent} instance.
+     *
+     * @param src source of the event
+     * @param fileName file associated with the event
+     * @param violation the actual violation
+     * @param fileText the text of the file, if it is not read from the file system
+     * @throws IllegalArgumentException if {@code src} is {@code null}.
+     */
+    public AuditEvent(Object src, String fileName, Violation violation, FileText fileText) {
         if (src == null) {
             throw new IllegalArgumentException("null source");
         }
@@ -79,6 +94,7 @@ public final class AuditEvent {
         source = src;
         this.fileName = fileName;
         this.violation = violation;
+        this.fileText = fileText;
     }
 
     /**
@@ -100,6 +116,18 @@ public final class AuditEvent {
         return fileName;
     }
 
+    /**
+     * Returns the text of the file being audited, if it is not read from the file
+     * system, like the unsaved content of an editor. Filters which read the file
+     * should use this text instead if it is given.
+     *
+     * @return the text of the file, or null if the file is read from the file system
+     *     or there is no relation to a file.
+     */
+    public FileText getFileText() {
+        return fileText;
+    }
+
     /**
      * Return the line number on the source file where the event occurred.
      * This may be 0 if there is no relation to a file content.
@@ -19,20 +19,18 @@
 
 package com.puppycrawl.tools.checkstyle.api;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.io.StringReader;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.UnsupportedCharsetException;
 import java.nio.file.Files;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Matcher;
@@ -73,7 +71,7 @@ public final class FileText {
 
     /**
      * The charset used to read the file.
-     * {@code null} if the file was reconstructed from a list of lines.
+     * {@code null} if the file was reconstructed from a list of lines or given as text.
      */
     private final Charset charset;
 
@@ -82,6 +80,12 @@ public final class FileText {
      */
     private final String[] lines;
 
+    /**
+     * Whether the content was given rather than read from the file, so the file
+     * may not exist or may have other content.
+     */
+    private final boolean inMemory;
+
     /**
      * The full text contents of the file.
      *
@@ -105,6 +109,7 @@ public final class FileText {
         charset = fileText.charset;
         fullText = fileText.fullText;
         lines = fileText.lines.clone();
+        inMemory = fileText.inMemory;
         if (fileText.lineBreaks != null) {
             lineBreaks = fileText.lineBreaks.clone();
         }
@@ -131,6 +136,7 @@ public final class FileText {
         charset = null;
         fullText = buf.toString();
         this.lines = lines.toArray(CommonUtil.EMPTY_STRING_ARRAY);
+        inMemory = false;
     }
 
     /**
@@ -148,37 +154,87 @@ public final class FileText {
      */
     public FileText(File file, String charsetName) throws IOException {
         this.file = file;
+        charset = lookupCharset(charsetName);
 
         // We use our own decoder, to be sure we have complete control
         // about replacements.
-        final CharsetDecoder decoder;
+        final CharsetDecoder decoder = charset.newDecoder();
+        decoder.onMalformedInput(CodingErrorAction.REPLACE);
+        decoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        fullText = readFile(file, decoder);
+        lines = splitLines(fullText);
+        inMemory = false;
+    }
+
+    /**
+     * Creates a new file text representation of content which is not read from
+     * the file system, like the unsaved content of an editor.
+     *
+     * <p>The content is decoded like the content of a file is read, replacing
+     * malformed input and unmappable characters with the default
+     * replacement character.
+     *
+     * @param file the name of the file, which does not need to exist
+     * @param charsetName the encoding of the content
+     * @param content the content of the file
+     * @throws NullPointerException if the content is null
+     * @throws IllegalStateException if the charset is not supported.
+     */
+    public FileText(File file, String charsetName, byte[] content) {
+        this.file = file;
+        charset = lookupCharset(charsetName);
+        fullText = charset.decode(ByteBuffer.wrap(content)).toString();
+        lines = splitLines(fullText);
+        inMemory = true;
+    }
+
+    /**
+     * Creates a new file text representation of text which is not read from
+     * the file system, like the unsaved content of an editor. Unlike the
+     * compatibility constructor, this one keeps the line terminators. A
+     * {@code String} has to be passed as {@code CharSequence}, otherwise it
+     * is taken for the name of a charset.
+     *
+     * @param file the name of the file, which does not need to exist
+     * @param text the text of the file
+     * @throws NullPointerException if the text is null
+     */
+    public FileText(File file, CharSequence text) {
+        this.file = file;
+        charset = null;
+        fullText = text.toString();
+        lines = splitLines(fullText);
+        inMemory = true;
+    }
+
+    /**
+     * Looks up a charset by its name.
+     *
+     * @param charsetName the name of the charset
+     * @return the charset
+     * @throws IllegalStateException if the charset is not supported.
+     */
+    private static Charset lookupCharset(String charsetName) {
         try {
-            charset = Charset.forName(charsetName);
-            decoder = charset.newDecoder();
-            decoder.onMalformedInput(CodingErrorAction.REPLACE);
-            decoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+            return Charset.forName(charsetName);
         }
         catch (final UnsupportedCharsetException ex) {
             final String message = "Unsupported charset: " + charsetName;
             throw new IllegalStateException(message, ex);
         }
+    }
 
-        fullText = readFile(file, decoder);
-
-        // Use the BufferedReader to break down the lines as this
-        // is about 30% faster than using the
-        // LINE_TERMINATOR.split(fullText, -1) method
-        try (BufferedReader reader = new BufferedReader(new StringReader(fullText))) {
-            final ArrayList<String> textLines = new ArrayList<>();
-            while (true) {
-                final String line = reader.readLine();
-                if (line == null) {
-                    break;
-                }
-                textLines.add(line);
-            }
-            lines = textLines.toArray(CommonUtil.EMPTY_STRING_ARRAY);
-        }
+    /**
+     * Breaks down a text into lines without terminators.
+     *
+     * @param text the text
+     * @return the lines of the text
+     */
+    private static String[] splitLines(String text) {
+        // String.lines() recognizes the same terminators as BufferedReader.readLine(),
+        // and is faster than the LINE_TERMINATOR.split(fullText, -1) method
+        return text.lines().toArray(String[]::new);
     }
 
     /**
@@ -232,7 +288,7 @@ public final class FileText {
 
     /**
      * Get the character set which was used to read the file.
-     * Will be {@code null} for a file reconstructed from its lines.
+     * Will be {@code null} for a file reconstructed from its lines or given as text.
      *
      * @return the charset used when the file was read
      */
@@ -240,6 +296,17 @@ public final class FileText {
         return charset;
     }
 
+    /**
+     * Checks whether the content was given rather than read from the file, like the
+     * unsaved content of an editor. Modules which read the file themselves must use
+     * the given content instead, or skip such a file.
+     *
+     * @return whether the content was not read from the file
+     */
+    public boolean isInMemory() {
+        return inMemory;
+    }
+
     /**
      * Retrieve the full text of the file.
      *
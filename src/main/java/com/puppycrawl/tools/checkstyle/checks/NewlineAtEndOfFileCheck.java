@@ -22,6 +22,7 @@ package com.puppycrawl.tools.checkstyle.checks;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
 import java.util.Locale;
 
 import com.puppycrawl.tools.checkstyle.StatelessCheck;
@@ -131,11 +132,16 @@ public class NewlineAtEndOfFileCheck
 
     @Override
     protected void processFiltered(File file, FileText fileText) {
-        try {
-            readAndCheckFile(file);
+        if (fileText.isInMemory()) {
+            checkText(fileText.getFullText());
         }
-        catch (final IOException ignored) {
-            log(1, MSG_KEY_UNABLE_OPEN, file.getPath());
+        else {
+            try {
+                readAndCheckFile(file);
+            }
+            catch (final IOException ignored) {
+                log(1, MSG_KEY_UNABLE_OPEN, file.getPath());
+            }
         }
     }
 
@@ -173,6 +179,38 @@ public class NewlineAtEndOfFileCheck
         }
     }
 
+    /**
+     * Checks line separators of a text which is not read from the file.
+     *
+     * @param text the text to check
+     */
+    private void checkText(CharSequence text) {
+        if (lineSeparator == LineSeparatorOption.LF
+                && endsWithNewline(text, LineSeparatorOption.CRLF)) {
+            log(1, MSG_KEY_WRONG_ENDING);
+        }
+        else if (!endsWithNewline(text, lineSeparator)) {
+            log(1, MSG_KEY_NO_NEWLINE_EOF);
+        }
+    }
+
+    /**
+     * Checks whether a text ends with the line separator.
+     *
+     * @param text the text to check
+     * @param separator the line separator
+     * @return whether the text ends with the line separator
+     */
+    private static boolean endsWithNewline(CharSequence text, LineSeparatorOption separator) {
+        final int len = separator.length();
+        boolean result = false;
+        if (text.length() >= len) {
+            final String end = text.subSequence(text.length() - len, text.length()).toString();
+            result = separator.matches(end.getBytes(StandardCharsets.US_ASCII));
+        }
+        return result;
+    }
+
     /**
      * Checks whether the content provided by the Reader ends with the platform
      * specific line separator.
@@ -99,13 +99,26 @@ public class OrderedPropertiesCheck extends AbstractFileSetCheck {
     }
 
     /**
-     * Processes the file and check order.
+     * Processes the file and check order. A given text which is not read from the
+     * file is skipped, as the properties are loaded from the file.
      *
      * @param file the file to be processed
      * @param fileText the contents of the file.
      */
     @Override
     protected void processFiltered(File file, FileText fileText) {
+        if (!fileText.isInMemory()) {
+            checkOrder(file, fileText);
+        }
+    }
+
+    /**
+     * Loads the properties of the file and logs the keys which are out of order.
+     *
+     * @param file the file to be processed
+     * @param fileText the contents of the file.
+     */
+    private void checkOrder(File file, FileText fileText) {
         final SequencedProperties properties = new SequencedProperties();
         try (InputStream inputStream = Files.newInputStream(file.toPath())) {
             properties.load(inputStream);
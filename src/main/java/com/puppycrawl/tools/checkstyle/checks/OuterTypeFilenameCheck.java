@@ -23,6 +23,7 @@ import java.io.File;
 import java.util.regex.Pattern;
 
 import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
+import com.puppycrawl.tools.checkstyle.PathDependentCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
@@ -48,6 +49,7 @@ import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
  * @since 5.3
  */
 @FileStatefulCheck
+@PathDependentCheck
 public class OuterTypeFilenameCheck extends AbstractCheck {
 
     /**
@@ -302,8 +302,11 @@ public class TranslationCheck extends AbstractFileSetCheck {
 
     @Override
     protected void processFiltered(File file, FileText fileText) {
-        // We are just collecting files for processing at finishProcessing()
-        filesToProcess.add(file);
+        // We are just collecting files for processing at finishProcessing(),
+        // which loads them, so a given text which is not read from the file is skipped
+        if (!fileText.isInMemory()) {
+            filesToProcess.add(file);
+        }
     }
 
     @Override
@@ -94,6 +94,19 @@ public class UniquePropertiesCheck extends AbstractFileSetCheck {
 
     @Override
     protected void processFiltered(File file, FileText fileText) {
+        // the properties are loaded from the file, so a given text is skipped
+        if (!fileText.isInMemory()) {
+            checkProperties(file, fileText);
+        }
+    }
+
+    /**
+     * Loads the properties of the file and logs the duplicated keys.
+     *
+     * @param file the file to be processed
+     * @param fileText the contents of the file
+     */
+    private void checkProperties(File file, FileText fileText) {
         final UniqueProperties properties = new UniqueProperties();
         try (InputStream inputStream = Files.newInputStream(file.toPath())) {
             properties.load(inputStream);
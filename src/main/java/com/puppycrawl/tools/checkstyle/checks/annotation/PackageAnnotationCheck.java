@@ -19,6 +19,7 @@
 
 package com.puppycrawl.tools.checkstyle.checks.annotation;
 
+import com.puppycrawl.tools.checkstyle.PathDependentCheck;
 import com.puppycrawl.tools.checkstyle.StatelessCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
@@ -58,6 +59,7 @@ import com.puppycrawl.tools.checkstyle.utils.CheckUtil;
  * @since 5.0
  */
 @StatelessCheck
+@PathDependentCheck
 public class PackageAnnotationCheck extends AbstractCheck {
 
     /**
@@ -22,6 +22,7 @@ package com.puppycrawl.tools.checkstyle.checks.coding;
 import java.io.File;
 
 import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
+import com.puppycrawl.tools.checkstyle.PathDependentCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FullIdent;
@@ -68,6 +69,7 @@ import com.puppycrawl.tools.checkstyle.api.TokenTypes;
  * @since 3.2
  */
 @FileStatefulCheck
+@PathDependentCheck
 public final class PackageDeclarationCheck extends AbstractCheck {
 
     /**
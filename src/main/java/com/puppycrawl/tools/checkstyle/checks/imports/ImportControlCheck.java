@@ -24,6 +24,7 @@ import java.util.Set;
 import java.util.regex.Pattern;
 
 import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
+import com.puppycrawl.tools.checkstyle.PathDependentCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
@@ -140,6 +141,7 @@ import com.puppycrawl.tools.checkstyle.api.TokenTypes;
  * @since 4.0
  */
 @FileStatefulCheck
+@PathDependentCheck
 public class ImportControlCheck extends AbstractCheck implements ExternalResourceHolder {
 
     /**
@@ -29,6 +29,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import com.puppycrawl.tools.checkstyle.JavadocDetailNodeParser;
+import com.puppycrawl.tools.checkstyle.PathDependentCheck;
 import com.puppycrawl.tools.checkstyle.StatelessCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
@@ -181,6 +182,7 @@ import com.puppycrawl.tools.checkstyle.utils.ScopeUtil;
  * @since 3.2
  */
 @StatelessCheck
+@PathDependentCheck
 public class JavadocStyleCheck
     extends AbstractCheck {
 
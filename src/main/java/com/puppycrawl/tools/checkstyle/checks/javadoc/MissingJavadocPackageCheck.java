@@ -21,6 +21,7 @@ package com.puppycrawl.tools.checkstyle.checks.javadoc;
 
 import java.util.Optional;
 
+import com.puppycrawl.tools.checkstyle.PathDependentCheck;
 import com.puppycrawl.tools.checkstyle.StatelessCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
@@ -58,6 +59,7 @@ import com.puppycrawl.tools.checkstyle.utils.JavadocUtil;
  * @since 8.22
  */
 @StatelessCheck
+@PathDependentCheck
 public class MissingJavadocPackageCheck extends AbstractCheck {
 
     /**
@@ -23,6 +23,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.regex.Pattern;
 
+import com.puppycrawl.tools.checkstyle.PathDependentCheck;
 import com.puppycrawl.tools.checkstyle.StatelessCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
@@ -112,6 +113,7 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
  * @since 6.15
  */
 @StatelessCheck
+@PathDependentCheck
 public class RegexpOnFilenameCheck extends AbstractFileSetCheck {
 
     /**
@@ -24,6 +24,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 
+import com.puppycrawl.tools.checkstyle.PathDependentCheck;
 import com.puppycrawl.tools.checkstyle.StatelessCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
@@ -125,6 +126,7 @@ import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
  * @since 5.8
  */
 @StatelessCheck
+@PathDependentCheck
 public class EmptyLineSeparatorCheck extends AbstractCheck {
 
     /**
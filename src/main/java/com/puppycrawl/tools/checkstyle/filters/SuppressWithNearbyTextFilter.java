@@ -133,6 +133,12 @@ public class SuppressWithNearbyTextFilter extends AbstractAutomaticBean implemen
     /** The absolute path to the currently processed file. */
     private String cachedFileAbsolutePath = "";
 
+    /** The time the currently processed file was last modified. */
+    private long cachedFileLastModified;
+
+    /** The given text of the currently processed file, if it is not read from the file. */
+    private FileText cachedFileText;
+
     /**
      * Setter to specify nearby text pattern to trigger filter to begin suppression.
      *
@@ -194,12 +200,21 @@ public class SuppressWithNearbyTextFilter extends AbstractAutomaticBean implemen
 
         if (event.getViolation() != null) {
             final String eventFileTextAbsolutePath = event.getFileName();
+            final FileText eventFileText = event.getFileText();
 
-            if (!cachedFileAbsolutePath.equals(eventFileTextAbsolutePath)) {
+            if (eventFileText != null && eventFileText != cachedFileText) {
+                cachedFileText = eventFileText;
+                cachedFileAbsolutePath = "";
+                collectSuppressions(eventFileText);
+            }
+            else if (eventFileText == null && isChanged(eventFileTextAbsolutePath)) {
+                final long lastModified = new File(eventFileTextAbsolutePath).lastModified();
                 final FileText currentFileText = getFileText(eventFileTextAbsolutePath);
 
                 if (currentFileText != null) {
+                    cachedFileText = null;
                     cachedFileAbsolutePath = currentFileText.getFile().getAbsolutePath();
+                    cachedFileLastModified = lastModified;
                     collectSuppressions(currentFileText);
                 }
             }
@@ -216,6 +231,18 @@ public class SuppressWithNearbyTextFilter extends AbstractAutomaticBean implemen
         // No code by default
     }
 
+    /**
+     * Checks whether the given file is not the currently processed file, or was modified
+     * since it was read, as the filter may check the same file in several audits.
+     *
+     * @param fileName the name of the file.
+     * @return true if the suppressions of the file have to be collected.
+     */
+    private boolean isChanged(String fileName) {
+        return !cachedFileAbsolutePath.equals(fileName)
+                || cachedFileLastModified != new File(fileName).lastModified();
+    }
+
     /**
      * Returns {@link FileText} instance created based on the given file name.
      *
@@ -193,7 +193,10 @@ public class SuppressWithPlainTextCommentFilter extends AbstractAutomaticBean im
     public boolean accept(AuditEvent event) {
         boolean accepted = true;
         if (event.getViolation() != null) {
-            final FileText fileText = getFileText(event.getFileName());
+            FileText fileText = event.getFileText();
+            if (fileText == null) {
+                fileText = getFileText(event.getFileName());
+            }
             if (fileText != null) {
                 final List<Suppression> suppressions = getSuppressions(fileText);
                 accepted = getNearestSuppression(suppressions, event) == null;
@@ -22,6 +22,7 @@ package com.puppycrawl.tools.checkstyle.filters;
 import java.util.Set;
 
 import com.puppycrawl.tools.checkstyle.AbstractAutomaticBean;
+import com.puppycrawl.tools.checkstyle.PathDependentCheck;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.ExternalResourceHolder;
@@ -128,6 +129,7 @@ import com.puppycrawl.tools.checkstyle.utils.UnmodifiableCollectionUtil;
  *
  * @since 3.2
  */
+@PathDependentCheck
 public class SuppressionFilter
         extends AbstractAutomaticBean
         implements Filter, ExternalResourceHolder {
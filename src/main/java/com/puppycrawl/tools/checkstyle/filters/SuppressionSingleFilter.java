@@ -22,6 +22,7 @@ package com.puppycrawl.tools.checkstyle.filters;
 import java.util.regex.Pattern;
 
 import com.puppycrawl.tools.checkstyle.AbstractAutomaticBean;
+import com.puppycrawl.tools.checkstyle.PathDependentCheck;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.Filter;
 
@@ -91,6 +92,7 @@ import com.puppycrawl.tools.checkstyle.api.Filter;
  *
  * @since 8.23
  */
+@PathDependentCheck
 public class SuppressionSingleFilter extends AbstractAutomaticBean implements Filter {
 
     /**
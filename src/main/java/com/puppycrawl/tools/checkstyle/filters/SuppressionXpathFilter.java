@@ -25,6 +25,7 @@ import java.util.Objects;
 import java.util.Set;
 
 import com.puppycrawl.tools.checkstyle.AbstractAutomaticBean;
+import com.puppycrawl.tools.checkstyle.PathDependentCheck;
 import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
 import com.puppycrawl.tools.checkstyle.TreeWalkerFilter;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
@@ -194,6 +195,7 @@ import com.puppycrawl.tools.checkstyle.utils.FilterUtil;
  *
  * @since 8.6
  */
+@PathDependentCheck
 public class SuppressionXpathFilter extends AbstractAutomaticBean implements
         TreeWalkerFilter, ExternalResourceHolder {
 
@@ -22,6 +22,7 @@ package com.puppycrawl.tools.checkstyle.filters;
 import java.util.regex.Pattern;
 
 import com.puppycrawl.tools.checkstyle.AbstractAutomaticBean;
+import com.puppycrawl.tools.checkstyle.PathDependentCheck;
 import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
 import com.puppycrawl.tools.checkstyle.TreeWalkerFilter;
 
@@ -84,6 +85,7 @@ import com.puppycrawl.tools.checkstyle.TreeWalkerFilter;
  *
  * @since 8.18
  */
+@PathDependentCheck
 public class SuppressionXpathSingleFilter extends AbstractAutomaticBean implements
         TreeWalkerFilter {
     /**
@@ -24,12 +24,11 @@ options { tokenVocab=JavaLanguageLexer; }
 @parser::members {
 
     /**
-     * This is the number of files to parse before clearing the parser's
+     * This is the default number of files to parse before clearing the parser's
      * DFA states. This number can have a significant impact on performance;
      * we have found 500 files to be a good balance between parser speed and
-     * memory usage. This field must be public in order to be accessed and
-     * used for {@link JavaLanguageParser#JavaLanguageParser(TokenStream, int)}
-     * generated constructor.
+     * memory usage. See {@link com.puppycrawl.tools.checkstyle.DfaCachePolicy}
+     * for other ways of clearing the DFA states.
      */
     public static final int CLEAR_DFA_LIMIT = 500;
 
@@ -51,29 +50,14 @@ options { tokenVocab=JavaLanguageLexer; }
         return _input.LT(1).getType() == JavaLanguageLexer.LITERAL_YIELD && switchBlockDepth > 0;
     }
 
-    static int fileCounter = 0;
-
     /**
-     * We create a custom constructor so that we can clear the DFA
-     * states upon instantiation of JavaLanguageParser.
+     * Returns the DFA states of the parser, which are shared by all its instances.
+     * The returned array is the cache itself, not a copy.
      *
-     * @param input the token stream to parse
-     * @param clearDfaLimit this is the number of files to parse before clearing
-     *         the parser's DFA states. This number can have a significant impact
-     *         on performance; more frequent clearing of DFA states can lead to
-     *         slower parsing but lower memory usage. Conversely, not clearing the
-     *         DFA states at all can lead to enormous memory usage, but may also
-     *         have a negative effect on memory usage from higher garbage collector
-     *         activity.
+     * @return the DFA cache, one DFA per decision
      */
-    public JavaLanguageParser(TokenStream input, int clearDfaLimit) {
-        super(input);
-        _interp = new ParserATNSimulator(this, _ATN , _decisionToDFA, _sharedContextCache);
-        fileCounter++;
-        if (fileCounter > clearDfaLimit) {
-            _interp.clearDFA();
-            fileCounter = 0;
-        }
+    public static DFA[] getDecisionToDfa() {
+        return _decisionToDFA;
     }
 }
 
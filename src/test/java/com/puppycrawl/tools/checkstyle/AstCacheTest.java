@@ -0,0 +1,172 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
+
+public class AstCacheTest extends AbstractPathTestSupport {
+
+    @TempDir
+    public File temporaryFolder;
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/astcache";
+    }
+
+    @Test
+    public void testPutAndGet() throws Exception {
+        final File file = new File(getPath("InputAstCache.java"));
+        final FileText text = new FileText(file, StandardCharsets.UTF_8.name());
+        final AstCache cache = new AstCache(temporaryFolder.toPath());
+
+        assertWithMessage("File should not be cached")
+                .that(cache.get(text))
+                .isNull();
+        put(cache, text);
+        final AstCache.CachedAst cachedAst = cache.get(text);
+
+        assertWithMessage("Invalid cached tree with comments")
+                .that(printTree(new AstWithComments(cachedAst.build()).getRoot()))
+                .isEqualTo(printTree(JavaParser.parseFile(file,
+                        JavaParser.Options.WITH_COMMENTS)));
+        assertWithMessage("Invalid cached tree without comments")
+                .that(printTree(cachedAst.build()))
+                .isEqualTo(printTree(JavaParser.parseFile(file,
+                        JavaParser.Options.WITHOUT_COMMENTS)));
+    }
+
+    @Test
+    public void testReportComments() throws Exception {
+        final FileText text = new FileText(new File(getPath("InputAstCache.java")),
+                StandardCharsets.UTF_8.name());
+        final AstCache cache = new AstCache(temporaryFolder.toPath());
+        final FileContents parsedContents = put(cache, text);
+        final FileContents cachedContents = new FileContents(text);
+        cache.get(text).reportComments(cachedContents);
+
+        assertWithMessage("Invalid single-line comments")
+                .that(cachedContents.getSingleLineComments().toString())
+                .isEqualTo(parsedContents.getSingleLineComments().toString());
+        assertWithMessage("Invalid block comments")
+                .that(cachedContents.getBlockComments().toString())
+                .isEqualTo(parsedContents.getBlockComments().toString());
+        assertWithMessage("Javadoc should be reported")
+                .that(cachedContents.getJavadocBefore(9).getStartLineNo())
+                .isEqualTo(6);
+    }
+
+    @Test
+    public void testChangedTextIsNotCached() throws Exception {
+        final File file = new File(getPath("InputAstCache.java"));
+        final FileText text = new FileText(file, StandardCharsets.UTF_8.name());
+        final AstCache cache = new AstCache(temporaryFolder.toPath());
+        put(cache, text);
+
+        final List<String> changedLines = Arrays.asList(text.toLinesArray());
+        changedLines.set(0, "/* changed header comment */");
+        assertWithMessage("Changed file should not be cached")
+                .that(cache.get(new FileText(file, changedLines)))
+                .isNull();
+    }
+
+    @Test
+    public void testCorruptedEntries() throws Exception {
+        final File file = new File(getPath("InputAstCache.java"));
+        final FileText text = new FileText(file, StandardCharsets.UTF_8.name());
+        final AstCache cache = new AstCache(temporaryFolder.toPath());
+        put(cache, text);
+        final Path entry = findEntry(temporaryFolder.toPath());
+        final byte[] content = Files.readAllBytes(entry);
+
+        Files.write(entry, Arrays.copyOf(content, content.length / 2));
+        assertWithMessage("Truncated entry should be ignored")
+                .that(cache.get(text))
+                .isNull();
+
+        final byte[] invalidMagic = content.clone();
+        invalidMagic[0]++;
+        Files.write(entry, invalidMagic);
+        assertWithMessage("Entry with invalid magic number should be ignored")
+                .that(cache.get(text))
+                .isNull();
+
+        final byte[] invalidTextLength = content.clone();
+        invalidTextLength[2 * Integer.BYTES] = Byte.MAX_VALUE;
+        Files.write(entry, invalidTextLength);
+        assertWithMessage("Entry with invalid text length should be ignored")
+                .that(cache.get(text))
+                .isNull();
+    }
+
+    @Test
+    public void testDirectoryWhichCanNotBeWritten() throws Exception {
+        final File file = new File(getPath("InputAstCache.java"));
+        final FileText text = new FileText(file, StandardCharsets.UTF_8.name());
+        final File directory = new File(temporaryFolder, "file");
+        Files.createFile(directory.toPath());
+        final AstCache cache = new AstCache(directory.toPath());
+
+        put(cache, text);
+        assertWithMessage("File should not be cached")
+                .that(cache.get(text))
+                .isNull();
+    }
+
+    private static FileContents put(AstCache cache, FileText text) throws Exception {
+        final FileContents contents = new FileContents(text);
+        cache.put(text, JavaParser.parse(contents), contents);
+        return contents;
+    }
+
+    private static String printTree(DetailAST root) throws ReflectiveOperationException {
+        return TestUtil.invokeStaticMethod(AstTreeStringPrinter.class, "printTree", root);
+    }
+
+    private static Path findEntry(Path directory) throws IOException {
+        try (Stream<Path> entries = Files.find(directory, 2,
+                (path, attributes) -> attributes.isRegularFile())) {
+            final List<Path> found = entries.collect(Collectors.toList());
+            assertWithMessage("There should be a single entry")
+                    .that(found)
+                    .hasSize(1);
+            return found.get(0);
+        }
+    }
+
+}
@@ -0,0 +1,196 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.File;
+
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+public class AstWithCommentsTest extends AbstractPathTestSupport {
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/astwithcomments";
+    }
+
+    @Test
+    public void testViewOfTree() throws Exception {
+        final File file = new File(getPath("InputAstWithComments.java"));
+        final DetailAST root = JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS);
+        final DetailAST view = new AstWithComments(root).getRoot();
+
+        assertSameTree(JavaParser.parseFile(file, JavaParser.Options.WITH_COMMENTS), view);
+        assertSameTree(JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS), root);
+    }
+
+    @Test
+    public void testTrailingComments() throws Exception {
+        final File file = new File(getPath("InputAstWithCommentsTrailingComment.java"));
+        final DetailAST root = JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS);
+        final AstWithComments view = new AstWithComments(root);
+
+        assertSameTree(JavaParser.parseFile(file, JavaParser.Options.WITH_COMMENTS),
+                view.getRoot());
+        assertWithMessage("Invalid number of trailing comments")
+                .that(view.getTrailingComments())
+                .hasSize(2);
+        assertWithMessage("Trailing comments must follow the last node")
+                .that(view.getTrailingComments().get(0).getPreviousSibling())
+                .isSameInstanceAs(view.getNode(view.getLastNode()));
+    }
+
+    @Test
+    public void testNavigationKeepsIdentity() throws Exception {
+        final DetailAST root = JavaParser.parseFile(new File(getPath("InputAstWithComments.java")),
+                JavaParser.Options.WITHOUT_COMMENTS);
+        final AstWithComments view = new AstWithComments(root);
+        final DetailAST classDef = root.findFirstToken(TokenTypes.CLASS_DEF);
+        final DetailAST modifiers = view.getNode(classDef).findFirstToken(TokenTypes.OBJBLOCK)
+                .findFirstToken(TokenTypes.VARIABLE_DEF)
+                .findFirstToken(TokenTypes.MODIFIERS);
+        final DetailAST comment = modifiers.findFirstToken(TokenTypes.SINGLE_LINE_COMMENT);
+
+        assertWithMessage("Nodes of the view must be created once")
+                .that(view.getNode(classDef))
+                .isSameInstanceAs(view.getRoot().findFirstToken(TokenTypes.CLASS_DEF));
+        assertWithMessage("Parent of a comment must be the parent of the next node")
+                .that(comment.getParent())
+                .isSameInstanceAs(modifiers);
+        assertWithMessage("Previous sibling of the next sibling must be the same node")
+                .that(comment.getNextSibling().getPreviousSibling())
+                .isSameInstanceAs(comment);
+        assertWithMessage("Parent of the comment content must be the comment")
+                .that(comment.getFirstChild().getParent())
+                .isSameInstanceAs(comment);
+    }
+
+    @Test
+    public void testParsedTreeIsNotModified() throws Exception {
+        final DetailAST root = JavaParser.parseFile(new File(getPath("InputAstWithComments.java")),
+                JavaParser.Options.WITHOUT_COMMENTS);
+        final DetailAST modifiers = root.findFirstToken(TokenTypes.CLASS_DEF)
+                .findFirstToken(TokenTypes.OBJBLOCK)
+                .findFirstToken(TokenTypes.VARIABLE_DEF)
+                .findFirstToken(TokenTypes.MODIFIERS);
+        final int childCount = modifiers.getChildCount();
+        final AstWithComments view = new AstWithComments(root);
+
+        assertWithMessage("View must show the comments")
+                .that(view.getNode(modifiers).getChildCount())
+                .isGreaterThan(childCount);
+        assertWithMessage("Parsed tree must not get comments")
+                .that(modifiers.getChildCount())
+                .isEqualTo(childCount);
+        assertWithMessage("Parsed tree must not contain comments")
+                .that(root.branchContains(TokenTypes.SINGLE_LINE_COMMENT))
+                .isFalse();
+    }
+
+    @Test
+    public void testToString() throws Exception {
+        final DetailAST root = JavaParser.parseFile(new File(getPath("InputAstWithComments.java")),
+                JavaParser.Options.WITHOUT_COMMENTS);
+
+        assertWithMessage("Invalid string representation")
+                .that(new AstWithComments(root).getRoot().getFirstChild().toString())
+                .isEqualTo(root.getFirstChild().toString());
+    }
+
+    /**
+     * Checks that a view has the same nodes as the tree with comment nodes.
+     *
+     * @param expected the tree with comment nodes
+     * @param actual the view
+     * @noinspection deprecation
+     * @noinspectionreason deprecation - the view must keep the deprecated methods working
+     */
+    @SuppressWarnings("deprecation")
+    private static void assertSameTree(DetailAST expected, DetailAST actual) {
+        DetailAST expectedNode = expected;
+        DetailAST actualNode = actual;
+        while (expectedNode != null) {
+            assertWithMessage("Invalid node at " + expectedNode)
+                    .that(actualNode.toString())
+                    .isEqualTo(expectedNode.toString());
+            assertWithMessage("Invalid type at " + expectedNode)
+                    .that(actualNode.getType())
+                    .isEqualTo(expectedNode.getType());
+            assertWithMessage("Invalid child count at " + expectedNode)
+                    .that(actualNode.getChildCount())
+                    .isEqualTo(expectedNode.getChildCount());
+            assertWithMessage("Invalid number of children at " + expectedNode)
+                    .that(actualNode.getNumberOfChildren())
+                    .isEqualTo(expectedNode.getNumberOfChildren());
+            assertWithMessage("Invalid comment count at " + expectedNode)
+                    .that(actualNode.getChildCount(TokenTypes.SINGLE_LINE_COMMENT))
+                    .isEqualTo(expectedNode.getChildCount(TokenTypes.SINGLE_LINE_COMMENT));
+            assertWithMessage("Invalid children presence at " + expectedNode)
+                    .that(actualNode.hasChildren())
+                    .isEqualTo(expectedNode.hasChildren());
+            assertWithMessage("Invalid parent at " + expectedNode)
+                    .that(String.valueOf(actualNode.getParent()))
+                    .isEqualTo(String.valueOf(expectedNode.getParent()));
+            assertWithMessage("Invalid previous sibling at " + expectedNode)
+                    .that(String.valueOf(actualNode.getPreviousSibling()))
+                    .isEqualTo(String.valueOf(expectedNode.getPreviousSibling()));
+            assertWithMessage("Invalid last child at " + expectedNode)
+                    .that(String.valueOf(actualNode.getLastChild()))
+                    .isEqualTo(String.valueOf(expectedNode.getLastChild()));
+            for (int type : new int[] {TokenTypes.IDENT, TokenTypes.SINGLE_LINE_COMMENT,
+                TokenTypes.BLOCK_COMMENT_BEGIN, TokenTypes.COMMENT_CONTENT}) {
+                assertWithMessage("Invalid first token at " + expectedNode)
+                        .that(String.valueOf(actualNode.findFirstToken(type)))
+                        .isEqualTo(String.valueOf(expectedNode.findFirstToken(type)));
+            }
+            for (int type : new int[] {TokenTypes.IDENT, TokenTypes.LITERAL_NULL,
+                TokenTypes.SINGLE_LINE_COMMENT, TokenTypes.BLOCK_COMMENT_BEGIN,
+                TokenTypes.COMMENT_CONTENT, TokenTypes.BLOCK_COMMENT_END}) {
+                assertWithMessage("Invalid branch contents at " + expectedNode)
+                        .that(actualNode.branchContains(type))
+                        .isEqualTo(expectedNode.branchContains(type));
+            }
+
+            DetailAST expectedNext = expectedNode.getFirstChild();
+            DetailAST actualNext = actualNode.getFirstChild();
+            while (expectedNode != null && expectedNext == null) {
+                expectedNext = expectedNode.getNextSibling();
+                actualNext = actualNode.getNextSibling();
+                if (expectedNode.getParent() == expected.getParent()) {
+                    expectedNode = null;
+                }
+                else {
+                    expectedNode = expectedNode.getParent();
+                    actualNode = actualNode.getParent();
+                }
+            }
+            assertWithMessage("Invalid next node")
+                    .that(String.valueOf(actualNext))
+                    .isEqualTo(String.valueOf(expectedNext));
+            expectedNode = expectedNext;
+            actualNode = actualNext;
+        }
+    }
+
+}
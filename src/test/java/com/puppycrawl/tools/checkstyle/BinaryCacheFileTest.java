@@ -0,0 +1,350 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
+
+public class BinaryCacheFileTest {
+
+    @TempDir
+    public File temporaryFolder;
+
+    @Test
+    public void testPersistAndLoad() throws IOException {
+        final Path path = temporaryFolder.toPath().resolve("cache.bin");
+        final Properties properties = new Properties();
+        properties.setProperty("b", "2");
+        properties.setProperty("a", "1");
+        properties.setProperty("\u00e9\u00e8", "\u00e9");
+        BinaryCacheFile.copyOf(properties).persist(path);
+
+        assertWithMessage("File should be in binary format")
+                .that(BinaryCacheFile.isBinary(path))
+                .isTrue();
+        final BinaryCacheFile cache = BinaryCacheFile.load(path);
+        assertWithMessage("Invalid entries")
+                .that(getEntries(cache))
+                .isEqualTo(properties);
+        assertWithMessage("Invalid value")
+                .that(cache.get("\u00e9\u00e8"))
+                .isEqualTo("\u00e9");
+        assertWithMessage("Missing entry should have no value")
+                .that(cache.get("c"))
+                .isNull();
+        assertWithMessage("Missing entry before all others should have no value")
+                .that(cache.get(""))
+                .isNull();
+    }
+
+    @Test
+    public void testAppendChanges() throws IOException {
+        final Path path = temporaryFolder.toPath().resolve("cache.bin");
+        final Properties properties = new Properties();
+        properties.setProperty("a", "1");
+        properties.setProperty("b", "2");
+        BinaryCacheFile.copyOf(properties).persist(path);
+        final long sortedSize = Files.size(path);
+
+        final BinaryCacheFile cache = BinaryCacheFile.load(path);
+        cache.put("a", "3");
+        cache.put("c", "4");
+        cache.remove("b");
+        cache.remove("d");
+        assertWithMessage("Changes should be appended to the same file")
+                .that(cache.persist(path))
+                .isSameInstanceAs(cache);
+        assertWithMessage("Changes should be appended to the end of file")
+                .that(Files.size(path))
+                .isGreaterThan(sortedSize);
+        assertWithMessage("Persisting without changes should not write")
+                .that(cache.persist(path))
+                .isSameInstanceAs(cache);
+
+        final Map<String, String> expected = new HashMap<>();
+        expected.put("a", "3");
+        expected.put("c", "4");
+        assertWithMessage("Invalid entries after appending changes")
+                .that(getEntries(BinaryCacheFile.load(path)))
+                .isEqualTo(expected);
+        assertWithMessage("Removed entry should have no value")
+                .that(BinaryCacheFile.load(path).get("b"))
+                .isNull();
+    }
+
+    @Test
+    public void testCompaction() throws IOException {
+        final Path path = temporaryFolder.toPath().resolve("cache.bin");
+        BinaryCacheFile.copyOf(new Properties()).persist(path);
+        final BinaryCacheFile cache = BinaryCacheFile.load(path);
+        final Map<String, String> expected = new HashMap<>();
+        for (int index = 0; index < 1100; index++) {
+            cache.put("key" + index, "value" + index);
+            expected.put("key" + index, "value" + index);
+        }
+
+        final BinaryCacheFile compacted = cache.persist(path);
+        assertWithMessage("Too many changes should rewrite the file")
+                .that(compacted)
+                .isNotSameInstanceAs(cache);
+        assertWithMessage("Invalid entries after compaction")
+                .that(getEntries(compacted))
+                .isEqualTo(expected);
+        assertWithMessage("Invalid value after compaction")
+                .that(compacted.get("key1099"))
+                .isEqualTo("value1099");
+    }
+
+    @Test
+    public void testTruncatedChange() throws IOException {
+        final Path path = temporaryFolder.toPath().resolve("cache.bin");
+        final Properties properties = new Properties();
+        properties.setProperty("a", "1");
+        BinaryCacheFile.copyOf(properties).persist(path);
+        final BinaryCacheFile cache = BinaryCacheFile.load(path);
+        cache.put("b", "2");
+        cache.persist(path);
+        Files.write(path, new byte[] {1, 0, 0}, StandardOpenOption.APPEND);
+
+        final BinaryCacheFile truncated = BinaryCacheFile.load(path);
+        final Map<String, String> expected = new HashMap<>();
+        expected.put("a", "1");
+        expected.put("b", "2");
+        assertWithMessage("Complete changes should be kept")
+                .that(getEntries(truncated))
+                .isEqualTo(expected);
+        assertWithMessage("File with truncated change should be rewritten")
+                .that(truncated.persist(path))
+                .isNotSameInstanceAs(truncated);
+        assertWithMessage("Invalid entries after rewrite")
+                .that(getEntries(BinaryCacheFile.load(path)))
+                .isEqualTo(expected);
+    }
+
+    @Test
+    public void testNegativeLengthOfChange() throws IOException {
+        final Path path = temporaryFolder.toPath().resolve("cache.bin");
+        BinaryCacheFile.copyOf(new Properties()).persist(path);
+        Files.write(path, new byte[] {1, -1, -1, -1, -1}, StandardOpenOption.APPEND);
+
+        assertWithMessage("Change with invalid length should be ignored")
+                .that(getEntries(BinaryCacheFile.load(path)))
+                .isEmpty();
+    }
+
+    @Test
+    public void testCorruptedHeader() throws IOException {
+        final Path path = temporaryFolder.toPath().resolve("cache.bin");
+        final int magic = ByteBuffer.wrap("CSC1".getBytes(StandardCharsets.US_ASCII)).getInt();
+        writeHeader(path, magic, -1, 12);
+        assertWithMessage("Negative number of entries should be ignored")
+                .that(getEntries(BinaryCacheFile.load(path)))
+                .isEmpty();
+        writeHeader(path, magic, 1, 12);
+        assertWithMessage("Offsets out of file should be ignored")
+                .that(getEntries(BinaryCacheFile.load(path)))
+                .isEmpty();
+        writeHeader(path, magic, 0, 16);
+        assertWithMessage("Changes out of file should be ignored")
+                .that(getEntries(BinaryCacheFile.load(path)))
+                .isEmpty();
+        writeHeader(path, 0, 0, 12);
+        assertWithMessage("File without magic number should be ignored")
+                .that(getEntries(BinaryCacheFile.load(path)))
+                .isEmpty();
+        Files.write(path, new byte[] {0x43});
+        assertWithMessage("Too short file should be ignored")
+                .that(getEntries(BinaryCacheFile.load(path)))
+                .isEmpty();
+    }
+
+    @Test
+    public void testOverflowingNumberOfEntries() throws IOException {
+        final Path path = temporaryFolder.toPath().resolve("cache.bin");
+        final int magic = ByteBuffer.wrap("CSC1".getBytes(StandardCharsets.US_ASCII)).getInt();
+        writeHeader(path, magic, 0x4000_0000, 12);
+        final BinaryCacheFile cache = BinaryCacheFile.load(path);
+        assertWithMessage("Number of entries whose offsets overflow should be ignored")
+                .that(cache.get("a"))
+                .isNull();
+        assertWithMessage("Number of entries whose offsets overflow should be ignored")
+                .that(getEntries(cache))
+                .isEmpty();
+    }
+
+    @Test
+    public void testGarbageEntries() throws IOException {
+        final Path path = temporaryFolder.toPath().resolve("cache.bin");
+        final int magic = ByteBuffer.wrap("CSC1".getBytes(StandardCharsets.US_ASCII)).getInt();
+        for (int offset : new int[] {1000, -1, 12, 16}) {
+            writeHeader(path, magic, 1, 16);
+            Files.write(path, ByteBuffer.allocate(Integer.BYTES).putInt(offset).array(),
+                    StandardOpenOption.APPEND);
+            final BinaryCacheFile cache = BinaryCacheFile.load(path);
+            assertWithMessage("Entry with garbage offset %s should have no value", offset)
+                    .that(cache.get("a"))
+                    .isNull();
+            assertWithMessage("File with garbage offset %s should be empty", offset)
+                    .that(getEntries(BinaryCacheFile.load(path)))
+                    .isEmpty();
+            cache.put("b", "2");
+            assertWithMessage("File with garbage offset %s should be rewritten", offset)
+                    .that(cache.persist(path))
+                    .isNotSameInstanceAs(cache);
+            assertWithMessage("Invalid entries after rewrite")
+                    .that(getEntries(BinaryCacheFile.load(path)))
+                    .isEqualTo(Map.of("b", "2"));
+        }
+    }
+
+    @Test
+    public void testChangesAreCompactedOnLoad() throws IOException {
+        final Path path = temporaryFolder.toPath().resolve("cache.bin");
+        final Properties properties = new Properties();
+        properties.setProperty("a", "1");
+        BinaryCacheFile.copyOf(properties).persist(path);
+        final BinaryCacheFile cache = BinaryCacheFile.load(path);
+        cache.put("b", "2");
+        cache.persist(path);
+        cache.remove("b");
+        cache.remove("a");
+        cache.persist(path);
+
+        final BinaryCacheFile loaded = BinaryCacheFile.load(path);
+        final Map<String, String> changes = TestUtil.getInternalState(loaded, "changes");
+        final Map<String, String> expected = new HashMap<>();
+        expected.put("a", null);
+        assertWithMessage("Only the removal of a sorted entry should be kept")
+                .that(changes)
+                .isEqualTo(expected);
+        assertWithMessage("Invalid entries")
+                .that(getEntries(loaded))
+                .isEmpty();
+    }
+
+    @Test
+    public void testTooManyChangesAreCompactedOnLoad() throws IOException {
+        final Path path = temporaryFolder.toPath().resolve("cache.bin");
+        BinaryCacheFile.copyOf(new Properties()).persist(path);
+        for (int index = 0; index < 1100; index++) {
+            final byte[] value = ("value" + index).getBytes(StandardCharsets.UTF_8);
+            final byte[] key = "key".getBytes(StandardCharsets.UTF_8);
+            final ByteBuffer change =
+                    ByteBuffer.allocate(1 + 2 * Integer.BYTES + key.length + value.length);
+            change.put((byte) 1).putInt(key.length).put(key).putInt(value.length).put(value);
+            Files.write(path, change.array(), StandardOpenOption.APPEND);
+        }
+
+        final BinaryCacheFile loaded = BinaryCacheFile.load(path);
+        assertWithMessage("File with too many changes should be rewritten")
+                .that(loaded.persist(path))
+                .isNotSameInstanceAs(loaded);
+        assertWithMessage("Invalid value after rewrite")
+                .that(BinaryCacheFile.load(path).get("key"))
+                .isEqualTo("value1099");
+    }
+
+    @Test
+    public void testRewrittenEntriesStayReadable() throws IOException {
+        final Path path = temporaryFolder.toPath().resolve("cache.bin");
+        final Properties properties = new Properties();
+        properties.setProperty("a", "1");
+        BinaryCacheFile.copyOf(properties).persist(path);
+        final BinaryCacheFile cache = BinaryCacheFile.load(path);
+        cache.clear();
+        cache.put("b", "2");
+
+        assertWithMessage("Cleared file should be rewritten")
+                .that(cache.persist(path))
+                .isNotSameInstanceAs(cache);
+        assertWithMessage("Rewritten entries should stay readable")
+                .that(getEntries(cache))
+                .isEqualTo(Map.of("b", "2"));
+        assertWithMessage("No temporary file should be left")
+                .that(temporaryFolder.list())
+                .asList()
+                .containsExactly("cache.bin");
+    }
+
+    @Test
+    public void testClear() throws IOException {
+        final Path path = temporaryFolder.toPath().resolve("cache.bin");
+        final Properties properties = new Properties();
+        properties.setProperty("a", "1");
+        BinaryCacheFile.copyOf(properties).persist(path);
+        final BinaryCacheFile cache = BinaryCacheFile.load(path);
+        cache.put("b", "2");
+        cache.clear();
+
+        assertWithMessage("Cleared entry should have no value")
+                .that(cache.get("a"))
+                .isNull();
+        assertWithMessage("Cleared cache should have no entries")
+                .that(getEntries(cache))
+                .isEmpty();
+        assertWithMessage("Cleared cache should have no entries when persisted")
+                .that(getEntries(cache.persist(path)))
+                .isEmpty();
+    }
+
+    @Test
+    public void testIsBinary() throws IOException {
+        final Path path = temporaryFolder.toPath().resolve("cache.properties");
+        Files.writeString(path, "a=1");
+        assertWithMessage("Properties file should not be in binary format")
+                .that(BinaryCacheFile.isBinary(path))
+                .isFalse();
+        Files.write(path, new byte[0]);
+        assertWithMessage("Empty file should not be in binary format")
+                .that(BinaryCacheFile.isBinary(path))
+                .isFalse();
+    }
+
+    private static Map<String, String> getEntries(BinaryCacheFile cache) {
+        final Map<String, String> entries = new HashMap<>();
+        cache.forEach(entries::put);
+        return entries;
+    }
+
+    private static void writeHeader(Path path, int magic, int size, int changesOffset)
+            throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(3 * Integer.BYTES);
+        header.putInt(magic);
+        header.putInt(size);
+        header.putInt(changesOffset);
+        Files.write(path, header.array());
+    }
+
+}
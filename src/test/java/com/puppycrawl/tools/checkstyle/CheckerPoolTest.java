@@ -0,0 +1,162 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static com.puppycrawl.tools.checkstyle.internal.utils.TestUtil.getExpectedThrowable;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevelCounter;
+import com.puppycrawl.tools.checkstyle.internal.testmodules.CheckWhichThrowsError;
+import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
+
+public class CheckerPoolTest {
+
+    @TempDir
+    public File temporaryFolder;
+
+    private DefaultConfiguration checkerConfig;
+
+    private List<File> files;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        final DefaultConfiguration typeNameConfig = new DefaultConfiguration("TypeName");
+        typeNameConfig.addProperty("format", "^[a-z]*$");
+        final DefaultConfiguration treeWalkerConfig = new DefaultConfiguration("TreeWalker");
+        treeWalkerConfig.addChild(typeNameConfig);
+        checkerConfig = new DefaultConfiguration("Checker");
+        checkerConfig.addChild(treeWalkerConfig);
+
+        final File valid = new File(temporaryFolder, "Valid.java");
+        final File invalid = new File(temporaryFolder, "Invalid.java");
+        Files.writeString(valid.toPath(), "class valid {}");
+        Files.writeString(invalid.toPath(), "class Invalid {}");
+        files = List.of(valid, invalid);
+    }
+
+    @Test
+    public void testConcurrentProcess() throws Exception {
+        final int calls = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (CheckerPool pool = createPool(2)) {
+            final Collection<Callable<Integer>> tasks = new ArrayList<>();
+            for (int call = 0; call < calls; call++) {
+                tasks.add(() -> {
+                    final SeverityLevelCounter counter =
+                            new SeverityLevelCounter(SeverityLevel.ERROR);
+                    final int errorCount = pool.process(files, List.of(counter));
+                    return errorCount * 10 + counter.getCount();
+                });
+            }
+            for (Future<Integer> result : executor.invokeAll(tasks)) {
+                assertWithMessage("Each call should find one error and notify its listener")
+                        .that(result.get())
+                        .isEqualTo(11);
+            }
+            final Collection<?> idleCheckers = TestUtil.getInternalState(pool, "idleCheckers");
+            assertWithMessage("Checkers should be reused")
+                    .that(idleCheckers.size())
+                    .isAtMost(2);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testListenersAreAttachedPerCall() throws Exception {
+        try (CheckerPool pool = createPool(1)) {
+            final SeverityLevelCounter first = new SeverityLevelCounter(SeverityLevel.ERROR);
+            pool.process(files, List.of(first));
+            final SeverityLevelCounter second = new SeverityLevelCounter(SeverityLevel.ERROR);
+            final FileText text = new FileText(new File(temporaryFolder, "Unsaved.java"),
+                    "class Unsaved {}\nclass Other {}");
+
+            assertWithMessage("Invalid error count of texts")
+                    .that(pool.processFileTexts(List.of(text), List.of(second)))
+                    .isEqualTo(2);
+            assertWithMessage("Listener of the first call should not be notified again")
+                    .that(first.getCount())
+                    .isEqualTo(1);
+            assertWithMessage("Listener of the second call should be notified")
+                    .that(second.getCount())
+                    .isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void testFailedCheckerIsNotReused() throws Exception {
+        final DefaultConfiguration treeWalkerConfig = new DefaultConfiguration("TreeWalker");
+        treeWalkerConfig.addChild(
+                new DefaultConfiguration(CheckWhichThrowsError.class.getName()));
+        checkerConfig = new DefaultConfiguration("Checker");
+        checkerConfig.addChild(treeWalkerConfig);
+        try (CheckerPool pool = createPool(1)) {
+            getExpectedThrowable(CheckstyleException.class,
+                    () -> pool.process(files, List.of()));
+            final Collection<?> idleCheckers = TestUtil.getInternalState(pool, "idleCheckers");
+            assertWithMessage("Failed checker should not be returned to the pool")
+                    .that(idleCheckers)
+                    .isEmpty();
+        }
+    }
+
+    @Test
+    public void testClosedPool() throws Exception {
+        final CheckerPool pool = createPool(1);
+        pool.close();
+        final IllegalStateException ex = getExpectedThrowable(IllegalStateException.class,
+                () -> pool.process(files, List.of()));
+        assertWithMessage("Invalid exception message")
+                .that(ex.getMessage())
+                .isEqualTo("Checker pool is closed");
+    }
+
+    @Test
+    public void testInvalidSize() {
+        final IllegalArgumentException ex = getExpectedThrowable(IllegalArgumentException.class,
+                () -> createPool(0));
+        assertWithMessage("Invalid exception message")
+                .that(ex.getMessage())
+                .isEqualTo("Invalid size of pool: 0");
+    }
+
+    private CheckerPool createPool(int maxSize) throws CheckstyleException {
+        return new CheckerPool(checkerConfig, Checker.class.getClassLoader(), maxSize);
+    }
+
+}
@@ -24,6 +24,7 @@ import static com.puppycrawl.tools.checkstyle.Checker.EXCEPTION_MSG;
 import static com.puppycrawl.tools.checkstyle.DefaultLogger.AUDIT_FINISHED_MESSAGE;
 import static com.puppycrawl.tools.checkstyle.DefaultLogger.AUDIT_STARTED_MESSAGE;
 import static com.puppycrawl.tools.checkstyle.checks.NewlineAtEndOfFileCheck.MSG_KEY_NO_NEWLINE_EOF;
+import static com.puppycrawl.tools.checkstyle.checks.imports.ImportControlCheck.MSG_DISALLOWED;
 import static com.puppycrawl.tools.checkstyle.checks.sizes.LineLengthCheck.MSG_KEY;
 
 import java.io.BufferedReader;
@@ -44,9 +45,11 @@ import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.SortedSet;
@@ -73,9 +76,16 @@ import com.puppycrawl.tools.checkstyle.api.MessageDispatcher;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.api.Violation;
 import com.puppycrawl.tools.checkstyle.checks.NewlineAtEndOfFileCheck;
+import com.puppycrawl.tools.checkstyle.checks.SuppressWarningsHolder;
 import com.puppycrawl.tools.checkstyle.checks.TranslationCheck;
 import com.puppycrawl.tools.checkstyle.checks.coding.HiddenFieldCheck;
+import com.puppycrawl.tools.checkstyle.checks.coding.MagicNumberCheck;
+import com.puppycrawl.tools.checkstyle.checks.imports.ImportControlCheck;
+import com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocPackageCheck;
+import com.puppycrawl.tools.checkstyle.checks.naming.TypeNameCheck;
 import com.puppycrawl.tools.checkstyle.checks.sizes.LineLengthCheck;
+import com.puppycrawl.tools.checkstyle.filters.SuppressWarningsFilter;
+import com.puppycrawl.tools.checkstyle.filters.SuppressWithPlainTextCommentFilter;
 import com.puppycrawl.tools.checkstyle.filters.SuppressionFilter;
 import com.puppycrawl.tools.checkstyle.internal.testmodules.CheckWhichThrowsError;
 import com.puppycrawl.tools.checkstyle.internal.testmodules.DebugAuditAdapter;
@@ -650,13 +660,14 @@ public class CheckerTest extends AbstractModuleTestSupport {
             cache.load(reader);
         }
 
-        // There should 2 objects in cache: processed file (file.java) and checker configuration.
-        final int expectedNumberOfObjectsInCache = 2;
+        // There should 4 objects in cache: processed file (file.java), the fingerprints
+        // of its modules with their id and checker configuration.
+        final int expectedNumberOfObjectsInCache = 4;
         assertWithMessage("Cache has unexpected size")
             .that(cache)
             .hasSize(expectedNumberOfObjectsInCache);
 
-        final String expectedConfigHash = "D581D4A2BD482D4E1EF1F82459356BA2D8A3B" + "FC3";
+        final String expectedConfigHash = "55A72E0E1CF89F4DA9E0D3EA71873942242B4AE4";
         assertWithMessage("Cache has unexpected hash")
             .that(cache.getProperty(PropertyCacheFile.CONFIG_HASH_KEY))
             .isEqualTo(expectedConfigHash);
@@ -666,6 +677,110 @@ public class CheckerTest extends AbstractModuleTestSupport {
             .isNotNull();
     }
 
+    @Test
+    public void testCacheByContentIsValidForOtherBasedir() throws Exception {
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final File firstCheckout =
+            Files.createDirectory(temporaryFolder.toPath().resolve("first")).toFile();
+        final File secondCheckout =
+            Files.createDirectory(temporaryFolder.toPath().resolve("second")).toFile();
+        final String content = "class Input {}" + System.lineSeparator();
+        final File firstFile = new File(firstCheckout, "Input.java");
+        Files.writeString(firstFile.toPath(), content);
+        final File secondFile = new File(secondCheckout, "Input.java");
+        Files.writeString(secondFile.toPath(), content);
+
+        final Checker firstChecker = createCheckerWithContentCache(cacheFile);
+        firstChecker.setBasedir(firstCheckout.getAbsolutePath());
+        firstChecker.process(Collections.singletonList(firstFile));
+        // invoke destroy to persist cache
+        firstChecker.destroy();
+
+        final Properties cache = new Properties();
+        try (BufferedReader reader = Files.newBufferedReader(cacheFile.toPath())) {
+            cache.load(reader);
+        }
+        assertWithMessage("Cache should be keyed by path relative to basedir")
+            .that(cache.getProperty("Input.java"))
+            .isNotNull();
+
+        final Checker secondChecker = createCheckerWithContentCache(cacheFile);
+        secondChecker.setBasedir(secondCheckout.getAbsolutePath());
+        final DebugAuditAdapter auditAdapter = new DebugAuditAdapter();
+        secondChecker.addListener(auditAdapter);
+        secondChecker.process(Collections.singletonList(secondFile));
+        assertWithMessage("Unchanged file in other basedir should be skipped")
+            .that(auditAdapter.getNumFilesStarted())
+            .isEqualTo(0);
+
+        Files.writeString(secondFile.toPath(), "class Input { }" + System.lineSeparator());
+        secondChecker.process(Collections.singletonList(secondFile));
+        assertWithMessage("Changed file should be processed")
+            .that(auditAdapter.getNumFilesStarted())
+            .isEqualTo(1);
+    }
+
+    private static Checker createCheckerWithContentCache(File cacheFile) throws Exception {
+        final Checker checker = new Checker();
+        final PackageObjectFactory factory = new PackageObjectFactory(
+            new HashSet<>(), Thread.currentThread().getContextClassLoader());
+        checker.setModuleFactory(factory);
+        checker.configure(createModuleConfig(TranslationCheck.class));
+        checker.setCacheByContent(true);
+        checker.setCacheFile(cacheFile.getPath());
+        return checker;
+    }
+
+    @Test
+    public void testReportFilterIsAppliedAfterCaching() throws Exception {
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final File file = File.createTempFile("file", ".java", temporaryFolder);
+        Files.writeString(file.toPath(), "class Input {}");
+
+        final Checker filteringChecker = createCheckerWithNewlineCheck(cacheFile);
+        filteringChecker.addReportFilter(event -> false);
+        assertWithMessage("Violation should be filtered")
+            .that(filteringChecker.process(Collections.singletonList(file)))
+            .isEqualTo(0);
+        // invoke destroy to persist cache
+        filteringChecker.destroy();
+
+        final Checker checker = createCheckerWithNewlineCheck(cacheFile);
+        assertWithMessage("Cached violations should not be filtered by report filters")
+            .that(checker.process(Collections.singletonList(file)))
+            .isEqualTo(1);
+    }
+
+    private static Checker createCheckerWithNewlineCheck(File cacheFile) throws Exception {
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(createRootConfig(createModuleConfig(NewlineAtEndOfFileCheck.class)));
+        checker.setCacheFile(cacheFile.getPath());
+        return checker;
+    }
+
+    @Test
+    public void testBinaryCache() throws Exception {
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final DefaultConfiguration checkerConfig = createRootConfig(null);
+        checkerConfig.addProperty("cacheFile", cacheFile.getPath());
+        checkerConfig.addProperty("binaryCache", "true");
+        final File file = File.createTempFile("file", ".java", temporaryFolder);
+
+        execute(checkerConfig, file.getPath());
+        assertWithMessage("Cache file should be in binary format")
+            .that(BinaryCacheFile.isBinary(cacheFile.toPath()))
+            .isTrue();
+
+        final Checker checker = createChecker(checkerConfig);
+        final DebugAuditAdapter auditAdapter = new DebugAuditAdapter();
+        checker.addListener(auditAdapter);
+        checker.process(Collections.singletonList(file));
+        assertWithMessage("Unchanged file should be skipped")
+            .that(auditAdapter.getNumFilesStarted())
+            .isEqualTo(0);
+    }
+
     @Test
     public void testClearExistingCache() throws Exception {
         final DefaultConfiguration checkerConfig = createRootConfig(null);
@@ -711,7 +826,7 @@ public class CheckerTest extends AbstractModuleTestSupport {
         assertWithMessage("Cash have changed it hash")
             .that(cacheHash)
             .isEqualTo(cacheAfterClear.getProperty(PropertyCacheFile.CONFIG_HASH_KEY));
-        final int expectedNumberOfObjectsInCacheAfterSecondRun = 2;
+        final int expectedNumberOfObjectsInCacheAfterSecondRun = 4;
         assertWithMessage("Cache has changed number of items")
             .that(cacheAfterSecondRun)
             .hasSize(expectedNumberOfObjectsInCacheAfterSecondRun);
@@ -800,6 +915,10 @@ public class CheckerTest extends AbstractModuleTestSupport {
         };
 
         final Checker checker = new Checker();
+        // the timestamp of a file is read only to compare it with the cache
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(new DefaultConfiguration("default config"));
+        checker.setCacheFile(File.createTempFile("junit", null, temporaryFolder).getPath());
         final List<File> filesToProcess = new ArrayList<>();
         filesToProcess.add(mock);
         try {
@@ -859,6 +978,10 @@ public class CheckerTest extends AbstractModuleTestSupport {
         };
 
         final Checker checker = new Checker();
+        // the timestamp of a file is read only to compare it with the cache
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(new DefaultConfiguration("default config"));
+        checker.setCacheFile(File.createTempFile("junit", null, temporaryFolder).getPath());
         final List<File> filesToProcess = new ArrayList<>();
         filesToProcess.add(mock);
         try {
@@ -924,7 +1047,7 @@ public class CheckerTest extends AbstractModuleTestSupport {
         assertWithMessage("Cache has changed its hash")
             .that(cacheHash)
             .isEqualTo(cacheAfterFirstRun.getProperty(PropertyCacheFile.CONFIG_HASH_KEY));
-        final int expectedNumberOfObjectsInCache = 2;
+        final int expectedNumberOfObjectsInCache = 4;
         assertWithMessage("Number of items in cache differs from expected")
             .that(cacheAfterFirstRun)
             .hasSize(expectedNumberOfObjectsInCache);
@@ -972,7 +1095,7 @@ public class CheckerTest extends AbstractModuleTestSupport {
             cacheAfterFirstRun.load(reader);
         }
 
-        final int expectedNumberOfObjectsInCacheAfterFirstRun = 4;
+        final int expectedNumberOfObjectsInCacheAfterFirstRun = 7;
         assertWithMessage("Number of items in cache differs from expected")
             .that(cacheAfterFirstRun)
             .hasSize(expectedNumberOfObjectsInCacheAfterFirstRun);
@@ -1007,7 +1130,7 @@ public class CheckerTest extends AbstractModuleTestSupport {
         assertWithMessage("Cache has null as a resource key")
             .that(cacheAfterFirstRun.getProperty(firstExternalResourceKey))
             .isNotNull();
-        final int expectedNumberOfObjectsInCacheAfterSecondRun = 4;
+        final int expectedNumberOfObjectsInCacheAfterSecondRun = 7;
         assertWithMessage("Number of items in cache differs from expected")
             .that(cacheAfterSecondRun)
             .hasSize(expectedNumberOfObjectsInCacheAfterSecondRun);
@@ -1056,6 +1179,231 @@ public class CheckerTest extends AbstractModuleTestSupport {
         }
     }
 
+    @Test
+    public void testCacheReplaysViolationsOfUnchangedFile() throws Exception {
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final DefaultConfiguration checkerConfig =
+                createRootConfig(createModuleConfig(CountingFileSetViolationCheck.class));
+        checkerConfig.addProperty("cacheFile", cacheFile.getPath());
+        final String filePath =
+                File.createTempFile("ViolationFile", ".java", temporaryFolder).getPath();
+        CountingFileSetViolationCheck.processedFiles = 0;
+
+        final String[] expected = {
+            "1: processed 1 file, it's {not} an argument",
+        };
+        verify(checkerConfig, filePath, expected);
+        // violation is replayed from the cache, even though it was logged by the first run
+        verify(checkerConfig, filePath, expected);
+        assertWithMessage("Unchanged file should not be processed again")
+            .that(CountingFileSetViolationCheck.processedFiles)
+            .isEqualTo(1);
+    }
+
+    @Test
+    public void testCacheProcessesUnchangedFileOnlyWithChangedModules() throws Exception {
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final DefaultConfiguration firstCheckConfig =
+                createModuleConfig(CountingFileSetViolationCheck.class);
+        firstCheckConfig.addProperty("id", "first");
+        final DefaultConfiguration secondCheckConfig =
+                createModuleConfig(CountingFileSetViolationCheck.class);
+        secondCheckConfig.addProperty("id", "second");
+        final DefaultConfiguration checkerConfig = createRootConfig(firstCheckConfig);
+        checkerConfig.addChild(secondCheckConfig);
+        checkerConfig.addProperty("cacheFile", cacheFile.getPath());
+        final String filePath =
+                File.createTempFile("ViolationFile", ".java", temporaryFolder).getPath();
+        CountingFileSetViolationCheck.processedFiles = 0;
+
+        final String[] expected = {
+            "1: processed 1 file, it's {not} an argument",
+            "1: processed 2 file, it's {not} an argument",
+        };
+        verify(checkerConfig, filePath, expected);
+
+        secondCheckConfig.addProperty("fileExtensions", "java");
+        final String[] expectedAfterChange = {
+            "1: processed 1 file, it's {not} an argument",
+            "1: processed 3 file, it's {not} an argument",
+        };
+        verify(checkerConfig, filePath, expectedAfterChange);
+        assertWithMessage("Only the changed module should process the file again")
+            .that(CountingFileSetViolationCheck.processedFiles)
+            .isEqualTo(3);
+
+        verify(checkerConfig, filePath, expectedAfterChange);
+        assertWithMessage("Unchanged file should not be processed again")
+            .that(CountingFileSetViolationCheck.processedFiles)
+            .isEqualTo(3);
+    }
+
+    @Test
+    public void testCacheWalksUnchangedFileOnlyWithChangedChecks() throws Exception {
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final DefaultConfiguration firstCheckConfig = createModuleConfig(CountingCheck.class);
+        firstCheckConfig.addProperty("id", "first");
+        final DefaultConfiguration secondCheckConfig = createModuleConfig(CountingCheck.class);
+        secondCheckConfig.addProperty("id", "second");
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(firstCheckConfig);
+        treeWalkerConfig.addChild(secondCheckConfig);
+        final DefaultConfiguration checkerConfig = createRootConfig(treeWalkerConfig);
+        checkerConfig.addProperty("cacheFile", cacheFile.getPath());
+        final String filePath = getPath("InputChecker.java");
+        CountingCheck.walkedTrees = 0;
+
+        verify(checkerConfig, filePath, "1: walked 1 tree", "1: walked 2 tree");
+
+        secondCheckConfig.addProperty("description", "changed");
+        verify(checkerConfig, filePath, "1: walked 1 tree", "1: walked 3 tree");
+        assertWithMessage("Only the changed check should walk the tree again")
+            .that(CountingCheck.walkedTrees)
+            .isEqualTo(3);
+    }
+
+    @Test
+    public void testCacheIsClearedWhenSharedConfigurationChanges() throws Exception {
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final DefaultConfiguration checkerConfig =
+                createRootConfig(createModuleConfig(CountingFileSetViolationCheck.class));
+        checkerConfig.addProperty("cacheFile", cacheFile.getPath());
+        final String filePath =
+                File.createTempFile("ViolationFile", ".java", temporaryFolder).getPath();
+        CountingFileSetViolationCheck.processedFiles = 0;
+
+        verify(checkerConfig, filePath, "1: processed 1 file, it's {not} an argument");
+        checkerConfig.addProperty("tabWidth", "4");
+        verify(checkerConfig, filePath, "1: processed 2 file, it's {not} an argument");
+    }
+
+    @Test
+    public void testCacheDirectoryIsSharedByWorkingCopies() throws Exception {
+        final File cacheDirectory = new File(temporaryFolder, "cache");
+        final String content = "class Input {}" + System.lineSeparator();
+        final File firstCheckout = new File(temporaryFolder, "first");
+        final File secondCheckout = new File(temporaryFolder, "second");
+        final File firstFile = new File(firstCheckout, "Input.java");
+        final File secondFile = new File(secondCheckout, "Input.java");
+        Files.createDirectories(firstCheckout.toPath());
+        Files.createDirectories(secondCheckout.toPath());
+        Files.writeString(firstFile.toPath(), content);
+        Files.writeString(secondFile.toPath(), content);
+        CountingFileSetViolationCheck.processedFiles = 0;
+        final String[] expected = {
+            "1: processed 1 file, it's {not} an argument",
+        };
+
+        final DefaultConfiguration firstConfig =
+                createRootConfig(createModuleConfig(CountingFileSetViolationCheck.class));
+        firstConfig.addProperty("cacheDirectory", cacheDirectory.getPath());
+        firstConfig.addProperty("basedir", firstCheckout.getPath());
+        verify(createChecker(firstConfig), firstFile.getPath(), "Input.java", expected);
+
+        final DefaultConfiguration secondConfig =
+                createRootConfig(createModuleConfig(CountingFileSetViolationCheck.class));
+        secondConfig.addProperty("cacheDirectory", cacheDirectory.getPath());
+        secondConfig.addProperty("cacheDirectoryMaxSize", "1048576");
+        secondConfig.addProperty("basedir", secondCheckout.getPath());
+        verify(createChecker(secondConfig), secondFile.getPath(), "Input.java", expected);
+        assertWithMessage("Identical file should not be processed again")
+            .that(CountingFileSetViolationCheck.processedFiles)
+            .isEqualTo(1);
+    }
+
+    @Test
+    public void testDeduplicateContent() throws Exception {
+        verifyDeduplicateContent(ThreadModeSettings.SINGLE_THREAD_MODE_INSTANCE);
+    }
+
+    @Test
+    public void testDeduplicateContentInMultiThreadMode() throws Exception {
+        verifyDeduplicateContent(new ThreadModeSettings(2, 1));
+    }
+
+    private void verifyDeduplicateContent(ThreadModeSettings threadModeSettings)
+            throws Exception {
+        final String content = "class Input {}" + System.lineSeparator();
+        final File firstFile = new File(new File(temporaryFolder, "first"), "Input.java");
+        final File secondFile = new File(new File(temporaryFolder, "second"), "Input.java");
+        Files.createDirectories(firstFile.getParentFile().toPath());
+        Files.createDirectories(secondFile.getParentFile().toPath());
+        Files.writeString(firstFile.toPath(), content);
+        Files.writeString(secondFile.toPath(), content);
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(createModuleConfig(CountingCheck.class));
+        final DefaultConfiguration checkerConfig =
+                new DefaultConfiguration("checkstyle_checks", threadModeSettings);
+        checkerConfig.addChild(treeWalkerConfig);
+        checkerConfig.addChild(createModuleConfig(DirectoryNameCheck.class));
+        checkerConfig.addProperty("deduplicateContent", "true");
+        CountingCheck.walkedTrees = 0;
+
+        final Map<String, List<String>> expected = new HashMap<>();
+        expected.put(firstFile.getPath(), List.of("1: walked 1 tree", "1: in first"));
+        expected.put(secondFile.getPath(), List.of("1: walked 1 tree", "1: in second"));
+        verify(createChecker(checkerConfig), new File[] {firstFile, secondFile}, expected);
+        assertWithMessage("Identical file should be walked once")
+            .that(CountingCheck.walkedTrees)
+            .isEqualTo(1);
+    }
+
+    @Test
+    public void testDeduplicateContentWithPathScopedImportControl() throws Exception {
+        final String content = String.join(System.lineSeparator(),
+                "package com.puppycrawl.tools.checkstyle.checks.imports;",
+                "import java.util.List;",
+                "class Input {}", "");
+        final File otherFile = new File(new File(temporaryFolder, "other"), "Input.java");
+        final File scopedFile = new File(new File(temporaryFolder, "scoped"), "Input.java");
+        Files.createDirectories(otherFile.getParentFile().toPath());
+        Files.createDirectories(scopedFile.getParentFile().toPath());
+        Files.writeString(otherFile.toPath(), content);
+        Files.writeString(scopedFile.toPath(), content);
+        final DefaultConfiguration importControlConfig =
+                createModuleConfig(ImportControlCheck.class);
+        importControlConfig.addProperty("file", getPath("InputCheckerImportControlOne.xml"));
+        importControlConfig.addProperty("path", "[\\\\/]scoped[\\\\/]");
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(importControlConfig);
+        final DefaultConfiguration checkerConfig = createRootConfig(treeWalkerConfig);
+        checkerConfig.addProperty("deduplicateContent", "true");
+
+        final Map<String, List<String>> expected = new HashMap<>();
+        expected.put(otherFile.getPath(), Collections.emptyList());
+        expected.put(scopedFile.getPath(), List.of("2:1: "
+                + getCheckMessage(ImportControlCheck.class, MSG_DISALLOWED, "java.util.List")));
+        verify(createChecker(checkerConfig), new File[] {otherFile, scopedFile}, expected);
+    }
+
+    @Test
+    public void testProcessFileTexts() throws Exception {
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final DefaultConfiguration typeNameConfig = createModuleConfig(TypeNameCheck.class);
+        typeNameConfig.addProperty("format", "^[a-z]*$");
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(typeNameConfig);
+        final DefaultConfiguration checkerConfig = createRootConfig(treeWalkerConfig);
+        checkerConfig.addChild(createModuleConfig(SuppressWithPlainTextCommentFilter.class));
+        checkerConfig.addProperty("cacheFile", cacheFile.getPath());
+        checkerConfig.addProperty("deduplicateContent", "true");
+        final Checker checker = createChecker(checkerConfig);
+        final File file = new File(temporaryFolder, "Unsaved.java");
+        final FileText text = new FileText(file, (CharSequence) String.join("\n",
+                "class Unsaved {}", "// CHECKSTYLE:OFF", "class Suppressed {}"));
+
+        assertWithMessage("Invalid error count")
+            .that(checker.processFileTexts(List.of(text)))
+            .isEqualTo(1);
+        checker.destroy();
+        assertWithMessage("Violation of the text should be reported")
+            .that(getStream().toString(StandardCharsets.UTF_8))
+            .contains(file.getPath() + ":1:7: Name 'Unsaved' must match pattern");
+        assertWithMessage("Violations of the text should not be cached")
+            .that(Files.readString(cacheFile.toPath()))
+            .doesNotContain("Unsaved");
+    }
+
     @Test
     public void testHaltOnException() throws Exception {
         final DefaultConfiguration checkConfig =
@@ -1677,6 +2025,221 @@ public class CheckerTest extends AbstractModuleTestSupport {
         verify(checkerConfig, filePath, expected);
     }
 
+    @Test
+    public void testMultiThreadModeReportsSameAsSingleThreadMode() throws Exception {
+        final List<File> files = new ArrayList<>();
+        for (int fileIndex = 0; fileIndex < 20; fileIndex++) {
+            final File file = File.createTempFile("Input" + fileIndex, ".java", temporaryFolder);
+            final StringBuilder content = new StringBuilder(1024);
+            content.append("class Input").append(fileIndex).append(" {\n");
+            for (int field = 0; field < fileIndex * 10; field++) {
+                if (field % 5 == 0) {
+                    content.append("    @SuppressWarnings(\"checkstyle:magicnumber\")\n");
+                }
+                content.append("    int field").append(field).append(" = ");
+                if (field % 3 == 0) {
+                    content.append("1000000000 + 1000000000 + 1000000000 + 100000000");
+                }
+                else {
+                    content.append('1');
+                }
+                content.append(";\n");
+            }
+            content.append('}');
+            Files.writeString(file.toPath(), content);
+            files.add(file);
+        }
+
+        final String expected = processWithXmlLogger(ThreadModeSettings.SINGLE_THREAD_MODE_INSTANCE,
+                files);
+        final String actual = processWithXmlLogger(new ThreadModeSettings(4, 1), files);
+
+        assertWithMessage("Multi thread mode should report the same output")
+                .that(actual)
+                .isEqualTo(expected);
+        assertWithMessage("Violations are expected")
+                .that(expected)
+                .contains("<error ");
+    }
+
+    @Test
+    public void testMultiThreadModeProcessesRepeatedFiles() throws Exception {
+        final List<File> files = new ArrayList<>();
+        for (int fileIndex = 0; fileIndex < 3; fileIndex++) {
+            final File file = File.createTempFile("Input" + fileIndex, ".java", temporaryFolder);
+            Files.writeString(file.toPath(), "class Input" + fileIndex + " {\n    int field"
+                    + fileIndex + " = " + (fileIndex + 100) + ";\n}");
+            files.add(file);
+        }
+        files.add(files.get(1));
+        files.add(files.get(0));
+        files.add(files.get(1));
+
+        final String expected = processWithXmlLogger(ThreadModeSettings.SINGLE_THREAD_MODE_INSTANCE,
+                files);
+        final String actual = processWithXmlLogger(new ThreadModeSettings(2, 1), files);
+
+        assertWithMessage("Repeated files should be reported in their order")
+                .that(actual)
+                .isEqualTo(expected);
+    }
+
+    @Test
+    public void testMultiThreadModeWorkersOwnFilters() throws Exception {
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(createModuleConfig(MagicNumberCheck.class));
+        final DefaultConfiguration checkerConfig =
+                new DefaultConfiguration("checkstyle_checks", new ThreadModeSettings(4, 1));
+        checkerConfig.addChild(treeWalkerConfig);
+        checkerConfig.addChild(createModuleConfig(ThreadConfinedFilter.class));
+        final List<File> files = new ArrayList<>();
+        for (int fileIndex = 0; fileIndex < 20; fileIndex++) {
+            final File file = File.createTempFile("Input" + fileIndex, ".java", temporaryFolder);
+            Files.writeString(file.toPath(), "class Input" + fileIndex + " {\n    int field = "
+                    + (fileIndex + 100) + ";\n}\n");
+            files.add(file);
+        }
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+
+        assertWithMessage("Every file should have a violation accepted by the filters")
+                .that(checker.process(files))
+                .isEqualTo(files.size());
+        checker.destroy();
+    }
+
+    @Test
+    public void testMultiThreadModeRunsGlobalStatefulChecksInFileOrder() throws Exception {
+        final List<File> files = new ArrayList<>();
+        for (int directoryIndex = 0; directoryIndex < 3; directoryIndex++) {
+            final File directory = new File(temporaryFolder, "dir" + directoryIndex);
+            Files.createDirectories(directory.toPath());
+            for (int fileIndex = 0; fileIndex < 6; fileIndex++) {
+                final File file = new File(directory, "Input" + fileIndex + ".java");
+                Files.writeString(file.toPath(), "class Input" + fileIndex + " {\n"
+                        + "    int field = 100;\n".repeat(fileIndex * 50) + "}\n");
+                files.add(file);
+            }
+        }
+
+        final String expected = processWithJavadocPackage(
+                ThreadModeSettings.SINGLE_THREAD_MODE_INSTANCE, files);
+        final String actual = processWithJavadocPackage(new ThreadModeSettings(4, 1), files);
+
+        assertWithMessage("Global stateful checks should report on the same files")
+                .that(actual)
+                .isEqualTo(expected);
+        assertWithMessage("Missing package documentation is expected")
+                .that(expected)
+                .contains("JavadocPackageCheck");
+    }
+
+    @Test
+    public void testGlobalStatefulChecksProcessCachedFiles() throws Exception {
+        final File cacheFile = File.createTempFile("junit", null, temporaryFolder);
+        final File directory = new File(temporaryFolder, "package");
+        Files.createDirectories(directory.toPath());
+        final File firstFile = new File(directory, "First.java");
+        Files.writeString(firstFile.toPath(), "class First {}\n");
+        final File secondFile = new File(directory, "Second.java");
+        Files.writeString(secondFile.toPath(), "class Second {}\n");
+        final List<File> files = List.of(firstFile, secondFile);
+
+        assertWithMessage("Missing package documentation should be reported once")
+            .that(processWithCachedJavadocPackage(cacheFile, files))
+            .isEqualTo(1);
+        Files.writeString(secondFile.toPath(), "class Second { }\n");
+        assertWithMessage("Missing package documentation should be reported once with cache")
+            .that(processWithCachedJavadocPackage(cacheFile, files))
+            .isEqualTo(1);
+    }
+
+    @Test
+    public void testMultiThreadModeHaltOnException() throws Exception {
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(createModuleConfig(CheckWhichThrowsError.class));
+        final DefaultConfiguration checkerConfig =
+                new DefaultConfiguration("checkstyle_checks", new ThreadModeSettings(2, 1));
+        checkerConfig.addChild(treeWalkerConfig);
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+        final String filePath = getPath("InputChecker.java");
+
+        try {
+            checker.process(List.of(new File(getPath("InputCheckerTestCharset.java")),
+                    new File(filePath)));
+            assertWithMessage("Exception is expected").fail();
+        }
+        catch (CheckstyleException ex) {
+            assertWithMessage("Error message is not expected")
+                .that(ex.getMessage())
+                .isEqualTo("Exception was thrown while processing "
+                        + getPath("InputCheckerTestCharset.java"));
+        }
+        checker.destroy();
+    }
+
+    private static String processWithXmlLogger(ThreadModeSettings threadModeSettings,
+            List<File> files) throws Exception {
+        final DefaultConfiguration lineLengthConfig = createModuleConfig(LineLengthCheck.class);
+        lineLengthConfig.addProperty("max", "60");
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(createModuleConfig(HiddenFieldCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(MagicNumberCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(SuppressWarningsHolder.class));
+        final DefaultConfiguration checkerConfig =
+                new DefaultConfiguration("checkstyle_checks", threadModeSettings);
+        checkerConfig.addChild(treeWalkerConfig);
+        checkerConfig.addChild(createModuleConfig(SuppressWarningsFilter.class));
+        checkerConfig.addChild(lineLengthConfig);
+        checkerConfig.addChild(createModuleConfig(NewlineAtEndOfFileCheck.class));
+
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        checker.addListener(new XMLLogger(out, OutputStreamOptions.NONE));
+        checker.process(files);
+        checker.destroy();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String processWithJavadocPackage(ThreadModeSettings threadModeSettings,
+            List<File> files) throws Exception {
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(createModuleConfig(MagicNumberCheck.class));
+        final DefaultConfiguration checkerConfig =
+                new DefaultConfiguration("checkstyle_checks", threadModeSettings);
+        checkerConfig.addChild(treeWalkerConfig);
+        checkerConfig.addChild(createModuleConfig(JavadocPackageCheck.class));
+
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        checker.addListener(new XMLLogger(out, OutputStreamOptions.NONE));
+        checker.process(files);
+        checker.destroy();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static int processWithCachedJavadocPackage(File cacheFile, List<File> files)
+            throws Exception {
+        final DefaultConfiguration checkerConfig = createRootConfig(null);
+        checkerConfig.addChild(createModuleConfig(JavadocPackageCheck.class));
+        checkerConfig.addProperty("cacheFile", cacheFile.getPath());
+
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+        final int errors = checker.process(files);
+        // invoke destroy to persist cache
+        checker.destroy();
+        return errors;
+    }
+
     public static class DefaultLoggerWithCounter extends DefaultLogger {
 
         private int fileStartedCount;
@@ -1703,6 +2266,31 @@ public class CheckerTest extends AbstractModuleTestSupport {
 
     }
 
+    /**
+     * Filter which fails if it is used by more than one thread.
+     */
+    public static class ThreadConfinedFilter extends AbstractAutomaticBean implements Filter {
+
+        private Thread owner;
+
+        @Override
+        protected void finishLocalSetup() {
+            // no code
+        }
+
+        @Override
+        public boolean accept(AuditEvent event) {
+            if (owner == null) {
+                owner = Thread.currentThread();
+            }
+            if (owner != Thread.currentThread()) {
+                throw new IllegalStateException("Filter is shared between threads");
+            }
+            return true;
+        }
+
+    }
+
     public static class DummyFileSetViolationCheck extends AbstractFileSetCheck
         implements ExternalResourceHolder {
 
@@ -1720,6 +2308,59 @@ public class CheckerTest extends AbstractModuleTestSupport {
 
     }
 
+    public static class CountingFileSetViolationCheck extends AbstractFileSetCheck {
+
+        private static int processedFiles;
+
+        @Override
+        protected void processFiltered(File file, FileText fileText) {
+            processedFiles++;
+            log(1, "processed {0} file, it''s '{'not'}' an argument", processedFiles);
+        }
+
+    }
+
+    @PathDependentCheck
+    public static class DirectoryNameCheck extends AbstractFileSetCheck {
+
+        @Override
+        protected void processFiltered(File file, FileText fileText) {
+            log(1, "in {0}", file.getParentFile().getName());
+        }
+
+    }
+
+    public static class CountingCheck extends AbstractCheck {
+
+        private static int walkedTrees;
+
+        public void setDescription(String description) {
+            // changes the configuration only
+        }
+
+        @Override
+        public int[] getDefaultTokens() {
+            return CommonUtil.EMPTY_INT_ARRAY;
+        }
+
+        @Override
+        public int[] getAcceptableTokens() {
+            return CommonUtil.EMPTY_INT_ARRAY;
+        }
+
+        @Override
+        public int[] getRequiredTokens() {
+            return CommonUtil.EMPTY_INT_ARRAY;
+        }
+
+        @Override
+        public void beginTree(DetailAST rootAST) {
+            walkedTrees++;
+            log(1, "walked {0} tree", walkedTrees);
+        }
+
+    }
+
     public static class DummyFilterSet extends FilterSet implements ExternalResourceHolder {
 
         @Override
@@ -0,0 +1,279 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
+
+public class CheckstyleDaemonTest extends AbstractPathTestSupport {
+
+    private static final String LOWERCASE_FORMAT = "^[a-z]*$";
+
+    private static final String INPUT_FORMAT = "^Input[A-Za-z]*$";
+
+    private static final int READ_TIMEOUT = 1000;
+
+    @TempDir
+    public File temporaryFolder;
+
+    @TempDir
+    public File tokenDirectory;
+
+    private CheckstyleDaemon daemon;
+
+    private Thread daemonThread;
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/checkstyledaemon";
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        daemon = new CheckstyleDaemon(0, tokenDirectory, READ_TIMEOUT);
+        daemonThread = new Thread(() -> {
+            try {
+                daemon.run();
+            }
+            catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        daemonThread.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        daemon.close();
+        daemonThread.join();
+    }
+
+    @Test
+    public void testConfigurationsAreKeptByProperties() throws Exception {
+        final String config = getPath("InputCheckstyleDaemonConfig.xml");
+
+        final CheckstyleDaemon.Response violating = send(config, LOWERCASE_FORMAT);
+        assertWithMessage("Invalid failure")
+                .that(violating.getFailure())
+                .isNull();
+        assertWithMessage("Invalid error count")
+                .that(violating.getErrorCount())
+                .isEqualTo(1);
+        assertWithMessage("Invalid report")
+                .that(new String(violating.getReport(), StandardCharsets.UTF_8))
+                .contains("[ERROR] " + getPath("InputCheckstyleDaemon.java") + ":3:14:");
+
+        assertWithMessage("Invalid error count of the same configuration")
+                .that(send(config, LOWERCASE_FORMAT).getErrorCount())
+                .isEqualTo(1);
+        assertWithMessage("Invalid error count with other properties")
+                .that(send(config, INPUT_FORMAT).getErrorCount())
+                .isEqualTo(0);
+        final Map<String, ?> configurations = TestUtil.getInternalState(daemon, "configurations");
+        assertWithMessage("Configurations should be kept by properties")
+                .that(configurations)
+                .hasSize(2);
+    }
+
+    @Test
+    public void testModifiedConfigurationIsLoadedAgain() throws Exception {
+        final File config = new File(temporaryFolder, "config.xml");
+        Files.copy(new File(getPath("InputCheckstyleDaemonConfig.xml")).toPath(),
+                config.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        assertWithMessage("Invalid error count")
+                .that(send(config.getPath(), LOWERCASE_FORMAT).getErrorCount())
+                .isEqualTo(1);
+
+        final String modified = Files.readString(config.toPath())
+                .replace("${typeNameFormat}", INPUT_FORMAT);
+        Files.writeString(config.toPath(), modified);
+        assertWithMessage("Configuration file should be modified")
+                .that(config.setLastModified(config.lastModified() + 10_000))
+                .isTrue();
+        assertWithMessage("Invalid error count of modified configuration")
+                .that(send(config.getPath(), LOWERCASE_FORMAT).getErrorCount())
+                .isEqualTo(0);
+    }
+
+    @Test
+    public void testCheckersAreKeptIfConfigurationIsUnchanged() throws Exception {
+        final File config = new File(temporaryFolder, "config.xml");
+        Files.copy(new File(getPath("InputCheckstyleDaemonConfig.xml")).toPath(),
+                config.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        send(config.getPath(), LOWERCASE_FORMAT);
+        final Object pool = getPool();
+        assertWithMessage("Checker configuration should have a pool")
+                .that(pool)
+                .isNotNull();
+
+        assertWithMessage("Configuration file should be modified")
+                .that(config.setLastModified(config.lastModified() + 10_000))
+                .isTrue();
+        assertWithMessage("Invalid error count of touched configuration")
+                .that(send(config.getPath(), LOWERCASE_FORMAT).getErrorCount())
+                .isEqualTo(1);
+        assertWithMessage("Pool should be kept if the configuration is unchanged")
+                .that(getPool())
+                .isSameInstanceAs(pool);
+    }
+
+    @Test
+    public void testModifiedExternalResourceLoadsConfigurationAgain() throws Exception {
+        final File suppressions = new File(temporaryFolder, "suppressions.xml");
+        writeSuppressions(suppressions, "");
+        final File config = new File(temporaryFolder, "config.xml");
+        final String suppressionFilter = "<module name=\"SuppressionFilter\">\n"
+                + "        <property name=\"file\" value=\"" + suppressions.getPath() + "\"/>\n"
+                + "    </module>\n"
+                + "    <module name=\"TreeWalker\">";
+        Files.writeString(config.toPath(),
+                Files.readString(Path.of(getPath("InputCheckstyleDaemonConfig.xml")))
+                        .replace("<module name=\"TreeWalker\">", suppressionFilter));
+        assertWithMessage("Invalid error count")
+                .that(send(config.getPath(), LOWERCASE_FORMAT).getErrorCount())
+                .isEqualTo(1);
+        final Object pool = getPool();
+
+        writeSuppressions(suppressions, "<suppress checks=\"TypeName\"/>");
+        assertWithMessage("Invalid error count with modified suppressions")
+                .that(send(config.getPath(), LOWERCASE_FORMAT).getErrorCount())
+                .isEqualTo(0);
+        assertWithMessage("Pool should be replaced if an external resource is modified")
+                .that(getPool())
+                .isNotSameInstanceAs(pool);
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        final CheckstyleDaemon.Response response =
+                send(new File(temporaryFolder, "missing.xml").getPath(), LOWERCASE_FORMAT);
+        assertWithMessage("Invalid failure")
+                .that(response.getFailure())
+                .contains("CheckstyleException");
+    }
+
+    @Test
+    public void testInvalidRequestDoesNotStopDaemon() throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort())) {
+            final DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+            output.writeInt(-1);
+            output.flush();
+            assertWithMessage("Invalid request should not be answered")
+                    .that(socket.getInputStream().read())
+                    .isEqualTo(-1);
+        }
+        assertWithMessage("Invalid error count")
+                .that(send(getPath("InputCheckstyleDaemonConfig.xml"), LOWERCASE_FORMAT)
+                        .getErrorCount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void testInvalidTokenIsRejected() throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort())) {
+            final DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+            output.writeInt(2);
+            output.writeUTF("invalid");
+            output.flush();
+            assertWithMessage("Client with invalid token should not be answered")
+                    .that(socket.getInputStream().read())
+                    .isEqualTo(-1);
+        }
+        assertWithMessage("Invalid error count")
+                .that(send(getPath("InputCheckstyleDaemonConfig.xml"), LOWERCASE_FORMAT)
+                        .getErrorCount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void testSilentClientIsDisconnected() throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort())) {
+            assertWithMessage("Silent client should be disconnected")
+                    .that(socket.getInputStream().read())
+                    .isEqualTo(-1);
+        }
+        assertWithMessage("Invalid error count")
+                .that(send(getPath("InputCheckstyleDaemonConfig.xml"), LOWERCASE_FORMAT)
+                        .getErrorCount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void testTokenFile() throws Exception {
+        final Path tokenFile = new File(tokenDirectory, daemon.getPort() + ".token").toPath();
+        assertWithMessage("Token file should exist")
+                .that(Files.readString(tokenFile))
+                .hasLength(64);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            assertWithMessage("Token file should be readable only by its owner")
+                    .that(Files.getPosixFilePermissions(tokenFile))
+                    .containsExactly(PosixFilePermission.OWNER_READ,
+                            PosixFilePermission.OWNER_WRITE);
+        }
+        daemon.close();
+        assertWithMessage("Token file should be deleted when the daemon is closed")
+                .that(Files.exists(tokenFile))
+                .isFalse();
+    }
+
+    private CheckstyleDaemon.Response send(String config, String typeNameFormat)
+            throws IOException {
+        final CheckstyleDaemon.Request request = new CheckstyleDaemon.Request(config,
+                Map.of("typeNameFormat", typeNameFormat), false, 1, 1,
+                Main.OutputFormat.PLAIN.name(),
+                List.of(getPath("InputCheckstyleDaemon.java")));
+        return CheckstyleDaemon.send(daemon.getPort(), tokenDirectory, request);
+    }
+
+    private static void writeSuppressions(File file, String suppressions)
+            throws IOException {
+        Files.writeString(file.toPath(), "<?xml version=\"1.0\"?>\n"
+                + "<!DOCTYPE suppressions PUBLIC\n"
+                + "    \"-//Checkstyle//DTD SuppressionFilter Configuration 1.2//EN\"\n"
+                + "    \"https://checkstyle.org/dtds/suppressions_1_2.dtd\">\n"
+                + "<suppressions>" + suppressions + "</suppressions>\n");
+    }
+
+    private Object getPool() {
+        final Map<String, ?> configurations = TestUtil.getInternalState(daemon, "configurations");
+        return TestUtil.getInternalState(configurations.values().iterator().next(), "pool");
+    }
+
+}
@@ -0,0 +1,178 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static com.puppycrawl.tools.checkstyle.internal.utils.TestUtil.getExpectedThrowable;
+
+import java.io.File;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.grammar.java.JavaLanguageParser;
+
+public class DfaCachePolicyTest extends AbstractPathTestSupport {
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/dfacachepolicy";
+    }
+
+    @AfterEach
+    public void restoreDefaultPolicy() {
+        JavaParser.setDfaCachePolicy(
+                DfaCachePolicy.clearAfterFiles(JavaLanguageParser.CLEAR_DFA_LIMIT));
+    }
+
+    @Test
+    public void testNeverClear() throws Exception {
+        final DfaCachePolicy policy = DfaCachePolicy.neverClear();
+        JavaParser.setDfaCachePolicy(policy);
+        parseInput(3);
+
+        assertWithMessage("Cache must not be cleared")
+                .that(policy.getClearsNumber())
+                .isEqualTo(0);
+        assertWithMessage("Cache must be kept")
+                .that(JavaParser.getDfaStatesNumber())
+                .isGreaterThan(0);
+    }
+
+    @Test
+    public void testClearAfterFiles() throws Exception {
+        final DfaCachePolicy policy = DfaCachePolicy.clearAfterFiles(2);
+        JavaParser.setDfaCachePolicy(policy);
+        parseInput(5);
+
+        assertWithMessage("Cache must be cleared before the third file")
+                .that(policy.getClearsNumber())
+                .isEqualTo(1);
+
+        parseInput(2);
+        assertWithMessage("Cache must be cleared once more than 2 files were parsed")
+                .that(policy.getClearsNumber())
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void testClearAboveStates() throws Exception {
+        final DfaCachePolicy policy = DfaCachePolicy.clearAboveStates(1);
+        JavaParser.setDfaCachePolicy(policy);
+        // the cache is empty or cleared before this file, whatever was parsed before
+        parseInput(1);
+        final int clearsNumber = policy.getClearsNumber();
+        final int statesNumber = JavaParser.getDfaStatesNumber();
+        assertWithMessage("Cache must be warmed by a parsed file")
+                .that(statesNumber)
+                .isGreaterThan(1);
+
+        parseInput(1);
+        assertWithMessage("Cache must be cleared before the second file")
+                .that(policy.getClearsNumber())
+                .isEqualTo(clearsNumber + 1);
+        assertWithMessage("Cache must hold the states of the second file only")
+                .that(JavaParser.getDfaStatesNumber())
+                .isEqualTo(statesNumber);
+    }
+
+    @Test
+    public void testGetDfaCachePolicy() {
+        final DfaCachePolicy policy = DfaCachePolicy.neverClear();
+        JavaParser.setDfaCachePolicy(policy);
+
+        assertWithMessage("Invalid policy")
+                .that(JavaParser.getDfaCachePolicy())
+                .isSameInstanceAs(policy);
+    }
+
+    @Test
+    public void testInvalidFilesNumber() {
+        final IllegalArgumentException ex = getExpectedThrowable(IllegalArgumentException.class,
+                () -> DfaCachePolicy.clearAfterFiles(0));
+        assertWithMessage("Invalid error message")
+                .that(ex)
+                .hasMessageThat()
+                .isEqualTo("Files number must be greater than zero.");
+    }
+
+    @Test
+    public void testInvalidStatesNumber() {
+        final IllegalArgumentException ex = getExpectedThrowable(IllegalArgumentException.class,
+                () -> DfaCachePolicy.clearAboveStates(0));
+        assertWithMessage("Invalid error message")
+                .that(ex)
+                .hasMessageThat()
+                .isEqualTo("States number must be greater than zero.");
+    }
+
+    @Test
+    public void testParse() throws Exception {
+        final DfaCachePolicy neverPolicy = DfaCachePolicy.parse("never");
+        JavaParser.setDfaCachePolicy(neverPolicy);
+        parseInput(3);
+        assertWithMessage("Cache must not be cleared by parsed never policy")
+                .that(neverPolicy.getClearsNumber())
+                .isEqualTo(0);
+
+        final DfaCachePolicy filesPolicy = DfaCachePolicy.parse("files:2");
+        JavaParser.setDfaCachePolicy(filesPolicy);
+        parseInput(5);
+        assertWithMessage("Cache must be cleared by parsed files policy")
+                .that(filesPolicy.getClearsNumber())
+                .isEqualTo(1);
+
+        final DfaCachePolicy statesPolicy = DfaCachePolicy.parse("states:1");
+        JavaParser.setDfaCachePolicy(statesPolicy);
+        parseInput(2);
+        assertWithMessage("Cache must be cleared by parsed states policy")
+                .that(statesPolicy.getClearsNumber())
+                .isAtLeast(1);
+    }
+
+    @Test
+    public void testParseInvalidPolicy() {
+        final IllegalArgumentException ex = getExpectedThrowable(IllegalArgumentException.class,
+                () -> DfaCachePolicy.parse("files"));
+        assertWithMessage("Invalid error message")
+                .that(ex)
+                .hasMessageThat()
+                .isEqualTo("Invalid DFA cache policy 'files', expected never, files:<number>"
+                        + " or states:<number>.");
+    }
+
+    @Test
+    public void testParseInvalidLimit() {
+        final IllegalArgumentException ex = getExpectedThrowable(IllegalArgumentException.class,
+                () -> DfaCachePolicy.parse("states:0"));
+        assertWithMessage("Invalid error message")
+                .that(ex)
+                .hasMessageThat()
+                .isEqualTo("States number must be greater than zero.");
+    }
+
+    private void parseInput(int times) throws Exception {
+        final File input = new File(getPath("InputDfaCachePolicy.java"));
+        for (int index = 0; index < times; index++) {
+            JavaParser.parseFile(input, JavaParser.Options.WITHOUT_COMMENTS);
+        }
+    }
+
+}
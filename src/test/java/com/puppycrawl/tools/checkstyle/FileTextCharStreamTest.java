@@ -0,0 +1,142 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static com.puppycrawl.tools.checkstyle.internal.utils.TestUtil.getExpectedThrowable;
+
+import java.io.File;
+import java.util.List;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+public class FileTextCharStreamTest {
+
+    private static final String LATIN_SMALL_E_WITH_ACUTE = "\u00e9";
+
+    private static final String GRINNING_FACE = "\uD83D\uDE00";
+
+    private static final String TEXT = "class A {\n    int " + LATIN_SMALL_E_WITH_ACUTE + ";\n}";
+
+    /** FileText terminates every line, including the last one. */
+    private static final String FULL_TEXT = TEXT + "\n";
+
+    @Test
+    public void testBmpTextIsNotCopied() {
+        final CharStream stream = createStream(TEXT);
+
+        assertWithMessage("Invalid stream class")
+                .that(stream)
+                .isInstanceOf(FileTextCharStream.class);
+        assertWithMessage("Invalid size")
+                .that(stream.size())
+                .isEqualTo(FULL_TEXT.length());
+        assertWithMessage("Invalid text")
+                .that(stream.toString())
+                .isEqualTo(FULL_TEXT);
+    }
+
+    @Test
+    public void testSupplementaryCharactersAreCopied() {
+        final CharStream stream = createStream("class A { String s = \"" + GRINNING_FACE + "\"; }");
+
+        assertWithMessage("Invalid stream class")
+                .that(stream)
+                .isNotInstanceOf(FileTextCharStream.class);
+    }
+
+    @Test
+    public void testSameAsCodePointCharStream() {
+        final CharStream expected = CharStreams.fromString(FULL_TEXT);
+        final CharStream actual = createStream(TEXT);
+
+        for (int index = 0; index < FULL_TEXT.length(); index++) {
+            assertSameLookAhead(expected, actual);
+            expected.consume();
+            actual.consume();
+        }
+        assertSameLookAhead(expected, actual);
+
+        expected.seek(3);
+        actual.seek(3);
+        assertSameLookAhead(expected, actual);
+        assertWithMessage("Invalid index")
+                .that(actual.index())
+                .isEqualTo(expected.index());
+
+        final int marker = actual.mark();
+        assertWithMessage("Invalid marker")
+                .that(marker)
+                .isEqualTo(expected.mark());
+        actual.release(marker);
+        assertWithMessage("Invalid index after release")
+                .that(actual.index())
+                .isEqualTo(3);
+
+        for (Interval interval : List.of(Interval.of(0, 4), Interval.of(6, 100),
+                Interval.of(100, 200), Interval.of(2, 1))) {
+            assertWithMessage("Invalid text of " + interval)
+                    .that(actual.getText(interval))
+                    .isEqualTo(expected.getText(interval));
+        }
+    }
+
+    @Test
+    public void testConsumeEof() {
+        final CharStream stream = FileTextCharStream.of(
+                new FileText(new File("Input.java"), List.of()));
+
+        assertWithMessage("Invalid look ahead")
+                .that(stream.LA(1))
+                .isEqualTo(IntStream.EOF);
+        final IllegalStateException ex =
+                getExpectedThrowable(IllegalStateException.class, stream::consume);
+        assertWithMessage("Invalid error message")
+                .that(ex)
+                .hasMessageThat()
+                .isEqualTo("cannot consume EOF");
+    }
+
+    @Test
+    public void testSourceName() {
+        assertWithMessage("Invalid source name")
+                .that(createStream(TEXT).getSourceName())
+                .isEqualTo(IntStream.UNKNOWN_SOURCE_NAME);
+    }
+
+    private static CharStream createStream(String text) {
+        return FileTextCharStream.of(new FileText(new File("Input.java"), List.of(text)));
+    }
+
+    private static void assertSameLookAhead(CharStream expected, CharStream actual) {
+        for (int offset = -2; offset <= 2; offset++) {
+            assertWithMessage("Invalid look ahead " + offset + " at " + expected.index())
+                    .that(actual.LA(offset))
+                    .isEqualTo(expected.LA(offset));
+        }
+    }
+
+}
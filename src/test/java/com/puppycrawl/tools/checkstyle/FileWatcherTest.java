@@ -0,0 +1,195 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
+
+public class FileWatcherTest {
+
+    private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    @TempDir
+    public File temporaryFolder;
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    private FileWatcher watcher;
+
+    private Thread watcherThread;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        write("Valid.java", "class valid {}");
+        write("Invalid.java", "class Invalid {}");
+
+        Files.createDirectories(new File(temporaryFolder, "config").toPath());
+        writeSuppressions("");
+        writeConfiguration("^[a-z]*$");
+        final String configurationPath = getConfigurationFile().getPath();
+
+        watcher = new FileWatcher(
+                () -> ConfigurationLoader.loadConfiguration(configurationPath,
+                        new PropertiesExpander(new Properties())),
+                getConfigurationFile(), List.of(temporaryFolder),
+                List.of(Pattern.compile("config$")),
+                new PrintStream(output, true, StandardCharsets.UTF_8.name()));
+        final List<File> files = List.of(new File(temporaryFolder, "Valid.java"),
+                new File(temporaryFolder, "Invalid.java"));
+        watcherThread = new Thread(() -> {
+            try {
+                watcher.run(files);
+            }
+            catch (IOException | CheckstyleException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        watcherThread.start();
+        awaitOutput("Checked 2 files, found 1 violations in 1 of 2 files.");
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        watcher.close();
+        watcherThread.join();
+    }
+
+    @Test
+    public void testChangedFilesAreChecked() throws Exception {
+        write("Invalid.java", "class invalid {}");
+        awaitOutput("Checked 1 files, found 0 violations in 0 of 2 files.");
+
+        final File directory = new File(temporaryFolder, "directory");
+        Files.createDirectories(directory.toPath());
+        write("directory/Added.java", "class Added {}");
+        awaitOutput("Checked 1 files, found 1 violations in 1 of 3 files.");
+        assertWithMessage("Violation of added file should be printed")
+                .that(getOutput())
+                .contains("Added.java:1:7: Name 'Added' must match pattern");
+    }
+
+    @Test
+    public void testRootModuleIsConfiguredOnce() throws Exception {
+        final Object rootModule = TestUtil.getInternalState(watcher, "rootModule");
+        write("Invalid.java", "class invalid {}");
+        awaitOutput("Checked 1 files, found 0 violations in 0 of 2 files.");
+        assertWithMessage("Root module should be kept between checks")
+                .that(TestUtil.<Object>getInternalState(watcher, "rootModule"))
+                .isSameInstanceAs(rootModule);
+    }
+
+    @Test
+    public void testDeletedFilesAreForgotten() throws Exception {
+        Files.delete(new File(temporaryFolder, "Invalid.java").toPath());
+        awaitOutput("Checked 0 files, found 0 violations in 0 of 1 files.");
+    }
+
+    @Test
+    public void testChangedConfigurationChecksAllFiles() throws Exception {
+        writeConfiguration("^X$");
+        awaitOutput("Checked 2 files, found 2 violations in 2 of 2 files.");
+    }
+
+    @Test
+    public void testChangedSuppressionsCheckAllFiles() throws Exception {
+        writeSuppressions("<suppress checks=\"TypeName\"/>");
+        awaitOutput("Checked 2 files, found 0 violations in 0 of 2 files.");
+    }
+
+    @Test
+    public void testInvalidConfigurationKeepsRootModule() throws Exception {
+        Files.writeString(getConfigurationFile().toPath(), "<module");
+        awaitOutput("unable to parse configuration stream");
+
+        write("Invalid.java", "class invalid {}");
+        awaitOutput("Checked 1 files, found 0 violations in 0 of 2 files.");
+    }
+
+    private File getConfigurationFile() {
+        return new File(temporaryFolder, "config/config.xml");
+    }
+
+    private File getSuppressionsFile() {
+        return new File(temporaryFolder, "config/suppressions.xml");
+    }
+
+    private void writeSuppressions(String suppressions) throws IOException {
+        Files.writeString(getSuppressionsFile().toPath(), "<?xml version=\"1.0\"?>\n"
+                + "<!DOCTYPE suppressions PUBLIC\n"
+                + "    \"-//Checkstyle//DTD SuppressionFilter Configuration 1.2//EN\"\n"
+                + "    \"https://checkstyle.org/dtds/suppressions_1_2.dtd\">\n"
+                + "<suppressions>" + suppressions + "</suppressions>\n");
+    }
+
+    private void writeConfiguration(String typeNameFormat) throws IOException {
+        Files.writeString(getConfigurationFile().toPath(), "<?xml version=\"1.0\"?>\n"
+                + "<!DOCTYPE module PUBLIC\n"
+                + "    \"-//Checkstyle//DTD Checkstyle Configuration 1.3//EN\"\n"
+                + "    \"https://checkstyle.org/dtds/configuration_1_3.dtd\">\n"
+                + "<module name=\"Checker\">\n"
+                + "  <module name=\"SuppressionFilter\">\n"
+                + "    <property name=\"file\" value=\""
+                + getSuppressionsFile().getPath() + "\"/>\n"
+                + "  </module>\n"
+                + "  <module name=\"TreeWalker\">\n"
+                + "    <module name=\"TypeName\">\n"
+                + "      <property name=\"format\" value=\"" + typeNameFormat + "\"/>\n"
+                + "    </module>\n"
+                + "  </module>\n"
+                + "</module>\n");
+    }
+
+    private void write(String fileName, String content) throws IOException {
+        Files.writeString(new File(temporaryFolder, fileName).toPath(), content);
+    }
+
+    private String getOutput() {
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private void awaitOutput(String expected) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!getOutput().contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertWithMessage("Expected output was not printed")
+                .that(getOutput())
+                .contains(expected);
+    }
+
+}
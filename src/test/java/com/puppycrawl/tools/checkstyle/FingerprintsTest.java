@@ -0,0 +1,114 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class FingerprintsTest {
+
+    @Test
+    public void testFingerprintDoesNotDependOnPropertyOrder() {
+        final DefaultConfiguration first = new DefaultConfiguration("MyConfig");
+        first.addProperty("first", "value");
+        first.addProperty("second", "value");
+        first.addMessage("key", "message");
+        final DefaultConfiguration second = new DefaultConfiguration("MyConfig");
+        second.addMessage("key", "message");
+        second.addProperty("second", "value");
+        second.addProperty("first", "value");
+        assertWithMessage("Fingerprints should not depend on the order of properties")
+            .that(Fingerprints.getFingerprint(second))
+            .isEqualTo(Fingerprints.getFingerprint(first));
+    }
+
+    @Test
+    public void testFingerprintChangesWithConfiguration() {
+        final DefaultConfiguration config = new DefaultConfiguration("MyConfig");
+        final DefaultConfiguration child = new DefaultConfiguration("Child");
+        config.addChild(child);
+        final String fingerprint = Fingerprints.getFingerprint(config);
+
+        child.addMessage("key", "message");
+        final String fingerprintWithMessage = Fingerprints.getFingerprint(config);
+        assertWithMessage("Fingerprint should change with a message of a child")
+            .that(fingerprintWithMessage)
+            .isNotEqualTo(fingerprint);
+
+        child.addProperty("key", "message");
+        assertWithMessage("Fingerprint should change with a property of a child")
+            .that(Fingerprints.getFingerprint(config))
+            .isNotEqualTo(fingerprintWithMessage);
+    }
+
+    @Test
+    public void testFingerprintSeparatesValues() {
+        final DefaultConfiguration first = new DefaultConfiguration("MyConfig");
+        first.addProperty("ab", "c");
+        final DefaultConfiguration second = new DefaultConfiguration("MyConfig");
+        second.addProperty("a", "bc");
+        assertWithMessage("Fingerprints of different properties should differ")
+            .that(Fingerprints.getFingerprint(second))
+            .isNotEqualTo(Fingerprints.getFingerprint(first));
+    }
+
+    @Test
+    public void testFingerprintLeavesOutExcluded() {
+        final DefaultConfiguration config = new DefaultConfiguration("MyConfig");
+        final DefaultConfiguration child = new DefaultConfiguration("Child");
+        child.addProperty("cache", "value");
+        config.addChild(child);
+        final DefaultConfiguration excludedChild = new DefaultConfiguration("Excluded");
+        config.addChild(excludedChild);
+        final String fingerprint = Fingerprints.getFingerprint(config, Set.of("cache"),
+                Set.of(excludedChild));
+        assertWithMessage("Fingerprint without exclusions should leave out nothing")
+            .that(Fingerprints.getFingerprint(config, Collections.emptySet(),
+                    Collections.emptySet()))
+            .isEqualTo(Fingerprints.getFingerprint(config));
+
+        config.addProperty("cache", "value");
+        excludedChild.addProperty("key", "value");
+        assertWithMessage("Fingerprint should not change with excluded configurations")
+            .that(Fingerprints.getFingerprint(config, Set.of("cache"), Set.of(excludedChild)))
+            .isEqualTo(fingerprint);
+
+        child.addProperty("other", "value");
+        assertWithMessage("Excluded properties should only be left out of the configuration")
+            .that(Fingerprints.getFingerprint(config, Set.of("cache", "other"),
+                    Set.of(excludedChild)))
+            .isNotEqualTo(fingerprint);
+    }
+
+    @Test
+    public void testDescriptionFingerprint() {
+        assertWithMessage("Fingerprints of equal descriptions should be equal")
+            .that(Fingerprints.getFingerprint("description"))
+            .isEqualTo(Fingerprints.getFingerprint("description"));
+        assertWithMessage("Fingerprints of different descriptions should differ")
+            .that(Fingerprints.getFingerprint("description"))
+            .isNotEqualTo(Fingerprints.getFingerprint("other description"));
+    }
+
+}
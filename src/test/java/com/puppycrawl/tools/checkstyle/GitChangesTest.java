@@ -0,0 +1,184 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static com.puppycrawl.tools.checkstyle.internal.utils.TestUtil.getExpectedThrowable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Filter;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+public class GitChangesTest {
+
+    @TempDir
+    public File temporaryFolder;
+
+    private File repository;
+
+    private String baseRevision;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        repository = new File(temporaryFolder, "repository");
+        Files.createDirectories(repository.toPath());
+        git("init", "--quiet");
+        write("Changed.java", "line 1", "line 2", "-- line 3", "line 4", "line 5");
+        write("Renamed.java", "renamed line 1");
+        write("Unchanged.java", "unchanged line 1");
+        git("add", ".");
+        commit("initial");
+        baseRevision = git("rev-parse", "HEAD").trim();
+
+        write("Changed.java", "line 1", "line 2", "++ line 3", "line 4", "line 5", "line 6");
+        commit("change");
+        git("mv", "Renamed.java", "Moved.java");
+        write("Untracked.java", "line 1");
+    }
+
+    @Test
+    public void testChangedFiles() throws Exception {
+        final GitChanges changes = GitChanges.load(repository, baseRevision);
+
+        assertWithMessage("Committed file should be changed")
+                .that(changes.isChanged(new File(repository, "Changed.java")))
+                .isTrue();
+        assertWithMessage("Renamed file should be changed")
+                .that(changes.isChanged(new File(repository, "Moved.java")))
+                .isTrue();
+        assertWithMessage("Untracked file should be changed")
+                .that(changes.isChanged(new File(repository, "Untracked.java")))
+                .isTrue();
+        assertWithMessage("Unchanged file should not be changed")
+                .that(changes.isChanged(new File(repository, "Unchanged.java")))
+                .isFalse();
+        assertWithMessage("Old name of renamed file should not be changed")
+                .that(changes.isChanged(new File(repository, "Renamed.java")))
+                .isFalse();
+    }
+
+    @Test
+    public void testChangedLines() throws Exception {
+        final GitChanges changes = GitChanges.load(repository, baseRevision);
+        final File changed = new File(repository, "Changed.java");
+
+        assertWithMessage("Invalid changed lines")
+                .that(getChangedLines(changes, changed))
+                .containsExactly(3, 6);
+        assertWithMessage("Invalid changed lines of renamed file")
+                .that(getChangedLines(changes, new File(repository, "Moved.java")))
+                .isEmpty();
+        assertWithMessage("All lines of untracked file should be changed")
+                .that(changes.isChangedLine(new File(repository, "Untracked.java"), 100))
+                .isTrue();
+    }
+
+    @Test
+    public void testChangedLinesFilter() throws Exception {
+        final GitChanges changes = GitChanges.load(repository, baseRevision);
+        final DefaultConfiguration rootConfiguration = new DefaultConfiguration("Checker");
+        rootConfiguration.addProperty("basedir", repository.getPath());
+        final Filter filter = changes.createChangedLinesFilter(rootConfiguration);
+
+        assertWithMessage("Violation on changed line should be accepted")
+                .that(filter.accept(createEvent("Changed.java", 3)))
+                .isTrue();
+        assertWithMessage("Violation on unchanged line should not be accepted")
+                .that(filter.accept(createEvent("Changed.java", 2)))
+                .isFalse();
+        assertWithMessage("Violation of changed file should be accepted")
+                .that(filter.accept(createEvent("Moved.java", 0)))
+                .isTrue();
+        assertWithMessage("Violation of unchanged file should not be accepted")
+                .that(filter.accept(createEvent("Unchanged.java", 0)))
+                .isFalse();
+        final Filter filterWithoutBasedir =
+                changes.createChangedLinesFilter(new DefaultConfiguration("Checker"));
+        final String absoluteFileName = new File(repository, "Changed.java").getAbsolutePath();
+        assertWithMessage("Violation with absolute file name should be accepted")
+                .that(filterWithoutBasedir.accept(createEvent(absoluteFileName, 6)))
+                .isTrue();
+    }
+
+    @Test
+    public void testInvalidRevision() {
+        final CheckstyleException ex = getExpectedThrowable(CheckstyleException.class,
+                () -> GitChanges.load(repository, "no-such-revision"));
+        assertWithMessage("Invalid exception message")
+                .that(ex.getMessage())
+                .startsWith("Command 'git merge-base no-such-revision HEAD' failed");
+    }
+
+    private static List<Integer> getChangedLines(GitChanges changes, File file) {
+        final List<Integer> result = new ArrayList<>();
+        for (int line = 1; line <= 10; line++) {
+            if (changes.isChangedLine(file, line)) {
+                result.add(line);
+            }
+        }
+        return result;
+    }
+
+    private static AuditEvent createEvent(String fileName, int line) {
+        final Violation violation = new Violation(line, "bundle", "key", null, null,
+                GitChangesTest.class, "message");
+        return new AuditEvent(GitChangesTest.class, fileName, violation);
+    }
+
+    private void write(String fileName, String... lines) throws IOException {
+        Files.write(new File(repository, fileName).toPath(), Arrays.asList(lines),
+                StandardCharsets.UTF_8);
+    }
+
+    private void commit(String message) throws Exception {
+        git("-c", "user.name=Test", "-c", "user.email=test@example.com",
+                "-c", "commit.gpgsign=false", "commit", "--quiet", "--all", "-m", message);
+    }
+
+    private String git(String... arguments) throws Exception {
+        final List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(arguments));
+        final Process process = new ProcessBuilder(command)
+                .directory(repository)
+                .redirectErrorStream(true)
+                .start();
+        final String output =
+                new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertWithMessage("git failed: %s", output)
+                .that(process.waitFor())
+                .isEqualTo(0);
+        return output;
+    }
+
+}
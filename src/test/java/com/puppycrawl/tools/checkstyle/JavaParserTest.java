@@ -23,6 +23,7 @@ import static com.google.common.truth.Truth.assertWithMessage;
 import static com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocContentLocationCheck.MSG_JAVADOC_CONTENT_SECOND_LINE;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -32,6 +33,8 @@ import org.junit.jupiter.api.Test;
 
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocContentLocationCheck;
 import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
@@ -215,6 +218,23 @@ public class JavaParserTest extends AbstractModuleTestSupport {
         }
     }
 
+    @Test
+    public void testParseExceptionLexesFileOnce() throws Exception {
+        final File input = new File(
+                getNonCompilablePath("InputJavaParserCommentBeforeParseException.java"));
+        final FileContents contents =
+                new FileContents(new FileText(input, StandardCharsets.UTF_8.name()));
+        try {
+            JavaParser.parse(contents);
+            assertWithMessage("exception expected").fail();
+        }
+        catch (CheckstyleException ex) {
+            assertWithMessage("Comments must be reported once, when parsing again")
+                .that(contents.getBlockComments().get(1))
+                .hasSize(1);
+        }
+    }
+
     @Test
     public void testComments() throws Exception {
         final DetailAST root =
@@ -28,9 +28,11 @@ import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.verify;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintStream;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
@@ -74,12 +76,15 @@ public class MainTest {
             + "Try 'checkstyle --help' for more information.%n");
 
     private static final String USAGE = String.format(Locale.ROOT,
-          "Usage: checkstyle [-dEghjJtTV] [-b=<xpath>] [-c=<configurationFile>] "
-                  + "[-f=<format>]%n"
-                  + "                  [-o=<outputPath>] [-p=<propertiesFile>] "
-                  + "[-s=<suppressionLineColumnNumber>]%n"
-                  + "                  [-w=<tabWidth>] [-e=<exclude>]... [-x=<excludeRegex>]... "
-                  + "<files>...%n"
+          "Usage: checkstyle [-dEghijJkltTV] [-b=<xpath>] [-c=<configurationFile>] "
+                  + "[-C=<checkerThreadsNumber>]%n"
+                  + "                  [-f=<format>] [-G=<rev>] [-o=<outputPath>]"
+                  + " [-p=<propertiesFile>] [-P=<port>]%n"
+                  + "                  [-R=<policy>] [-s=<suppressionLineColumnNumber>]"
+                  + " [-S=<i/n>] [-w=<tabWidth>]%n"
+                  + "                  [-W=<treeWalkerThreadsNumber>] [-e=<exclude>]..."
+                  + " [-x=<excludeRegex>]...%n"
+                  + "                  <files>...%n"
                   + "Checkstyle verifies that the specified source code files adhere to the"
                   + " specified rules. By default,%n"
                   + "violations are reported to standard out in plain format. Checkstyle requires"
@@ -95,6 +100,10 @@ public class MainTest {
                   + " filesystem location, or a name%n"
                   + "                              passed to the ClassLoader.getResource()"
                   + " method.%n"
+                  + "  -C, --checker-threads-number=<checkerThreadsNumber>%n"
+                  + "                            Sets the number of threads used to check files"
+                  + " in parallel. Default%n"
+                  + "                              value is 1.%n"
                   + "  -d, --debug               Prints all debug logging of CheckStyle utility.%n"
                   + "  -e, --exclude=<exclude>   Directory/file to exclude from CheckStyle. The"
                   + " path can be the full,%n"
@@ -118,7 +127,23 @@ public class MainTest {
                   + "                              printed out. Used only with -c option. Output"
                   + " location can be%n"
                   + "                              specified with -o option.%n"
+                  + "  -G, --git-base=<rev>      Checks only the files changed in git since the"
+                  + " merge base of the given%n"
+                  + "                              revision and HEAD, including uncommitted"
+                  + " changes.%n"
                   + "  -h, --help                Show this help message and exit.%n"
+                  + "  -i, --stdin               Reads the sources to check from standard input"
+                  + " instead of the specified%n"
+                  + "                              file, which names the sources without a name"
+                  + " of their own. Each%n"
+                  + "                              source is preceded by a line with the length"
+                  + " of its content in bytes,%n"
+                  + "                              optionally followed by a space and its name."
+                  + " Violations of a source%n"
+                  + "                              are printed as JSON objects, one per line,"
+                  + " once the source is%n"
+                  + "                              checked. Cannot be used with -g, -G, -k, -o"
+                  + " and -P options.%n"
                   + "  -j, --javadocTree         This option is used to print the Parse Tree of"
                   + " the Javadoc comment. The%n"
                   + "                              file has to contain only Javadoc comment"
@@ -133,8 +158,30 @@ public class MainTest {
                   + " only be used on a single%n"
                   + "                              file and cannot be combined"
                   + " with other options.%n"
+                  + "  -k, --watch               Keeps running and checks the changed files"
+                  + " again whenever the specified%n"
+                  + "                              files change. Violations are printed in plain"
+                  + " format, followed by a%n"
+                  + "                              summary of all files. Cannot be used with -g,"
+                  + " -G, -o and -P options.%n"
+                  + "  -l, --changed-lines       Reports only the violations on the lines changed"
+                  + " in git. Used only with%n"
+                  + "                              -G option.%n"
                   + "  -o=<outputPath>           Sets the output file. Defaults to stdout.%n"
                   + "  -p=<propertiesFile>       Sets the property files to load.%n"
+                  + "  -P, --daemon-port=<port>  Checks the files with the daemon listening on"
+                  + " the given port of%n"
+                  + "                              localhost instead of in this process. Cannot"
+                  + " be used with -g and -l%n"
+                  + "                              options.%n"
+                  + "  -R, --dfa-cache-policy=<policy>%n"
+                  + "                            Sets when the DFA cache of the Java parser is"
+                  + " cleared: never, files:n%n"
+                  + "                              after every n parsed files, or states:n above"
+                  + " n DFA states. A warm%n"
+                  + "                              cache makes parsing faster, clearing it lowers"
+                  + " the memory usage.%n"
+                  + "                              Defaults to files:500.%n"
                   + "  -s=<suppressionLineColumnNumber>%n"
                   + "                            Prints xpath suppressions at the file's line and"
                   + " column position.%n"
@@ -154,6 +201,14 @@ public class MainTest {
                   + " but might result in%n"
                   + "                              undesirable matching and suppress other"
                   + " issues.%n"
+                  + "  -S, --shard=<i/n>         Checks only the files of shard i of n, so the"
+                  + " files can be split%n"
+                  + "                              between processes or machines. Files are"
+                  + " assigned to shards by the%n"
+                  + "                              MurmurHash3 of their path relative to the"
+                  + " current directory, so every%n"
+                  + "                              process makes the same split. Cannot be used"
+                  + " with -i and -k options.%n"
                   + "  -t, --tree                This option is used to display the Abstract"
                   + " Syntax Tree (AST) without%n"
                   + "                              any comments of the specified file. It can"
@@ -170,6 +225,10 @@ public class MainTest {
                   + "  -w, --tabWidth=<tabWidth> Sets the length of the tab character. Used only"
                   + " with -s option. Default%n"
                   + "                              value is 8.%n"
+                  + "  -W, --tree-walker-threads-number=<treeWalkerThreadsNumber>%n"
+                  + "                            Sets the number of threads used to run the checks"
+                  + " of TreeWalker on a%n"
+                  + "                              single file in parallel. Default value is 1.%n"
                   + "  -x, --exclude-regexp=<excludeRegex>%n"
                   + "                            Directory/file pattern to exclude from CheckStyle."
                   + " Multiple excludes%n"
@@ -747,6 +806,308 @@ public class MainTest {
             .isEqualTo("");
     }
 
+    @Test
+    public void testCheckerThreadsNumber(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) throws Exception {
+        assertMainReturnCode(3, "-C", "2", "-c", getPath("InputMainConfig-classname2-error.xml"),
+                    getPath("InputMain.java"), getPath("InputMain1.java"));
+        final Violation errorCounterThreeMessage = new Violation(1,
+                Definitions.CHECKSTYLE_BUNDLE, Main.ERROR_COUNTER,
+                new String[] {String.valueOf(3)}, null, getClass(), null);
+        final Violation invalidPatternMessageMain = new Violation(1,
+                "com.puppycrawl.tools.checkstyle.checks.naming.messages",
+                "name.invalidPattern", new String[] {"InputMain", "^[a-z0-9]*$"},
+                null, getClass(), null);
+        final Violation invalidPatternMessageMainInner = new Violation(1,
+                "com.puppycrawl.tools.checkstyle.checks.naming.messages",
+                "name.invalidPattern", new String[] {"InputMainInner", "^[a-z0-9]*$"},
+                null, getClass(), null);
+        final Violation invalidPatternMessageMain1 = new Violation(1,
+                "com.puppycrawl.tools.checkstyle.checks.naming.messages",
+                "name.invalidPattern", new String[] {"InputMain1", "^[a-z0-9]*$"},
+                null, getClass(), null);
+        final String expectedPath = getFilePath("InputMain.java");
+        final String expectedPath1 = getFilePath("InputMain1.java");
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo(addEndOfLine(auditStartMessage.getMessage(),
+                    "[ERROR] " + expectedPath + ":3:14: "
+                        + invalidPatternMessageMain.getViolation() + " [TypeName]",
+                    "[ERROR] " + expectedPath + ":5:7: "
+                        + invalidPatternMessageMainInner.getViolation() + " [TypeName]",
+                    "[ERROR] " + expectedPath1 + ":3:14: "
+                        + invalidPatternMessageMain1.getViolation() + " [TypeName]",
+                    auditFinishMessage.getMessage()));
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo(addEndOfLine(errorCounterThreeMessage.getViolation()));
+    }
+
+    @Test
+    public void testInvalidCheckerThreadsNumber(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertMainReturnCode(-1, "-C", "0", "-c", getPath("InputMainConfig-classname.xml"),
+                    getPath("InputMain.java"));
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo("Checker threads number must be greater than zero."
+                + System.lineSeparator());
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testInvalidTreeWalkerThreadsNumber(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertMainReturnCode(-1, "-W", "0", "-c", getPath("InputMainConfig-classname.xml"),
+                    getPath("InputMain.java"));
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo("TreeWalker threads number must be greater than zero."
+                + System.lineSeparator());
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testChangedLinesWithoutGitBase(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertMainReturnCode(-1, "-l", "-c", getPath("InputMainConfig-classname.xml"),
+                    getPath("InputMain.java"));
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo("Option '-l' requires option '-G'." + System.lineSeparator());
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testDaemonPortWithChangedLines(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertMainReturnCode(-1, "-P", "1", "-G", "HEAD", "-l",
+                "-c", getPath("InputMainConfig-classname.xml"), getPath("InputMain.java"));
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo("Option '-P' cannot be used with -g and -l options."
+                + System.lineSeparator());
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testWatchWithOutputPath(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertMainReturnCode(-1, "-k", "-o", "output.txt",
+                "-c", getPath("InputMainConfig-classname.xml"), getPath("InputMain.java"));
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo("Option '-k' cannot be used with -g, -G, -o and -P options."
+                + System.lineSeparator());
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testStdin(@SysErr Capturable systemErr, @SysOut Capturable systemOut) {
+        final String source = "class lowercase {}";
+        final InputStream stdin = System.in;
+        System.setIn(new ByteArrayInputStream(
+                (source.length() + "\n" + source).getBytes(StandardCharsets.UTF_8)));
+        try {
+            assertMainReturnCode(0, "-i", "-c", getPath("InputMainConfig-classname.xml"),
+                    "Unsaved.java");
+        }
+        finally {
+            System.setIn(stdin);
+        }
+        final String path = SarifLogger.escape(new File("Unsaved.java").getAbsolutePath());
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo("{\"type\":\"violation\",\"file\":\"" + path
+                + "\",\"line\":1,\"column\":7,\"severity\":\"warning\","
+                + "\"message\":\"Name 'lowercase' must match pattern '^[A-Z][a-zA-Z0-9]*$'.\","
+                + "\"source\":\"com.puppycrawl.tools.checkstyle.checks.naming.TypeNameCheck\"}\n"
+                + "{\"type\":\"finished\",\"file\":\"" + path + "\",\"errors\":0}\n");
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testStdinWithOutputPath(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertMainReturnCode(-1, "-i", "-o", "output.txt",
+                "-c", getPath("InputMainConfig-classname.xml"), "Unsaved.java");
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo("Option '-i' cannot be used with -g, -G, -k, -o and -P options."
+                + System.lineSeparator());
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testStdinWithSeveralFiles(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertMainReturnCode(-1, "-i", "-c", getPath("InputMainConfig-classname.xml"),
+                "First.java", "Second.java");
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo("Option '-i' is allowed for only one file." + System.lineSeparator());
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testShard(@SysErr Capturable systemErr, @SysOut Capturable systemOut)
+            throws IOException {
+        assertMainReturnCode(0, "-S", "1/3", "-c", getPath("InputMainConfig-classname2.xml"),
+                getPath("InputMain.java"), getPath("InputMain1.java"));
+        final String firstShardOutput = systemOut.getCapturedData();
+        assertMainReturnCode(0, "--shard=3/3", "-c", getPath("InputMainConfig-classname2.xml"),
+                getPath("InputMain.java"), getPath("InputMain1.java"));
+        final String thirdShardOutput =
+                systemOut.getCapturedData().substring(firstShardOutput.length());
+        final String mainFile = getFilePath("InputMain.java") + ":";
+        final String otherFile = getFilePath("InputMain1.java") + ":";
+        assertWithMessage("Main file should be checked in the first shard")
+            .that(firstShardOutput)
+            .contains(mainFile);
+        assertWithMessage("Other file should not be checked in the first shard")
+            .that(firstShardOutput)
+            .doesNotContain(otherFile);
+        assertWithMessage("Other file should be checked in the third shard")
+            .that(thirdShardOutput)
+            .contains(otherFile);
+        assertWithMessage("Main file should not be checked in the third shard")
+            .that(thirdShardOutput)
+            .doesNotContain(mainFile);
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testInvalidShard(@SysErr Capturable systemErr, @SysOut Capturable systemOut) {
+        assertMainReturnCode(-1, "-S", "3/2", "-c", getPath("InputMainConfig-classname.xml"),
+                getPath("InputMain.java"));
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo("Invalid shard '3/2', expected i/n where i is between 1 and the number"
+                + " of shards n." + System.lineSeparator());
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testShardWithWatch(@SysErr Capturable systemErr, @SysOut Capturable systemOut) {
+        assertMainReturnCode(-1, "-S", "1/2", "-k",
+                "-c", getPath("InputMainConfig-classname.xml"), getPath("InputMain.java"));
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo("Option '-S' cannot be used with -i and -k options."
+                + System.lineSeparator());
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testDfaCachePolicy(@SysErr Capturable systemErr, @SysOut Capturable systemOut) {
+        final DfaCachePolicy defaultPolicy = JavaParser.getDfaCachePolicy();
+        try {
+            assertMainReturnCode(0, "-R", "never", "-c",
+                    getPath("InputMainConfig-classname2.xml"), getPath("InputMain.java"));
+            assertWithMessage("Policy should be set from the option")
+                .that(JavaParser.getDfaCachePolicy())
+                .isNotSameInstanceAs(defaultPolicy);
+            assertWithMessage("Unexpected system error log")
+                .that(systemErr.getCapturedData())
+                .isEqualTo("");
+        }
+        finally {
+            JavaParser.setDfaCachePolicy(defaultPolicy);
+        }
+    }
+
+    @Test
+    public void testInvalidDfaCachePolicy(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) {
+        assertMainReturnCode(-1, "--dfa-cache-policy=always", "-c",
+                getPath("InputMainConfig-classname.xml"), getPath("InputMain.java"));
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo("Invalid DFA cache policy 'always', expected never, files:<number>"
+                + " or states:<number>." + System.lineSeparator());
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testDaemonPort(@SysErr Capturable systemErr, @SysOut Capturable systemOut)
+            throws Exception {
+        try (CheckstyleDaemon daemon = new CheckstyleDaemon(0)) {
+            final Thread daemonThread = new Thread(() -> {
+                try {
+                    daemon.run();
+                }
+                catch (IOException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+            daemonThread.start();
+            assertMainReturnCode(0, "-P", String.valueOf(daemon.getPort()),
+                    "-c", getPath("InputMainConfig-classname2.xml"), getPath("InputMain.java"));
+            daemon.close();
+            daemonThread.join();
+        }
+        final Violation invalidPatternMessageMain = new Violation(1,
+                "com.puppycrawl.tools.checkstyle.checks.naming.messages",
+                "name.invalidPattern", new String[] {"InputMain", "^[a-z0-9]*$"},
+                null, getClass(), null);
+        final Violation invalidPatternMessageMainInner = new Violation(1,
+                "com.puppycrawl.tools.checkstyle.checks.naming.messages",
+                "name.invalidPattern", new String[] {"InputMainInner", "^[a-z0-9]*$"},
+                null, getClass(), null);
+        final String expectedPath = getFilePath("InputMain.java");
+        assertWithMessage("Unexpected output log")
+            .that(systemOut.getCapturedData())
+            .isEqualTo(addEndOfLine(auditStartMessage.getMessage(),
+                    "[WARN] " + expectedPath + ":3:14: "
+                        + invalidPatternMessageMain.getViolation()
+                        + " [TypeName]",
+                    "[WARN] " + expectedPath + ":5:7: "
+                        + invalidPatternMessageMainInner.getViolation()
+                        + " [TypeName]",
+                    auditFinishMessage.getMessage()));
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .isEqualTo("");
+    }
+
+    @Test
+    public void testDaemonPortWithoutDaemon(@SysErr Capturable systemErr,
+            @SysOut Capturable systemOut) throws Exception {
+        final int port;
+        try (CheckstyleDaemon daemon = new CheckstyleDaemon(0)) {
+            port = daemon.getPort();
+        }
+        assertMainReturnCode(-2, "-P", String.valueOf(port),
+                "-c", getPath("InputMainConfig-classname.xml"), getPath("InputMain.java"));
+        assertWithMessage("Unexpected system error log")
+            .that(systemErr.getCapturedData())
+            .contains("Unable to communicate with the daemon on port " + port);
+    }
+
     @Test
     public void testExistingTargetFilePlainOutputNonexistentProperties(@SysErr Capturable systemErr,
             @SysOut Capturable systemOut) {
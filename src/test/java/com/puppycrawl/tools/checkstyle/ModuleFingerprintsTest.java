@@ -0,0 +1,205 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.checks.naming.ConstantNameCheck;
+import com.puppycrawl.tools.checkstyle.checks.naming.MemberNameCheck;
+
+public class ModuleFingerprintsTest {
+
+    @Test
+    public void testModuleKey() {
+        final ConstantNameCheck check = new ConstantNameCheck();
+        assertWithMessage("Invalid key of module without id")
+                .that(ModuleFingerprints.getModuleKey(check))
+                .isEqualTo(ConstantNameCheck.class.getName());
+        check.setId("first");
+        assertWithMessage("Invalid key of module with id")
+                .that(ModuleFingerprints.getModuleKey(check))
+                .isEqualTo(ConstantNameCheck.class.getName() + "#first");
+        assertWithMessage("Invalid key of module which is not a violation reporter")
+                .that(ModuleFingerprints.getModuleKey(new Object()))
+                .isEqualTo(Object.class.getName());
+        assertWithMessage("Invalid key of violation")
+                .that(ModuleFingerprints.getModuleKey(createViolation(ConstantNameCheck.class,
+                        "first")))
+                .isEqualTo(ConstantNameCheck.class.getName() + "#first");
+    }
+
+    @Test
+    public void testChangedModules() {
+        final ConstantNameCheck constantNameCheck = new ConstantNameCheck();
+        final MemberNameCheck memberNameCheck = new MemberNameCheck();
+        final DefaultConfiguration constantNameConfig =
+                new DefaultConfiguration("ConstantName");
+        final DefaultConfiguration memberNameConfig = new DefaultConfiguration("MemberName");
+        final DefaultConfiguration config =
+                createConfig(constantNameConfig, memberNameConfig);
+        final Map<Object, Configuration> modules = new HashMap<>();
+        modules.put(constantNameCheck, constantNameConfig);
+        modules.put(memberNameCheck, memberNameConfig);
+        final Map<String, String> cached =
+                ModuleFingerprints.decode(new ModuleFingerprints(config, modules).encode());
+
+        memberNameConfig.addProperty("format", "^m[A-Z]");
+        final ModuleFingerprints fingerprints = new ModuleFingerprints(config, modules);
+
+        assertWithMessage("Shared configuration should not change")
+                .that(fingerprints.isSharedWith(cached))
+                .isTrue();
+        assertWithMessage("Fingerprints should not match")
+                .that(fingerprints.matches(cached))
+                .isFalse();
+        assertWithMessage("Invalid changed modules")
+                .that(fingerprints.getChangedModules(cached))
+                .containsExactly(MemberNameCheck.class.getName());
+        assertWithMessage("Fingerprints should match")
+                .that(fingerprints.matches(ModuleFingerprints.decode(fingerprints.encode())))
+                .isTrue();
+        assertWithMessage("Configured module should have a fingerprint")
+                .that(fingerprints.isModule(memberNameCheck))
+                .isTrue();
+        assertWithMessage("Other module should not have a fingerprint")
+                .that(fingerprints.isModule(new MemberNameCheck()))
+                .isFalse();
+    }
+
+    @Test
+    public void testModulesWithSameKey() {
+        final DefaultConfiguration firstConfig = new DefaultConfiguration("ConstantName");
+        final DefaultConfiguration secondConfig = new DefaultConfiguration("ConstantName");
+        final DefaultConfiguration config = createConfig(firstConfig, secondConfig);
+        final Map<Object, Configuration> modules = new HashMap<>();
+        modules.put(new ConstantNameCheck(), firstConfig);
+        modules.put(new ConstantNameCheck(), secondConfig);
+        final Map<String, String> cached =
+                ModuleFingerprints.decode(new ModuleFingerprints(config, modules).encode());
+        assertWithMessage("Modules with the same key should have a single fingerprint")
+                .that(cached)
+                .hasSize(2);
+
+        secondConfig.addMessage("name.invalidPattern", "custom");
+        assertWithMessage("Invalid changed modules")
+                .that(new ModuleFingerprints(config, modules).getChangedModules(cached))
+                .containsExactly(ConstantNameCheck.class.getName());
+    }
+
+    @Test
+    public void testSharedConfigurationChange() {
+        final DefaultConfiguration moduleConfig = new DefaultConfiguration("ConstantName");
+        final DefaultConfiguration config = createConfig(moduleConfig);
+        final Map<Object, Configuration> modules = new HashMap<>();
+        modules.put(new ConstantNameCheck(), moduleConfig);
+        final Map<String, String> cached =
+                ModuleFingerprints.decode(new ModuleFingerprints(config, modules).encode());
+
+        config.addChild(new DefaultConfiguration("SuppressWarningsFilter"));
+        final ModuleFingerprints fingerprints = new ModuleFingerprints(config, modules);
+        assertWithMessage("Shared configuration should change")
+                .that(fingerprints.isSharedWith(cached))
+                .isFalse();
+        assertWithMessage("Violations should not be valid")
+                .that(fingerprints.getUnchangedViolations(new TreeSet<>(), cached))
+                .isNull();
+    }
+
+    @Test
+    public void testUnchangedViolations() {
+        final ConstantNameCheck constantNameCheck = new ConstantNameCheck();
+        final MemberNameCheck memberNameCheck = new MemberNameCheck();
+        final DefaultConfiguration memberNameConfig = new DefaultConfiguration("MemberName");
+        final DefaultConfiguration config = createConfig(memberNameConfig);
+        final Map<Object, Configuration> modules = new HashMap<>();
+        modules.put(constantNameCheck, null);
+        modules.put(memberNameCheck, memberNameConfig);
+        final Map<String, String> cached =
+                ModuleFingerprints.decode(new ModuleFingerprints(config, modules).encode());
+
+        memberNameConfig.addProperty("format", "^m[A-Z]");
+        final ModuleFingerprints fingerprints = new ModuleFingerprints(config, modules);
+        final Violation unchanged = createViolation(ConstantNameCheck.class, null);
+        final SortedSet<Violation> violations = new TreeSet<>();
+        violations.add(unchanged);
+        violations.add(createViolation(MemberNameCheck.class, null));
+        assertWithMessage("Only violations of unchanged modules should be valid")
+                .that(fingerprints.getUnchangedViolations(violations, cached))
+                .containsExactly(unchanged);
+
+        violations.add(createViolation(Checker.class, null));
+        assertWithMessage("Violations not reported by a module can not be validated")
+                .that(fingerprints.getUnchangedViolations(violations, cached))
+                .isNull();
+    }
+
+    @Test
+    public void testDecodeIgnoresMalformedLines() {
+        assertWithMessage("Lines without fingerprint should be ignored")
+                .that(ModuleFingerprints.decode("noFingerprint\n:noFingerprint\nABC:key"))
+                .containsExactly("key", "ABC");
+    }
+
+    @Test
+    public void testPropertyWhichCanNotBeRead() throws Exception {
+        final Configuration config = mock(Configuration.class);
+        when(config.getName()).thenReturn("Checker");
+        when(config.getPropertyNames()).thenReturn(new String[] {"charset"});
+        when(config.getProperty("charset")).thenThrow(new CheckstyleException("not readable"));
+        final Map<Object, Configuration> modules = new HashMap<>();
+        try {
+            final ModuleFingerprints fingerprints = new ModuleFingerprints(config, modules);
+            assertWithMessage("Exception is expected but got " + fingerprints).fail();
+        }
+        catch (IllegalStateException ex) {
+            assertWithMessage("Invalid exception message")
+                    .that(ex.getMessage())
+                    .isEqualTo("Unable to read property charset");
+        }
+    }
+
+    private static DefaultConfiguration createConfig(Configuration... moduleConfigs) {
+        final DefaultConfiguration treeWalkerConfig = new DefaultConfiguration("TreeWalker");
+        for (Configuration moduleConfig : moduleConfigs) {
+            treeWalkerConfig.addChild(moduleConfig);
+        }
+        final DefaultConfiguration config = new DefaultConfiguration("Checker");
+        config.addProperty("charset", "UTF-8");
+        config.addChild(treeWalkerConfig);
+        return config;
+    }
+
+    private static Violation createViolation(Class<?> sourceClass, String moduleId) {
+        return new Violation(1, "messages", "key", null, moduleId, sourceClass, "message");
+    }
+
+}
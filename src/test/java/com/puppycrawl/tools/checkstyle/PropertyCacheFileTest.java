@@ -30,17 +30,27 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledOnOs;
@@ -54,8 +64,11 @@ import com.google.common.io.BaseEncoding;
 import com.google.common.io.ByteStreams;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.checks.naming.ConstantNameCheck;
 import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+import com.sun.net.httpserver.HttpServer;
 
 public class PropertyCacheFileTest extends AbstractPathTestSupport {
 
@@ -108,6 +121,244 @@ public class PropertyCacheFileTest extends AbstractPathTestSupport {
                 .isFalse();
     }
 
+    @Test
+    public void testInCacheByTimestamp() throws IOException {
+        final PropertyCacheFile cache = new PropertyCacheFile(new DefaultConfiguration("myName"),
+                new File(temporaryFolder, "cache.properties").getPath());
+        final File file = new File(temporaryFolder, "Input.java");
+        Files.writeString(file.toPath(), "class Input {}");
+
+        cache.put(file);
+        assertWithMessage("File should be keyed by its absolute path")
+                .that(cache.get(file.getAbsolutePath()))
+                .isEqualTo(Long.toString(file.lastModified()));
+        assertWithMessage("Should return true when file is in cache")
+                .that(cache.isInCache(file))
+                .isTrue();
+
+        assertWithMessage("Should change timestamp of file")
+                .that(file.setLastModified(file.lastModified() - 2000))
+                .isTrue();
+        assertWithMessage("Should return false when timestamp of file changed")
+                .that(cache.isInCache(file))
+                .isFalse();
+
+        cache.remove(file);
+        assertWithMessage("File should be removed from cache")
+                .that(cache.get(file.getAbsolutePath()))
+                .isNull();
+    }
+
+    @Test
+    public void testInCacheByContent() throws IOException {
+        final File cacheFile = new File(temporaryFolder, "cache.properties");
+        final File firstCheckout = new File(temporaryFolder, "first");
+        final File secondCheckout = new File(temporaryFolder, "second");
+        final File firstFile = new File(firstCheckout, "src/Input.java");
+        final File secondFile = new File(secondCheckout, "src/Input.java");
+        Files.createDirectories(firstFile.toPath().getParent());
+        Files.createDirectories(secondFile.toPath().getParent());
+        Files.writeString(firstFile.toPath(), "class Input {}");
+        Files.writeString(secondFile.toPath(), "class Input {}");
+        assertWithMessage("Should change timestamp of file")
+                .that(secondFile.setLastModified(firstFile.lastModified() + 2000))
+                .isTrue();
+
+        final PropertyCacheFile cache = new PropertyCacheFile(new DefaultConfiguration("myName"),
+                cacheFile.getPath());
+        cache.load();
+        cache.setContentHashMode(true);
+        cache.setBasedir(firstCheckout.getAbsolutePath());
+        cache.put(firstFile);
+        cache.persist();
+        assertWithMessage("File should be keyed by its path relative to base directory")
+                .that(cache.get("src/Input.java"))
+                .isNotNull();
+
+        final PropertyCacheFile otherCache = new PropertyCacheFile(
+                new DefaultConfiguration("myName"), cacheFile.getPath());
+        otherCache.load();
+        otherCache.setContentHashMode(true);
+        otherCache.setBasedir(secondCheckout.getAbsolutePath());
+        assertWithMessage("Should return true when file with same content is in cache")
+                .that(otherCache.isInCache(secondFile))
+                .isTrue();
+
+        Files.writeString(secondFile.toPath(), "class Input { }");
+        otherCache.persist();
+        assertWithMessage("Should return false when content of file changed")
+                .that(otherCache.isInCache(secondFile))
+                .isFalse();
+    }
+
+    @Test
+    public void testUnreadableFileIsNotInCacheByContent() {
+        final PropertyCacheFile cache = new PropertyCacheFile(new DefaultConfiguration("myName"),
+                new File(temporaryFolder, "cache.properties").getPath());
+        cache.setContentHashMode(true);
+        final File file = new File(temporaryFolder, "Missing.java");
+
+        cache.put(file);
+        assertWithMessage("Should return false when file can not be read")
+                .that(cache.isInCache(file))
+                .isFalse();
+        assertWithMessage("File which can not be read should not be put in cache")
+                .that(cache.get(file.getAbsolutePath()))
+                .isNull();
+    }
+
+    @Test
+    public void testViolations() throws IOException {
+        final File cacheFile = new File(temporaryFolder, "cache.properties");
+        final File file = File.createTempFile("Input", ".java", temporaryFolder);
+        final SortedSet<Violation> violations = new TreeSet<>();
+        violations.add(new Violation(2, "messages", "test.key", new Object[] {7}, "moduleId",
+                getClass(), "found {0} in ''{1}''"));
+
+        final PropertyCacheFile cache = new PropertyCacheFile(new DefaultConfiguration("myName"),
+                cacheFile.getPath());
+        cache.load();
+        cache.put(file, violations);
+        cache.persist();
+
+        final PropertyCacheFile otherCache = new PropertyCacheFile(
+                new DefaultConfiguration("myName"), cacheFile.getPath());
+        otherCache.load();
+        final SortedSet<Violation> cachedViolations =
+                otherCache.getViolations(file, getClass().getClassLoader());
+        assertWithMessage("Violations of unchanged file should be restored")
+                .that(cachedViolations)
+                .hasSize(1);
+        assertWithMessage("Invalid violation text")
+                .that(cachedViolations.first().getViolation())
+                .isEqualTo("found 7 in '{1}'");
+
+        otherCache.put(file);
+        assertWithMessage("Violations should be removed when file checked ok")
+                .that(otherCache.get(PropertyCacheFile.VIOLATIONS_KEY_PREFIX
+                        + file.getAbsolutePath()))
+                .isNull();
+        assertWithMessage("File which checked ok should have no violations")
+                .that(otherCache.getViolations(file, getClass().getClassLoader()))
+                .isEmpty();
+    }
+
+    @Test
+    public void testFilesOfUnchangedModulesAreRestored() throws IOException {
+        final String cacheFilePath = new File(temporaryFolder, "cache.properties").getPath();
+        final File file = File.createTempFile("Input", ".java", temporaryFolder);
+        final DefaultConfiguration moduleConfig = new DefaultConfiguration("ConstantName");
+        final DefaultConfiguration config = new DefaultConfiguration("myName");
+        config.addChild(moduleConfig);
+        final Map<Object, Configuration> modules =
+                Collections.singletonMap(new ConstantNameCheck(), moduleConfig);
+
+        final PropertyCacheFile cache = new PropertyCacheFile(config, cacheFilePath);
+        cache.load();
+        cache.setModuleFingerprints(new ModuleFingerprints(config, modules));
+        cache.put(file, new TreeSet<>());
+        cache.persist();
+
+        moduleConfig.addProperty("format", "^[A-Z]+$");
+        final PropertyCacheFile changedModuleCache =
+                new PropertyCacheFile(config, cacheFilePath);
+        changedModuleCache.load();
+        assertWithMessage("Cache should be cleared on configuration change")
+                .that(changedModuleCache.isInCache(file))
+                .isFalse();
+        final ModuleFingerprints fingerprints = new ModuleFingerprints(config, modules);
+        changedModuleCache.setModuleFingerprints(fingerprints);
+        assertWithMessage("File should be restored when shared configuration is unchanged")
+                .that(changedModuleCache.isInCache(file))
+                .isTrue();
+        assertWithMessage("Module of the file should be changed")
+                .that(fingerprints.getChangedModules(
+                        changedModuleCache.getModuleFingerprints(file)))
+                .containsExactly(ConstantNameCheck.class.getName());
+
+        config.addProperty("charset", "UTF-8");
+        final PropertyCacheFile changedSharedCache = new PropertyCacheFile(config, cacheFilePath);
+        changedSharedCache.load();
+        changedSharedCache.setModuleFingerprints(new ModuleFingerprints(config, modules));
+        assertWithMessage("File should not be restored when shared configuration changed")
+                .that(changedSharedCache.isInCache(file))
+                .isFalse();
+        assertWithMessage("File should have no fingerprints")
+                .that(changedSharedCache.getModuleFingerprints(file))
+                .isNull();
+    }
+
+    @Test
+    public void testViolationsOfChangedFile() throws IOException {
+        final PropertyCacheFile cache = new PropertyCacheFile(new DefaultConfiguration("myName"),
+                new File(temporaryFolder, "cache.properties").getPath());
+        final File file = File.createTempFile("Input", ".java", temporaryFolder);
+        cache.put(file, new TreeSet<>());
+        assertWithMessage("Should change timestamp of file")
+                .that(file.setLastModified(file.lastModified() + 2000))
+                .isTrue();
+
+        assertWithMessage("Violations of changed file should not be restored")
+                .that(cache.getViolations(file, getClass().getClassLoader()))
+                .isNull();
+    }
+
+    @Test
+    public void testBinaryFormat() throws IOException {
+        final File cacheFile = new File(temporaryFolder, "cache.bin");
+        final PropertyCacheFile cache = new PropertyCacheFile(new DefaultConfiguration("myName"),
+                cacheFile.getPath());
+        cache.load();
+        cache.put("myFile", 1);
+        cache.setBinaryFormat(true);
+        cache.persist();
+
+        final PropertyCacheFile binaryCache = new PropertyCacheFile(
+                new DefaultConfiguration("myName"), cacheFile.getPath());
+        binaryCache.load();
+        assertWithMessage("File should be in cache after loading binary format")
+                .that(binaryCache.isInCache("myFile", 1))
+                .isTrue();
+        binaryCache.put("otherFile", 2);
+        binaryCache.remove("myFile");
+        binaryCache.persist();
+
+        final Properties properties = new Properties();
+        try (BufferedReader reader = Files.newBufferedReader(cacheFile.toPath())) {
+            properties.load(reader);
+        }
+        assertWithMessage("Cache should be converted back to properties")
+                .that(properties.getProperty("otherFile"))
+                .isEqualTo("2");
+        assertWithMessage("Removed file should not be converted back to properties")
+                .that(properties.getProperty("myFile"))
+                .isNull();
+        assertWithMessage("Config hash should be converted back to properties")
+                .that(properties.getProperty(PropertyCacheFile.CONFIG_HASH_KEY))
+                .isNotNull();
+    }
+
+    @Test
+    public void testBinaryFormatResetOnConfigurationChange() throws IOException {
+        final File cacheFile = new File(temporaryFolder, "cache.bin");
+        final PropertyCacheFile cache = new PropertyCacheFile(new DefaultConfiguration("myName"),
+                cacheFile.getPath());
+        cache.load();
+        cache.put("myFile", 1);
+        cache.setBinaryFormat(true);
+        cache.persist();
+
+        final PropertyCacheFile otherCache = new PropertyCacheFile(
+                new DefaultConfiguration("otherName"), cacheFile.getPath());
+        otherCache.load();
+        assertWithMessage("File should not be in cache after configuration change")
+                .that(otherCache.isInCache("myFile", 1))
+                .isFalse();
+        assertWithMessage("Config hash should be reset")
+                .that(otherCache.get(PropertyCacheFile.CONFIG_HASH_KEY))
+                .isNotNull();
+    }
+
     @Test
     public void testResetIfFileDoesNotExist() throws IOException {
         final Configuration config = new DefaultConfiguration("myName");
@@ -260,6 +511,146 @@ public class PropertyCacheFileTest extends AbstractPathTestSupport {
             .isEqualTo(expected);
     }
 
+    @Test
+    public void testExternalResourceIsRelativeToBasedirByContent() throws IOException {
+        final File cacheFile = new File(temporaryFolder, "cache.properties");
+        final File firstCheckout = new File(temporaryFolder, "first");
+        final File secondCheckout = new File(temporaryFolder, "second");
+        final File firstFile = new File(firstCheckout, "src/Input.java");
+        final File secondFile = new File(secondCheckout, "src/Input.java");
+        final File firstResource = new File(firstCheckout, "config/suppressions.xml");
+        final File secondResource = new File(secondCheckout, "config/suppressions.xml");
+        Files.createDirectories(firstFile.toPath().getParent());
+        Files.createDirectories(secondFile.toPath().getParent());
+        Files.createDirectories(firstResource.toPath().getParent());
+        Files.createDirectories(secondResource.toPath().getParent());
+        Files.writeString(firstFile.toPath(), "class Input {}");
+        Files.writeString(secondFile.toPath(), "class Input {}");
+        Files.writeString(firstResource.toPath(), "<suppressions/>");
+        Files.writeString(secondResource.toPath(), "<suppressions/>");
+
+        final PropertyCacheFile cache = new PropertyCacheFile(new DefaultConfiguration("myName"),
+                cacheFile.getPath());
+        cache.load();
+        cache.setContentHashMode(true);
+        cache.setBasedir(firstCheckout.getAbsolutePath());
+        cache.putExternalResources(Set.of(firstResource.getAbsolutePath()));
+        cache.put(firstFile);
+        cache.persist();
+        assertWithMessage("Resource should be keyed by its path relative to base directory")
+                .that(cache.get("module-resource*?:config/suppressions.xml"))
+                .isNotNull();
+
+        final PropertyCacheFile otherCache = new PropertyCacheFile(
+                new DefaultConfiguration("myName"), cacheFile.getPath());
+        otherCache.load();
+        otherCache.setContentHashMode(true);
+        otherCache.setBasedir(secondCheckout.getAbsolutePath());
+        otherCache.putExternalResources(Set.of(secondResource.getAbsolutePath()));
+        assertWithMessage("Cache should be kept when resource of other checkout is the same")
+                .that(otherCache.isInCache(secondFile))
+                .isTrue();
+
+        Files.writeString(secondResource.toPath(), "<suppressions> </suppressions>");
+        otherCache.putExternalResources(Set.of(secondResource.getAbsolutePath()));
+        assertWithMessage("Cache should be reset when resource of other checkout changed")
+                .that(otherCache.isInCache(secondFile))
+                .isFalse();
+    }
+
+    @Test
+    public void testExternalResourceIsNotReadWhenValidatorIsUnchanged() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final File cacheFile = new File(temporaryFolder, "junit_" + UUID.randomUUID());
+        final Path resource = temporaryFolder.toPath().resolve("resource.xml");
+        Files.writeString(resource, "first");
+        final FileTime lastModified = Files.getLastModifiedTime(resource);
+        final Set<String> resources = Collections.singleton(resource.toString());
+        final String key = PropertyCacheFile.EXTERNAL_RESOURCE_KEY_PREFIX + resource;
+
+        final PropertyCacheFile cache = new PropertyCacheFile(config, cacheFile.getPath());
+        cache.load();
+        cache.putExternalResources(resources);
+        final String hash = cache.get(key);
+        assertWithMessage("Validator of resource should be cached")
+            .that(cache.get(PropertyCacheFile.EXTERNAL_RESOURCE_VALIDATOR_KEY_PREFIX + resource))
+            .isNotNull();
+        cache.persist();
+
+        // same size and last modification time, so the content is not read again
+        Files.writeString(resource, "other");
+        Files.setLastModifiedTime(resource, lastModified);
+        final PropertyCacheFile unchangedCache =
+            new PropertyCacheFile(config, cacheFile.getPath());
+        unchangedCache.load();
+        unchangedCache.put("myFile", 1);
+        unchangedCache.putExternalResources(resources);
+        assertWithMessage("Hash of resource with unchanged validator should be reused")
+            .that(unchangedCache.get(key))
+            .isEqualTo(hash);
+        assertWithMessage("Cache should not be cleared")
+            .that(unchangedCache.isInCache("myFile", 1))
+            .isTrue();
+
+        Files.writeString(resource, "changed");
+        unchangedCache.putExternalResources(resources);
+        assertWithMessage("Hash of resource with changed validator should be calculated")
+            .that(unchangedCache.get(key))
+            .isNotEqualTo(hash);
+        assertWithMessage("Cache should be cleared")
+            .that(unchangedCache.isInCache("myFile", 1))
+            .isFalse();
+    }
+
+    @Test
+    public void testExternalResourceOverHttpIsRequestedConditionally() throws IOException {
+        final String entityTag = "\"v1\"";
+        final AtomicInteger downloads = new AtomicInteger();
+        final HttpServer server = HttpServer.create(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            if (entityTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_MODIFIED, -1);
+            }
+            else {
+                final byte[] content = "content".getBytes(StandardCharsets.UTF_8);
+                downloads.incrementAndGet();
+                exchange.getResponseHeaders().add("ETag", entityTag);
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, content.length);
+                exchange.getResponseBody().write(content);
+            }
+            exchange.close();
+        });
+        server.start();
+        try {
+            final String location = "http://" + InetAddress.getLoopbackAddress().getHostAddress()
+                + ":" + server.getAddress().getPort() + "/suppressions.xml";
+            final Set<String> resources = Collections.singleton(location);
+            final Configuration config = new DefaultConfiguration("myName");
+            final File cacheFile = new File(temporaryFolder, "junit_" + UUID.randomUUID());
+            final PropertyCacheFile cache = new PropertyCacheFile(config, cacheFile.getPath());
+            cache.load();
+            cache.putExternalResources(resources);
+            final String hash = cache.get(PropertyCacheFile.EXTERNAL_RESOURCE_KEY_PREFIX
+                + location);
+            cache.persist();
+
+            final PropertyCacheFile otherCache =
+                new PropertyCacheFile(config, cacheFile.getPath());
+            otherCache.load();
+            otherCache.putExternalResources(resources);
+            assertWithMessage("Hash of unmodified resource should be reused")
+                .that(otherCache.get(PropertyCacheFile.EXTERNAL_RESOURCE_KEY_PREFIX + location))
+                .isEqualTo(hash);
+            assertWithMessage("Unmodified resource should not be downloaded again")
+                .that(downloads.get())
+                .isEqualTo(1);
+        }
+        finally {
+            server.stop(0);
+        }
+    }
+
     @Test
     public void testCacheDirectoryDoesNotExistAndShouldBeCreated() throws IOException {
         final Configuration config = new DefaultConfiguration("myName");
@@ -390,7 +781,7 @@ public class PropertyCacheFileTest extends AbstractPathTestSupport {
         final PropertyCacheFile cache = new PropertyCacheFile(config, cacheFile.getPath());
         cache.load();
 
-        final String expectedInitialConfigHash = "D5BB1747FC11B2BB839C80A6C28E3E7684AF9940";
+        final String expectedInitialConfigHash = "2DE12A274818CC7ABC2D417FAF66471CFE2F82C";
         final String actualInitialConfigHash = cache.get(PropertyCacheFile.CONFIG_HASH_KEY);
         assertWithMessage("Invalid config hash")
             .that(actualInitialConfigHash)
@@ -413,7 +804,7 @@ public class PropertyCacheFileTest extends AbstractPathTestSupport {
             new PropertyCacheFile(config, cacheFile.getPath());
         cacheAfterChangeInConfig.load();
 
-        final String expectedConfigHashAfterChange = "714876AE38C069EC52BF86889F061B3776E526D3";
+        final String expectedConfigHashAfterChange = "3704EFF9E92DED02DE4F04B0D4535F7DD1544F6D";
         final String actualConfigHashAfterChange =
             cacheAfterChangeInConfig.get(PropertyCacheFile.CONFIG_HASH_KEY);
         assertWithMessage("Invalid config hash")
@@ -0,0 +1,188 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static com.puppycrawl.tools.checkstyle.internal.utils.TestUtil.getExpectedThrowable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ShardTest {
+
+    @TempDir
+    public File temporaryFolder;
+
+    @Test
+    public void testParse() {
+        final Shard shard = Shard.parse("2/3");
+        assertWithMessage("Invalid index")
+                .that(shard.getIndex())
+                .isEqualTo(2);
+        assertWithMessage("Invalid count")
+                .that(shard.getCount())
+                .isEqualTo(3);
+        assertWithMessage("Invalid string")
+                .that(shard.toString())
+                .isEqualTo("2/3");
+    }
+
+    @Test
+    public void testParseInvalid() {
+        for (String value : new String[] {"", "1", "1/", "a/2", "0/2", "3/2", "-1/2",
+            "1/9999999999"}) {
+            final IllegalArgumentException ex = getExpectedThrowable(
+                    IllegalArgumentException.class, () -> Shard.parse(value));
+            assertWithMessage("Invalid exception message")
+                    .that(ex.getMessage())
+                    .isEqualTo("Invalid shard '" + value
+                            + "', expected i/n where i is between 1 and the number of shards n.");
+        }
+    }
+
+    @Test
+    public void testShardsSplitAllFiles() throws IOException {
+        final List<File> files = createFiles(20);
+        final List<File> checked = new ArrayList<>();
+        for (int index = 1; index <= 3; index++) {
+            final List<File> selected = Shard.parse(index + "/3").select(files, temporaryFolder);
+            assertWithMessage("Shards should not share files")
+                    .that(checked)
+                    .containsNoneIn(selected);
+            checked.addAll(selected);
+        }
+        assertWithMessage("Shards should contain all files")
+                .that(checked)
+                .containsExactlyElementsIn(files);
+    }
+
+    @Test
+    public void testFilesAreAssignedByHashOfRelativePath() throws IOException {
+        final List<File> files = createFiles(6);
+        assertWithMessage("Invalid files of shard")
+                .that(getNames(Shard.parse("1/3").select(files, temporaryFolder)))
+                .containsExactly("File1.java", "File5.java")
+                .inOrder();
+        assertWithMessage("Invalid files of shard")
+                .that(getNames(Shard.parse("2/3").select(files, temporaryFolder)))
+                .containsExactly("File3.java", "File4.java")
+                .inOrder();
+        assertWithMessage("Invalid files of shard")
+                .that(getNames(Shard.parse("3/3").select(files, temporaryFolder)))
+                .containsExactly("File0.java", "File2.java")
+                .inOrder();
+    }
+
+    @Test
+    public void testMurmur3() {
+        final String[] values = {"", "h", "hello", "The quick brown fox jumps over the lazy dog"};
+        final int[] hashes = {0, 0xd482b2d3, 0x248bfa47, 0x2e4ff723};
+        for (int index = 0; index < values.length; index++) {
+            assertWithMessage("Invalid hash of '%s'", values[index])
+                    .that(Shard.murmur3(values[index].getBytes(StandardCharsets.UTF_8)))
+                    .isEqualTo(hashes[index]);
+        }
+    }
+
+    @Test
+    public void testSelectionIsKeptInOrder() throws IOException {
+        final List<File> files = createFiles(10);
+        final List<File> selected = Shard.parse("1/2").select(files, temporaryFolder);
+        final List<File> expected = new ArrayList<>(files);
+        expected.retainAll(selected);
+        assertWithMessage("Selected files should be in the order of the given files")
+                .that(selected)
+                .containsExactlyElementsIn(expected)
+                .inOrder();
+    }
+
+    @Test
+    public void testSelectionDependsOnlyOnRelativePaths() throws IOException {
+        final List<File> files = createFiles(10);
+        final File otherFolder = new File(temporaryFolder, "other");
+        final List<File> otherFiles = new ArrayList<>();
+        Files.createDirectories(otherFolder.toPath());
+        for (File file : files) {
+            final File otherFile = new File(otherFolder, file.getName());
+            Files.copy(file.toPath(), otherFile.toPath());
+            otherFiles.add(otherFile);
+        }
+
+        final List<String> selected = getNames(
+                Shard.parse("2/3").select(files, temporaryFolder));
+        final List<String> otherSelected = getNames(
+                Shard.parse("2/3").select(otherFiles, otherFolder));
+        assertWithMessage("Same files in other directory should be in the same shard")
+                .that(otherSelected)
+                .containsExactlyElementsIn(selected)
+                .inOrder();
+    }
+
+    @Test
+    public void testSelectionDoesNotDependOnContent() throws IOException {
+        final List<File> files = createFiles(10);
+        final List<String> selected = getNames(
+                Shard.parse("2/3").select(files, temporaryFolder));
+        for (File file : files) {
+            Files.writeString(file.toPath(), "class A {}\r\n");
+        }
+        assertWithMessage("Shard should not change with the content of the files")
+                .that(getNames(Shard.parse("2/3").select(files, temporaryFolder)))
+                .containsExactlyElementsIn(selected)
+                .inOrder();
+    }
+
+    @Test
+    public void testAddedFilesDoNotMoveOtherFiles() throws IOException {
+        final List<File> files = createFiles(20);
+        final List<File> selected = Shard.parse("1/3").select(files.subList(0, 10),
+                temporaryFolder);
+        assertWithMessage("Files should stay in their shard when other files are added")
+                .that(Shard.parse("1/3").select(files, temporaryFolder))
+                .containsAtLeastElementsIn(selected)
+                .inOrder();
+    }
+
+    private List<File> createFiles(int count) throws IOException {
+        final List<File> files = new ArrayList<>();
+        for (int index = 0; index < count; index++) {
+            final File file = new File(temporaryFolder, "File" + index + ".java");
+            Files.writeString(file.toPath(), "x".repeat(index * 37 % 101));
+            files.add(file);
+        }
+        return files;
+    }
+
+    private static List<String> getNames(List<File> files) {
+        final List<String> names = new ArrayList<>();
+        for (File file : files) {
+            names.add(file.getName());
+        }
+        return names;
+    }
+
+}
@@ -0,0 +1,204 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+public class SharedCacheDirectoryTest {
+
+    @TempDir
+    public File temporaryFolder;
+
+    @Test
+    public void testPutAndGet() throws IOException {
+        final SharedCacheDirectory cache =
+                new SharedCacheDirectory(temporaryFolder.toPath().resolve("cache"));
+        final File file = createFile("first", "class Input {}");
+        final SortedSet<Violation> violations = createViolations();
+
+        assertWithMessage("File should not be cached")
+                .that(cache.get(file, "Input.java", getClass().getClassLoader()))
+                .isNull();
+        cache.put(file, "Input.java", violations);
+        assertWithMessage("File should be cached")
+                .that(cache.contains(file, "Input.java"))
+                .isTrue();
+        assertWithMessage("Invalid cached violations")
+                .that(cache.get(file, "Input.java", getClass().getClassLoader()))
+                .hasSize(1);
+    }
+
+    @Test
+    public void testEntriesAreSharedByIdenticalFiles() throws IOException {
+        final Path directory = temporaryFolder.toPath().resolve("cache");
+        final SharedCacheDirectory firstCache = new SharedCacheDirectory(directory);
+        final SharedCacheDirectory secondCache = new SharedCacheDirectory(directory);
+        final File firstFile = createFile("first", "class Input {}");
+        final File secondFile = createFile("second", "class Input {}");
+        firstCache.put(firstFile, "Input.java", new TreeSet<>());
+
+        assertWithMessage("Identical file in other directory should be cached")
+                .that(secondCache.get(secondFile, "Input.java", getClass().getClassLoader()))
+                .isEmpty();
+        assertWithMessage("Identical file with other path should not be cached")
+                .that(secondCache.contains(secondFile, "other/Input.java"))
+                .isFalse();
+        secondCache.setConfigurationFingerprint("other");
+        assertWithMessage("File should not be cached for other configuration")
+                .that(secondCache.contains(secondFile, "Input.java"))
+                .isFalse();
+
+        Files.writeString(secondFile.toPath(), "class Input { }");
+        final SharedCacheDirectory changedCache = new SharedCacheDirectory(directory);
+        assertWithMessage("Changed file should not be cached")
+                .that(changedCache.contains(secondFile, "Input.java"))
+                .isFalse();
+    }
+
+    @Test
+    public void testEntriesDependOnExternalResources() throws IOException {
+        final Path directory = temporaryFolder.toPath().resolve("cache");
+        final File file = createFile("first", "class Input {}");
+        final File firstSuppressions = createFile("suppressions1", "<suppressions/>");
+        final File secondSuppressions = createFile("suppressions2", "<suppressions/>");
+        final SharedCacheDirectory cache = new SharedCacheDirectory(directory);
+        cache.setExternalResources(Set.of(firstSuppressions.getPath()));
+        cache.put(file, "Input.java", new TreeSet<>());
+
+        final SharedCacheDirectory otherCache = new SharedCacheDirectory(directory);
+        otherCache.setExternalResources(Set.of(secondSuppressions.getPath()));
+        assertWithMessage("Identical resource in other location should share entries")
+                .that(otherCache.contains(file, "Input.java"))
+                .isTrue();
+
+        Files.writeString(secondSuppressions.toPath(), "<suppressions></suppressions>");
+        otherCache.setExternalResources(Set.of(secondSuppressions.getPath()));
+        assertWithMessage("File should not be cached for changed external resource")
+                .that(otherCache.contains(file, "Input.java"))
+                .isFalse();
+    }
+
+    @Test
+    public void testRemove() throws IOException {
+        final SharedCacheDirectory cache =
+                new SharedCacheDirectory(temporaryFolder.toPath().resolve("cache"));
+        final File file = createFile("first", "class Input {}");
+        cache.put(file, "Input.java", createViolations());
+        cache.remove(file, "Input.java");
+        assertWithMessage("Removed file should not be cached")
+                .that(cache.contains(file, "Input.java"))
+                .isFalse();
+    }
+
+    @Test
+    public void testFileWhichCanNotBeRead() {
+        final SharedCacheDirectory cache =
+                new SharedCacheDirectory(temporaryFolder.toPath().resolve("cache"));
+        final File file = new File(temporaryFolder, "Missing.java");
+        cache.put(file, "Missing.java", new TreeSet<>());
+        cache.remove(file, "Missing.java");
+        assertWithMessage("File which can not be read should not be cached")
+                .that(cache.get(file, "Missing.java", getClass().getClassLoader()))
+                .isNull();
+        assertWithMessage("File which can not be read should not be cached")
+                .that(cache.contains(file, "Missing.java"))
+                .isFalse();
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws IOException {
+        final Path directory = temporaryFolder.toPath().resolve("cache");
+        final SharedCacheDirectory cache = new SharedCacheDirectory(directory);
+        final File firstFile = createFile("first", "class First {}");
+        final File secondFile = createFile("second", "class Second {}");
+        cache.put(firstFile, "First.java", createViolations());
+        cache.put(secondFile, "Second.java", createViolations());
+        try (Stream<Path> entries = Files.find(directory, 2,
+                (path, attributes) -> attributes.isRegularFile())) {
+            entries.forEach(SharedCacheDirectoryTest::makeOld);
+        }
+        cache.get(firstFile, "First.java", getClass().getClassLoader());
+
+        final long size = Files.size(directory.resolve(findEntry(directory)));
+        cache.evict(size);
+
+        assertWithMessage("Recently used entry should be kept")
+                .that(cache.contains(firstFile, "First.java"))
+                .isTrue();
+        assertWithMessage("Least recently used entry should be evicted")
+                .that(cache.contains(secondFile, "Second.java"))
+                .isFalse();
+    }
+
+    @Test
+    public void testEvictMissingDirectory() {
+        final Path directory = temporaryFolder.toPath().resolve("missing");
+        new SharedCacheDirectory(directory).evict(0);
+        assertWithMessage("Directory should not be created")
+                .that(Files.exists(directory))
+                .isFalse();
+    }
+
+    private File createFile(String directoryName, String content) throws IOException {
+        final Path directory = Files.createDirectories(
+                temporaryFolder.toPath().resolve(directoryName));
+        final Path file = directory.resolve("Input.java");
+        Files.writeString(file, content);
+        return file.toFile();
+    }
+
+    private SortedSet<Violation> createViolations() {
+        final SortedSet<Violation> violations = new TreeSet<>();
+        violations.add(new Violation(1, "messages", "key", null, null, getClass(), "message"));
+        return violations;
+    }
+
+    private static Path findEntry(Path directory) throws IOException {
+        try (Stream<Path> entries = Files.find(directory, 2,
+                (path, attributes) -> attributes.isRegularFile())) {
+            return directory.relativize(entries.findFirst().orElseThrow());
+        }
+    }
+
+    private static void makeOld(Path entry) {
+        try {
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(0));
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.grammar.java.JavaLanguageLexer;
+import com.puppycrawl.tools.checkstyle.grammar.java.JavaLanguageParser;
+import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
+
+public class StatementAstBuilderTest extends AbstractTreeTestSupport {
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/statementastbuilder";
+    }
+
+    @Test
+    public void testSameAstAsFullParseTree() throws Exception {
+        final String path = getPath("InputStatementAstBuilder.java");
+        final FileText text = new FileText(new File(path), StandardCharsets.UTF_8.name());
+
+        final JavaLanguageParser parser = createParser(path);
+        final DetailAST expected =
+                new JavaAstVisitor((CommonTokenStream) parser.getTokenStream())
+                        .visit(parser.compilationUnit());
+        final DetailAST actual = JavaParser.parse(new FileContents(text));
+
+        assertWithMessage("AST built while parsing must match the AST of the full parse tree")
+                .that(printTree(actual))
+                .isEqualTo(printTree(expected));
+    }
+
+    @Test
+    public void testStatementsAreReleased() throws Exception {
+        final String path = getPath("InputStatementAstBuilder.java");
+        final JavaLanguageParser parser = createParser(path);
+        final JavaAstVisitor visitor =
+                new JavaAstVisitor((CommonTokenStream) parser.getTokenStream());
+        parser.addParseListener(new StatementAstBuilder(visitor));
+
+        final JavaLanguageParser.CompilationUnitContext compilationUnit =
+                parser.compilationUnit();
+        final List<JavaLanguageParser.BlockStatementContext> statements = new ArrayList<>();
+        collectStatements(compilationUnit, statements);
+
+        assertWithMessage("Statements of the bodies must be reachable")
+                .that(statements)
+                .hasSize(9);
+        for (JavaLanguageParser.BlockStatementContext statement : statements) {
+            assertWithMessage("Parse tree of a statement must be released")
+                    .that(statement.children)
+                    .isNull();
+        }
+        assertWithMessage("Prebuilt statements must be used by the visitor")
+                .that(visitor.visit(compilationUnit))
+                .isNotNull();
+    }
+
+    @Test
+    public void testIncompleteStatementIsNotBuilt() throws Exception {
+        final String path = getNonCompilablePath(
+                "InputStatementAstBuilderIncompleteStatement.java");
+        final FileContents contents = new FileContents(
+                new FileText(new File(path), StandardCharsets.UTF_8.name()));
+
+        final CheckstyleException ex = TestUtil.getExpectedThrowable(CheckstyleException.class,
+                () -> JavaParser.parse(contents));
+        assertWithMessage("Syntax error must be reported")
+                .that(ex.getCause())
+                .isInstanceOf(IllegalStateException.class);
+        assertWithMessage("Invalid error message")
+                .that(ex.getCause().getMessage())
+                .contains("7:22");
+    }
+
+    private static JavaLanguageParser createParser(String path) throws Exception {
+        final JavaLanguageLexer lexer =
+                new JavaLanguageLexer(CharStreams.fromFileName(path), true);
+        lexer.setCommentListener(new FileContents(
+                new FileText(new File(path), StandardCharsets.UTF_8.name())));
+        return new JavaLanguageParser(new CommonTokenStream(lexer));
+    }
+
+    private static void collectStatements(ParseTree tree,
+            List<JavaLanguageParser.BlockStatementContext> statements) {
+        if (tree instanceof JavaLanguageParser.BlockStatementContext) {
+            statements.add((JavaLanguageParser.BlockStatementContext) tree);
+        }
+        for (int index = 0; index < tree.getChildCount(); index++) {
+            collectStatements(tree.getChild(index), statements);
+        }
+    }
+
+    private static String printTree(DetailAST root) {
+        final StringBuilder result = new StringBuilder(1024);
+        for (DetailAST ast = root; ast != null; ast = ast.getNextSibling()) {
+            result.append(ast.getType()).append(' ').append(ast.getText()).append(' ')
+                    .append(ast.getLineNo()).append(':').append(ast.getColumnNo())
+                    .append(" [").append(printTree(ast.getFirstChild())).append(']');
+        }
+        return result.toString();
+    }
+}
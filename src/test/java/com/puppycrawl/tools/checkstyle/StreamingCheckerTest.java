@@ -0,0 +1,151 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static com.puppycrawl.tools.checkstyle.internal.utils.TestUtil.getExpectedThrowable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.internal.testmodules.CheckWhichThrowsError;
+
+public class StreamingCheckerTest {
+
+    private static final File DEFAULT_FILE = new File("Default.java");
+
+    private DefaultConfiguration checkerConfig;
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @BeforeEach
+    public void setUp() {
+        final DefaultConfiguration typeNameConfig = new DefaultConfiguration("TypeName");
+        typeNameConfig.addProperty("format", "^[a-z]*$");
+        final DefaultConfiguration treeWalkerConfig = new DefaultConfiguration("TreeWalker");
+        treeWalkerConfig.addChild(typeNameConfig);
+        checkerConfig = new DefaultConfiguration("Checker");
+        checkerConfig.addChild(treeWalkerConfig);
+    }
+
+    @Test
+    public void testSources() throws Exception {
+        final String input = source(null, "class Invalid {}")
+                + source("Named.java", "class valid {}")
+                + source("Other.java", "class Über {}");
+
+        assertWithMessage("Invalid error count")
+                .that(run(input))
+                .isEqualTo(2);
+        final String defaultPath = escape(DEFAULT_FILE);
+        final String otherPath = escape(new File("Other.java"));
+        assertWithMessage("Invalid output")
+                .that(getOutput())
+                .isEqualTo("{\"type\":\"violation\",\"file\":\"" + defaultPath
+                        + "\",\"line\":1,\"column\":7,\"severity\":\"error\","
+                        + "\"message\":\"Name 'Invalid' must match pattern '^[a-z]*$'.\","
+                        + "\"source\":\"" + escape("com.puppycrawl.tools.checkstyle.checks"
+                        + ".naming.TypeNameCheck") + "\"}\n"
+                        + "{\"type\":\"finished\",\"file\":\"" + defaultPath
+                        + "\",\"errors\":1}\n"
+                        + "{\"type\":\"finished\",\"file\":\""
+                        + escape(new File("Named.java")) + "\",\"errors\":0}\n"
+                        + "{\"type\":\"violation\",\"file\":\"" + otherPath
+                        + "\",\"line\":1,\"column\":7,\"severity\":\"error\","
+                        + "\"message\":\"Name 'Über' must match pattern '^[a-z]*$'.\","
+                        + "\"source\":\"" + escape("com.puppycrawl.tools.checkstyle.checks"
+                        + ".naming.TypeNameCheck") + "\"}\n"
+                        + "{\"type\":\"finished\",\"file\":\"" + otherPath
+                        + "\",\"errors\":1}\n");
+    }
+
+    @Test
+    public void testFailedSourceDoesNotStopChecks() throws Exception {
+        final DefaultConfiguration treeWalkerConfig = new DefaultConfiguration("TreeWalker");
+        treeWalkerConfig.addChild(
+                new DefaultConfiguration(CheckWhichThrowsError.class.getName()));
+        checkerConfig = new DefaultConfiguration("Checker");
+        checkerConfig.addChild(treeWalkerConfig);
+        final String input = source(null, "class Failed {}") + source(null, "");
+
+        assertWithMessage("Invalid error count")
+                .that(run(input))
+                .isEqualTo(0);
+        final String defaultPath = escape(DEFAULT_FILE);
+        assertWithMessage("Invalid output")
+                .that(getOutput())
+                .isEqualTo("{\"type\":\"failed\",\"file\":\"" + defaultPath
+                        + "\",\"message\":\"Exception was thrown while processing "
+                        + escape(DEFAULT_FILE.getPath()) + "\"}\n"
+                        + "{\"type\":\"finished\",\"file\":\"" + defaultPath
+                        + "\",\"errors\":0}\n");
+    }
+
+    @Test
+    public void testInvalidHeader() {
+        final CheckstyleException ex = getExpectedThrowable(CheckstyleException.class,
+                () -> run("invalid Invalid.java\nclass Invalid {}"));
+        assertWithMessage("Invalid exception message")
+                .that(ex.getMessage())
+                .isEqualTo("Invalid header of source: invalid Invalid.java");
+    }
+
+    @Test
+    public void testUnexpectedEndOfInput() {
+        final CheckstyleException ex = getExpectedThrowable(CheckstyleException.class,
+                () -> run("100\nclass Invalid {}"));
+        assertWithMessage("Invalid exception message")
+                .that(ex.getMessage())
+                .isEqualTo("Unexpected end of input in source " + DEFAULT_FILE);
+    }
+
+    private int run(String input) throws Exception {
+        return new StreamingChecker(checkerConfig, DEFAULT_FILE).run(
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+    }
+
+    private String getOutput() {
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String source(String name, String content) {
+        final StringBuilder result = new StringBuilder(64);
+        result.append(content.getBytes(StandardCharsets.UTF_8).length);
+        if (name != null) {
+            result.append(' ').append(name);
+        }
+        return result.append('\n').append(content).toString();
+    }
+
+    private static String escape(File file) {
+        return escape(file.getAbsolutePath());
+    }
+
+    private static String escape(String value) {
+        return SarifLogger.escape(value);
+    }
+
+}
@@ -42,17 +42,12 @@ public class ThreadModeSettingsTest {
 
     @Test
     public void testResolveCheckerInMultiThreadMode() {
-        final ThreadModeSettings configuration = new ThreadModeSettings(2, 2);
+        final ThreadModeSettings configuration = new ThreadModeSettings(2, 1);
 
-        try {
-            configuration.resolveName(ThreadModeSettings.CHECKER_MODULE_NAME);
-            assertWithMessage("An exception is expected").fail();
-        }
-        catch (IllegalArgumentException ex) {
-            assertWithMessage("Invalid exception message")
-                    .that(ex.getMessage())
-                    .isEqualTo("Multi thread mode for Checker module is not implemented");
-        }
+        final String name = configuration.resolveName(ThreadModeSettings.CHECKER_MODULE_NAME);
+        assertWithMessage("Invalid name resolved")
+                .that(name)
+                .isEqualTo(ThreadModeSettings.MULTI_THREAD_CHECKER_MODULE_NAME);
     }
 
     @Test
@@ -69,15 +64,20 @@ public class ThreadModeSettingsTest {
     public void testResolveTreeWalker() {
         final ThreadModeSettings configuration = new ThreadModeSettings(2, 2);
 
-        try {
-            configuration.resolveName(ThreadModeSettings.TREE_WALKER_MODULE_NAME);
-            assertWithMessage("Exception is expected").fail();
-        }
-        catch (IllegalArgumentException ex) {
-            assertWithMessage("Invalid exception message")
-                    .that(ex.getMessage())
-                    .isEqualTo("Multi thread mode for TreeWalker module is not implemented");
-        }
+        final String name = configuration.resolveName(ThreadModeSettings.TREE_WALKER_MODULE_NAME);
+        assertWithMessage("Invalid name resolved")
+                .that(name)
+                .isEqualTo(ThreadModeSettings.MULTI_THREAD_TREE_WALKER_MODULE_NAME);
+    }
+
+    @Test
+    public void testResolveTreeWalkerInMultiThreadCheckerMode() {
+        final ThreadModeSettings configuration = new ThreadModeSettings(2, 1);
+        final String actual =
+                configuration.resolveName(ThreadModeSettings.TREE_WALKER_MODULE_NAME);
+        assertWithMessage("Invalid name resolved: " + actual)
+                .that(actual)
+                .isEqualTo(ThreadModeSettings.TREE_WALKER_MODULE_NAME);
     }
 
     @Test
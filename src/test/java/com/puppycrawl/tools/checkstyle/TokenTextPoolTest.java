@@ -0,0 +1,105 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+public class TokenTextPoolTest extends AbstractPathTestSupport {
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/tokentextpool";
+    }
+
+    @Test
+    public void testTextsAreSharedBetweenFiles() throws Exception {
+        final TokenTextPool textPool = new TokenTextPool();
+        final DetailAST first = parse(textPool).findFirstToken(TokenTypes.CLASS_DEF);
+        final DetailAST second = parse(textPool).findFirstToken(TokenTypes.CLASS_DEF);
+
+        assertWithMessage("Identifiers of different files must be the same instance")
+                .that(second.findFirstToken(TokenTypes.IDENT).getText())
+                .isSameInstanceAs(first.findFirstToken(TokenTypes.IDENT).getText());
+    }
+
+    @Test
+    public void testKeywordsAreCanonical() throws Exception {
+        final DetailAST classDef =
+                parse(new TokenTextPool()).findFirstToken(TokenTypes.CLASS_DEF);
+
+        assertWithMessage("Keyword text must be the canonical constant")
+                .that(classDef.findFirstToken(TokenTypes.LITERAL_CLASS).getText())
+                .isSameInstanceAs("class");
+        assertWithMessage("Operator text must be the canonical constant")
+                .that(classDef.findFirstToken(TokenTypes.OBJBLOCK).getFirstChild().getText())
+                .isSameInstanceAs("{");
+    }
+
+    @Test
+    public void testStatistics() throws Exception {
+        final TokenTextPool textPool = new TokenTextPool();
+        assertWithMessage("Hit rate without lookups must be zero")
+                .that(textPool.getHitRate())
+                .isEqualTo(0.0);
+
+        parse(textPool);
+        final long firstLookups = textPool.getLookupsNumber();
+        final long firstHits = textPool.getHitsNumber();
+        parse(textPool);
+
+        assertWithMessage("Keywords and repeated identifiers must be hits")
+                .that(firstHits)
+                .isGreaterThan(0);
+        assertWithMessage("Identifiers seen for the first time must be misses")
+                .that(firstHits)
+                .isLessThan(firstLookups);
+        assertWithMessage("All texts of the same file parsed again must be hits")
+                .that(textPool.getHitsNumber() - firstHits)
+                .isEqualTo(textPool.getLookupsNumber() - firstLookups);
+        assertWithMessage("Invalid hit rate")
+                .that(textPool.getHitRate())
+                .isEqualTo((double) textPool.getHitsNumber() / textPool.getLookupsNumber());
+
+        textPool.clear();
+        assertWithMessage("Lookups must be reset")
+                .that(textPool.getLookupsNumber())
+                .isEqualTo(0);
+        assertWithMessage("Hits must be reset")
+                .that(textPool.getHitsNumber())
+                .isEqualTo(0);
+    }
+
+    private DetailAST parse(TokenTextPool textPool) throws Exception {
+        final FileText text = new FileText(new File(getPath("InputTokenTextPool.java")),
+                StandardCharsets.UTF_8.name());
+        return JavaParser.parse(new FileContents(text), textPool);
+    }
+
+}
@@ -23,13 +23,12 @@ import static com.google.common.truth.Truth.assertWithMessage;
 import static com.puppycrawl.tools.checkstyle.checks.naming.AbstractNameCheck.MSG_INVALID_PATTERN;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.CALLS_REAL_METHODS;
-import static org.mockito.Mockito.doThrow;
-import static org.mockito.Mockito.mock;
 
 import java.io.File;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -41,8 +40,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -60,20 +61,26 @@ import com.puppycrawl.tools.checkstyle.api.FileContents;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.checks.NoCodeInFileCheck;
+import com.puppycrawl.tools.checkstyle.checks.SuppressWarningsHolder;
+import com.puppycrawl.tools.checkstyle.checks.TodoCommentCheck;
 import com.puppycrawl.tools.checkstyle.checks.coding.EmptyStatementCheck;
 import com.puppycrawl.tools.checkstyle.checks.coding.HiddenFieldCheck;
 import com.puppycrawl.tools.checkstyle.checks.design.OneTopLevelClassCheck;
 import com.puppycrawl.tools.checkstyle.checks.indentation.CommentsIndentationCheck;
 import com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocPackageCheck;
 import com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocParagraphCheck;
+import com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocStyleCheck;
 import com.puppycrawl.tools.checkstyle.checks.naming.ConstantNameCheck;
 import com.puppycrawl.tools.checkstyle.checks.naming.MemberNameCheck;
 import com.puppycrawl.tools.checkstyle.checks.naming.ParameterNameCheck;
 import com.puppycrawl.tools.checkstyle.checks.naming.TypeNameCheck;
 import com.puppycrawl.tools.checkstyle.checks.whitespace.WhitespaceAfterCheck;
 import com.puppycrawl.tools.checkstyle.checks.whitespace.WhitespaceAroundCheck;
+import com.puppycrawl.tools.checkstyle.filters.SuppressWarningsFilter;
 import com.puppycrawl.tools.checkstyle.filters.SuppressWithNearbyCommentFilter;
+import com.puppycrawl.tools.checkstyle.filters.SuppressionCommentFilter;
 import com.puppycrawl.tools.checkstyle.filters.SuppressionXpathFilter;
+import com.puppycrawl.tools.checkstyle.filters.SuppressionXpathSingleFilter;
 import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
@@ -141,33 +148,27 @@ public class TreeWalkerTest extends AbstractModuleTestSupport {
     }
 
     /**
-     * This test is needed for 100% coverage. The method {@link Mockito#mockStatic} is used to
-     * ensure that the {@code if (!ordinaryChecks.isEmpty())} condition cannot be removed.
+     * Comment checks walk a view of the parsed AST, the method {@link Mockito#mockStatic}
+     * is used to ensure that comment nodes are not added to the parsed AST.
      */
     @Test
-    public void testConditionRequiredWithoutOrdinaryChecks() throws Exception {
+    public void testCommentChecksWalkViewOfParsedAst() throws Exception {
         final String[] expected = {
             "7: " + getCheckMessage(JavadocParagraphCheck.class,
                     JavadocParagraphCheck.MSG_REDUNDANT_PARAGRAPH),
         };
-        final String path = getPath("InputTreeWalkerJavadoc.java");
-        final DetailAST mockAst = mock();
-        final DetailAST realAst = JavaParser.parseFile(new File(path),
-                JavaParser.Options.WITH_COMMENTS);
-        // Ensure that there is no calls to walk(..., AstState.ORDINARY)
-        doThrow(IllegalStateException.class).when(mockAst).getFirstChild();
-        try (MockedStatic<JavaParser> parser = Mockito.mockStatic(JavaParser.class)) {
-            parser.when(() -> JavaParser.parse(any(FileContents.class))).thenReturn(mockAst);
-            // This will re-enable walk(..., AstState.WITH_COMMENTS)
-            parser.when(() -> JavaParser.appendHiddenCommentNodes(mockAst)).thenReturn(realAst);
+        try (MockedStatic<JavaParser> parser =
+                     Mockito.mockStatic(JavaParser.class, CALLS_REAL_METHODS)) {
+            parser.when(() -> JavaParser.appendHiddenCommentNodes(any(DetailAST.class)))
+                    .thenThrow(IllegalStateException.class);
 
-            verifyWithInlineConfigParserTwice(path, expected);
+            verifyWithInlineConfigParserTwice(getPath("InputTreeWalkerJavadoc.java"), expected);
         }
     }
 
     /**
      * This test is needed for 100% coverage. The method {@link Mockito#mockStatic} is used to
-     * ensure that the {@code if (!commentChecks.isEmpty())} condition cannot be removed.
+     * ensure that comment nodes are not created without comment checks.
      */
     @Test
     public void testConditionRequiredWithoutCommentChecks() throws Exception {
@@ -177,8 +178,7 @@ public class TreeWalkerTest extends AbstractModuleTestSupport {
         };
         try (MockedStatic<JavaParser> parser =
                      Mockito.mockStatic(JavaParser.class, CALLS_REAL_METHODS)) {
-            // Ensure that there is no calls to walk(..., AstState.WITH_COMMENTS)
-            parser.when(() -> JavaParser.appendHiddenCommentNodes(any(DetailAST.class)))
+            parser.when(() -> JavaParser.createCommentNodes(any()))
                     .thenThrow(IllegalStateException.class);
 
             verifyWithInlineConfigParserTwice(getPath("InputTreeWalker.java"), expected);
@@ -676,6 +676,38 @@ public class TreeWalkerTest extends AbstractModuleTestSupport {
         }
     }
 
+    @Test
+    public void testCheckFilter() throws Exception {
+        final TreeWalker treeWalker = new TreeWalker();
+        final PackageObjectFactory factory = new PackageObjectFactory(
+            new HashSet<>(), Thread.currentThread().getContextClassLoader());
+        treeWalker.setModuleFactory(factory);
+        treeWalker.configure(new DefaultConfiguration("default config"));
+        treeWalker.setupChild(createModuleConfig(AaCheck.class));
+        treeWalker.setupChild(createModuleConfig(BbCheck.class));
+        assertWithMessage("Configurations of all checks are expected")
+                .that(treeWalker.getCheckConfigurations())
+                .hasSize(2);
+
+        final File file = new File(getPath("InputTreeWalker2.java"));
+        final FileText fileText = new FileText(file, StandardCharsets.UTF_8.name());
+        treeWalker.setCheckFilter(BbCheck.class::isInstance);
+        try {
+            treeWalker.process(file, fileText);
+            assertWithMessage("exception is expected").fail();
+        }
+        catch (IllegalStateException exception) {
+            assertWithMessage("Only the selected check should walk the tree")
+                    .that(exception.getMessage())
+                    .isEqualTo(BbCheck.class.toString());
+        }
+
+        treeWalker.setCheckFilter(check -> false);
+        assertWithMessage("No check should walk the tree")
+                .that(treeWalker.process(file, fileText))
+                .isEmpty();
+    }
+
     @Test
     public void testSkipFileOnJavaParseExceptionTrue() throws Exception {
         final DefaultConfiguration config = createModuleConfig(TreeWalker.class);
@@ -794,6 +826,180 @@ public class TreeWalkerTest extends AbstractModuleTestSupport {
         verify(checker, files, expectedViolation);
     }
 
+    @Test
+    public void testMultiThreadWalk() throws Exception {
+        final DefaultConfiguration treeWalkerConfig = new DefaultConfiguration(
+                TreeWalker.class.getName(), new ThreadModeSettings(1, 3));
+        treeWalkerConfig.addChild(createModuleConfig(HiddenFieldCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(MemberNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(TodoCommentCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(SuppressWarningsHolder.class));
+        final DefaultConfiguration checkerConfig = createRootConfig(treeWalkerConfig);
+        checkerConfig.addChild(createModuleConfig(SuppressWarningsFilter.class));
+
+        final String[] expected = {
+            "16:17: " + getCheckMessage(MemberNameCheck.class, MSG_INVALID_PATTERN,
+                    "Field", "^[a-z][a-zA-Z0-9]*$"),
+            "19:30: " + getCheckMessage(HiddenFieldCheck.class, HiddenFieldCheck.MSG_KEY,
+                    "value"),
+            "28:7: " + getCheckMessage(TodoCommentCheck.class, TodoCommentCheck.MSG_KEY,
+                    "TODO:"),
+        };
+        verify(checkerConfig, getPath("InputTreeWalkerMultiThread.java"), expected);
+    }
+
+    @Test
+    public void testMultiThreadWalkSpreadsStatelessChecks() throws Exception {
+        final DefaultConfiguration treeWalkerConfig = new DefaultConfiguration(
+                TreeWalker.class.getName(), new ThreadModeSettings(1, 2));
+        treeWalkerConfig.addChild(createModuleConfig(ThreadRecordingCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(StatelessThreadRecordingCheck.class));
+        ThreadRecordingCheck.THREADS.clear();
+
+        verify(createRootConfig(treeWalkerConfig), getPath("InputTreeWalkerMultiThread.java"),
+                CommonUtil.EMPTY_STRING_ARRAY);
+        assertWithMessage("Check without statefulness annotation must stay on calling thread")
+                .that(ThreadRecordingCheck.THREADS.get(ThreadRecordingCheck.class))
+                .isSameInstanceAs(Thread.currentThread());
+        assertWithMessage("Stateless check must be walked on a worker thread")
+                .that(ThreadRecordingCheck.THREADS.get(StatelessThreadRecordingCheck.class))
+                .isNotSameInstanceAs(Thread.currentThread());
+    }
+
+    @Test
+    public void testSingleThreadWalkHasNoConcurrentWalker() throws Exception {
+        final TreeWalker treeWalker = new TreeWalker();
+        treeWalker.setModuleFactory(new PackageObjectFactory(
+            new HashSet<>(), Thread.currentThread().getContextClassLoader()));
+        treeWalker.configure(new DefaultConfiguration(TreeWalker.class.getName(),
+                new ThreadModeSettings(1, 1)));
+        assertWithMessage("Single thread walk should not use a concurrent walker")
+                .that(TestUtil.<Object>getInternalState(treeWalker, "treeWalker"))
+                .isNull();
+
+        final TreeWalker multiThreadWalker = new TreeWalker();
+        multiThreadWalker.setModuleFactory(new PackageObjectFactory(
+            new HashSet<>(), Thread.currentThread().getContextClassLoader()));
+        multiThreadWalker.configure(new DefaultConfiguration(TreeWalker.class.getName(),
+                new ThreadModeSettings(1, 2)));
+        assertWithMessage("Multi thread walk should use a concurrent walker")
+                .that(TestUtil.<Object>getInternalState(multiThreadWalker, "treeWalker"))
+                .isNotNull();
+        multiThreadWalker.destroy();
+    }
+
+    @Test
+    public void testXpathFilterWithCommentChecks() throws Exception {
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(createModuleConfig(HiddenFieldCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(MemberNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(TodoCommentCheck.class));
+        final DefaultConfiguration filterConfig =
+                createModuleConfig(SuppressionXpathSingleFilter.class);
+        filterConfig.addProperty("checks", "MemberName");
+        filterConfig.addProperty("query", "//VARIABLE_DEF/IDENT[@text='Field']");
+        treeWalkerConfig.addChild(filterConfig);
+
+        final String[] expected = {
+            "19:30: " + getCheckMessage(HiddenFieldCheck.class, HiddenFieldCheck.MSG_KEY,
+                    "value"),
+            "24:40: " + getCheckMessage(HiddenFieldCheck.class, HiddenFieldCheck.MSG_KEY,
+                    "value"),
+            "28:7: " + getCheckMessage(TodoCommentCheck.class, TodoCommentCheck.MSG_KEY,
+                    "TODO:"),
+        };
+        verify(createRootConfig(treeWalkerConfig),
+                getPath("InputTreeWalkerMultiThread.java"), expected);
+    }
+
+    @Test
+    public void testAstCacheDirectory() throws Exception {
+        final File astCacheDirectory = new File(temporaryFolder, "asts");
+        final String[] expected = {
+            "16:17: " + getCheckMessage(MemberNameCheck.class, MSG_INVALID_PATTERN,
+                    "Field", "^[a-z][a-zA-Z0-9]*$"),
+            "19:30: " + getCheckMessage(HiddenFieldCheck.class, HiddenFieldCheck.MSG_KEY,
+                    "value"),
+            "28:7: " + getCheckMessage(TodoCommentCheck.class, TodoCommentCheck.MSG_KEY,
+                    "TODO:"),
+        };
+        for (int run = 0; run < 2; run++) {
+            final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+            treeWalkerConfig.addProperty("astCacheDirectory", astCacheDirectory.getPath());
+            treeWalkerConfig.addChild(createModuleConfig(HiddenFieldCheck.class));
+            treeWalkerConfig.addChild(createModuleConfig(MemberNameCheck.class));
+            treeWalkerConfig.addChild(createModuleConfig(TodoCommentCheck.class));
+            treeWalkerConfig.addChild(createModuleConfig(SuppressWarningsHolder.class));
+            final DefaultConfiguration checkerConfig = createRootConfig(treeWalkerConfig);
+            checkerConfig.addChild(createModuleConfig(SuppressWarningsFilter.class));
+
+            verify(checkerConfig, getPath("InputTreeWalkerMultiThread.java"), expected);
+        }
+        try (Stream<Path> entries = Files.find(astCacheDirectory.toPath(), 2,
+                (path, attributes) -> attributes.isRegularFile())) {
+            assertWithMessage("The AST of the file should be cached once")
+                    .that(entries.count())
+                    .isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testAstCacheDirectoryWithCommentChecksOnly() throws Exception {
+        final File astCacheDirectory = new File(temporaryFolder, "asts");
+        final String[] expected = {
+            "28:7: " + getCheckMessage(TodoCommentCheck.class, TodoCommentCheck.MSG_KEY,
+                    "TODO:"),
+        };
+        for (int run = 0; run < 2; run++) {
+            final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+            treeWalkerConfig.addProperty("astCacheDirectory", astCacheDirectory.getPath());
+            treeWalkerConfig.addChild(createModuleConfig(TodoCommentCheck.class));
+
+            verify(createRootConfig(treeWalkerConfig),
+                    getPath("InputTreeWalkerMultiThread.java"), expected);
+        }
+    }
+
+    @Test
+    public void testAstCacheDirectoryWithComments() throws Exception {
+        final File astCacheDirectory = new File(temporaryFolder, "asts");
+        final String[] expected = {
+            "9: " + getCheckMessage(JavadocStyleCheck.class, JavadocStyleCheck.MSG_NO_PERIOD),
+            "14: " + getCheckMessage(JavadocStyleCheck.class, JavadocStyleCheck.MSG_NO_PERIOD),
+        };
+        for (int run = 0; run < 2; run++) {
+            final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+            treeWalkerConfig.addProperty("astCacheDirectory", astCacheDirectory.getPath());
+            treeWalkerConfig.addChild(createModuleConfig(JavadocStyleCheck.class));
+            treeWalkerConfig.addChild(createModuleConfig(SuppressionCommentFilter.class));
+
+            verify(createRootConfig(treeWalkerConfig),
+                    getPath("InputTreeWalkerAstCacheComments.java"), expected);
+        }
+    }
+
+    @Test
+    public void testMultiThreadWalkFailure() throws Exception {
+        final DefaultConfiguration treeWalkerConfig = new DefaultConfiguration(
+                TreeWalker.class.getName(), new ThreadModeSettings(1, 2));
+        treeWalkerConfig.addChild(createModuleConfig(MemberNameCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(FileStatefulFailingCheck.class));
+
+        final List<File> files =
+                Collections.singletonList(new File(getPath("InputTreeWalker2.java")));
+        final Checker checker = createChecker(treeWalkerConfig);
+
+        try {
+            checker.process(files);
+            assertWithMessage("exception is expected").fail();
+        }
+        catch (CheckstyleException exception) {
+            assertWithMessage("failure on a worker thread is not reported")
+                    .that(exception.getCause().getMessage())
+                    .isEqualTo(FileStatefulFailingCheck.class.toString());
+        }
+    }
+
     public static class BadJavaDocCheck extends AbstractCheck {
 
         @Override
@@ -936,6 +1142,62 @@ public class TreeWalkerTest extends AbstractModuleTestSupport {
 
     }
 
+    @FileStatefulCheck
+    public static class FileStatefulFailingCheck extends AbstractCheck {
+
+        @Override
+        public int[] getDefaultTokens() {
+            return new int[0];
+        }
+
+        @Override
+        public int[] getAcceptableTokens() {
+            return new int[0];
+        }
+
+        @Override
+        public int[] getRequiredTokens() {
+            return new int[0];
+        }
+
+        @Override
+        public void beginTree(DetailAST rootAST) {
+            throw new IllegalStateException(FileStatefulFailingCheck.class.toString());
+        }
+
+    }
+
+    public static class ThreadRecordingCheck extends AbstractCheck {
+
+        private static final Map<Class<?>, Thread> THREADS = new ConcurrentHashMap<>();
+
+        @Override
+        public int[] getDefaultTokens() {
+            return new int[] {TokenTypes.CLASS_DEF};
+        }
+
+        @Override
+        public int[] getAcceptableTokens() {
+            return getDefaultTokens();
+        }
+
+        @Override
+        public int[] getRequiredTokens() {
+            return getDefaultTokens();
+        }
+
+        @Override
+        public void beginTree(DetailAST rootAST) {
+            THREADS.put(getClass(), Thread.currentThread());
+        }
+
+    }
+
+    @StatelessCheck
+    public static class StatelessThreadRecordingCheck extends ThreadRecordingCheck {
+        // the same check, but annotated
+    }
+
     public static class RequiredTokenIsEmptyIntArray extends AbstractCheck {
 
         @Override
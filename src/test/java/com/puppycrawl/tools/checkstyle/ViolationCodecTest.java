@@ -0,0 +1,131 @@
+///////////////////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code and other text files for adherence to a set of rules.
+// Copyright (C) 2001-2024 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+///////////////////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+import static com.puppycrawl.tools.checkstyle.internal.utils.TestUtil.isUtilsClassHasPrivateConstructor;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+public class ViolationCodecTest {
+
+    @Test
+    public void testIsProperUtilsClass() throws ReflectiveOperationException {
+        assertWithMessage("Constructor is not private")
+                .that(isUtilsClassHasPrivateConstructor(ViolationCodec.class))
+                .isTrue();
+    }
+
+    @Test
+    public void testEncodeAndDecode() {
+        final SortedSet<Violation> violations = new TreeSet<>();
+        violations.add(new Violation(2, 3, 4, TokenTypes.IDENT, "messages", "test.key",
+                new Object[] {7}, SeverityLevel.WARNING, "moduleId", getClass(),
+                "found {0} in ''{1}''"));
+        violations.add(new Violation(1, "messages", "other.key", null, null, getClass(), "'{'"));
+
+        final SortedSet<Violation> decoded = ViolationCodec.decode(
+                ViolationCodec.encode(violations), getClass().getClassLoader());
+
+        assertWithMessage("Invalid number of violations")
+                .that(decoded)
+                .hasSize(2);
+        final Violation first = decoded.first();
+        assertWithMessage("Invalid violation text")
+                .that(first.getViolation())
+                .isEqualTo("{");
+        assertWithMessage("Invalid module id")
+                .that(first.getModuleId())
+                .isNull();
+        final Violation violation = decoded.last();
+        assertWithMessage("Invalid violation text")
+                .that(violation.getViolation())
+                .isEqualTo("found 7 in '{1}'");
+        assertWithMessage("Invalid line")
+                .that(violation.getLineNo())
+                .isEqualTo(2);
+        assertWithMessage("Invalid column")
+                .that(violation.getColumnNo())
+                .isEqualTo(3);
+        assertWithMessage("Invalid column char index")
+                .that(violation.getColumnCharIndex())
+                .isEqualTo(4);
+        assertWithMessage("Invalid token type")
+                .that(violation.getTokenType())
+                .isEqualTo(TokenTypes.IDENT);
+        assertWithMessage("Invalid severity")
+                .that(violation.getSeverityLevel())
+                .isEqualTo(SeverityLevel.WARNING);
+        assertWithMessage("Invalid module id")
+                .that(violation.getModuleId())
+                .isEqualTo("moduleId");
+        assertWithMessage("Invalid key")
+                .that(violation.getKey())
+                .isEqualTo("test.key");
+        assertWithMessage("Invalid source")
+                .that(violation.getSourceName())
+                .isEqualTo(getClass().getName());
+    }
+
+    @Test
+    public void testEncodeTooLongViolation() {
+        final SortedSet<Violation> violations = new TreeSet<>();
+        violations.add(new Violation(1, "messages", "key", null, null, getClass(),
+                "x".repeat(70_000)));
+
+        assertWithMessage("Too long violation should not be encoded")
+                .that(ViolationCodec.encode(violations))
+                .isNull();
+    }
+
+    @Test
+    public void testDecodeUnknownSource() throws IOException {
+        final SortedSet<Violation> violations = new TreeSet<>();
+        violations.add(new Violation(1, "messages", "key", null, null, getClass(), null));
+        final String encoded = ViolationCodec.encode(violations);
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[0], null)) {
+            assertWithMessage("Violations with unknown source should not be decoded")
+                    .that(ViolationCodec.decode(encoded, classLoader))
+                    .isNull();
+        }
+    }
+
+    @Test
+    public void testDecodeCorrupted() {
+        assertWithMessage("Corrupted violations should not be decoded")
+                .that(ViolationCodec.decode("corrupted", getClass().getClassLoader()))
+                .isNull();
+        assertWithMessage("Invalid encoding should not be decoded")
+                .that(ViolationCodec.decode("#", getClass().getClassLoader()))
+                .isNull();
+    }
+
+}
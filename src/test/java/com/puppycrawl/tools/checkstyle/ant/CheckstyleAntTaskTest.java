@@ -74,6 +74,19 @@ public class CheckstyleAntTaskTest extends AbstractPathTestSupport {
         return "com/puppycrawl/tools/checkstyle/ant/checkstyleanttask/";
     }
 
+    private List<File> getFilesToCheckInShard(String shard) throws IOException {
+        TestRootModuleChecker.reset();
+        final CheckstyleAntTask antTask = new CheckstyleAntTask();
+        antTask.setConfig(getPath(CUSTOM_ROOT_CONFIG_FILE));
+        antTask.setProject(new Project());
+        antTask.setShard(shard);
+        final Path sourcePath = new Path(antTask.getProject());
+        sourcePath.add(new FileResource(antTask.getProject(), getPath("")));
+        antTask.addPath(sourcePath);
+        antTask.execute();
+        return TestRootModuleChecker.getFilesToCheck();
+    }
+
     private CheckstyleAntTask getCheckstyleAntTask() throws IOException {
         return getCheckstyleAntTask(CONFIG_FILE);
     }
@@ -253,6 +266,54 @@ public class CheckstyleAntTaskTest extends AbstractPathTestSupport {
                 .isEqualTo("Must specify 'config'.");
     }
 
+    @Test
+    public final void testChangedLinesOnlyWithoutGitBase() throws IOException {
+        final CheckstyleAntTask antTask = getCheckstyleAntTask();
+        antTask.setFile(new File(getPath(FLAWLESS_INPUT)));
+        antTask.setChangedLinesOnly(true);
+        final BuildException ex = getExpectedThrowable(BuildException.class,
+                antTask::execute,
+                "BuildException is expected");
+        assertWithMessage("Error message is unexpected")
+                .that(ex.getMessage())
+                .isEqualTo("Attribute 'changedLinesOnly' requires 'gitBase'.");
+    }
+
+    @Test
+    public final void testShard() throws IOException {
+        final List<File> firstShard = getFilesToCheckInShard("1/2");
+        final List<File> secondShard = getFilesToCheckInShard("2/2");
+
+        assertWithMessage("Files should be split between the shards")
+                .that(firstShard)
+                .isNotEmpty();
+        assertWithMessage("Files should be split between the shards")
+                .that(secondShard)
+                .isNotEmpty();
+        assertWithMessage("Shards should not share files")
+                .that(firstShard)
+                .containsNoneIn(secondShard);
+        assertWithMessage("Shards should contain all files")
+                .that(firstShard.size() + secondShard.size())
+                .isEqualTo(9);
+        assertWithMessage("Shards should be the same on every run")
+                .that(getFilesToCheckInShard("1/2"))
+                .containsExactlyElementsIn(firstShard)
+                .inOrder();
+    }
+
+    @Test
+    public final void testInvalidShard() {
+        final CheckstyleAntTask antTask = new CheckstyleAntTask();
+        final BuildException ex = getExpectedThrowable(BuildException.class,
+                () -> antTask.setShard("0/2"),
+                "BuildException is expected");
+        assertWithMessage("Error message is unexpected")
+                .that(ex.getMessage())
+                .isEqualTo("Invalid shard '0/2', expected i/n where i is between 1 and the"
+                        + " number of shards n.");
+    }
+
     @Test
     public final void testNonExistentConfig() throws IOException {
         final CheckstyleAntTask antTask = new CheckstyleAntTask();
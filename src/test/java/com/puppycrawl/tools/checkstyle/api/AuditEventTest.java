@@ -22,6 +22,8 @@ package com.puppycrawl.tools.checkstyle.api;
 import static com.google.common.truth.Truth.assertWithMessage;
 import static com.puppycrawl.tools.checkstyle.internal.utils.TestUtil.getExpectedThrowable;
 
+import java.io.File;
+
 import org.junit.jupiter.api.Test;
 
 public class AuditEventTest {
@@ -88,4 +90,17 @@ public class AuditEventTest {
                 .that(event.getSourceName())
                 .isEqualTo("com.puppycrawl.tools.checkstyle.api.AuditEventTest");
     }
+
+    @Test
+    public void testFileText() {
+        final FileText fileText = new FileText(new File("fileName"), (CharSequence) "class A {}");
+        final AuditEvent event = new AuditEvent(getClass(), "fileName", null, fileText);
+
+        assertWithMessage("invalid file text")
+                .that(event.getFileText())
+                .isSameInstanceAs(fileText);
+        assertWithMessage("file text should be null if it is not given")
+                .that(new AuditEvent(getClass(), "fileName", null).getFileText())
+                .isNull();
+    }
 }
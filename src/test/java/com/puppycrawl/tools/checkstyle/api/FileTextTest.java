@@ -26,6 +26,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -154,6 +155,48 @@ public class FileTextTest extends AbstractPathTestSupport {
                 .isEqualTo(new String[] {"abc"});
     }
 
+    @Test
+    public void testContent() throws IOException {
+        final String charsetName = StandardCharsets.ISO_8859_1.name();
+        final File file = new File(getPath("InputFileTextImportControl.xml"));
+        final FileText expected = new FileText(file, charsetName);
+        final FileText fileText = new FileText(new File("unsaved.xml"), charsetName,
+                Files.readAllBytes(file.toPath()));
+        assertWithMessage("Invalid text")
+                .that(fileText.getFullText().toString())
+                .isEqualTo(expected.getFullText().toString());
+        assertWithMessage("Invalid lines")
+                .that(fileText.toLinesArray())
+                .isEqualTo(expected.toLinesArray());
+        assertWithMessage("Invalid charset name")
+                .that(fileText.getCharset().name())
+                .isEqualTo(charsetName);
+        assertWithMessage("Given content should be in memory")
+                .that(fileText.isInMemory())
+                .isTrue();
+        assertWithMessage("Content read from the file should not be in memory")
+                .that(expected.isInMemory())
+                .isFalse();
+    }
+
+    @Test
+    public void testText() {
+        final CharSequence text = "a\r\nb\rc\n";
+        final FileText fileText = new FileText(new File("unsaved.txt"), text);
+        assertWithMessage("Invalid lines")
+                .that(fileText.toLinesArray())
+                .isEqualTo(new String[] {"a", "b", "c"});
+        assertWithMessage("Invalid line column")
+                .that(fileText.lineColumn(5))
+                .isEqualTo(new LineColumn(3, 0));
+        assertWithMessage("Charset should be null")
+                .that(fileText.getCharset())
+                .isNull();
+        assertWithMessage("Given text should be in memory")
+                .that(new FileText(fileText).isInMemory())
+                .isTrue();
+    }
+
     @Test
     public void testFindLineBreaks() throws Exception {
         final FileText fileText = new FileText(new File("fileName"), Arrays.asList("1", "2"));
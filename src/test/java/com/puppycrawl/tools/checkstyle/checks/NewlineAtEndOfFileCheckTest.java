@@ -195,6 +195,36 @@ public class NewlineAtEndOfFileCheckTest
                 .isEqualTo(getCheckMessage(MSG_KEY_UNABLE_OPEN, ""));
     }
 
+    @Test
+    public void testTextInMemory() throws Exception {
+        final DefaultConfiguration checkConfig = createModuleConfig(NewlineAtEndOfFileCheck.class);
+        checkConfig.addProperty("lineSeparator", LineSeparatorOption.LF.toString());
+        final NewlineAtEndOfFileCheck check = new NewlineAtEndOfFileCheck();
+        check.configure(checkConfig);
+        final File file = new File(getPath("InputNewlineAtEndOfFileLf.java"));
+
+        assertWithMessage("Text with a newline should have no violations")
+                .that(check.process(file, new FileText(file, (CharSequence) "class Unsaved {}\n")))
+                .isEmpty();
+        final Set<Violation> violations =
+                check.process(file, new FileText(file, (CharSequence) "class Unsaved {}"));
+        assertWithMessage("Text without a newline should be checked instead of the file")
+                .that(violations)
+                .hasSize(1);
+        assertWithMessage("Violation message differs from expected")
+                .that(violations.iterator().next().getViolation())
+                .isEqualTo(getCheckMessage(MSG_KEY_NO_NEWLINE_EOF));
+        assertWithMessage("Text with CRLF should have the wrong ending")
+                .that(check.process(file, new FileText(file, (CharSequence) "class Unsaved {}\r\n"))
+                        .iterator().next().getViolation())
+                .isEqualTo(getCheckMessage(MSG_KEY_WRONG_ENDING));
+        final File missingFile = new File("Missing.java");
+        assertWithMessage("Empty text of a missing file should have no newline")
+                .that(check.process(missingFile, new FileText(missingFile, (CharSequence) ""))
+                        .iterator().next().getViolation())
+                .isEqualTo(getCheckMessage(MSG_KEY_NO_NEWLINE_EOF));
+    }
+
     @Test
     public void testWrongSeparatorLength() throws Exception {
         try (RandomAccessFile file =
@@ -171,6 +171,18 @@ public class OrderedPropertiesCheckTest extends AbstractModuleTestSupport {
                 .hasSize(1);
     }
 
+    @Test
+    public void testTextInMemoryIsSkipped() throws Exception {
+        final OrderedPropertiesCheck check = new OrderedPropertiesCheck();
+        check.configure(createModuleConfig(OrderedPropertiesCheck.class));
+        final File file =
+                new File(getPath("InputOrderedPropertiesCheckNotExisting.properties"));
+        final FileText fileText = new FileText(file, (CharSequence) "b=1\na=2\n");
+        assertWithMessage("Text which is not read from the file should be skipped")
+                .that(check.process(file, fileText))
+                .isEmpty();
+    }
+
     @Test
     public void testFileExtension() {
 
@@ -149,6 +149,23 @@ public class TranslationCheckTest extends AbstractXmlTestSupport {
                 .isEmpty();
     }
 
+    @Test
+    public void testTextInMemoryIsSkipped() throws Exception {
+        final File fileToProcess = new File(
+                getPath("InputTranslationCheckFireErrors_de.properties")
+        );
+        final TranslationCheck check = new TranslationCheck();
+        check.beginProcessing(StandardCharsets.UTF_8.name());
+        final CharSequence text = "anything=else\n";
+        check.processFiltered(fileToProcess, new FileText(fileToProcess, text));
+        final Field field = check.getClass().getDeclaredField("filesToProcess");
+        field.setAccessible(true);
+
+        assertWithMessage("Text which is not read from the file should be skipped")
+                .that((Iterable<?>) field.get(check))
+                .isEmpty();
+    }
+
     @Test
     public void testFileExtension() throws Exception {
         final DefaultConfiguration checkConfig = createModuleConfig(TranslationCheck.class);
@@ -154,6 +154,17 @@ public class UniquePropertiesCheckTest extends AbstractModuleTestSupport {
             .isEqualTo(violation.getViolation());
     }
 
+    @Test
+    public void testTextInMemoryIsSkipped() throws Exception {
+        final UniquePropertiesCheck check = new UniquePropertiesCheck();
+        check.configure(createModuleConfig(UniquePropertiesCheck.class));
+        final File file = new File(getPath("InputUniquePropertiesCheckNotExisting.properties"));
+        final FileText fileText = new FileText(file, (CharSequence) "a=1\na=2\n");
+        assertWithMessage("Text which is not read from the file should be skipped")
+            .that(check.process(file, fileText))
+            .isEmpty();
+    }
+
     @Test
     public void testWrongKeyTypeInProperties() throws Exception {
         final Class<?> uniquePropertiesClass = Class
@@ -23,15 +23,19 @@ import static com.google.common.truth.Truth.assertWithMessage;
 import static com.puppycrawl.tools.checkstyle.checks.naming.AbstractNameCheck.MSG_INVALID_PATTERN;
 import static com.puppycrawl.tools.checkstyle.checks.sizes.LineLengthCheck.MSG_KEY;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.api.Violation;
@@ -45,6 +49,9 @@ public class SuppressWithNearbyTextFilterTest extends AbstractModuleTestSupport
 
     private static final String REGEXP_SINGLELINE_CHECK_FORMAT = "this should not appear";
 
+    @TempDir
+    public File temporaryFolder;
+
     @Override
     protected String getPackageLocation() {
         return "com/puppycrawl/tools/checkstyle/filters/suppresswithnearbytextfilter";
@@ -485,6 +492,58 @@ public class SuppressWithNearbyTextFilterTest extends AbstractModuleTestSupport
                 .isTrue();
     }
 
+    /**
+     * Calls the filter with audit events of texts which are not read from the file system
+     * and asserts that the suppressions of each text are used, even if the texts have
+     * the same file name.
+     */
+    @Test
+    public void testFileTextOfEvent() {
+        final SuppressWithNearbyTextFilter filter = new SuppressWithNearbyTextFilter();
+        final Violation violation = new Violation(1, 1, "bundle", "key", null,
+                SeverityLevel.ERROR, "moduleId", getClass(), "customMessage");
+        final File file = new File("unsaved_file");
+        final AuditEvent suppressed = new AuditEvent(this, file.getPath(), violation,
+                new FileText(file, (CharSequence) "int a = 1; // SUPPRESS CHECKSTYLE MagicNumber"));
+        final AuditEvent notSuppressed = new AuditEvent(this, file.getPath(), violation,
+                new FileText(file, (CharSequence) "int a = 1;"));
+
+        assertWithMessage("filter should suppress violation of the text")
+                .that(filter.accept(suppressed))
+                .isFalse();
+        assertWithMessage("filter should use suppressions of the new text")
+                .that(filter.accept(notSuppressed))
+                .isTrue();
+    }
+
+    /**
+     * Calls the filter on a file which is modified after the first call and asserts that the
+     * suppressions of the modified file are used, as a reused filter may check the same file
+     * in several audits.
+     *
+     * @throws IOException if the file can not be written.
+     */
+    @Test
+    public void testModifiedFileIsReadAgain() throws IOException {
+        final SuppressWithNearbyTextFilter filter = new SuppressWithNearbyTextFilter();
+        final File file = new File(temporaryFolder, "Input.java");
+        Files.writeString(file.toPath(), "int a = 1; // SUPPRESS CHECKSTYLE MagicNumber");
+        final AuditEvent event = new AuditEvent(this, file.getPath(), new Violation(1, 1,
+                "bundle", "key", null, SeverityLevel.ERROR, "moduleId", getClass(),
+                "customMessage"));
+        assertWithMessage("filter should suppress violation of the file")
+                .that(filter.accept(event))
+                .isFalse();
+
+        Files.writeString(file.toPath(), "int a = 1;");
+        assertWithMessage("File should be modified")
+                .that(file.setLastModified(file.lastModified() + 10_000))
+                .isTrue();
+        assertWithMessage("filter should use suppressions of the modified file")
+                .that(filter.accept(event))
+                .isTrue();
+    }
+
     /**
      * Calls the filter on two consecutive real input files and asserts that the 'suppressions'
      * internal field is cleared after each run.
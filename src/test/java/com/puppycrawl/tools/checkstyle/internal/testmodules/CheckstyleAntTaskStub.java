@@ -43,7 +43,7 @@ public class CheckstyleAntTaskStub extends CheckstyleAntTask {
 
         /** This method is overridden to simulate an exception. */
         @Override
-        public long lastModified() {
+        public String getAbsolutePath() {
             throw new SecurityException("mock");
         }
 
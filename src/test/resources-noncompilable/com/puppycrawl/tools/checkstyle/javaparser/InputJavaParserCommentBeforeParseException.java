@@ -0,0 +1,2 @@
+/* non-compiled syntax: bad file for testing */
+classD a {}
@@ -0,0 +1,9 @@
+/* non-compiled syntax: bad file for testing */
+package com.puppycrawl.tools.checkstyle.statementastbuilder;
+
+public class InputStatementAstBuilderIncompleteStatement {
+    void method() {
+        int first = 1;
+        first = first +;
+    }
+}
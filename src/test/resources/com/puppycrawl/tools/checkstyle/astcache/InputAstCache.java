@@ -0,0 +1,24 @@
+/* header comment */
+package com.puppycrawl.tools.checkstyle.astcache;
+
+import java.util.List;
+
+/**
+ * Javadoc of the class.
+ */
+public class InputAstCache {
+
+    // the field
+    private final List<String> items;
+
+    public InputAstCache(List<String> items) {
+        this.items = items;
+    }
+
+    /* the first */
+    public String first() {
+        return items.isEmpty() ? null : items.get(0);
+    }
+
+}
+// trailing comment
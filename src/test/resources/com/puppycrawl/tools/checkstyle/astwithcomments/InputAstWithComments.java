@@ -0,0 +1,29 @@
+package com.puppycrawl.tools.checkstyle.astwithcomments;
+
+import java.util.List;
+
+/**
+ * Javadoc of the class.
+ */
+public class InputAstWithComments<T extends Comparable<T>> {
+
+    // the field
+    private final List<T> items;
+
+    @SuppressWarnings("unused")
+    public InputAstWithComments(List<T> items) {
+        this.items = items;
+    }
+
+    /* the max */
+    public T max() {
+        T result = null;
+        for (T item : items) {
+            if (result == null || item.compareTo(result) > 0) {
+                result = item;
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,8 @@
+// header comment
+package com.puppycrawl.tools.checkstyle.astwithcomments;
+
+/* before the class */ public class InputAstWithCommentsTrailingComment {
+    int field; // after the field
+}
+// first trailing comment
+/* second trailing comment */
@@ -0,0 +1,19 @@
+package com.puppycrawl.tools.checkstyle.dfacachepolicy;
+
+import java.util.List;
+
+public class InputDfaCachePolicy {
+
+    private final List<String> names = List.of("first", "second");
+
+    public int count(String prefix) {
+        int result = 0;
+        for (String name : names) {
+            if (name.startsWith(prefix)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+}
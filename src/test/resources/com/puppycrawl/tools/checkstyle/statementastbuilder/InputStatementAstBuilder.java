@@ -0,0 +1,65 @@
+package com.puppycrawl.tools.checkstyle.statementastbuilder;
+
+import java.util.function.Function;
+
+public class InputStatementAstBuilder {
+
+    private final Runnable field = () -> {
+        int local = 1;
+        local++;
+    };
+
+    public InputStatementAstBuilder() {
+        this(1);
+    }
+
+    public InputStatementAstBuilder(int value) {
+        super();
+        label:
+        for (int index = 0; index < value; index++) {
+            if (index > 2) {
+                break label;
+            }
+            // comment inside a statement
+            final Object anonymous = new Object() {
+                @Override
+                public String toString() {
+                    return "anonymous" + value;
+                }
+            };
+        }
+    }
+
+    public int method(int value) {
+        class Local {
+            int get() {
+                return value;
+            }
+        }
+        switch (value) {
+            case 1:
+                int first = new Local().get();
+                return first;
+            case 2: {
+                return 2;
+            }
+            default:
+                break;
+        }
+        final Function<Integer, Integer> function = arg -> {
+            try {
+                return arg / value;
+            }
+            catch (ArithmeticException ex) {
+                return 0;
+            }
+        };
+        int result = value;
+        do {
+            result = function.apply(result);
+        } while (result > 3);
+        synchronized (this) {
+            return result;
+        }
+    }
+}
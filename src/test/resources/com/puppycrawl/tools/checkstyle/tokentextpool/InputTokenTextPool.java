@@ -0,0 +1,11 @@
+package com.puppycrawl.tools.checkstyle.tokentextpool;
+
+public class InputTokenTextPool {
+
+    private final String name = "name";
+
+    public String getName() {
+        return name;
+    }
+
+}
@@ -0,0 +1,28 @@
+/*
+com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocStyleCheck
+
+com.puppycrawl.tools.checkstyle.filters.SuppressionCommentFilter
+
+*/
+package com.puppycrawl.tools.checkstyle.treewalker;
+
+/**
+ * Class without a period // violation, "First sentence should end with a period"
+ */
+public class InputTreeWalkerAstCacheComments {
+
+    /**
+     * Method without a period // violation, "First sentence should end with a period"
+     */
+    public void first() {
+    }
+
+    /* CHECKSTYLE:OFF */
+    /**
+     * Suppressed method without a period
+     */
+    public void second() {
+    }
+    // CHECKSTYLE:ON
+
+}
@@ -0,0 +1,30 @@
+/*
+com.puppycrawl.tools.checkstyle.checks.coding.HiddenFieldCheck
+
+com.puppycrawl.tools.checkstyle.checks.naming.MemberNameCheck
+
+com.puppycrawl.tools.checkstyle.checks.TodoCommentCheck
+
+com.puppycrawl.tools.checkstyle.checks.SuppressWarningsHolder
+
+com.puppycrawl.tools.checkstyle.filters.SuppressWarningsFilter
+
+*/
+package com.puppycrawl.tools.checkstyle.treewalker;
+
+public class InputTreeWalkerMultiThread {
+    private int Field; // violation, "Name 'Field' must match pattern"
+    private int value;
+
+    public void setValue(int value) { // violation, "'value' hides a field"
+        this.value = value;
+    }
+
+    @SuppressWarnings("checkstyle:hiddenfield")
+    public void setSuppressedValue(int value) {
+        this.value = value;
+    }
+
+    // TODO: remove the field
+    // violation above, "Comment matches to-do format"
+}